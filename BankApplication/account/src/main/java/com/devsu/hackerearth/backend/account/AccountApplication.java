@@ -2,8 +2,10 @@ package com.devsu.hackerearth.backend.account;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class AccountApplication {
 
 	public static void main(String[] args) {
@@ -1,7 +1,10 @@
 package com.devsu.hackerearth.backend.account.controller;
 
+import java.time.LocalDate;
 import java.util.List;
 
+import org.springframework.format.annotation.DateTimeFormat;
+
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -12,8 +15,10 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.devsu.hackerearth.backend.account.model.dto.AccountBalanceDto;
 import com.devsu.hackerearth.backend.account.model.dto.AccountDto;
 import com.devsu.hackerearth.backend.account.model.dto.PartialAccountDto;
 import com.devsu.hackerearth.backend.account.service.AccountService;
@@ -39,6 +44,10 @@ import com.devsu.hackerearth.backend.account.service.AccountService;
  * <li><code>GET /api/accounts/active</code> – List all active accounts.</li>
  * <li><code>DELETE /api/accounts/{id}</code> – Soft delete an account by
  * ID.</li>
+ * <li><code>PUT /api/accounts/{id}/balance-slots?slots=N</code> – Split a hot
+ * account's balance into N slots, or merge it back with 0.</li>
+ * <li><code>GET /api/accounts/{id}/balance?asOf=D</code> – Balance at the
+ * close of day D.</li>
  * </ul>
  *
  * Delegates business logic to {@link AccountService}.
@@ -101,6 +110,33 @@ public class AccountController {
 		return ResponseEntity.ok(accountService.partialUpdate(id, partialAccountDto));
 	}
 
+	/**
+	 * Splits an account's balance into sub-balance slots so concurrent deposits
+	 * do not contend on one row, or merges the slots back when {@code slots} is 0.
+	 *
+	 * @param id    the account ID
+	 * @param slots the number of balance slots
+	 * @return HTTP 200 OK with the updated account DTO
+	 */
+	@PutMapping("/{id}/balance-slots")
+	public ResponseEntity<AccountDto> configureBalanceSlots(@PathVariable Long id, @RequestParam int slots) {
+		return ResponseEntity.ok(accountService.configureBalanceSlots(id, slots));
+	}
+
+	/**
+	 * Returns an account's balance at the close of a day.
+	 *
+	 * @param id   the account ID
+	 * @param asOf the day, ISO formatted
+	 * @return HTTP 200 OK with the balance after the last transaction posted on
+	 *         or before that day
+	 */
+	@GetMapping("/{id}/balance")
+	public ResponseEntity<AccountBalanceDto> getBalanceAsOf(@PathVariable Long id,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+		return ResponseEntity.ok(accountService.getBalanceAsOf(id, asOf));
+	}
+
 	/**
 	 * Performs a fisical deletion of a account
 	 *
@@ -1,22 +1,46 @@
 package com.devsu.hackerearth.backend.account.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.devsu.hackerearth.backend.account.exception.InvalidIdempotencyKeyException;
+import com.devsu.hackerearth.backend.account.model.IdempotencyRecord;
+import com.devsu.hackerearth.backend.account.model.dto.BatchImportResultDto;
+import com.devsu.hackerearth.backend.account.model.dto.ReportCoalescingStatsDto;
+import com.devsu.hackerearth.backend.account.model.dto.ReportDataCacheStatsDto;
+import com.devsu.hackerearth.backend.account.model.dto.ReportStoreStatsDto;
+import com.devsu.hackerearth.backend.account.model.dto.RollupRebuildResultDto;
+import com.devsu.hackerearth.backend.account.model.dto.StatementBatchStatusDto;
+import com.devsu.hackerearth.backend.account.model.dto.StatementPageDto;
+import com.devsu.hackerearth.backend.account.model.dto.SummaryReportDto;
 import com.devsu.hackerearth.backend.account.model.dto.TransactionDto;
+import com.devsu.hackerearth.backend.account.model.dto.TransferDto;
+import com.devsu.hackerearth.backend.account.model.dto.TransferResultDto;
 import com.devsu.hackerearth.backend.account.service.ReportService;
 import com.devsu.hackerearth.backend.account.service.TransactionService;
+import com.devsu.hackerearth.backend.account.type.ExportFormat;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.RequiredArgsConstructor;
 
@@ -27,8 +51,12 @@ import lombok.RequiredArgsConstructor;
  * Exposes endpoints for:
  * <ul>
  * <li>Registering new financial transactions.</li>
+ * <li>Importing large batches of transactions.</li>
+ * <li>Transferring funds between two accounts atomically.</li>
  * <li>Retrieving transaction history by account.</li>
  * <li>Initiating or polling client transaction reports.</li>
+ * <li>Summarizing client accounts from daily rollups.</li>
+ * <li>Paging through client statements with keyset cursors.</li>
  * </ul>
  *
  * This controller delegates all business logic to dedicated service layers, in
@@ -48,6 +76,7 @@ public class TransactionController {
 
 	private final TransactionService transactionService;
 	private final ReportService reportService;
+	private final ObjectMapper objectMapper;
 
 	/**
 	 * Lists all transaction.
@@ -71,14 +100,55 @@ public class TransactionController {
 	}
 
 	/**
-	 * Registers a new transaction for a given account.
+	 * Registers a new transaction for a given account. When an
+	 * {@code Idempotency-Key} header is supplied, a retry with the same key
+	 * returns the originally registered transaction instead of posting again,
+	 * while the key has not expired; a key sent again with a different account,
+	 * type or amount is rejected with HTTP 422. The key must be 1 to
+	 * {@value IdempotencyRecord#KEY_LENGTH} visible ASCII characters; any other
+	 * key is rejected with HTTP 400.
 	 *
-	 * @param dto the transaction request body
+	 * @param dto            the transaction request body
+	 * @param idempotencyKey optional client-generated key identifying the posting
 	 * @return HTTP 201 Created with the persisted transaction
 	 */
 	@PostMapping
-	public ResponseEntity<TransactionDto> create(@RequestBody TransactionDto transactionDto) {
-		return ResponseEntity.status(HttpStatus.CREATED).body(transactionService.create(transactionDto));
+	public ResponseEntity<TransactionDto> create(@RequestBody TransactionDto transactionDto,
+			@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+		if (idempotencyKey != null) {
+			validateIdempotencyKey(idempotencyKey);
+		}
+		return ResponseEntity.status(HttpStatus.CREATED)
+				.body(transactionService.create(transactionDto, idempotencyKey));
+	}
+
+	/**
+	 * Imports a batch of transactions sent either as a JSON array or as
+	 * newline-delimited JSON. Items are read one at a time from the request body,
+	 * so the batch is never held in memory as a whole.
+	 *
+	 * @param body the request body stream
+	 * @return HTTP 200 OK with a per-item result summary
+	 * @throws IOException if the request body cannot be read
+	 */
+	@PostMapping(value = "/batch", consumes = { MediaType.APPLICATION_JSON_VALUE,
+			MediaType.APPLICATION_NDJSON_VALUE })
+	public ResponseEntity<BatchImportResultDto> importBatch(InputStream body) throws IOException {
+		try (MappingIterator<TransactionDto> transactions = objectMapper.readerFor(TransactionDto.class)
+				.readValues(body)) {
+			return ResponseEntity.ok(transactionService.importBatch(transactions));
+		}
+	}
+
+	/**
+	 * Transfers funds between two accounts atomically.
+	 *
+	 * @param transferDto the source account, target account and amount
+	 * @return HTTP 201 Created with the withdrawal and deposit legs
+	 */
+	@PostMapping("/transfer")
+	public ResponseEntity<TransferResultDto> transfer(@RequestBody TransferDto transferDto) {
+		return ResponseEntity.status(HttpStatus.CREATED).body(transactionService.transfer(transferDto));
 	}
 
 	/**
@@ -91,6 +161,8 @@ public class TransactionController {
 	 * @param dateTransactionEnd   end date of the report range
 	 * @param correlationId        optional identifier for polling an existing
 	 *                             report
+	 * @param acceptEncoding       the accepted content codings; a gzip-capable
+	 *                             client receives the stored report compressed
 	 * @return HTTP 200 OK with the report, 202 if requested, or 404 if not found
 	 */
 	@GetMapping("/clients/{clientId}/report")
@@ -98,9 +170,225 @@ public class TransactionController {
 			@PathVariable Long clientId,
 			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTransactionStart,
 			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTransactionEnd,
-			@RequestParam(required = false) String correlationId) {
+			@RequestParam(required = false) String correlationId,
+			@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+		return reportService.handleReportRequest(clientId, dateTransactionStart, dateTransactionEnd, correlationId,
+				acceptEncoding);
+	}
+
+	/**
+	 * Long-polls for a report: the request is parked without holding a container
+	 * thread and completes as soon as the report is stored, or after
+	 * {@code waitMillis} with the not-ready response.
+	 *
+	 * @param clientId             the ID of the client
+	 * @param dateTransactionStart start date of the report range
+	 * @param dateTransactionEnd   end date of the report range
+	 * @param correlationId        identifier of the requested report
+	 * @param waitMillis           how long to wait for the report, capped by
+	 *                             {@code account.report.long-poll-max-millis}
+	 * @param acceptEncoding       the accepted content codings
+	 * @return HTTP 200 OK with the report, or 404 if it is not ready in time
+	 */
+	@GetMapping(value = "/clients/{clientId}/report", params = { "correlationId", "waitMillis" })
+	public DeferredResult<ResponseEntity<Object>> awaitReport(
+			@PathVariable Long clientId,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTransactionStart,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTransactionEnd,
+			@RequestParam String correlationId,
+			@RequestParam long waitMillis,
+			@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+		return reportService.awaitReport(correlationId, waitMillis, acceptEncoding);
+	}
+
+	/**
+	 * Subscribes to a Server-Sent Events stream of report status updates, for a
+	 * client's reports, a set of correlation IDs, or both. Each report moves
+	 * through {@code PENDING}, {@code PROCESSING} and {@code READY}; a
+	 * {@code READY} event carries the report URL, or the report itself when
+	 * {@code inline} is set. A stream that follows only correlation IDs ends once
+	 * all of them are ready.
+	 *
+	 * @param clientId      the client whose reports are followed
+	 * @param correlationId the reports followed
+	 * @param inline        whether {@code READY} events carry the report
+	 * @return HTTP 200 OK with the event stream, or 400 if nothing is followed
+	 */
+	@GetMapping(value = "/reports/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public ResponseEntity<SseEmitter> subscribeReportEvents(
+			@RequestParam(required = false) Long clientId,
+			@RequestParam(required = false) List<String> correlationId,
+			@RequestParam(defaultValue = "false") boolean inline) {
+
+		List<String> correlationIds = correlationId != null ? correlationId : List.of();
+		if (clientId == null && correlationIds.isEmpty()) {
+			return ResponseEntity.badRequest().build();
+		}
+		return ResponseEntity.ok(reportService.subscribeReportEvents(clientId, correlationIds, inline));
+	}
+
+	/**
+	 * Returns a summary of a client's accounts for a period: deposit and
+	 * withdrawal totals, transaction count and closing balance, per account and
+	 * per day. Read from the daily rollups, so it is answered synchronously.
+	 *
+	 * @param clientId             the client ID
+	 * @param dateTransactionStart start of the report period
+	 * @param dateTransactionEnd   end of the report period
+	 * @return HTTP 200 OK with the summary report
+	 */
+	@GetMapping("/clients/{clientId}/summary")
+	public ResponseEntity<SummaryReportDto> getSummaryReport(
+			@PathVariable Long clientId,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTransactionStart,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTransactionEnd) {
+		return ResponseEntity.ok(reportService.getSummaryReport(clientId, dateTransactionStart, dateTransactionEnd));
+	}
+
+	/**
+	 * Returns one page of a client's statement for a period, ordered by account,
+	 * date and transaction. The first page is requested without a cursor; each
+	 * following page with the {@code nextCursor} of the previous one, until a
+	 * page comes back without it.
+	 *
+	 * @param clientId             the client ID
+	 * @param dateTransactionStart start of the statement period
+	 * @param dateTransactionEnd   end of the statement period
+	 * @param cursor               the cursor of the page to read, if not the
+	 *                             first
+	 * @param pageSize             the number of rows per page, if not the
+	 *                             default
+	 * @return HTTP 200 OK with the statement page
+	 */
+	@GetMapping("/clients/{clientId}/statement")
+	public ResponseEntity<StatementPageDto> getStatementPage(
+			@PathVariable Long clientId,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTransactionStart,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTransactionEnd,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer pageSize) {
+		return ResponseEntity.ok(reportService.getStatementPage(clientId, dateTransactionStart, dateTransactionEnd,
+				cursor, pageSize));
+	}
+
+	/**
+	 * Streams a client's transactions for a period as CSV or NDJSON, straight
+	 * from a database cursor, whatever the number of rows.
+	 *
+	 * @param clientId             the client ID
+	 * @param dateTransactionStart start date of the export period
+	 * @param dateTransactionEnd   end date of the export period
+	 * @param format               {@code csv} (default) or {@code ndjson}
+	 * @param acceptEncoding       the {@code Accept-Encoding} header; the export
+	 *                             is gzip-compressed when it admits gzip
+	 * @return HTTP 200 OK with the streamed export
+	 */
+	@GetMapping("/clients/{clientId}/export")
+	public ResponseEntity<StreamingResponseBody> exportStatement(
+			@PathVariable Long clientId,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTransactionStart,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTransactionEnd,
+			@RequestParam(defaultValue = "csv") String format,
+			@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+		return reportService.exportStatement(clientId, dateTransactionStart, dateTransactionEnd,
+				ExportFormat.of(format), acceptEncoding);
+	}
+
+	/**
+	 * Recomputes the daily rollups behind summary reports from the transaction
+	 * history.
+	 *
+	 * @param accountId the account to rebuild; every account if omitted
+	 * @return HTTP 200 OK with the number of accounts and daily rows rebuilt
+	 */
+	@PostMapping("/reports/rollups/rebuild")
+	public ResponseEntity<RollupRebuildResultDto> rebuildDailyRollups(
+			@RequestParam(required = false) Long accountId) {
+		return ResponseEntity.ok(reportService.rebuildDailyRollups(accountId));
+	}
+
+	/**
+	 * Starts the month-end statement batch, which stores the statement of every
+	 * client with an active account, to be fetched from
+	 * {@code /clients/{clientId}/statements/{month}}. A month whose last run did not
+	 * complete resumes after its last completed chunk of clients.
+	 *
+	 * @param month the statement month ({@code yyyy-MM}); the previous month if
+	 *              omitted
+	 * @return HTTP 202 Accepted with the status of the run
+	 */
+	@PostMapping("/reports/statement-batch")
+	public ResponseEntity<StatementBatchStatusDto> startStatementBatch(
+			@RequestParam(required = false) YearMonth month) {
+		return ResponseEntity.status(HttpStatus.ACCEPTED).body(reportService.startStatementBatch(month));
+	}
+
+	/**
+	 * Returns a client's month-end statement built by the statement batch.
+	 *
+	 * @param clientId       the client whose statement is read
+	 * @param month          the statement month ({@code yyyy-MM})
+	 * @param acceptEncoding the {@code Accept-Encoding} header; the statement is
+	 *                       sent gzip-compressed when it admits gzip
+	 * @return HTTP 200 OK with the statement, or 404 Not Found if it was not built
+	 */
+	@GetMapping("/clients/{clientId}/statements/{month}")
+	public ResponseEntity<Object> getMonthlyStatement(
+			@PathVariable Long clientId,
+			@PathVariable YearMonth month,
+			@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+		return reportService.getMonthlyStatement(clientId, month, acceptEncoding);
+	}
 
-		return reportService.handleReportRequest(clientId, dateTransactionStart, dateTransactionEnd, correlationId);
+	/**
+	 * Returns the progress of the month-end statement batch: clients and chunks
+	 * completed, statements and transactions per second, and the estimated time
+	 * left.
+	 *
+	 * @param month the statement month ({@code yyyy-MM}); the current or last run
+	 *              if omitted
+	 * @return HTTP 200 OK with the status, or 404 Not Found if there is no run
+	 */
+	@GetMapping("/reports/statement-batch")
+	public ResponseEntity<StatementBatchStatusDto> getStatementBatchStatus(
+			@RequestParam(required = false) YearMonth month) {
+		StatementBatchStatusDto status = reportService.getStatementBatchStatus(month);
+		return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+	}
+
+	/**
+	 * Returns how many report requests were executed and how many were coalesced
+	 * into a report already requested for the same client and period.
+	 *
+	 * @return HTTP 200 OK with the coalescing statistics
+	 */
+	@GetMapping("/reports/coalescing-stats")
+	public ResponseEntity<ReportCoalescingStatsDto> getReportCoalescingStats() {
+		return ResponseEntity.ok(reportService.getReportCoalescingStats());
+	}
+
+	/**
+	 * Returns the statistics of the cache of assembled report data: cached
+	 * periods and transactions, hits, misses and postings patched in.
+	 *
+	 * @return HTTP 200 OK with the report data cache statistics
+	 */
+	@GetMapping("/reports/data-cache-stats")
+	public ResponseEntity<ReportDataCacheStatsDto> getReportDataCacheStats() {
+		return ResponseEntity.ok(reportService.getReportDataCacheStats());
+	}
+
+	/**
+	 * Returns the statistics of the store holding completed reports: entries,
+	 * bytes, hits, misses, evictions and expirations.
+	 *
+	 * @return HTTP 200 OK with the report store statistics
+	 */
+	@GetMapping("/reports/store-stats")
+	public ResponseEntity<ReportStoreStatsDto> getReportStoreStats() {
+		return ResponseEntity.ok(reportService.getReportStoreStats());
 	}
 
 	/**
@@ -113,4 +401,24 @@ public class TransactionController {
 	public ResponseEntity<TransactionDto> getTransactionsByAccount(@PathVariable Long accountId) {
 		return ResponseEntity.ok(transactionService.getLastByAccountId(accountId));
 	}
+
+	/**
+	 * Checks that an idempotency key fits the stored column and holds only
+	 * visible ASCII characters.
+	 *
+	 * @param idempotencyKey the key sent by the client
+	 * @throws InvalidIdempotencyKeyException if the key is empty, too long or
+	 *                                        contains other characters
+	 */
+	private static void validateIdempotencyKey(String idempotencyKey) {
+		int length = idempotencyKey.length();
+		boolean valid = length > 0 && length <= IdempotencyRecord.KEY_LENGTH;
+		for (int i = 0; valid && i < length; i++) {
+			char c = idempotencyKey.charAt(i);
+			valid = c >= '!' && c <= '~';
+		}
+		if (!valid) {
+			throw new InvalidIdempotencyKeyException(IdempotencyRecord.KEY_LENGTH);
+		}
+	}
 }
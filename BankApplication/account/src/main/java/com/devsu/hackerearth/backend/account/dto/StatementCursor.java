@@ -0,0 +1,66 @@
+package com.devsu.hackerearth.backend.account.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.devsu.hackerearth.backend.account.exception.InvalidCursorException;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Position of the last statement row returned to a client, in statement order
+ * {@code (accountId, date, id)}. The next page starts strictly after it.
+ * <p>
+ * Clients receive the cursor as an opaque URL-safe token and send it back
+ * unchanged.
+ * </p>
+ *
+ * Fields:
+ * <ul>
+ * <li>{@code accountId} – Account of the last row returned.</li>
+ * <li>{@code date} – Date of the last row returned.</li>
+ * <li>{@code id} – ID of the last transaction returned.</li>
+ * </ul>
+ */
+@Getter
+@RequiredArgsConstructor
+public class StatementCursor {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final Long accountId;
+    private final LocalDate date;
+    private final Long id;
+
+    /**
+     * Encodes the cursor as an opaque token.
+     *
+     * @return the token
+     */
+    public String encode() {
+        return ENCODER.encodeToString((accountId + ":" + date + ":" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @param token the token sent by the client
+     * @return the cursor
+     * @throws InvalidCursorException if the token is malformed
+     */
+    public static StatementCursor decode(String token) {
+        try {
+            String[] parts = new String(DECODER.decode(token), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 3) {
+                throw new InvalidCursorException(token);
+            }
+            return new StatementCursor(Long.valueOf(parts[0]), LocalDate.parse(parts[1]), Long.valueOf(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException(token);
+        }
+    }
+}
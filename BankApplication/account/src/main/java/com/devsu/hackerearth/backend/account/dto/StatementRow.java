@@ -0,0 +1,36 @@
+package com.devsu.hackerearth.backend.account.dto;
+
+import java.time.LocalDate;
+
+import com.devsu.hackerearth.backend.account.type.Money;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Flat, read-only projection of a transaction for paginated statements. Unlike
+ * {@link TransactionRow} it carries the transaction ID, which makes the
+ * statement order {@code (accountId, date, id)} total and lets a page end be
+ * resumed from.
+ *
+ * Fields:
+ * <ul>
+ * <li>{@code id} – Transaction ID.</li>
+ * <li>{@code accountId} – Account the transaction was posted to.</li>
+ * <li>{@code type} – Type of transaction (e.g., DEPOSIT, WITHDRAWAL).</li>
+ * <li>{@code date} – Transaction date.</li>
+ * <li>{@code amount} – Amount transacted.</li>
+ * <li>{@code balance} – Account balance after the transaction.</li>
+ * </ul>
+ */
+@Getter
+@RequiredArgsConstructor
+public class StatementRow {
+
+    private final Long id;
+    private final Long accountId;
+    private final String type;
+    private final LocalDate date;
+    private final Money amount;
+    private final Money balance;
+}
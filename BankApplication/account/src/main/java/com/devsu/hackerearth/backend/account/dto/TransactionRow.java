@@ -0,0 +1,37 @@
+package com.devsu.hackerearth.backend.account.dto;
+
+import java.time.LocalDate;
+
+import com.devsu.hackerearth.backend.account.type.Money;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Flat, read-only projection of a transaction used to build reports and
+ * statements.
+ * <p>
+ * Selected directly by a JPQL constructor expression, so report reads neither
+ * materialize {@code Transaction} entities nor their audit columns and account
+ * proxies, and nothing is registered in the persistence context.
+ * </p>
+ *
+ * Fields:
+ * <ul>
+ * <li>{@code accountId} – Account the transaction was posted to.</li>
+ * <li>{@code type} – Type of transaction (e.g., DEPOSIT, WITHDRAWAL).</li>
+ * <li>{@code date} – Transaction date.</li>
+ * <li>{@code amount} – Amount transacted.</li>
+ * <li>{@code balance} – Account balance after the transaction.</li>
+ * </ul>
+ */
+@Getter
+@RequiredArgsConstructor
+public class TransactionRow {
+
+    private final Long accountId;
+    private final String type;
+    private final LocalDate date;
+    private final Money amount;
+    private final Money balance;
+}
@@ -43,6 +43,20 @@ public class AccountTransactionExceptionHandler extends ErrorResponse {
         return buildErrorResponse(HttpStatus.CONFLICT, ex, request);
     }
 
+    @ExceptionHandler(PostingSuspendedException.class)
+    public ResponseEntity<ApiErrorResponse> handlePostingSuspended(PostingSuspendedException ex,
+            HttpServletRequest request) {
+        LoggingUtil.logWarn(log, request, "Posting suspended: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.CONFLICT, ex, request);
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ApiErrorResponse> handleIdempotencyKeyReused(IdempotencyKeyReusedException ex,
+            HttpServletRequest request) {
+        LoggingUtil.logWarn(log, request, "Idempotency key reused: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.UNPROCESSABLE_ENTITY, ex, request);
+    }
+
     @ExceptionHandler(DataConflictException.class)
     public ResponseEntity<ApiErrorResponse> handleDuplicate(DataConflictException ex, HttpServletRequest request) {
         LoggingUtil.logWarn(log, request, "Data conflict: {}", ex.getMessage());
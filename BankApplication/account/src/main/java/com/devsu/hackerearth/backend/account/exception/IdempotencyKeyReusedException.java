@@ -0,0 +1,11 @@
+package com.devsu.hackerearth.backend.account.exception;
+
+public class IdempotencyKeyReusedException extends BusinessException {
+    static final String MESSAGE = "Idempotency-Key %s was already used for a different posting";
+    static final String IDEMPOTENCY_KEY_REUSED = "IDEMPOTENCY_KEY_REUSED";
+    private static final long serialVersionUID = 7354281190663107284L;
+
+    public IdempotencyKeyReusedException(String key) {
+        super(IDEMPOTENCY_KEY_REUSED, String.format(MESSAGE, key));
+    }
+}
@@ -0,0 +1,11 @@
+package com.devsu.hackerearth.backend.account.exception;
+
+public class InvalidCursorException extends BusinessException {
+    static final String MESSAGE = "Cursor %s is not valid";
+    static final String INVALID_CURSOR = "INVALID_CURSOR";
+    private static final long serialVersionUID = 3160748815209376952L;
+
+    public InvalidCursorException(String cursor) {
+        super(INVALID_CURSOR, String.format(MESSAGE, cursor));
+    }
+}
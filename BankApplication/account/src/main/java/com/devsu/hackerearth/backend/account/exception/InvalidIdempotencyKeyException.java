@@ -0,0 +1,11 @@
+package com.devsu.hackerearth.backend.account.exception;
+
+public class InvalidIdempotencyKeyException extends BusinessException {
+    static final String MESSAGE = "Idempotency-Key must be 1 to %d visible ASCII characters";
+    static final String INVALID_IDEMPOTENCY_KEY = "INVALID_IDEMPOTENCY_KEY";
+    private static final long serialVersionUID = 5046312281867539054L;
+
+    public InvalidIdempotencyKeyException(int maxLength) {
+        super(INVALID_IDEMPOTENCY_KEY, String.format(MESSAGE, maxLength));
+    }
+}
@@ -0,0 +1,11 @@
+package com.devsu.hackerearth.backend.account.exception;
+
+public class PostingSuspendedException extends BusinessException {
+    static final String MESSAGE = "Postings to account with ID: %s are suspended after a rejected journal posting";
+    static final String POSTING_SUSPENDED = "POSTING_SUSPENDED";
+    private static final long serialVersionUID = 3907524518126243921L;
+
+    public PostingSuspendedException(Long accountId) {
+        super(POSTING_SUSPENDED, String.format(MESSAGE, accountId));
+    }
+}
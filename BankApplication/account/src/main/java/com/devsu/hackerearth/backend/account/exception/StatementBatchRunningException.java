@@ -0,0 +1,11 @@
+package com.devsu.hackerearth.backend.account.exception;
+
+public class StatementBatchRunningException extends BusinessException {
+    static final String MESSAGE = "Statement batch for %s is already running";
+    static final String STATEMENT_BATCH_RUNNING = "STATEMENT_BATCH_RUNNING";
+    private static final long serialVersionUID = 5407215390711652238L;
+
+    public StatementBatchRunningException(String month) {
+        super(STATEMENT_BATCH_RUNNING, String.format(MESSAGE, month));
+    }
+}
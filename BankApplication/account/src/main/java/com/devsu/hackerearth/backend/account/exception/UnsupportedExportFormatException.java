@@ -0,0 +1,11 @@
+package com.devsu.hackerearth.backend.account.exception;
+
+public class UnsupportedExportFormatException extends BusinessException {
+    static final String MESSAGE = "Export format %s is not supported";
+    static final String UNSUPPORTED_EXPORT_FORMAT = "UNSUPPORTED_EXPORT_FORMAT";
+    private static final long serialVersionUID = 8314902761530547719L;
+
+    public UnsupportedExportFormatException(String format) {
+        super(UNSUPPORTED_EXPORT_FORMAT, String.format(MESSAGE, format));
+    }
+}
@@ -0,0 +1,39 @@
+package com.devsu.hackerearth.backend.account.journal;
+
+import java.nio.file.Paths;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.devsu.hackerearth.backend.account.posting.BalanceTable;
+import com.devsu.hackerearth.backend.account.posting.PostingProperties;
+
+/**
+ * Declares the {@link PostingJournal} when {@code account.posting.mode} is
+ * {@code JOURNAL}.
+ * <p>
+ * The journal is opened, and its un-applied tail replayed, while the context
+ * starts, before {@link BalanceTable} loads balances from the database. Journal
+ * mode validates postings against that table only, so the table must be
+ * enabled. With an in-memory database, un-applied segments left by a crash
+ * cannot be replayed and stop startup unless
+ * {@code account.posting.journal-discard-foreign-tail} is set.
+ * </p>
+ */
+@Configuration
+public class JournalConfig {
+
+    @Bean(initMethod = "open", destroyMethod = "close")
+    @ConditionalOnProperty(name = "account.posting.mode", havingValue = "JOURNAL")
+    public PostingJournal postingJournal(PostingProperties postingProperties, JournalSink journalSink) {
+        if (!postingProperties.isBalanceTableEnabled()) {
+            throw new IllegalStateException(
+                    "JOURNAL posting mode requires account.posting.balance-table-enabled=true");
+        }
+        return new PostingJournal(Paths.get(postingProperties.getJournalDir()),
+                postingProperties.getJournalSegmentBytes(), postingProperties.isJournalForce(),
+                postingProperties.getJournalApplyBatchSize(), journalSink,
+                postingProperties.isJournalDiscardForeignTail());
+    }
+}
@@ -0,0 +1,37 @@
+package com.devsu.hackerearth.backend.account.journal;
+
+import java.time.LocalDate;
+
+import com.devsu.hackerearth.backend.account.type.Money;
+import com.devsu.hackerearth.backend.account.type.TransactionType;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * An accepted posting as written to the {@link PostingJournal}.
+ *
+ * Fields:
+ * <ul>
+ * <li>{@code sequence} – Position of the posting in the journal, starting at
+ * 1.</li>
+ * <li>{@code accountId} – Account the posting applies to.</li>
+ * <li>{@code type} – Deposit or withdrawal.</li>
+ * <li>{@code amount} – Unsigned amount of the posting.</li>
+ * <li>{@code balance} – Account balance after the posting.</li>
+ * <li>{@code date} – Date the posting was accepted.</li>
+ * </ul>
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class JournalRecord {
+
+    private final long sequence;
+    private final long accountId;
+    private final TransactionType type;
+    private final Money amount;
+    private final Money balance;
+    private final LocalDate date;
+}
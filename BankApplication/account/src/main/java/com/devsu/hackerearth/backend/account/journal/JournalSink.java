@@ -0,0 +1,61 @@
+package com.devsu.hackerearth.backend.account.journal;
+
+import java.util.List;
+
+/**
+ * Destination the {@link PostingJournal} applier drains into.
+ * <p>
+ * {@link #apply} and {@link #reject} must be atomic: either the records and the
+ * new applied sequence become durable together, or none of them do. Replay
+ * after a crash then resumes exactly after {@link #appliedSequence()}.
+ * </p>
+ */
+public interface JournalSink {
+
+    /** Applied sequence of a sink that no journal has been attached to yet. */
+    long NO_CHECKPOINT = -1L;
+
+    /**
+     * Returns the sequence of the last record durably applied.
+     *
+     * @return the applied sequence, or {@link #NO_CHECKPOINT} if no checkpoint
+     *         has been created
+     */
+    long appliedSequence();
+
+    /**
+     * Creates the checkpoint of a newly attached journal, recording the given
+     * sequence as applied without applying any record.
+     *
+     * @param appliedSequence the sequence to record
+     */
+    void createCheckpoint(long appliedSequence);
+
+    /**
+     * Applies a batch of consecutive records and records the sequence of the last
+     * one as applied.
+     *
+     * @param batch the records, in sequence order
+     */
+    void apply(List<JournalRecord> batch);
+
+    /**
+     * Tells whether a failure of {@link #apply} will recur however often the
+     * record is retried, such as a missing account, rather than being temporary,
+     * such as a connection or lock timeout.
+     *
+     * @param failure the exception thrown by {@link #apply}
+     * @return {@code true} if the record should be rejected
+     */
+    boolean isPermanent(RuntimeException failure);
+
+    /**
+     * Moves a record that failed to apply on its own, or follows a rejected
+     * record of the same account, to a dead-letter store and records its
+     * sequence as applied.
+     *
+     * @param record the record that cannot be applied
+     * @param reason why it failed
+     */
+    void reject(JournalRecord record, String reason);
+}
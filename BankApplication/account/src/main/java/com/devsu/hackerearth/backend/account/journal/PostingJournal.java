@@ -0,0 +1,639 @@
+package com.devsu.hackerearth.backend.account.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import com.devsu.hackerearth.backend.account.exception.PostingSuspendedException;
+import com.devsu.hackerearth.backend.account.type.Money;
+import com.devsu.hackerearth.backend.account.type.TransactionType;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Memory-mapped write-ahead journal for accepted postings.
+ * <p>
+ * {@link #append} writes a fixed-size, CRC32-checksummed record into the
+ * current mapped segment and returns; the posting is acknowledged at that point.
+ * A background applier drains appended records into the {@link JournalSink} in
+ * batches, and segments whose records are all applied are deleted. When a
+ * segment is full, an end marker is written and a new segment named after its
+ * first sequence is mapped.
+ * </p>
+ * <p>
+ * When the sink fails a batch, its records are applied one at a time. A record
+ * that fails on its own for a reason the sink reports as
+ * {@link JournalSink#isPermanent permanent} is handed to
+ * {@link JournalSink#reject}, so that the records after it are not held back;
+ * any other failure is retried with exponential backoff, since the posting was
+ * already acknowledged. The balances of an account's later records were
+ * computed on top of a rejected one, so once a record is rejected its account
+ * is suspended: the records already appended for it are rejected as well, and
+ * {@link #append} refuses new ones until {@link #release} is called.
+ * </p>
+ * <p>
+ * {@link #open()} replays every valid record after the sink's applied sequence
+ * before accepting appends, stopping at the first torn or corrupt record, and
+ * then starts a fresh segment. A replay batch that keeps failing temporarily is
+ * retried a few times before startup is aborted. It refuses to start when the
+ * records to replay do not continue the sink's checkpoint, or the sink has
+ * none, since the journal was then written against another store, such as an
+ * in-memory database that did not survive the restart. With
+ * {@code discardForeignTail} set, such segments are instead moved aside into a
+ * {@code discarded-<millis>} subdirectory, unreplayed, and the journal starts
+ * empty; an operator sets it once the segments are known to be of no use, or
+ * for good on a database that never outlives the process. A clean
+ * {@link #close()} that
+ * applied everything deletes the segments. Mapped writes survive a process
+ * crash; set {@code force} to also survive an operating system crash, at the
+ * cost of an {@code msync} per append.
+ * </p>
+ *
+ * Record layout (45 bytes):
+ * <ul>
+ * <li>{@code int length} – Payload length, written last; 0 marks unwritten
+ * space and -1 the end of a segment.</li>
+ * <li>{@code int crc} – CRC32 of the sequence and payload.</li>
+ * <li>{@code long sequence} – Record sequence.</li>
+ * <li>{@code long accountId, byte type, long amount, long balance, int epochDay}
+ * – Payload; amounts in {@link Money} units.</li>
+ * </ul>
+ */
+@Slf4j
+public class PostingJournal {
+
+    static final int HEADER_BYTES = 16;
+    static final int PAYLOAD_BYTES = 29;
+    static final int RECORD_BYTES = HEADER_BYTES + PAYLOAD_BYTES;
+
+    private static final int END_OF_SEGMENT = -1;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String DISCARDED_PREFIX = "discarded-";
+    private static final long RETRY_DELAY_MILLIS = 500;
+    private static final long MAX_RETRY_DELAY_MILLIS = 30_000;
+    private static final int MAX_REPLAY_ATTEMPTS = 5;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final boolean force;
+    private final int applyBatchSize;
+    private final JournalSink sink;
+    private final boolean discardForeignTail;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pendingAvailable = lock.newCondition();
+    private final Condition progress = lock.newCondition();
+    private final ArrayDeque<JournalRecord> pending = new ArrayDeque<>();
+    private final ArrayDeque<Segment> sealedSegments = new ArrayDeque<>();
+    private final Set<Long> suspendedAccounts = new HashSet<>();
+    private final CRC32 crc = new CRC32();
+    private Segment current;
+    private long lastSequence;
+    private long appliedSequence;
+
+    private volatile boolean running;
+    private Thread applier;
+
+    public PostingJournal(Path directory, int segmentBytes, boolean force, int applyBatchSize, JournalSink sink) {
+        this(directory, segmentBytes, force, applyBatchSize, sink, false);
+    }
+
+    public PostingJournal(Path directory, int segmentBytes, boolean force, int applyBatchSize, JournalSink sink,
+            boolean discardForeignTail) {
+        if (segmentBytes < RECORD_BYTES + Integer.BYTES) {
+            throw new IllegalArgumentException("Journal segment too small: " + segmentBytes);
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.force = force;
+        this.applyBatchSize = Math.max(1, applyBatchSize);
+        this.sink = sink;
+        this.discardForeignTail = discardForeignTail;
+    }
+
+    /**
+     * Replays the un-applied tail of the journal into the sink, starts a new
+     * segment and starts the applier.
+     *
+     * @throws IOException           if the journal directory cannot be read or
+     *                               written
+     * @throws IllegalStateException if the tail does not continue the sink's
+     *                               checkpoint and {@code discardForeignTail} is
+     *                               not set; the segments are left in place
+     */
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        appliedSequence = sink.appliedSequence();
+
+        List<Path> segments = listSegments();
+        List<JournalRecord> tail = new ArrayList<>();
+        long lastSeen = 0L;
+        for (Path segment : segments) {
+            lastSeen = readSegment(segment, lastSeen, tail);
+            if (lastSeen < 0) {
+                lastSeen = -lastSeen;
+                break;
+            }
+        }
+
+        if (!tail.isEmpty() && tail.get(0).getSequence() != appliedSequence + 1) {
+            String mismatch = String.format("Journal in %s resumes at sequence %d but its sink %s", directory,
+                    tail.get(0).getSequence(), appliedSequence == JournalSink.NO_CHECKPOINT
+                            ? "has no checkpoint" : "has applied up to sequence " + appliedSequence);
+            if (!discardForeignTail) {
+                throw new IllegalStateException(mismatch + "; refusing to replay it");
+            }
+            Path discarded = directory.resolve(DISCARDED_PREFIX + System.currentTimeMillis());
+            Files.createDirectories(discarded);
+            for (Path segment : segments) {
+                Files.move(segment, discarded.resolve(segment.getFileName()));
+            }
+            log.warn("[Journal] {}; moved {} un-applied postings to {} without replaying them", mismatch,
+                    tail.size(), discarded);
+            tail.clear();
+        }
+        if (appliedSequence == JournalSink.NO_CHECKPOINT) {
+            appliedSequence = lastSeen;
+            sink.createCheckpoint(appliedSequence);
+        }
+
+        for (int from = 0; from < tail.size(); from += applyBatchSize) {
+            replay(new ArrayList<>(tail.subList(from, Math.min(tail.size(), from + applyBatchSize))));
+        }
+        if (!tail.isEmpty()) {
+            log.info("[Journal] Replayed {} un-applied postings up to sequence {}", tail.size(), appliedSequence);
+        }
+
+        for (Path segment : segments) {
+            Files.deleteIfExists(segment);
+        }
+        lastSequence = Math.max(appliedSequence, lastSeen);
+        current = newSegment(lastSequence + 1);
+
+        running = true;
+        applier = new Thread(this::applyLoop, "posting-journal-applier");
+        applier.setDaemon(true);
+        applier.start();
+    }
+
+    /**
+     * Appends an accepted posting and returns once it is written to the mapped
+     * segment.
+     *
+     * @param accountId the account ID
+     * @param type      the transaction type
+     * @param amount    the unsigned amount
+     * @param balance   the balance after the posting
+     * @param date      the posting date
+     * @return the journaled record
+     * @throws PostingSuspendedException if a record of the account was rejected
+     *                                   and the account was not released since
+     * @throws UncheckedIOException      if a new segment cannot be created
+     */
+    public JournalRecord append(long accountId, TransactionType type, Money amount, Money balance, LocalDate date) {
+        lock.lock();
+        try {
+            if (!running) {
+                throw new IllegalStateException("Posting journal is not open");
+            }
+            if (suspendedAccounts.contains(accountId)) {
+                throw new PostingSuspendedException(accountId);
+            }
+            JournalRecord record = new JournalRecord(lastSequence + 1, accountId, type, amount, balance, date);
+            if (segmentBytes - current.position < RECORD_BYTES) {
+                rotate(record.getSequence());
+            }
+            write(current, record);
+            lastSequence = record.getSequence();
+            pending.addLast(record);
+            pendingAvailable.signal();
+            return record;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until every record appended before the call has been applied, so
+     * that a database-backed posting path sees the journaled balances.
+     *
+     * @throws IllegalStateException if the journal is closed while waiting
+     */
+    public void awaitApplied() {
+        lock.lock();
+        try {
+            long target = lastSequence;
+            while (appliedSequence < target) {
+                if (!running) {
+                    throw new IllegalStateException("Posting journal applier stopped");
+                }
+                progress.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Accepts postings to an account again after one of its records was
+     * rejected. Must be called once every record appended for the account has
+     * been applied and its balance has been reloaded from the sink.
+     *
+     * @param accountId the account ID
+     */
+    public void release(long accountId) {
+        lock.lock();
+        try {
+            suspendedAccounts.remove(accountId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getLastSequence() {
+        lock.lock();
+        try {
+            return lastSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getAppliedSequence() {
+        lock.lock();
+        try {
+            return appliedSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits up to ten seconds for pending records to be applied, then stops the
+     * applier. If every record was applied, the segments are deleted; otherwise
+     * they are kept and the un-applied records are replayed by the next
+     * {@link #open()}.
+     */
+    public void close() {
+        lock.lock();
+        try {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (running && appliedSequence < lastSequence) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || progress.awaitNanos(remaining) <= 0) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+        halt();
+        deleteSegmentsIfApplied();
+    }
+
+    /**
+     * Stops the applier immediately, as a crash would, leaving pending records in
+     * the journal.
+     */
+    void halt() {
+        lock.lock();
+        try {
+            running = false;
+            progress.signalAll();
+            pendingAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (applier != null) {
+            applier.interrupt();
+            try {
+                applier.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void applyLoop() {
+        List<JournalRecord> batch = new ArrayList<>(applyBatchSize);
+        int failures = 0;
+        while (running) {
+            try {
+                if (batch.isEmpty() && !takeBatch(batch)) {
+                    continue;
+                }
+                applyBatch(batch);
+                failures = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                failures++;
+                log.error("[Journal] Failed to apply {} postings from sequence {}, retry {}: {}", batch.size(),
+                        batch.isEmpty() ? 0 : batch.get(0).getSequence(), failures, e.getMessage());
+                if (!pause(failures)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void replay(List<JournalRecord> batch) {
+        for (int attempt = 1;; attempt++) {
+            try {
+                applyBatch(batch);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt == MAX_REPLAY_ATTEMPTS) {
+                    throw e;
+                }
+                log.warn("[Journal] Failed to replay postings from sequence {}, retry {}: {}",
+                        batch.get(0).getSequence(), attempt, e.getMessage());
+                if (!pause(attempt)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies a batch and removes its records as they are applied. If the sink
+     * fails the batch, its records are applied one at a time; those that fail
+     * alone permanently, or belong to a suspended account, are rejected.
+     *
+     * @throws RuntimeException if a record fails temporarily or can be neither
+     *                          applied nor rejected; the records left in the
+     *                          batch must be retried
+     */
+    private void applyBatch(List<JournalRecord> batch) {
+        if (!touchesSuspendedAccount(batch)) {
+            try {
+                sink.apply(batch);
+                markApplied(batch.get(batch.size() - 1).getSequence());
+                batch.clear();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("[Journal] Failed to apply {} postings from sequence {}, applying them one by one: {}",
+                        batch.size(), batch.get(0).getSequence(), e.getMessage());
+            }
+        }
+
+        int done = 0;
+        try {
+            for (JournalRecord record : batch) {
+                if (isSuspended(record.getAccountId())) {
+                    log.error("[Journal] Moving posting {} for suspended account {} to the dead-letter store",
+                            record.getSequence(), record.getAccountId());
+                    sink.reject(record, "Follows a rejected posting of the same account");
+                } else {
+                    try {
+                        sink.apply(List.of(record));
+                    } catch (RuntimeException e) {
+                        if (!sink.isPermanent(e)) {
+                            throw e;
+                        }
+                        log.error("[Journal] Moving posting {} for account {} to the dead-letter store: {}",
+                                record.getSequence(), record.getAccountId(), e.getMessage());
+                        sink.reject(record, String.valueOf(e.getMessage()));
+                        suspend(record.getAccountId());
+                    }
+                }
+                markApplied(record.getSequence());
+                done++;
+            }
+        } finally {
+            batch.subList(0, done).clear();
+        }
+    }
+
+    private boolean touchesSuspendedAccount(List<JournalRecord> batch) {
+        lock.lock();
+        try {
+            if (suspendedAccounts.isEmpty()) {
+                return false;
+            }
+            for (JournalRecord record : batch) {
+                if (suspendedAccounts.contains(record.getAccountId())) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isSuspended(long accountId) {
+        lock.lock();
+        try {
+            return suspendedAccounts.contains(accountId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void suspend(long accountId) {
+        lock.lock();
+        try {
+            suspendedAccounts.add(accountId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean takeBatch(List<JournalRecord> batch) throws InterruptedException {
+        lock.lock();
+        try {
+            if (pending.isEmpty()) {
+                pendingAvailable.await(100, TimeUnit.MILLISECONDS);
+            }
+            while (!pending.isEmpty() && batch.size() < applyBatchSize) {
+                batch.add(pending.pollFirst());
+            }
+            return !batch.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void markApplied(long sequence) {
+        lock.lock();
+        try {
+            appliedSequence = sequence;
+            progress.signalAll();
+            while (!sealedSegments.isEmpty() && sealedSegments.peekFirst().lastSequence <= sequence) {
+                deleteSegment(sealedSegments.pollFirst().path);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void deleteSegmentsIfApplied() {
+        lock.lock();
+        try {
+            if (current == null || appliedSequence < lastSequence) {
+                return;
+            }
+            sealedSegments.addLast(current);
+            current = null;
+            while (!sealedSegments.isEmpty()) {
+                deleteSegment(sealedSegments.pollFirst().path);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void deleteSegment(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("[Journal] Could not delete applied segment {}: {}", path, e.getMessage());
+        }
+    }
+
+    private boolean pause(int failures) {
+        try {
+            Thread.sleep(Math.min(MAX_RETRY_DELAY_MILLIS, RETRY_DELAY_MILLIS << Math.min(failures - 1, 16)));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void rotate(long firstSequence) {
+        if (segmentBytes - current.position >= Integer.BYTES) {
+            current.buffer.putInt(current.position, END_OF_SEGMENT);
+        }
+        sealedSegments.addLast(current);
+        try {
+            current = newSegment(firstSequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(Segment segment, JournalRecord record) {
+        MappedByteBuffer buffer = segment.buffer;
+        int at = segment.position;
+        buffer.putLong(at + 8, record.getSequence());
+        buffer.putLong(at + 16, record.getAccountId());
+        buffer.put(at + 24, (byte) record.getType().ordinal());
+        buffer.putLong(at + 25, record.getAmount().getUnits());
+        buffer.putLong(at + 33, record.getBalance().getUnits());
+        buffer.putInt(at + 41, (int) record.getDate().toEpochDay());
+        buffer.putInt(at + 4, checksum(buffer, at));
+        buffer.putInt(at, PAYLOAD_BYTES);
+        if (force) {
+            buffer.force();
+        }
+        segment.position = at + RECORD_BYTES;
+        segment.lastSequence = record.getSequence();
+    }
+
+    /**
+     * Reads the valid records of a segment, adding those after the applied
+     * sequence to {@code tail}.
+     *
+     * @return the last valid sequence seen, negated if the segment is the end of
+     *         the journal (unwritten space, or a torn or corrupt record) and later
+     *         segments must be ignored
+     */
+    private long readSegment(Path path, long lastSeen, List<JournalRecord> tail) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        int at = 0;
+        while (buffer.limit() - at >= RECORD_BYTES) {
+            int length = buffer.getInt(at);
+            if (length == END_OF_SEGMENT) {
+                return lastSeen;
+            }
+            if (length == 0) {
+                return -lastSeen;
+            }
+            if (length != PAYLOAD_BYTES || buffer.getInt(at + 4) != checksum(buffer, at)) {
+                log.warn("[Journal] Corrupt record at {}:{}; ignoring the rest of the journal", path, at);
+                return -lastSeen;
+            }
+            long sequence = buffer.getLong(at + 8);
+            if (lastSeen != 0 && sequence != lastSeen + 1) {
+                log.warn("[Journal] Sequence gap at {}:{}; ignoring the rest of the journal", path, at);
+                return -lastSeen;
+            }
+            lastSeen = sequence;
+            if (sequence > appliedSequence) {
+                tail.add(new JournalRecord(sequence, buffer.getLong(at + 16), TYPES[buffer.get(at + 24)],
+                        Money.ofUnits(buffer.getLong(at + 25)), Money.ofUnits(buffer.getLong(at + 33)),
+                        LocalDate.ofEpochDay(buffer.getInt(at + 41))));
+            }
+            at += RECORD_BYTES;
+        }
+        return lastSeen;
+    }
+
+    private int checksum(ByteBuffer buffer, int at) {
+        ByteBuffer covered = buffer.duplicate();
+        covered.limit(at + RECORD_BYTES).position(at + 8);
+        synchronized (crc) {
+            crc.reset();
+            crc.update(covered);
+            return (int) crc.getValue();
+        }
+    }
+
+    private Segment newSegment(long firstSequence) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return new Segment(path, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes));
+        }
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static final class Segment {
+
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private int position;
+        private long lastSequence;
+
+        Segment(Path path, MappedByteBuffer buffer) {
+            this.path = path;
+            this.buffer = buffer;
+        }
+    }
+}
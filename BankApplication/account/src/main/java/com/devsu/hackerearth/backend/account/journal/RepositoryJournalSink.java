@@ -0,0 +1,140 @@
+package com.devsu.hackerearth.backend.account.journal;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devsu.hackerearth.backend.account.exception.AccountNotFoundException;
+import com.devsu.hackerearth.backend.account.model.JournalCheckpoint;
+import com.devsu.hackerearth.backend.account.model.JournalDeadLetter;
+import com.devsu.hackerearth.backend.account.model.Transaction;
+import com.devsu.hackerearth.backend.account.posting.BalanceTable;
+import com.devsu.hackerearth.backend.account.report.ReportDataCache;
+import com.devsu.hackerearth.backend.account.repository.AccountRepository;
+import com.devsu.hackerearth.backend.account.repository.JournalCheckpointRepository;
+import com.devsu.hackerearth.backend.account.repository.JournalDeadLetterRepository;
+import com.devsu.hackerearth.backend.account.repository.TransactionRepository;
+import com.devsu.hackerearth.backend.account.rollup.DailyRollupRecorder;
+import com.devsu.hackerearth.backend.account.type.Money;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * {@link JournalSink} that writes journal records through
+ * {@link AccountRepository} and {@link TransactionRepository}.
+ * <p>
+ * Each batch is one database transaction: the transactions are inserted and
+ * added to their daily rollups, each touched account receives the balance of
+ * its last record in the batch, and the {@code journal_checkpoint} row is
+ * advanced to the batch's last sequence. Once the batch commits, its
+ * transactions are applied to the cached report data. A batch that touches an
+ * account that is missing or inactive fails as a whole.
+ * </p>
+ * <p>
+ * Only a missing or inactive account and a constraint violation are permanent
+ * failures; anything else, such as a connection or lock timeout, is retried by
+ * the journal. A rejected record is stored in {@code journal_dead_letter}
+ * together with the checkpoint advance, and its account leaves the
+ * {@link BalanceTable} until its balance is reloaded from the database.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class RepositoryJournalSink implements JournalSink {
+
+    static final String JOURNAL_NAME = "postings";
+    private static final int MAX_REASON_LENGTH = 500;
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final JournalCheckpointRepository journalCheckpointRepository;
+    private final JournalDeadLetterRepository journalDeadLetterRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final DailyRollupRecorder dailyRollupRecorder;
+    private final ReportDataCache reportDataCache;
+    private final BalanceTable balanceTable;
+
+    @Override
+    public long appliedSequence() {
+        return journalCheckpointRepository.findById(JOURNAL_NAME)
+                .map(JournalCheckpoint::getAppliedSequence).orElse(NO_CHECKPOINT);
+    }
+
+    @Override
+    public void createCheckpoint(long appliedSequence) {
+        transactionTemplate.executeWithoutResult(status -> advanceCheckpoint(appliedSequence));
+    }
+
+    @Override
+    public void apply(List<JournalRecord> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, Money> balances = new LinkedHashMap<>();
+            List<Transaction> transactions = new ArrayList<>(batch.size());
+            for (JournalRecord record : batch) {
+                Transaction transaction = new Transaction();
+                transaction.setType(record.getType().name());
+                transaction.setAmount(record.getAmount());
+                transaction.setBalance(record.getBalance());
+                transaction.setDate(record.getDate());
+                transaction.setAccount(accountRepository.getOne(record.getAccountId()));
+                transactions.add(transaction);
+                balances.put(record.getAccountId(), record.getBalance());
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            balances.forEach((accountId, balance) -> {
+                if (accountRepository.updateBalance(accountId, balance, now) == 0) {
+                    throw new AccountNotFoundException(accountId);
+                }
+            });
+            List<Transaction> saved = transactionRepository.saveAll(transactions);
+            dailyRollupRecorder.record(saved);
+            reportDataCache.patchAfterCommit(saved);
+
+            advanceCheckpoint(batch.get(batch.size() - 1).getSequence());
+        });
+    }
+
+    @Override
+    public boolean isPermanent(RuntimeException failure) {
+        return failure instanceof AccountNotFoundException || failure instanceof DataIntegrityViolationException;
+    }
+
+    @Override
+    public void reject(JournalRecord record, String reason) {
+        transactionTemplate.executeWithoutResult(status -> {
+            JournalDeadLetter deadLetter = new JournalDeadLetter();
+            deadLetter.setSequence(record.getSequence());
+            deadLetter.setAccountId(record.getAccountId());
+            deadLetter.setType(record.getType().name());
+            deadLetter.setAmount(record.getAmount());
+            deadLetter.setBalance(record.getBalance());
+            deadLetter.setDate(record.getDate());
+            deadLetter.setReason(reason.length() > MAX_REASON_LENGTH ? reason.substring(0, MAX_REASON_LENGTH) : reason);
+            deadLetter.setRejectedAt(LocalDateTime.now());
+            journalDeadLetterRepository.save(deadLetter);
+
+            advanceCheckpoint(record.getSequence());
+        });
+        balanceTable.evict(record.getAccountId());
+    }
+
+    private void advanceCheckpoint(long sequence) {
+        JournalCheckpoint checkpoint = journalCheckpointRepository.findById(JOURNAL_NAME).orElseGet(() -> {
+            JournalCheckpoint created = new JournalCheckpoint();
+            created.setName(JOURNAL_NAME);
+            return created;
+        });
+        checkpoint.setAppliedSequence(sequence);
+        journalCheckpointRepository.save(checkpoint);
+    }
+}
@@ -1,14 +1,30 @@
 package com.devsu.hackerearth.backend.account.kafka.consumer;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import com.devsu.hackerearth.backend.account.dto.ReportPeriod;
 import com.devsu.hackerearth.backend.account.dto.ReportResponseEvent;
+import com.devsu.hackerearth.backend.account.model.dto.ReportStatusDto;
+import com.devsu.hackerearth.backend.account.report.CompressedReport;
+import com.devsu.hackerearth.backend.account.report.CompressedReportWriter;
+import com.devsu.hackerearth.backend.account.report.ReportEventRegistry;
+import com.devsu.hackerearth.backend.account.report.ReportProperties;
+import com.devsu.hackerearth.backend.account.report.ReportRequestCoalescer;
+import com.devsu.hackerearth.backend.account.report.ReportStore;
+import com.devsu.hackerearth.backend.account.report.ReportWaiters;
+import com.devsu.hackerearth.backend.account.type.ReportStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -24,7 +40,18 @@ import lombok.extern.slf4j.Slf4j;
  * Responsibilities:
  * <ul>
  * <li>Consume enriched report events from Kafka.</li>
- * <li>Store reports in a thread-safe structure keyed by correlation ID.</li>
+ * <li>Compress each report once on arrival; a report streamed in chunks is
+ * compressed chunk by chunk and becomes visible only once its last chunk has
+ * arrived. A report whose chunks arrive out of sequence, or whose next chunk
+ * does not arrive within {@code account.report.partial-timeout-millis}, is
+ * discarded and its coalesced job dropped, so the next request starts
+ * over.</li>
+ * <li>Store reports in the bounded, expiring {@link ReportStore} keyed by
+ * correlation ID.</li>
+ * <li>Complete the long-poll requests parked in {@link ReportWaiters} as soon
+ * as their report is stored.</li>
+ * <li>Push the {@code READY} status to report event subscribers through the
+ * {@link ReportEventRegistry}.</li>
  * <li>Provide lookup and removal capabilities for stored reports.</li>
  * </ul>
  *
@@ -36,23 +63,29 @@ import lombok.extern.slf4j.Slf4j;
  * kafkaListenerContainerFactoryEnriched</li>
  * </ul>
  *
- * ⚠ This implementation is suitable for short-lived, non-persistent use cases
- * only.
- * In production scenarios, consider integrating a persistent cache or database
- * for durability.
+ * ⚠ Reports are held within the limits and time-to-live of the
+ * {@link ReportStore}; they survive a restart only when its durable store is
+ * enabled.
  *
  * Author: Germán Ponce
  * Version: 1.0
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class ReportResponseListener {
 
-    private final Map<String, ReportResponseEvent> responseStore = new ConcurrentHashMap<>();
+    private final ReportStore responseStore;
+    private final ReportWaiters reportWaiters;
+    private final ReportEventRegistry reportEvents;
+    private final ReportRequestCoalescer requestCoalescer;
+    private final ReportProperties reportProperties;
+    private final ObjectMapper objectMapper;
+    private final Map<String, PartialReport> partialReports = new ConcurrentHashMap<>();
 
     /**
      * Kafka listener that receives enriched report responses and stores them by
-     * correlation ID.
+     * correlation ID, compressed once on arrival.
      *
      * @param recordResponse Kafka record containing the correlation key and report
      *                       payload
@@ -61,26 +94,135 @@ public class ReportResponseListener {
     public void listen(ConsumerRecord<String, ReportResponseEvent> recordResponse) {
         String correlationId = recordResponse.key();
         ReportResponseEvent response = recordResponse.value();
-        responseStore.put(correlationId, response);
-        log.info("[Kafka] Report enriched received, correlationId: {}", correlationId);
+
+        CompressedReport report;
+        if (response.getChunkIndex() == null) {
+            report = CompressedReportWriter.write(objectMapper, response);
+        } else {
+            CompressedReportWriter writer = appendChunk(correlationId, response);
+            if (writer == null || !Boolean.TRUE.equals(response.getLastChunk())) {
+                return;
+            }
+            partialReports.remove(correlationId);
+            report = writer.finish();
+        }
+
+        responseStore.put(correlationId, report);
+        requestCoalescer.complete(correlationId);
+        reportWaiters.publish(correlationId, report);
+        reportEvents.publish(readyStatus(correlationId, response), report);
+        log.info("[Kafka] Report enriched received, correlationId: {}, {} bytes compressed from {}",
+                correlationId, report.getGzip().length, report.getJsonLength());
+    }
+
+    private static ReportStatusDto readyStatus(String correlationId, ReportResponseEvent response) {
+        Long clientId = response.getClient() != null ? response.getClient().getId() : null;
+        ReportPeriod period = response.getReportPeriod();
+        String reportUrl = clientId != null && period != null
+                ? ReportEventRegistry.reportUrl(clientId, period.getFrom(), period.getTo(), correlationId)
+                : null;
+        return new ReportStatusDto(correlationId, clientId, ReportStatus.READY, reportUrl, null);
     }
 
     /**
-     * Retrieves a previously stored report by its correlation ID.
+     * Appends a chunk to the compressed document of the report it belongs to.
+     * Chunks of one report share its key and therefore arrive in order; a chunk
+     * out of sequence discards the partial report and drops its coalesced job.
      *
      * @param correlationId the identifier of the report request
-     * @return the associated {@link ReportResponseEvent}, or null if not found
+     * @param chunk         the received chunk
+     * @return the writer of the report, or {@code null} if the chunk was out of
+     *         sequence
      */
-    public ReportResponseEvent getReportByCorrelationId(String correlationId) {
+    private CompressedReportWriter appendChunk(String correlationId, ReportResponseEvent chunk) {
+        PartialReport partial;
+        if (chunk.getChunkIndex() == 0) {
+            partial = new PartialReport(new CompressedReportWriter(objectMapper, chunk));
+            partialReports.put(correlationId, partial);
+        } else {
+            partial = partialReports.get(correlationId);
+            if (partial == null || partial.writer.getChunks() != chunk.getChunkIndex()) {
+                partialReports.remove(correlationId);
+                requestCoalescer.abandon(correlationId);
+                log.warn("[Kafka] Report chunk {} out of sequence, correlationId: {}", chunk.getChunkIndex(),
+                        correlationId);
+                return null;
+            }
+        }
+        partial.writer.append(chunk.getAccounts());
+        partial.lastChunkAt = System.currentTimeMillis();
+        return partial.writer;
+    }
+
+    /**
+     * Discards the reports that have waited longer than
+     * {@code account.report.partial-timeout-millis} for their next chunk, and
+     * drops their coalesced jobs.
+     */
+    @Scheduled(fixedDelayString = "${account.report.store-sweep-interval-millis:60000}")
+    public void evictStalePartials() {
+        long cutoff = System.currentTimeMillis() - reportProperties.getPartialTimeoutMillis();
+        partialReports.entrySet().removeIf(entry -> {
+            if (entry.getValue().lastChunkAt >= cutoff) {
+                return false;
+            }
+            requestCoalescer.abandon(entry.getKey());
+            log.warn("[Kafka] Report discarded after waiting for chunk {}, correlationId: {}",
+                    entry.getValue().writer.getChunks(), entry.getKey());
+            return true;
+        });
+    }
+
+    /**
+     * Retrieves a previously stored report in its compressed form, to be written
+     * to a response without re-encoding.
+     *
+     * @param correlationId the identifier of the report request
+     * @return the compressed report, or null if not found, evicted or expired
+     */
+    public CompressedReport getCompressedReport(String correlationId) {
         return responseStore.get(correlationId);
     }
 
     /**
-     * Clears a cached report from memory by correlation ID.
+     * Retrieves a previously stored report by its correlation ID, decoding it
+     * from its compressed form.
+     *
+     * @param correlationId the identifier of the report request
+     * @return the associated {@link ReportResponseEvent}, or null if not found,
+     *         evicted or expired
+     */
+    public ReportResponseEvent getReportByCorrelationId(String correlationId) {
+        CompressedReport report = responseStore.get(correlationId);
+        if (report == null) {
+            return null;
+        }
+        try (InputStream json = report.openJson()) {
+            return objectMapper.readValue(json, ReportResponseEvent.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Clears a stored report, in memory and on disk, by correlation ID.
      *
      * @param correlationId the identifier to remove
      */
     public void clear(String correlationId) {
         responseStore.remove(correlationId);
     }
-}
\ No newline at end of file
+
+    /**
+     * A report whose chunks are still arriving, with the time of its last one.
+     */
+    private static final class PartialReport {
+
+        private final CompressedReportWriter writer;
+        private volatile long lastChunkAt = System.currentTimeMillis();
+
+        private PartialReport(CompressedReportWriter writer) {
+            this.writer = writer;
+        }
+    }
+}
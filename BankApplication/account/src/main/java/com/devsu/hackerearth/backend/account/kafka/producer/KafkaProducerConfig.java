@@ -32,6 +32,8 @@ import com.devsu.hackerearth.backend.account.dto.ReportResponseEvent;
  * <li>Defines reusable generic producer factory method for consistent
  * serialization.</li>
  * <li>Registers distinct {@link KafkaTemplate} beans for each event type.</li>
+ * <li>Enables idempotent delivery, so a retried send is neither duplicated nor
+ * reordered and the chunks of a streamed report arrive in sequence.</li>
  * </ul>
  *
  * Beans:
@@ -108,6 +110,8 @@ public class KafkaProducerConfig {
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaProperties.getBootstrapServers());
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
         return new DefaultKafkaProducerFactory<>(configProps);
     }
 }
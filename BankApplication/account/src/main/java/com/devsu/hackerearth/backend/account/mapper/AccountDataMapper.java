@@ -1,13 +1,16 @@
 package com.devsu.hackerearth.backend.account.mapper;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Component;
 
 import com.devsu.hackerearth.backend.account.dto.AccountDataDto;
+import com.devsu.hackerearth.backend.account.dto.TransactionRow;
+import com.devsu.hackerearth.backend.account.dto.TransactionSummaryDTO;
 import com.devsu.hackerearth.backend.account.model.Account;
 import com.devsu.hackerearth.backend.account.model.Transaction;
+import com.devsu.hackerearth.backend.account.posting.HotAccountPoster;
 
 import lombok.RequiredArgsConstructor;
 
@@ -16,17 +19,65 @@ import lombok.RequiredArgsConstructor;
 public class AccountDataMapper {
 
     private final TransactionSummaryMapper transactionSummaryMapper;
+    private final HotAccountPoster hotAccountPoster;
 
     public AccountDataDto toData(Account account, List<Transaction> transactionList) {
         AccountDataDto data = new AccountDataDto();
         data.setNumber(account.getNumber());
         data.setType(account.getType());
         data.setInitialAmount(account.getInitialAmount());
-        data.setCurrentBalance(account.getCurrentBalance());
+        data.setCurrentBalance(hotAccountPoster.currentBalanceOf(account));
         if (transactionList != null && !transactionList.isEmpty()) {
-            data.setTransactions(
-                    transactionList.stream().map(transactionSummaryMapper::toDto).collect(Collectors.toList()));
+            StringBuilder buffer = new StringBuilder(24);
+            List<TransactionSummaryDTO> summaries = new ArrayList<>(transactionList.size());
+            for (Transaction transaction : transactionList) {
+                summaries.add(transactionSummaryMapper.toDto(transaction, buffer));
+            }
+            data.setTransactions(summaries);
         }
         return data;
     }
+
+    /**
+     * Starts a further slice of an account already present in an earlier report
+     * chunk: the account fields are copied and the transaction list is empty.
+     *
+     * @param data the account data of the previous slice
+     * @return a new slice of the same account
+     */
+    public AccountDataDto continueSlice(AccountDataDto data) {
+        return new AccountDataDto(data.getNumber(), data.getType(), data.getInitialAmount(),
+                data.getCurrentBalance(), new ArrayList<>());
+    }
+
+    /**
+     * Merges a client's accounts with their projected transactions into one
+     * {@link AccountDataDto} per account in a single pass. Both lists must be
+     * ordered by account ID.
+     *
+     * @param accounts the accounts, ordered by ID
+     * @param rows     the transaction rows, ordered by account ID
+     * @return the account data, in account order
+     */
+    public List<AccountDataDto> toDataList(List<Account> accounts, List<TransactionRow> rows) {
+        List<AccountDataDto> accountDataList = new ArrayList<>(accounts.size());
+        StringBuilder buffer = new StringBuilder(24);
+        int next = 0;
+        for (Account account : accounts) {
+            AccountDataDto data = toData(account, null);
+            int first = next;
+            while (next < rows.size() && rows.get(next).getAccountId().equals(account.getId())) {
+                next++;
+            }
+            if (next > first) {
+                List<TransactionSummaryDTO> summaries = new ArrayList<>(next - first);
+                for (int i = first; i < next; i++) {
+                    summaries.add(transactionSummaryMapper.toDto(rows.get(i), buffer));
+                }
+                data.setTransactions(summaries);
+            }
+            accountDataList.add(data);
+        }
+        return accountDataList;
+    }
 }
@@ -1,12 +1,14 @@
 package com.devsu.hackerearth.backend.account.mapper;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 
 import org.springframework.stereotype.Component;
 
 import com.devsu.hackerearth.backend.account.model.Account;
 import com.devsu.hackerearth.backend.account.model.dto.AccountDto;
 import com.devsu.hackerearth.backend.account.type.AccountType;
+import com.devsu.hackerearth.backend.account.type.Money;
 
 @Component
 public class AccountMapper {
@@ -15,7 +17,7 @@ public class AccountMapper {
         Account account = new Account();
         account.setType(dto.getType().name());
         account.setInitialAmount(dto.getInitialAmount());
-        account.setCurrentBalance(dto.getInitialAmount());
+        account.setCurrentBalance(toMoney(dto.getInitialAmount()));
         account.setClientId(dto.getClientId());
         account.setActive(true);
         return account;
@@ -23,7 +25,7 @@ public class AccountMapper {
 
     public Account toUpdateEntity(Account account, BigDecimal currentBalance) {
         if (currentBalance != null)
-            account.setCurrentBalance(currentBalance);
+            account.setCurrentBalance(toMoney(currentBalance));
         return account;
     }
 
@@ -33,9 +35,17 @@ public class AccountMapper {
         dto.setType(Enum.valueOf(AccountType.class, account.getType()));
         dto.setNumber(account.getNumber());
         dto.setInitialAmount(account.getInitialAmount());
-        dto.setCurrentBalance(account.getCurrentBalance());
+        dto.setCurrentBalance(account.getCurrentBalance().toBigDecimal());
         dto.setClientId(account.getClientId());
         dto.setActive(account.isActive());
         return dto;
     }
+
+    /**
+     * Converts a requested balance, rounding extra decimals the way the
+     * {@code scale = 4} column does.
+     */
+    private static Money toMoney(BigDecimal amount) {
+        return amount == null ? null : Money.of(amount.setScale(Money.SCALE, RoundingMode.HALF_UP));
+    }
 }
\ No newline at end of file
@@ -1,6 +1,5 @@
 package com.devsu.hackerearth.backend.account.mapper;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 
 import org.springframework.stereotype.Component;
@@ -8,6 +7,7 @@ import org.springframework.stereotype.Component;
 import com.devsu.hackerearth.backend.account.model.Account;
 import com.devsu.hackerearth.backend.account.model.Transaction;
 import com.devsu.hackerearth.backend.account.model.dto.TransactionDto;
+import com.devsu.hackerearth.backend.account.type.Money;
 import com.devsu.hackerearth.backend.account.type.TransactionType;
 
 @Component
@@ -17,17 +17,17 @@ public class TransactionMapper {
         TransactionDto dto = new TransactionDto();
         dto.setId(transaction.getId());
         dto.setType(Enum.valueOf(TransactionType.class, transaction.getType()));
-        dto.setAmount(transaction.getAmount());
-        dto.setBalance(transaction.getBalance());
+        dto.setAmount(transaction.getAmount().toBigDecimal());
+        dto.setBalance(transaction.getBalance().toBigDecimal());
         dto.setDate(transaction.getDate());
         dto.setAccountId(transaction.getAccount().getId());
         return dto;
     }
 
-    public Transaction toEntity(TransactionDto dto, Account account, BigDecimal newBalance) {
+    public Transaction toEntity(TransactionType type, Money amount, Account account, Money newBalance) {
         Transaction transaction = new Transaction();
-        transaction.setType(dto.getType().name());
-        transaction.setAmount(dto.getAmount());
+        transaction.setType(type.name());
+        transaction.setAmount(amount);
         transaction.setBalance(newBalance);
         transaction.setDate(LocalDate.now());
         transaction.setAccount(account);
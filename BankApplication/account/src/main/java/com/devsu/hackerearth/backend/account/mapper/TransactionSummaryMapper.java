@@ -2,6 +2,7 @@ package com.devsu.hackerearth.backend.account.mapper;
 
 import org.springframework.stereotype.Component;
 
+import com.devsu.hackerearth.backend.account.dto.TransactionRow;
 import com.devsu.hackerearth.backend.account.dto.TransactionSummaryDTO;
 import com.devsu.hackerearth.backend.account.model.Transaction;
 
@@ -9,11 +10,48 @@ import com.devsu.hackerearth.backend.account.model.Transaction;
 public class TransactionSummaryMapper {
 
     public TransactionSummaryDTO toDto(Transaction transaction) {
+        return toDto(transaction, new StringBuilder(24));
+    }
+
+    /**
+     * Maps a transaction, formatting its amounts through a caller-owned buffer so
+     * that a report can format all of its rows with one builder.
+     *
+     * @param transaction the transaction to map
+     * @param buffer      a reusable builder; its contents are discarded
+     * @return the report row
+     */
+    public TransactionSummaryDTO toDto(Transaction transaction, StringBuilder buffer) {
+        buffer.setLength(0);
+        String amount = transaction.getAmount().appendTo(buffer).toString();
+        buffer.setLength(0);
+        String balance = transaction.getBalance().appendTo(buffer).toString();
         return new TransactionSummaryDTO(
             transaction.getType(),
             transaction.getDate().toString(),
-            transaction.getAmount().toPlainString(),
-            transaction.getBalance().toPlainString()
+            amount,
+            balance
+        );
+    }
+
+    /**
+     * Maps a read-only report row, formatting its amounts through a caller-owned
+     * buffer.
+     *
+     * @param row    the projected transaction
+     * @param buffer a reusable builder; its contents are discarded
+     * @return the report row
+     */
+    public TransactionSummaryDTO toDto(TransactionRow row, StringBuilder buffer) {
+        buffer.setLength(0);
+        String amount = row.getAmount().appendTo(buffer).toString();
+        buffer.setLength(0);
+        String balance = row.getBalance().appendTo(buffer).toString();
+        return new TransactionSummaryDTO(
+            row.getType(),
+            row.getDate().toString(),
+            amount,
+            balance
         );
     }
-}
\ No newline at end of file
+}
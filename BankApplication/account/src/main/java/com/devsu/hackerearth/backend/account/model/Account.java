@@ -3,15 +3,21 @@ package com.devsu.hackerearth.backend.account.model;
 import java.math.BigDecimal;
 
 import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.Entity;
+import javax.persistence.Index;
 import javax.persistence.Table;
+
+import com.devsu.hackerearth.backend.account.model.converter.MoneyConverter;
+import com.devsu.hackerearth.backend.account.type.Money;
+
 import lombok.Getter;
 import lombok.Setter;
 
 @Getter
 @Setter
 @Entity
-@Table(name = "account")
+@Table(name = "account", indexes = @Index(name = "idx_account_client", columnList = "client_id"))
 public class Account extends Base {
     @Column(name = "number", length = 50, nullable = false, unique = true, updatable = false)
     private String number;
@@ -23,11 +29,19 @@ public class Account extends Base {
     private BigDecimal initialAmount;
 
     @Column(name = "current_balance", nullable = false, precision = 19, scale = 4)
-    private BigDecimal currentBalance;
+    @Convert(converter = MoneyConverter.class)
+    private Money currentBalance;
 
     @Column(name = "client_id", nullable = false)
     private Long clientId;
 
     @Column(name = "is_active", nullable = false)
     private boolean isActive;
+
+    /**
+     * Number of sub-balance slots holding the balance of a hot account, or 0 when
+     * {@code currentBalance} is authoritative.
+     */
+    @Column(name = "balance_slots", nullable = false)
+    private int balanceSlots;
 }
@@ -0,0 +1,31 @@
+package com.devsu.hackerearth.backend.account.model;
+
+import java.math.BigDecimal;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One share of a hot account's balance. The account balance is the sum of its
+ * slots.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "account_balance_slot", uniqueConstraints = @UniqueConstraint(columnNames = { "account_id",
+		"slot_index" }))
+public class AccountBalanceSlot extends Base {
+
+	@Column(name = "account_id", nullable = false, updatable = false)
+	private Long accountId;
+
+	@Column(name = "slot_index", nullable = false, updatable = false)
+	private int slotIndex;
+
+	@Column(name = "balance", nullable = false, precision = 19, scale = 4)
+	private BigDecimal balance;
+}
@@ -0,0 +1,41 @@
+package com.devsu.hackerearth.backend.account.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Totals of one account's transactions on one day, maintained as transactions
+ * are posted.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "account_daily_rollup", uniqueConstraints = @UniqueConstraint(columnNames = { "account_id",
+		"date" }))
+public class AccountDailyRollup extends Base {
+
+	@Column(name = "account_id", nullable = false, updatable = false)
+	private Long accountId;
+
+	@Column(name = "date", nullable = false, updatable = false)
+	private LocalDate date;
+
+	@Column(name = "deposit_total", nullable = false, precision = 19, scale = 4)
+	private BigDecimal depositTotal;
+
+	@Column(name = "withdrawal_total", nullable = false, precision = 19, scale = 4)
+	private BigDecimal withdrawalTotal;
+
+	@Column(name = "transaction_count", nullable = false)
+	private long transactionCount;
+
+	@Column(name = "closing_balance", nullable = false, precision = 19, scale = 4)
+	private BigDecimal closingBalance;
+}
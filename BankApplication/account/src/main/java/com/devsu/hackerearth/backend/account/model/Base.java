@@ -2,6 +2,9 @@ package com.devsu.hackerearth.backend.account.model;
 
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
@@ -23,8 +26,17 @@ import lombok.Setter;
 @EntityListeners(AuditingEntityListener.class)
 public class Base {
 
+	/**
+	 * Sequence-backed identifier, one sequence per entity. Ids are reserved in
+	 * blocks of 50 so that Hibernate can assign them without a round trip per row
+	 * and group INSERT statements into JDBC batches, which IDENTITY columns
+	 * prevent.
+	 */
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pooled_sequence")
+	@GenericGenerator(name = "pooled_sequence", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = {
+			@Parameter(name = SequenceStyleGenerator.CONFIG_PREFER_SEQUENCE_PER_ENTITY, value = "true"),
+			@Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50") })
 	@Column(name = "id", nullable = false, unique = true, updatable = false)
 	private Long id;
 
@@ -0,0 +1,23 @@
+package com.devsu.hackerearth.backend.account.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "idempotency_record")
+public class IdempotencyRecord extends Base {
+
+	/** Maximum length of a stored idempotency key. */
+	public static final int KEY_LENGTH = 100;
+
+	@Column(name = "idempotency_key", length = KEY_LENGTH, nullable = false, unique = true, updatable = false)
+	private String key;
+
+	@Column(name = "transaction_id", nullable = false, updatable = false)
+	private Long transactionId;
+}
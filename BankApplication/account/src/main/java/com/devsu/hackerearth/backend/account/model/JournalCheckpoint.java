@@ -0,0 +1,26 @@
+package com.devsu.hackerearth.backend.account.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Last journal sequence applied to the database, keyed by journal name.
+ * Updated in the same transaction as the postings it covers.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "journal_checkpoint")
+public class JournalCheckpoint {
+
+	@Id
+	@Column(name = "name", length = 50, nullable = false, updatable = false)
+	private String name;
+
+	@Column(name = "applied_sequence", nullable = false)
+	private long appliedSequence;
+}
@@ -0,0 +1,55 @@
+package com.devsu.hackerearth.backend.account.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import com.devsu.hackerearth.backend.account.model.converter.MoneyConverter;
+import com.devsu.hackerearth.backend.account.type.Money;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * An acknowledged journal posting that could not be applied to the database.
+ * Written in the same transaction that advances the journal checkpoint past it,
+ * and kept for manual reconciliation.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "journal_dead_letter")
+public class JournalDeadLetter {
+
+	@Id
+	@Column(name = "journal_sequence", nullable = false, updatable = false)
+	private long sequence;
+
+	@Column(name = "account_id", nullable = false, updatable = false)
+	private long accountId;
+
+	@Column(name = "type", nullable = false, length = 100, updatable = false)
+	private String type;
+
+	@Convert(converter = MoneyConverter.class)
+	@Column(name = "amount", nullable = false, updatable = false, precision = 19, scale = 4)
+	private Money amount;
+
+	@Convert(converter = MoneyConverter.class)
+	@Column(name = "balance", nullable = false, updatable = false, precision = 19, scale = 4)
+	private Money balance;
+
+	@Column(name = "date", nullable = false, updatable = false)
+	private LocalDate date;
+
+	@Column(name = "reason", nullable = false, length = 500, updatable = false)
+	private String reason;
+
+	@Column(name = "rejected_at", nullable = false, updatable = false)
+	private LocalDateTime rejectedAt;
+}
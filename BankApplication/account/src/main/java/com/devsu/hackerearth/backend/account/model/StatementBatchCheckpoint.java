@@ -0,0 +1,51 @@
+package com.devsu.hackerearth.backend.account.model;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import com.devsu.hackerearth.backend.account.type.StatementBatchState;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Progress of the month-end statement batch of one month. Clients are
+ * processed in ascending ID order, so every client up to
+ * {@code lastClientId} has its statement stored; the row is updated each time
+ * a chunk of clients completes.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "statement_batch_checkpoint")
+public class StatementBatchCheckpoint {
+
+	@Id
+	@Column(name = "month", length = 7, nullable = false, updatable = false)
+	private String month;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "state", length = 20, nullable = false)
+	private StatementBatchState state;
+
+	@Column(name = "last_client_id")
+	private Long lastClientId;
+
+	@Column(name = "completed_chunks", nullable = false)
+	private int completedChunks;
+
+	@Column(name = "completed_clients", nullable = false)
+	private long completedClients;
+
+	@Column(name = "started_at", nullable = false)
+	private LocalDateTime startedAt;
+
+	@Column(name = "updated_at", nullable = false)
+	private LocalDateTime updatedAt;
+}
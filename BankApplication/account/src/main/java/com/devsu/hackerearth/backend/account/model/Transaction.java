@@ -1,22 +1,27 @@
 package com.devsu.hackerearth.backend.account.model;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 
 import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.PreUpdate;
 import javax.persistence.Table;
+
+import com.devsu.hackerearth.backend.account.model.converter.MoneyConverter;
+import com.devsu.hackerearth.backend.account.type.Money;
+
 import lombok.Getter;
 import lombok.Setter;
 
 @Getter
 @Setter
 @Entity
-@Table(name = "transaction")
+@Table(name = "transaction", indexes = @Index(name = "idx_transaction_account_date_id", columnList = "account_id, date, id"))
 public class Transaction extends Base {
 
 	@Column(name = "date", nullable = false, updatable = false)
@@ -25,11 +30,13 @@ public class Transaction extends Base {
 	@Column(name = "type", nullable = false, length = 100, updatable = false)
 	private String type;
 
+	@Convert(converter = MoneyConverter.class)
 	@Column(name = "amount", nullable = false, updatable = false, precision = 19, scale = 4)
-	private BigDecimal amount;
+	private Money amount;
 
+	@Convert(converter = MoneyConverter.class)
 	@Column(name = "balance", nullable = false, updatable = false, precision = 19, scale = 4)
-	private BigDecimal balance;
+	private Money balance;
 
 	@ManyToOne(optional = false, fetch = FetchType.LAZY)
 	@JoinColumn(name = "account_id", updatable = false)
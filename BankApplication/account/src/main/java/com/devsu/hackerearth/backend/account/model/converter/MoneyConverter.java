@@ -0,0 +1,25 @@
+package com.devsu.hackerearth.backend.account.model.converter;
+
+import java.math.BigDecimal;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+import com.devsu.hackerearth.backend.account.type.Money;
+
+/**
+ * Maps {@link Money} attributes to the existing {@code DECIMAL(19, 4)} columns.
+ */
+@Converter
+public class MoneyConverter implements AttributeConverter<Money, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Money attribute) {
+        return attribute == null ? null : attribute.toBigDecimal();
+    }
+
+    @Override
+    public Money convertToEntityAttribute(BigDecimal column) {
+        return column == null ? null : Money.of(column);
+    }
+}
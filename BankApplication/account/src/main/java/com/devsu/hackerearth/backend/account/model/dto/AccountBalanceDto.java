@@ -0,0 +1,19 @@
+package com.devsu.hackerearth.backend.account.model.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AccountBalanceDto {
+
+	private Long accountId;
+	private String number;
+	private LocalDate asOf;
+	private BigDecimal balance;
+}
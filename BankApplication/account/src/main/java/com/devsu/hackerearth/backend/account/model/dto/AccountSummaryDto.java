@@ -0,0 +1,24 @@
+package com.devsu.hackerearth.backend.account.model.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AccountSummaryDto {
+
+	private Long accountId;
+	private String accountNumber;
+	private String accountType;
+	private BigDecimal openingBalance;
+	private BigDecimal depositTotal;
+	private BigDecimal withdrawalTotal;
+	private long transactionCount;
+	private BigDecimal closingBalance;
+	private List<DailyRollupDto> days;
+}
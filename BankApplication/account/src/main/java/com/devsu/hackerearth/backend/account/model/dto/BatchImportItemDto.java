@@ -0,0 +1,34 @@
+package com.devsu.hackerearth.backend.account.model.dto;
+
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchImportItemDto {
+
+	public static final String ACCEPTED = "ACCEPTED";
+	public static final String REJECTED = "REJECTED";
+
+	private int index;
+	private String status;
+	private Long transactionId;
+	private BigDecimal balance;
+	private String code;
+	private String message;
+
+	public static BatchImportItemDto accepted(int index, TransactionDto transaction) {
+		return new BatchImportItemDto(index, ACCEPTED, transaction.getId(), transaction.getBalance(), null, null);
+	}
+
+	public static BatchImportItemDto rejected(int index, String code, String message) {
+		return new BatchImportItemDto(index, REJECTED, null, null, code, message);
+	}
+}
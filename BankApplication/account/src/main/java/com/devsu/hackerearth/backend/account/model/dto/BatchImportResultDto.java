@@ -0,0 +1,27 @@
+package com.devsu.hackerearth.backend.account.model.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class BatchImportResultDto {
+
+	private int total;
+	private int accepted;
+	private int rejected;
+	private List<BatchImportItemDto> items = new ArrayList<>();
+
+	public void add(BatchImportItemDto item) {
+		items.add(item);
+		total++;
+		if (BatchImportItemDto.ACCEPTED.equals(item.getStatus())) {
+			accepted++;
+		} else {
+			rejected++;
+		}
+	}
+}
@@ -0,0 +1,20 @@
+package com.devsu.hackerearth.backend.account.model.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DailyRollupDto {
+
+	private LocalDate date;
+	private BigDecimal depositTotal;
+	private BigDecimal withdrawalTotal;
+	private long transactionCount;
+	private BigDecimal closingBalance;
+}
@@ -0,0 +1,15 @@
+package com.devsu.hackerearth.backend.account.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReportCoalescingStatsDto {
+
+	private long executed;
+	private long coalesced;
+	private int trackedJobs;
+}
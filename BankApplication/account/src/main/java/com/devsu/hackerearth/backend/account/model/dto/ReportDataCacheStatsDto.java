@@ -0,0 +1,17 @@
+package com.devsu.hackerearth.backend.account.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReportDataCacheStatsDto {
+
+	private int entries;
+	private long transactions;
+	private long hits;
+	private long misses;
+	private long patches;
+}
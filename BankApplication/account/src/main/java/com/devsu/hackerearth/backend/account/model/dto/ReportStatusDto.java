@@ -0,0 +1,23 @@
+package com.devsu.hackerearth.backend.account.model.dto;
+
+import com.devsu.hackerearth.backend.account.type.ReportStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReportStatusDto {
+
+	private String correlationId;
+	private Long clientId;
+	private ReportStatus status;
+	private String reportUrl;
+	@JsonRawValue
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private String report;
+}
@@ -0,0 +1,23 @@
+package com.devsu.hackerearth.backend.account.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReportStoreStatsDto {
+
+	private int entries;
+	private long bytes;
+	private int maxEntries;
+	private long maxBytes;
+	private long hits;
+	private long misses;
+	private long evictions;
+	private long expirations;
+	private int diskEntries;
+	private long diskBytes;
+	private long diskHits;
+}
@@ -0,0 +1,14 @@
+package com.devsu.hackerearth.backend.account.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RollupRebuildResultDto {
+
+	private int accounts;
+	private long days;
+}
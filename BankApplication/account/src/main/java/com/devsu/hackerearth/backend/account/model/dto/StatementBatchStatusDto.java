@@ -0,0 +1,30 @@
+package com.devsu.hackerearth.backend.account.model.dto;
+
+import java.time.LocalDateTime;
+
+import com.devsu.hackerearth.backend.account.type.StatementBatchState;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StatementBatchStatusDto {
+
+	private String month;
+	private StatementBatchState state;
+	private long totalClients;
+	private long completedClients;
+	private int completedChunks;
+	private Long lastClientId;
+	private long builtClients;
+	private long builtTransactions;
+	private double clientsPerSecond;
+	private double transactionsPerSecond;
+	private long elapsedMillis;
+	private Long etaMillis;
+	private LocalDateTime startedAt;
+	private String failure;
+}
@@ -0,0 +1,18 @@
+package com.devsu.hackerearth.backend.account.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StatementEntryDto {
+
+	private Long transactionId;
+	private String accountNumber;
+	private String type;
+	private String date;
+	private String amount;
+	private String balanceAfterTransaction;
+}
@@ -0,0 +1,21 @@
+package com.devsu.hackerearth.backend.account.model.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StatementPageDto {
+
+	private Long clientId;
+	private LocalDate from;
+	private LocalDate to;
+	private int pageSize;
+	private List<StatementEntryDto> entries;
+	private String nextCursor;
+}
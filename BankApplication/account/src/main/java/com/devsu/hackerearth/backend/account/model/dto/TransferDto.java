@@ -0,0 +1,17 @@
+package com.devsu.hackerearth.backend.account.model.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransferDto {
+
+	private Long sourceAccountId;
+	private Long targetAccountId;
+	private BigDecimal amount;
+}
@@ -0,0 +1,92 @@
+package com.devsu.hackerearth.backend.account.posting;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Fixed-size pool of locks used to serialize postings that target the same
+ * account.
+ * <p>
+ * Each account ID is hashed onto one of {@code stripes} {@link ReentrantLock}
+ * instances. Postings to the same account always resolve to the same lock,
+ * while postings to different accounts land on different stripes with high
+ * probability and can proceed in parallel. The pool size is fixed at startup,
+ * so memory usage does not grow with the number of accounts.
+ * </p>
+ *
+ * Configuration:
+ * <ul>
+ * <li>{@code account.posting.lock-stripes} – Number of stripes, rounded up to
+ * the next power of two (default 1024).</li>
+ * </ul>
+ */
+@Component
+public class AccountLockStripes {
+
+    private final Lock[] locks;
+    private final int mask;
+
+    public AccountLockStripes(PostingProperties postingProperties) {
+        int stripes = postingProperties.getLockStripes();
+        int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.locks = new Lock[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Returns the lock guarding the given account.
+     *
+     * @param accountId the account ID
+     * @return the stripe lock for the account
+     */
+    public Lock lockFor(Long accountId) {
+        return locks[indexFor(accountId)];
+    }
+
+    /**
+     * Returns the distinct locks guarding the given accounts, sorted by stripe
+     * index. Acquiring them in the returned order means two callers locking
+     * overlapping sets of accounts can never deadlock each other.
+     *
+     * @param accountIds the account IDs
+     * @return the stripe locks in acquisition order
+     */
+    public List<Lock> locksFor(Collection<Long> accountIds) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (Long accountId : accountIds) {
+            indexes.add(indexFor(accountId));
+        }
+        List<Lock> ordered = new ArrayList<>(indexes.size());
+        for (Integer index : indexes) {
+            ordered.add(locks[index]);
+        }
+        return ordered;
+    }
+
+    /**
+     * Returns the number of stripes in the pool.
+     *
+     * @return the stripe count
+     */
+    public int size() {
+        return locks.length;
+    }
+
+    int indexFor(Long accountId) {
+        long id = accountId == null ? 0L : accountId;
+        int h = (int) (id ^ (id >>> 32));
+        h ^= (h >>> 16);
+        h *= 0x85ebca6b;
+        h ^= (h >>> 13);
+        return h & mask;
+    }
+}
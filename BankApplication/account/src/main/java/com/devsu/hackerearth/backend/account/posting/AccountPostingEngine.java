@@ -0,0 +1,122 @@
+package com.devsu.hackerearth.backend.account.posting;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devsu.hackerearth.backend.account.journal.PostingJournal;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Executes balance postings one at a time per account and in parallel across
+ * accounts.
+ * <p>
+ * A posting is a read-modify-write of {@code Account.currentBalance} followed by
+ * the insertion of its {@code Transaction} row. The engine acquires the
+ * account's stripe lock from {@link AccountLockStripes} and runs the posting
+ * inside a single database transaction that commits before the lock is
+ * released, so concurrent postings to the same account can no longer overwrite
+ * each other's balance.
+ * </p>
+ * <p>
+ * When a {@link PostingJournal} is active, database-backed postings first wait
+ * until every journaled posting has been applied, so they never read a balance
+ * the journal has already moved past.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountPostingEngine {
+
+    private final AccountLockStripes accountLockStripes;
+    private final TransactionTemplate transactionTemplate;
+    private final Optional<PostingJournal> postingJournal;
+
+    /**
+     * Runs a posting against the given account under its stripe lock and within
+     * one database transaction.
+     *
+     * @param <T>       the posting result type
+     * @param accountId the account whose balance is modified
+     * @param posting   the work to execute
+     * @return the result of the posting
+     */
+    public <T> T post(Long accountId, Supplier<T> posting) {
+        Lock lock = accountLockStripes.lockFor(accountId);
+        lock.lock();
+        try {
+            awaitJournal();
+            return transactionTemplate.execute(status -> posting.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs a posting against the given account under its stripe lock only, for
+     * postings that are written to the {@link PostingJournal} rather than the
+     * database.
+     *
+     * @param <T>       the posting result type
+     * @param accountId the account whose balance is modified
+     * @param posting   the work to execute
+     * @return the result of the posting
+     */
+    public <T> T postJournaled(Long accountId, Supplier<T> posting) {
+        Lock lock = accountLockStripes.lockFor(accountId);
+        lock.lock();
+        try {
+            return posting.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs a posting that touches several accounts under all of their stripe
+     * locks, acquired in stripe order, and within one database transaction.
+     *
+     * @param <T>        the posting result type
+     * @param accountIds the accounts whose balances are modified
+     * @param posting    the work to execute
+     * @return the result of the posting
+     */
+    public <T> T postAll(Collection<Long> accountIds, Supplier<T> posting) {
+        List<Lock> locks = accountLockStripes.locksFor(accountIds);
+        int acquired = 0;
+        try {
+            for (Lock lock : locks) {
+                lock.lock();
+                acquired++;
+            }
+            awaitJournal();
+            return transactionTemplate.execute(status -> posting.get());
+        } finally {
+            for (int i = acquired - 1; i >= 0; i--) {
+                locks.get(i).unlock();
+            }
+        }
+    }
+
+    /**
+     * Runs a posting within one database transaction without taking an
+     * application lock. Intended for postings whose SQL is itself atomic.
+     *
+     * @param <T>     the posting result type
+     * @param posting the work to execute
+     * @return the result of the posting
+     */
+    public <T> T postAtomically(Supplier<T> posting) {
+        return transactionTemplate.execute(status -> posting.get());
+    }
+
+    private void awaitJournal() {
+        postingJournal.ifPresent(PostingJournal::awaitApplied);
+    }
+}
@@ -0,0 +1,199 @@
+package com.devsu.hackerearth.backend.account.posting;
+
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.devsu.hackerearth.backend.account.model.Account;
+import com.devsu.hackerearth.backend.account.repository.AccountRepository;
+import com.devsu.hackerearth.backend.account.type.Money;
+import com.devsu.hackerearth.backend.account.type.PostingMode;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory balance table for active accounts, enabled with
+ * {@code account.posting.balance-table-enabled}.
+ * <p>
+ * The table is loaded from {@link AccountRepository#findAllActiveAccountList()}
+ * before the application starts serving requests and is then kept
+ * write-through: every path that changes a balance or an account's active flag
+ * registers the new state, which is applied once the database transaction
+ * commits. Changes are registered while the account's posting lock is held, so
+ * committed writes reach the table in commit order. Because
+ * {@link PostingMode#ATOMIC_DELTA} postings do not take that lock, the table
+ * stays disabled in that mode. Accounts split into balance slots by
+ * {@link HotAccountPoster} are never tracked.
+ * </p>
+ * <p>
+ * A present entry is authoritative and lets the posting path validate a
+ * posting without reading the account row. An absent entry only means the
+ * account is not tracked (inactive, unknown, or with a balance that does not fit
+ * in a {@code long} at scale 4), and callers fall back to the database.
+ * </p>
+ */
+@Slf4j
+@Component
+public class BalanceTable implements SmartInitializingSingleton {
+
+    private final AccountRepository accountRepository;
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongBalanceMap balances;
+    private volatile boolean loaded;
+
+    public BalanceTable(AccountRepository accountRepository, PostingProperties postingProperties) {
+        this.accountRepository = accountRepository;
+        this.enabled = postingProperties.isBalanceTableEnabled()
+                && postingProperties.getMode() != PostingMode.ATOMIC_DELTA;
+        if (postingProperties.isBalanceTableEnabled() && !enabled) {
+            log.warn("[BalanceTable] Disabled: not supported with posting mode {}", postingProperties.getMode());
+        }
+        this.balances = new LongBalanceMap(enabled ? postingProperties.getBalanceTableExpectedAccounts() : 0);
+    }
+
+    /**
+     * Loads every active account once all singletons are created, before the web
+     * server and the Kafka listeners start.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        List<Account> accounts = accountRepository.findAllActiveAccountList();
+        lock.writeLock().lock();
+        try {
+            for (Account account : accounts) {
+                if (account.getBalanceSlots() == 0) {
+                    store(account.getId(), account.getCurrentBalance());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        loaded = true;
+        log.info("[BalanceTable] Loaded {} active accounts ({} bytes)", balances.size(), footprintBytes());
+    }
+
+    /**
+     * Returns the committed balance of a tracked account.
+     *
+     * @param accountId the account ID
+     * @return the balance, or {@code null} if the account is not tracked
+     */
+    public Money balanceOf(Long accountId) {
+        if (!loaded || accountId == null) {
+            return null;
+        }
+        long unscaled;
+        lock.readLock().lock();
+        try {
+            if (!balances.containsKey(accountId)) {
+                return null;
+            }
+            unscaled = balances.get(accountId, 0L);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return Money.ofUnits(unscaled);
+    }
+
+    /**
+     * Records the balance an account will have once the current transaction
+     * commits.
+     *
+     * @param accountId the account ID
+     * @param balance   the new balance
+     */
+    public void putAfterCommit(Long accountId, Money balance) {
+        afterCommit(() -> put(accountId, balance.getUnits()));
+    }
+
+    /**
+     * Stops tracking an account once the current transaction commits.
+     *
+     * @param accountId the account ID
+     */
+    public void removeAfterCommit(Long accountId) {
+        afterCommit(() -> remove(accountId));
+    }
+
+    /**
+     * Stops tracking an account immediately, for use when the table is found to
+     * disagree with the database.
+     *
+     * @param accountId the account ID
+     */
+    public void evict(Long accountId) {
+        remove(accountId);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return balances.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long footprintBytes() {
+        lock.readLock().lock();
+        try {
+            return balances.footprintBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(Long accountId, long units) {
+        lock.writeLock().lock();
+        try {
+            balances.put(accountId, units);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(Long accountId) {
+        lock.writeLock().lock();
+        try {
+            balances.remove(accountId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void store(Long accountId, Money balance) {
+        if (accountId == null) {
+            return;
+        }
+        if (balance == null) {
+            balances.remove(accountId);
+        } else {
+            balances.put(accountId, balance.getUnits());
+        }
+    }
+
+    private void afterCommit(Runnable change) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
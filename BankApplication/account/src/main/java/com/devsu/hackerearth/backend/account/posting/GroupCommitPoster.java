@@ -0,0 +1,207 @@
+package com.devsu.hackerearth.backend.account.posting;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import com.devsu.hackerearth.backend.account.model.dto.TransactionDto;
+import com.devsu.hackerearth.backend.account.type.Money;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Group-commit front end for postings to busy accounts.
+ * <p>
+ * Postings for the same account that arrive within
+ * {@code groupCommitWindowMillis} of each other, up to
+ * {@code groupCommitMaxBatch} items, are collected into one batch. The batch is
+ * handed to a {@link BatchPosting} handler under the account's lock and inside
+ * a single database transaction via {@link AccountPostingEngine}. Each caller
+ * blocks until its own posting has been committed or rejected.
+ * </p>
+ *
+ * A batch is committed by whichever comes first:
+ * <ul>
+ * <li>the caller that fills it to {@code groupCommitMaxBatch}, on its own
+ * thread;</li>
+ * <li>the scheduler, once the window opened by its first posting expires.</li>
+ * </ul>
+ * <p>
+ * A batch whose write breaks a unique constraint, such as an idempotency key
+ * committed concurrently by another account's posting, is rolled back as a
+ * whole and its postings are then applied one per transaction, so only the
+ * posting that caused the conflict fails.
+ * </p>
+ */
+@Slf4j
+@Component
+public class GroupCommitPoster {
+
+    private final AccountPostingEngine accountPostingEngine;
+    private final PostingProperties postingProperties;
+    private final ScheduledExecutorService scheduler;
+    private final Map<Long, PendingBatch> openBatches = new ConcurrentHashMap<>();
+
+    public GroupCommitPoster(AccountPostingEngine accountPostingEngine, PostingProperties postingProperties) {
+        this.accountPostingEngine = accountPostingEngine;
+        this.postingProperties = postingProperties;
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(
+                Math.max(1, postingProperties.getGroupCommitThreads()), runnable -> {
+                    Thread thread = new Thread(runnable, "group-commit");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.setRemoveOnCancelPolicy(true);
+        this.scheduler = executor;
+    }
+
+    /**
+     * Adds a posting to its account's open batch and waits for the batch to be
+     * committed.
+     *
+     * @param request        the transaction request; its account ID selects
+     *                       the batch
+     * @param amount         the validated request amount
+     * @param idempotencyKey optional client key identifying the posting
+     * @param batchPosting   the handler that applies a batch to the database
+     * @return the registered transaction
+     * @throws RuntimeException the failure assigned to this posting, if any
+     */
+    public TransactionDto post(TransactionDto request, Money amount, String idempotencyKey,
+            BatchPosting batchPosting) {
+        Long accountId = request.getAccountId();
+        PendingPosting posting = new PendingPosting(request, amount, idempotencyKey);
+
+        while (true) {
+            PendingBatch batch = openBatches.computeIfAbsent(accountId, id -> openBatch(id, batchPosting));
+            int size = batch.add(posting);
+            if (size < 0) {
+                continue;
+            }
+            if (size >= postingProperties.getGroupCommitMaxBatch()) {
+                flush(accountId, batch);
+            }
+            break;
+        }
+
+        try {
+            return posting.getFuture().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Commits every open batch and stops the scheduler.
+     */
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+        for (Map.Entry<Long, PendingBatch> entry : openBatches.entrySet()) {
+            flush(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private PendingBatch openBatch(Long accountId, BatchPosting batchPosting) {
+        PendingBatch batch = new PendingBatch(batchPosting);
+        scheduler.schedule(() -> flush(accountId, batch),
+                postingProperties.getGroupCommitWindowMillis(), TimeUnit.MILLISECONDS);
+        return batch;
+    }
+
+    private void flush(Long accountId, PendingBatch batch) {
+        openBatches.remove(accountId, batch);
+        List<PendingPosting> postings = batch.seal();
+        if (postings == null) {
+            return;
+        }
+
+        try {
+            accountPostingEngine.post(accountId, () -> {
+                batch.batchPosting.apply(accountId, postings);
+                return null;
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.warn("[GroupCommit] Batch of {} postings for account {} hit a constraint, posting them one by one: {}",
+                    postings.size(), accountId, e.getMessage());
+            for (PendingPosting posting : postings) {
+                postAlone(accountId, batch, posting);
+            }
+        } catch (RuntimeException e) {
+            log.warn("[GroupCommit] Batch of {} postings for account {} failed: {}", postings.size(), accountId,
+                    e.getMessage());
+            for (PendingPosting posting : postings) {
+                posting.setResult(null);
+                posting.setFailure(e);
+            }
+        }
+        postings.forEach(PendingPosting::complete);
+    }
+
+    /**
+     * Applies one posting of a rolled-back batch in its own transaction.
+     */
+    private void postAlone(Long accountId, PendingBatch batch, PendingPosting posting) {
+        posting.setResult(null);
+        posting.setFailure(null);
+        try {
+            accountPostingEngine.post(accountId, () -> {
+                batch.batchPosting.apply(accountId, List.of(posting));
+                return null;
+            });
+        } catch (RuntimeException e) {
+            posting.setResult(null);
+            posting.setFailure(e);
+        }
+    }
+
+    /**
+     * Applies a batch of postings for one account. Runs under the account's lock
+     * and inside one database transaction; implementations set a result or a
+     * failure on every posting.
+     */
+    @FunctionalInterface
+    public interface BatchPosting {
+        void apply(Long accountId, List<PendingPosting> postings);
+    }
+
+    private static final class PendingBatch {
+
+        private final BatchPosting batchPosting;
+        private final List<PendingPosting> postings = new ArrayList<>();
+        private boolean sealed;
+
+        PendingBatch(BatchPosting batchPosting) {
+            this.batchPosting = batchPosting;
+        }
+
+        synchronized int add(PendingPosting posting) {
+            if (sealed) {
+                return -1;
+            }
+            postings.add(posting);
+            return postings.size();
+        }
+
+        synchronized List<PendingPosting> seal() {
+            if (sealed) {
+                return null;
+            }
+            sealed = true;
+            return postings;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.devsu.hackerearth.backend.account.posting;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.devsu.hackerearth.backend.account.exception.AccountNotFoundException;
+import com.devsu.hackerearth.backend.account.exception.InsufficientBalanceException;
+import com.devsu.hackerearth.backend.account.mapper.TransactionMapper;
+import com.devsu.hackerearth.backend.account.model.Account;
+import com.devsu.hackerearth.backend.account.model.AccountBalanceSlot;
+import com.devsu.hackerearth.backend.account.model.Transaction;
+import com.devsu.hackerearth.backend.account.model.dto.TransactionDto;
+import com.devsu.hackerearth.backend.account.repository.AccountBalanceSlotRepository;
+import com.devsu.hackerearth.backend.account.repository.AccountRepository;
+import com.devsu.hackerearth.backend.account.report.ReportDataCache;
+import com.devsu.hackerearth.backend.account.repository.TransactionRepository;
+import com.devsu.hackerearth.backend.account.rollup.DailyRollupRecorder;
+import com.devsu.hackerearth.backend.account.type.Money;
+import com.devsu.hackerearth.backend.account.type.TransactionType;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Posts to hot accounts, whose balance is split across
+ * {@link AccountBalanceSlot} rows so that concurrent deposits do not serialize
+ * on the single {@code account.current_balance} row.
+ * <p>
+ * A deposit adds to one randomly chosen slot with a single UPDATE and takes no
+ * application lock, so deposits to the same account proceed in parallel up to
+ * the number of slots. A withdrawal takes the account's posting lock and first
+ * tries to take the amount from one random slot; if that slot cannot cover it,
+ * every slot is locked, the total is checked against the non-negative rule, and
+ * the remaining balance is spread evenly across the slots again.
+ * </p>
+ * <p>
+ * For a hot account, {@code Account.currentBalance} only holds the balance at
+ * the moment it was split; {@link #currentBalanceOf(Account)} returns the exact
+ * sum of the slots. The {@code balance} recorded on a withdrawal that
+ * consolidated the slots is exact; on other postings it is the sum of the
+ * committed slots as seen by the posting's own transaction. The daily rollups
+ * therefore ignore it: each posting moves its day's closing balance by its
+ * amount, starting from a checkpoint of the exact balance written whenever the
+ * slots are set up or overwritten.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class HotAccountPoster implements SmartInitializingSingleton {
+
+    /** Upper bound for the number of slots per account. */
+    public static final int MAX_SLOTS = 256;
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final AccountRepository accountRepository;
+    private final AccountBalanceSlotRepository accountBalanceSlotRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionMapper transactionMapper;
+    private final AccountPostingEngine accountPostingEngine;
+    private final BalanceTable balanceTable;
+    private final IdempotencyStore idempotencyStore;
+    private final DailyRollupRecorder dailyRollupRecorder;
+    private final ReportDataCache reportDataCache;
+    private final Map<Long, Integer> slotCounts = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (Account account : accountRepository.findHotAccounts()) {
+            slotCounts.put(account.getId(), account.getBalanceSlots());
+        }
+    }
+
+    public boolean isHot(Long accountId) {
+        return accountId != null && slotCounts.containsKey(accountId);
+    }
+
+    /**
+     * Posts a transaction to a hot account.
+     *
+     * @param transactionDto the transaction request payload
+     * @param amount         the validated request amount
+     * @param idempotencyKey optional client key, recorded with the posting
+     * @return the registered transaction, or {@code null} if the account is no
+     *         longer hot and must be posted to normally
+     * @throws AccountNotFoundException     if the account is inactive
+     * @throws InsufficientBalanceException if the slots together cannot cover a
+     *                                      withdrawal
+     */
+    public TransactionDto post(TransactionDto transactionDto, Money amount, String idempotencyKey) {
+        TransactionType type = transactionDto.getType();
+        if (type == null) {
+            throw new IllegalArgumentException("Invalid transaction type: " + type);
+        }
+        Long accountId = transactionDto.getAccountId();
+
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            Integer slots = slotCounts.get(accountId);
+            if (slots == null) {
+                return null;
+            }
+            TransactionDto result = type == TransactionType.DEPOSIT
+                    ? accountPostingEngine.postAtomically(() -> deposit(transactionDto, amount, slots, idempotencyKey))
+                    : accountPostingEngine.post(accountId,
+                            () -> withdraw(transactionDto, amount, slots, idempotencyKey));
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Splits an account's balance into slots, changes its slot count, or merges
+     * it back into {@code currentBalance} when {@code slots} is 0. Must be called
+     * within a transaction while holding the account's posting lock.
+     *
+     * @param account the active account to reconfigure
+     * @param slots   the new number of slots, 0 to disable
+     * @throws IllegalArgumentException if {@code slots} is out of range
+     */
+    public void configure(Account account, int slots) {
+        if (slots < 0 || slots > MAX_SLOTS) {
+            throw new IllegalArgumentException("Balance slots must be between 0 and " + MAX_SLOTS);
+        }
+        Long accountId = account.getId();
+        Money total = currentBalanceForUpdate(account);
+        accountBalanceSlotRepository.deleteByAccountId(accountId);
+        if (slots > 0) {
+            accountBalanceSlotRepository.saveAll(spread(accountId, total, slots));
+        }
+
+        account.setBalanceSlots(slots);
+        account.setCurrentBalance(total);
+        accountRepository.save(account);
+
+        if (slots > 0) {
+            dailyRollupRecorder.checkpoint(accountId, LocalDate.now(), total);
+            balanceTable.removeAfterCommit(accountId);
+        } else {
+            balanceTable.putAfterCommit(accountId, total);
+        }
+        afterCommit(() -> {
+            if (slots > 0) {
+                slotCounts.put(accountId, slots);
+            } else {
+                slotCounts.remove(accountId);
+            }
+        });
+    }
+
+    /**
+     * Overwrites the balance of a hot account, spreading it across its slots. Must
+     * be called within a transaction while holding the account's posting lock.
+     *
+     * @param account the hot account
+     * @param balance the new balance
+     */
+    public void overwrite(Account account, Money balance) {
+        List<AccountBalanceSlot> slots = accountBalanceSlotRepository.findByAccountIdForUpdate(account.getId());
+        redistribute(slots, balance);
+        dailyRollupRecorder.checkpoint(account.getId(), LocalDate.now(), balance);
+    }
+
+    /**
+     * Returns the exact balance of an account: the sum of its slots for a hot
+     * account, {@code currentBalance} otherwise.
+     *
+     * @param account the account
+     * @return the balance
+     */
+    public BigDecimal currentBalanceOf(Account account) {
+        if (account.getBalanceSlots() > 0) {
+            return accountBalanceSlotRepository.sumBalanceByAccountId(account.getId());
+        }
+        return account.getCurrentBalance().toBigDecimal();
+    }
+
+    private TransactionDto deposit(TransactionDto transactionDto, Money amount, int slots, String idempotencyKey) {
+        Long accountId = transactionDto.getAccountId();
+        int slot = ThreadLocalRandom.current().nextInt(slots);
+        if (accountBalanceSlotRepository.addToSlot(accountId, slot, amount.toBigDecimal()) == 0) {
+            requireActive(accountId);
+            return null;
+        }
+        Money balance = Money.of(accountBalanceSlotRepository.sumBalanceByAccountId(accountId));
+        return save(transactionDto, amount, balance, idempotencyKey);
+    }
+
+    private TransactionDto withdraw(TransactionDto transactionDto, Money amount, int slots, String idempotencyKey) {
+        Long accountId = transactionDto.getAccountId();
+        int slot = ThreadLocalRandom.current().nextInt(slots);
+        if (accountBalanceSlotRepository.addToSlot(accountId, slot, amount.negate().toBigDecimal()) == 1) {
+            Money balance = Money.of(accountBalanceSlotRepository.sumBalanceByAccountId(accountId));
+            return save(transactionDto, amount, balance, idempotencyKey);
+        }
+
+        String accountNumber = requireActive(accountId);
+        List<AccountBalanceSlot> locked = accountBalanceSlotRepository.findByAccountIdForUpdate(accountId);
+        if (locked.size() != slots) {
+            return null;
+        }
+        Money total = Money.ZERO;
+        for (AccountBalanceSlot balanceSlot : locked) {
+            total = total.add(Money.of(balanceSlot.getBalance()));
+        }
+        Money newTotal = total.subtract(amount);
+        if (newTotal.isNegative()) {
+            throw new InsufficientBalanceException(accountNumber);
+        }
+        redistribute(locked, newTotal);
+        return save(transactionDto, amount, newTotal, idempotencyKey);
+    }
+
+    private String requireActive(Long accountId) {
+        return accountRepository.findActiveNumberById(accountId)
+                .orElseThrow(() -> new AccountNotFoundException(accountId));
+    }
+
+    private TransactionDto save(TransactionDto transactionDto, Money amount, Money balance, String idempotencyKey) {
+        Transaction transaction = transactionMapper.toEntity(transactionDto.getType(), amount,
+                accountRepository.getOne(transactionDto.getAccountId()), balance);
+        Transaction persisted = transactionRepository.save(transaction);
+        dailyRollupRecorder.recordDelta(persisted);
+        reportDataCache.patchAfterCommit(List.of(persisted));
+        TransactionDto saved = transactionMapper.toDto(persisted);
+        if (idempotencyKey != null) {
+            idempotencyStore.record(idempotencyKey, saved);
+        }
+        return saved;
+    }
+
+    private Money currentBalanceForUpdate(Account account) {
+        if (account.getBalanceSlots() == 0) {
+            return account.getCurrentBalance();
+        }
+        Money total = Money.ZERO;
+        for (AccountBalanceSlot slot : accountBalanceSlotRepository.findByAccountIdForUpdate(account.getId())) {
+            total = total.add(Money.of(slot.getBalance()));
+        }
+        return total;
+    }
+
+    private void redistribute(List<AccountBalanceSlot> slots, Money total) {
+        long share = total.getUnits() / slots.size();
+        long remainder = total.getUnits() - share * slots.size();
+        for (int i = 0; i < slots.size(); i++) {
+            slots.get(i).setBalance(Money.ofUnits(i == 0 ? share + remainder : share).toBigDecimal());
+        }
+    }
+
+    private List<AccountBalanceSlot> spread(Long accountId, Money total, int count) {
+        List<AccountBalanceSlot> slots = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            AccountBalanceSlot slot = new AccountBalanceSlot();
+            slot.setAccountId(accountId);
+            slot.setSlotIndex(i);
+            slots.add(slot);
+        }
+        redistribute(slots, total);
+        return slots;
+    }
+
+    private void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,190 @@
+package com.devsu.hackerearth.backend.account.posting;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.devsu.hackerearth.backend.account.exception.IdempotencyKeyReusedException;
+import com.devsu.hackerearth.backend.account.mapper.TransactionMapper;
+import com.devsu.hackerearth.backend.account.model.IdempotencyRecord;
+import com.devsu.hackerearth.backend.account.model.dto.TransactionDto;
+import com.devsu.hackerearth.backend.account.repository.IdempotencyRecordRepository;
+import com.devsu.hackerearth.backend.account.repository.TransactionRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Deduplicates retried postings by their {@code Idempotency-Key}.
+ * <p>
+ * The {@code idempotency_record} table is the source of truth: a key is
+ * inserted in the same database transaction as the posting it identifies, and
+ * its unique constraint rejects concurrent duplicates. In front of the table
+ * sits a bounded, access-ordered LRU index of recently seen keys with a
+ * time-to-live, so a retry storm for the same key is answered from memory
+ * without any query. Entries are added to the index only after the posting
+ * commits.
+ * </p>
+ * <p>
+ * A key is honoured for the time-to-live, in memory and in the table alike; a
+ * record past it is ignored by lookups and replaced when the key is used
+ * again, whether or not the periodic purge has removed it yet. A key sent
+ * again with a different account, type or amount than the posting it
+ * identifies is rejected rather than answered with that posting.
+ * </p>
+ *
+ * Configuration:
+ * <ul>
+ * <li>{@code account.posting.idempotency-cache-size} – Maximum keys held in
+ * memory (default 100000).</li>
+ * <li>{@code account.posting.idempotency-ttl-minutes} – How long a key is
+ * honoured, in memory and in the table (default 1440).</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionMapper transactionMapper;
+    private final long ttlMillis;
+    private final Map<String, CachedPosting> recent;
+
+    public IdempotencyStore(IdempotencyRecordRepository idempotencyRecordRepository,
+            TransactionRepository transactionRepository, TransactionMapper transactionMapper,
+            PostingProperties postingProperties) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionMapper = transactionMapper;
+        this.ttlMillis = TimeUnit.MINUTES.toMillis(postingProperties.getIdempotencyTtlMinutes());
+        int maxEntries = Math.max(1, postingProperties.getIdempotencyCacheSize());
+        this.recent = new LinkedHashMap<String, CachedPosting>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedPosting> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Looks up the transaction previously registered under a key, first in memory
+     * and then in the table, and checks that it is the posting being requested.
+     *
+     * @param key     the idempotency key
+     * @param request the posting requested under the key
+     * @return an {@link Optional} containing the original transaction, if any
+     * @throws IdempotencyKeyReusedException if the key identifies a posting with
+     *                                       a different account, type or amount
+     */
+    public Optional<TransactionDto> find(String key, TransactionDto request) {
+        Optional<TransactionDto> previous = lookup(key);
+        if (previous.isPresent() && !isSamePosting(request, previous.get())) {
+            throw new IdempotencyKeyReusedException(key);
+        }
+        return previous;
+    }
+
+    /**
+     * Tells whether two postings have the same account, type and amount.
+     *
+     * @param request the posting requested
+     * @param other   the posting it is compared with
+     * @return {@code true} if a key identifying one may answer the other
+     */
+    public static boolean isSamePosting(TransactionDto request, TransactionDto other) {
+        return Objects.equals(request.getAccountId(), other.getAccountId())
+                && request.getType() == other.getType()
+                && request.getAmount() != null && other.getAmount() != null
+                && request.getAmount().compareTo(other.getAmount()) == 0;
+    }
+
+    private Optional<TransactionDto> lookup(String key) {
+        long now = System.currentTimeMillis();
+        synchronized (recent) {
+            CachedPosting cached = recent.get(key);
+            if (cached != null) {
+                if (cached.expiresAt > now) {
+                    return Optional.of(cached.transaction);
+                }
+                recent.remove(key);
+            }
+        }
+
+        Optional<TransactionDto> stored = idempotencyRecordRepository.findTransactionIdByKey(key, expiryThreshold())
+                .flatMap(transactionRepository::findById)
+                .map(transactionMapper::toDto);
+        stored.ifPresent(transaction -> remember(key, transaction));
+        return stored;
+    }
+
+    /**
+     * Records a key for a posting within the current database transaction. An
+     * expired record of the key is deleted first. The insert is flushed
+     * immediately so a duplicate key fails the posting before it commits; the
+     * in-memory index is updated once the transaction commits.
+     *
+     * @param key         the idempotency key
+     * @param transaction the transaction registered by the posting
+     */
+    public void record(String key, TransactionDto transaction) {
+        idempotencyRecordRepository.deleteByKeyCreatedBefore(key, expiryThreshold());
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setKey(key);
+        record.setTransactionId(transaction.getId());
+        idempotencyRecordRepository.saveAndFlush(record);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remember(key, transaction);
+                }
+            });
+        } else {
+            remember(key, transaction);
+        }
+    }
+
+    /**
+     * Removes table records older than the configured time-to-live.
+     */
+    @Scheduled(fixedDelayString = "${account.posting.idempotency-purge-interval-millis:3600000}")
+    public void purgeExpired() {
+        int purged = idempotencyRecordRepository.deleteCreatedBefore(expiryThreshold());
+        if (purged > 0) {
+            log.info("[Idempotency] Purged {} expired keys", purged);
+        }
+    }
+
+    private LocalDateTime expiryThreshold() {
+        return LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(ttlMillis));
+    }
+
+    private void remember(String key, TransactionDto transaction) {
+        CachedPosting cached = new CachedPosting(transaction, System.currentTimeMillis() + ttlMillis);
+        synchronized (recent) {
+            recent.put(key, cached);
+        }
+    }
+
+    private static final class CachedPosting {
+
+        private final TransactionDto transaction;
+        private final long expiresAt;
+
+        CachedPosting(TransactionDto transaction, long expiresAt) {
+            this.transaction = transaction;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.devsu.hackerearth.backend.account.posting;
+
+/**
+ * Open-addressing hash map from positive {@code long} account IDs to balances
+ * held as {@code long} ten-thousandths (scale 4, the scale of
+ * {@code account.current_balance}).
+ * <p>
+ * Keys and values live in two parallel primitive arrays, so an entry costs 16
+ * bytes of array space and no per-entry objects: no boxed {@code Long}, no
+ * {@code BigDecimal}, no map node. Collisions are resolved by linear probing
+ * and removals by backward shifting, so no tombstones accumulate. The table
+ * doubles when it becomes three quarters full.
+ * </p>
+ * <p>
+ * Not thread-safe; {@link BalanceTable} guards access.
+ * </p>
+ */
+public class LongBalanceMap {
+
+    private static final long EMPTY = 0L;
+    private static final long ARRAY_HEADER_BYTES = 16;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    public LongBalanceMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Returns the balance of an account in ten-thousandths.
+     *
+     * @param id           the account ID
+     * @param defaultValue the value to return if the account is absent
+     * @return the stored balance, or {@code defaultValue}
+     */
+    public long get(long id, long defaultValue) {
+        int slot = find(id);
+        return slot < 0 ? defaultValue : values[slot];
+    }
+
+    public boolean containsKey(long id) {
+        return find(id) >= 0;
+    }
+
+    /**
+     * Stores the balance of an account in ten-thousandths.
+     *
+     * @param id    the account ID; must be positive
+     * @param value the balance
+     */
+    public void put(long id, long value) {
+        if (id <= 0) {
+            throw new IllegalArgumentException("Account ID must be positive: " + id);
+        }
+        int slot = slotFor(id);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == id) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = id;
+        values[slot] = value;
+        if (++size > resizeAt) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    /**
+     * Adds to the balance of an account already in the map.
+     *
+     * @param id    the account ID
+     * @param delta the amount to add, in ten-thousandths
+     * @return {@code false} if the account is absent
+     * @throws ArithmeticException if the balance overflows
+     */
+    public boolean add(long id, long delta) {
+        int slot = find(id);
+        if (slot < 0) {
+            return false;
+        }
+        values[slot] = Math.addExact(values[slot], delta);
+        return true;
+    }
+
+    public void remove(long id) {
+        int slot = find(id);
+        if (slot < 0) {
+            return;
+        }
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = slotFor(keys[next]);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        values[hole] = 0L;
+        size--;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the heap retained by the two backing arrays.
+     *
+     * @return the footprint in bytes
+     */
+    public long footprintBytes() {
+        return 2 * (ARRAY_HEADER_BYTES + (long) keys.length * Long.BYTES);
+    }
+
+    private int find(long id) {
+        if (id <= 0) {
+            return -1;
+        }
+        int slot = slotFor(id);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == id) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int slotFor(long id) {
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slotFor(oldKeys[i]);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * 0.75);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long needed = Math.max(16, (long) Math.ceil(expectedSize / 0.75) + 1);
+        if (needed > (1 << 30)) {
+            throw new IllegalArgumentException("Too many entries: " + expectedSize);
+        }
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+}
@@ -0,0 +1,46 @@
+package com.devsu.hackerearth.backend.account.posting;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.devsu.hackerearth.backend.account.model.dto.TransactionDto;
+import com.devsu.hackerearth.backend.account.type.Money;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * A posting request waiting in a group-commit batch, together with the outcome
+ * assigned to it when the batch is applied.
+ * <p>
+ * The batch handler sets either {@code result} or {@code failure}. The caller's
+ * future is completed only after the batch transaction has committed.
+ * </p>
+ */
+@Getter
+public class PendingPosting {
+
+    private final TransactionDto request;
+    private final Money amount;
+    private final String idempotencyKey;
+    private final CompletableFuture<TransactionDto> future = new CompletableFuture<>();
+
+    @Setter
+    private TransactionDto result;
+
+    @Setter
+    private RuntimeException failure;
+
+    public PendingPosting(TransactionDto request, Money amount, String idempotencyKey) {
+        this.request = request;
+        this.amount = amount;
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    void complete() {
+        if (failure != null) {
+            future.completeExceptionally(failure);
+        } else {
+            future.complete(result);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.devsu.hackerearth.backend.account.posting;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import com.devsu.hackerearth.backend.account.type.PostingMode;
+
+import lombok.Data;
+
+/**
+ * Settings for the transaction posting path, bound from the
+ * {@code account.posting.*} properties.
+ *
+ * Fields:
+ * <ul>
+ * <li>{@code mode} – Strategy used to update balances (default
+ * {@link PostingMode#LOCKED}).</li>
+ * <li>{@code lockStripes} – Number of per-account lock stripes, rounded up to a
+ * power of two (default 1024).</li>
+ * <li>{@code groupCommitWindowMillis} – How long the first posting of a group
+ * waits for others to the same account (default 5 ms).</li>
+ * <li>{@code groupCommitMaxBatch} – Number of postings that closes a group
+ * early (default 100).</li>
+ * <li>{@code groupCommitThreads} – Threads that commit groups whose window
+ * expired (default 4).</li>
+ * <li>{@code importChunkSize} – Number of items committed per database
+ * transaction by the bulk import (default 500).</li>
+ * <li>{@code idempotencyCacheSize} – Idempotency keys kept in memory (default
+ * 100000).</li>
+ * <li>{@code idempotencyTtlMinutes} – How long an idempotency key is honoured
+ * (default 1440).</li>
+ * <li>{@code balanceTableEnabled} – Whether postings are validated against the
+ * in-memory {@link BalanceTable} (default false).</li>
+ * <li>{@code balanceTableExpectedAccounts} – Initial capacity of the balance
+ * table (default 1024).</li>
+ * <li>{@code journalDir} – Directory of the write-ahead journal segments
+ * (default {@code data/journal}).</li>
+ * <li>{@code journalSegmentBytes} – Size of each mapped journal segment
+ * (default 64 MiB).</li>
+ * <li>{@code journalForce} – Whether each append is forced to disk (default
+ * false).</li>
+ * <li>{@code journalApplyBatchSize} – Journal records applied to the database
+ * per transaction (default 500).</li>
+ * <li>{@code journalDiscardForeignTail} – Whether journal segments that do not
+ * continue the database's checkpoint are moved aside at startup instead of
+ * stopping it (default false).</li>
+ * </ul>
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "account.posting")
+public class PostingProperties {
+
+    private PostingMode mode = PostingMode.LOCKED;
+
+    private int lockStripes = 1024;
+
+    private long groupCommitWindowMillis = 5;
+
+    private int groupCommitMaxBatch = 100;
+
+    private int groupCommitThreads = 4;
+
+    private int importChunkSize = 500;
+
+    private int idempotencyCacheSize = 100_000;
+
+    private long idempotencyTtlMinutes = 1440;
+
+    private boolean balanceTableEnabled = false;
+
+    private int balanceTableExpectedAccounts = 1024;
+
+    private String journalDir = "data/journal";
+
+    private int journalSegmentBytes = 64 * 1024 * 1024;
+
+    private boolean journalForce = false;
+
+    private int journalApplyBatchSize = 500;
+
+    private boolean journalDiscardForeignTail = false;
+}
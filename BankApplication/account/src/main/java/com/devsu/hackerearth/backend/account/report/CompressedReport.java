@@ -0,0 +1,70 @@
+package com.devsu.hackerearth.backend.account.report;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * A completed report held as gzip-compressed JSON, encoded once when the report
+ * arrives and served as is.
+ * <p>
+ * The compressed bytes are shared, not copied: callers must not modify the
+ * array returned by {@link #getGzip()}.
+ * </p>
+ */
+public final class CompressedReport {
+
+    private final byte[] gzip;
+    private final long jsonLength;
+
+    public CompressedReport(byte[] gzip, long jsonLength) {
+        this.gzip = gzip;
+        this.jsonLength = jsonLength;
+    }
+
+    /**
+     * Returns the gzip-compressed JSON document.
+     *
+     * @return the compressed bytes
+     */
+    public byte[] getGzip() {
+        return gzip;
+    }
+
+    /**
+     * Returns the length of the uncompressed JSON document.
+     *
+     * @return the number of JSON bytes
+     */
+    public long getJsonLength() {
+        return jsonLength;
+    }
+
+    /**
+     * Opens the uncompressed JSON document for reading.
+     *
+     * @return a stream over the JSON bytes
+     */
+    public InputStream openJson() {
+        try {
+            return new GZIPInputStream(new ByteArrayInputStream(gzip), 8192);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Decompresses the JSON document, for clients that do not accept gzip.
+     *
+     * @return the JSON bytes
+     */
+    public byte[] toJson() {
+        try (InputStream json = openJson()) {
+            return json.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
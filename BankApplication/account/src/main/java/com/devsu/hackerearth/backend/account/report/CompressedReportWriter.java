@@ -0,0 +1,162 @@
+package com.devsu.hackerearth.backend.account.report;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import com.devsu.hackerearth.backend.account.dto.AccountDataDto;
+import com.devsu.hackerearth.backend.account.dto.ReportResponseEvent;
+import com.devsu.hackerearth.backend.account.dto.TransactionSummaryDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Encodes a report as gzip-compressed JSON while its accounts are appended, so
+ * a report streamed in chunks is compressed as the chunks arrive and is never
+ * held as a complete object graph.
+ * <p>
+ * The document has the same shape as the serialized
+ * {@link ReportResponseEvent}. The last account written stays open: if the
+ * next chunk starts with a slice of the same account, its transactions are
+ * appended to that account instead of starting a new one.
+ * </p>
+ */
+public final class CompressedReportWriter {
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(4096);
+    private final CountingStream json;
+    private final JsonGenerator generator;
+    private final String correlationId;
+    private String openAccount;
+    private int chunks;
+
+    /**
+     * Starts a report document with the client and period of the given event.
+     *
+     * @param objectMapper the mapper used to serialize report values
+     * @param header       the first message of the report
+     */
+    public CompressedReportWriter(ObjectMapper objectMapper, ReportResponseEvent header) {
+        this.correlationId = header.getCorrelationId();
+        try {
+            this.json = new CountingStream(new GZIPOutputStream(buffer, 8192));
+            this.generator = objectMapper.getFactory().createGenerator(json);
+            generator.writeStartObject();
+            generator.writeObjectField("client", header.getClient());
+            generator.writeObjectField("reportPeriod", header.getReportPeriod());
+            generator.writeArrayFieldStart("accounts");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Encodes a complete, unchunked report.
+     *
+     * @param objectMapper the mapper used to serialize report values
+     * @param report       the report
+     * @return the compressed report
+     */
+    public static CompressedReport write(ObjectMapper objectMapper, ReportResponseEvent report) {
+        CompressedReportWriter writer = new CompressedReportWriter(objectMapper, report);
+        writer.append(report.getAccounts());
+        return writer.finish();
+    }
+
+    /**
+     * Appends the accounts of one message.
+     *
+     * @param accounts the account slices, in report order; may be {@code null}
+     */
+    public void append(List<AccountDataDto> accounts) {
+        chunks++;
+        if (accounts == null) {
+            return;
+        }
+        try {
+            for (int i = 0; i < accounts.size(); i++) {
+                AccountDataDto account = accounts.get(i);
+                if (account.getTransactions() == null) {
+                    closeOpenAccount();
+                    generator.writeObject(account);
+                    continue;
+                }
+                if (i > 0 || openAccount == null || !openAccount.equals(account.getNumber())) {
+                    closeOpenAccount();
+                    generator.writeStartObject();
+                    generator.writeObjectField("number", account.getNumber());
+                    generator.writeObjectField("type", account.getType());
+                    generator.writeObjectField("initialAmount", account.getInitialAmount());
+                    generator.writeObjectField("currentBalance", account.getCurrentBalance());
+                    generator.writeArrayFieldStart("transactions");
+                    openAccount = account.getNumber();
+                }
+                for (TransactionSummaryDTO transaction : account.getTransactions()) {
+                    generator.writeObject(transaction);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the number of messages appended so far.
+     *
+     * @return the appended chunk count
+     */
+    public int getChunks() {
+        return chunks;
+    }
+
+    /**
+     * Closes the document and returns the compressed report.
+     *
+     * @return the compressed report
+     */
+    public CompressedReport finish() {
+        try {
+            closeOpenAccount();
+            generator.writeEndArray();
+            generator.writeObjectField("correlationId", correlationId);
+            generator.writeEndObject();
+            generator.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new CompressedReport(buffer.toByteArray(), json.count);
+    }
+
+    private void closeOpenAccount() throws IOException {
+        if (openAccount != null) {
+            generator.writeEndArray();
+            generator.writeEndObject();
+            openAccount = null;
+        }
+    }
+
+    private static final class CountingStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
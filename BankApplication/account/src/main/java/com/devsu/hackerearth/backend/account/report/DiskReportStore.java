@@ -0,0 +1,428 @@
+package com.devsu.hackerearth.backend.account.report;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Durable store of completed reports on local disk, so that reports survive a
+ * restart of the service.
+ * <p>
+ * Reports are appended to memory-mapped segment files and located through an
+ * in-memory index of correlation ID to segment and offset; reads copy the
+ * compressed bytes straight out of the mapping. A report stored again under the
+ * same correlation ID supersedes the earlier record, and removal appends a
+ * tombstone. When a segment is full, an end marker is written and a new
+ * segment is mapped.
+ * </p>
+ * <p>
+ * {@link #open()} rebuilds the index by scanning every segment, skipping
+ * expired reports and stopping within a segment at its first torn or corrupt
+ * record, then starts a fresh segment. {@link #compact()} drops expired
+ * reports from the index and, starting from the oldest segment, copies the
+ * live reports of mostly dead segments to the current one before deleting
+ * them. Mapped writes survive a process crash; set {@code force} to
+ * also survive an operating system crash.
+ * </p>
+ *
+ * Record layout:
+ * <ul>
+ * <li>{@code int length} – Payload length, written last; 0 marks unwritten
+ * space and -1 the end of a segment.</li>
+ * <li>{@code int crc} – CRC32 of the payload.</li>
+ * <li>{@code long expiresAt} – Expiry time in epoch milliseconds; 0 marks a
+ * tombstone.</li>
+ * <li>{@code long jsonLength} – Length of the uncompressed JSON document.</li>
+ * <li>{@code short idLength, byte[] id} – UTF-8 correlation ID.</li>
+ * <li>{@code byte[] gzip} – The compressed report, up to the end of the
+ * payload.</li>
+ * </ul>
+ */
+@Slf4j
+public class DiskReportStore {
+
+    static final int HEADER_BYTES = 8;
+    static final int FIXED_PAYLOAD_BYTES = 18;
+
+    private static final int END_OF_SEGMENT = -1;
+    private static final int MAX_ID_BYTES = 0xFFFF;
+    private static final double COMPACTION_LIVE_RATIO = 0.5;
+    private static final String SEGMENT_PREFIX = "reports-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final boolean force;
+
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private final Map<String, Location> index = new HashMap<>();
+    private final CRC32 crc = new CRC32();
+    private Segment current;
+    private long liveBytes;
+    private boolean open;
+
+    public DiskReportStore(Path directory, int segmentBytes, boolean force) {
+        if (segmentBytes < HEADER_BYTES + FIXED_PAYLOAD_BYTES + Integer.BYTES) {
+            throw new IllegalArgumentException("Report segment too small: " + segmentBytes);
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.force = force;
+    }
+
+    /**
+     * Rebuilds the index from the existing segments and starts a new segment.
+     *
+     * @throws IOException if the store directory cannot be read or written
+     */
+    public synchronized void open() throws IOException {
+        Files.createDirectories(directory);
+        long now = System.currentTimeMillis();
+        long lastNumber = 0;
+        for (Path path : listSegments()) {
+            long number = segmentNumber(path);
+            Segment segment;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                segment = new Segment(number, path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+            segments.put(number, segment);
+            readSegment(segment, now);
+            lastNumber = Math.max(lastNumber, number);
+        }
+        current = newSegment(lastNumber + 1, segmentBytes);
+        open = true;
+        if (!index.isEmpty()) {
+            log.info("[ReportStore] Recovered {} reports ({} bytes) from {} segments", index.size(), liveBytes,
+                    segments.size() - 1);
+        }
+    }
+
+    /**
+     * Appends a completed report, superseding any report with the same
+     * correlation ID.
+     *
+     * @param correlationId the identifier of the report request
+     * @param report        the compressed report
+     * @param expiresAt     expiry time in epoch milliseconds
+     * @throws UncheckedIOException if a new segment cannot be created
+     */
+    public synchronized void put(String correlationId, CompressedReport report, long expiresAt) {
+        byte[] gzip = report.getGzip();
+        Location location = append(correlationId, expiresAt, report.getJsonLength(), ByteBuffer.wrap(gzip));
+        replace(correlationId, location);
+    }
+
+    /**
+     * Reads a stored report.
+     *
+     * @param correlationId the identifier of the report request
+     * @return the report and its expiry, or {@code null} if it is unknown or
+     *         expired
+     */
+    synchronized StoredReport get(String correlationId) {
+        Location location = index.get(correlationId);
+        if (location == null || location.expiresAt <= System.currentTimeMillis()) {
+            return null;
+        }
+        byte[] gzip = new byte[location.gzipBytes];
+        gzipOf(location).get(gzip);
+        return new StoredReport(correlationId, new CompressedReport(gzip, location.jsonLength), gzip.length,
+                location.expiresAt);
+    }
+
+    /**
+     * Tells whether a live report is stored, without reading it.
+     *
+     * @param correlationId the identifier of the report request
+     * @return {@code true} if the report is stored and not expired
+     */
+    public synchronized boolean contains(String correlationId) {
+        Location location = index.get(correlationId);
+        return location != null && location.expiresAt > System.currentTimeMillis();
+    }
+
+    /**
+     * Removes a stored report by appending a tombstone for it.
+     *
+     * @param correlationId the identifier of the report request
+     */
+    public synchronized void remove(String correlationId) {
+        if (index.containsKey(correlationId)) {
+            append(correlationId, 0L, 0L, ByteBuffer.allocate(0));
+            replace(correlationId, null);
+        }
+    }
+
+    /**
+     * Drops expired reports from the index and reclaims the space of sealed
+     * segments that hold mostly expired or superseded reports.
+     * <p>
+     * Segments are compacted oldest first, stopping at the first one that is
+     * still mostly live, so a tombstone is never deleted while an older record it
+     * hides remains on disk. Every report has the same time-to-live, so the
+     * oldest segments are also the ones that expire first. Moving live reports
+     * may rotate the current segment; compaction stops at the segment that was
+     * current when it started, so the segments receiving moved reports are never
+     * compacted in the same pass.
+     * </p>
+     *
+     * @return the number of reports that expired
+     */
+    public synchronized int compact() {
+        if (!open) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        Map<Segment, List<Map.Entry<String, Location>>> live = new HashMap<>();
+        int expired = 0;
+        for (Iterator<Map.Entry<String, Location>> it = index.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<String, Location> entry = it.next();
+            Location location = entry.getValue();
+            if (location.expiresAt <= now) {
+                it.remove();
+                liveBytes -= location.recordBytes;
+                expired++;
+            } else {
+                live.computeIfAbsent(location.segment, segment -> new ArrayList<>()).add(entry);
+            }
+        }
+
+        int deleted = 0;
+        int rewritten = 0;
+        long firstUnsealed = current.number;
+        for (Segment segment : new ArrayList<>(segments.values())) {
+            if (segment.number >= firstUnsealed) {
+                break;
+            }
+            List<Map.Entry<String, Location>> entries = live.getOrDefault(segment, List.of());
+            long segmentLive = entries.stream().mapToLong(entry -> entry.getValue().recordBytes).sum();
+            if (segmentLive > 0 && segmentLive >= segment.position * COMPACTION_LIVE_RATIO) {
+                break;
+            }
+            for (Map.Entry<String, Location> entry : entries) {
+                Location location = entry.getValue();
+                Location moved = append(entry.getKey(), location.expiresAt, location.jsonLength, gzipOf(location));
+                liveBytes += moved.recordBytes - location.recordBytes;
+                entry.setValue(moved);
+                rewritten++;
+            }
+            segments.remove(segment.number);
+            delete(segment);
+            deleted++;
+        }
+        if (deleted > 0) {
+            log.info("[ReportStore] Compacted {} segments, moving {} live reports", deleted, rewritten);
+        }
+        return expired;
+    }
+
+    /**
+     * Returns the number of live reports.
+     *
+     * @return the indexed report count
+     */
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * Returns the bytes occupied by live report records.
+     *
+     * @return the live record bytes
+     */
+    public synchronized long liveBytes() {
+        return liveBytes;
+    }
+
+    /**
+     * Forces the current segment to disk and stops accepting reports.
+     */
+    public synchronized void close() {
+        if (open && current != null) {
+            current.buffer.force();
+        }
+        open = false;
+    }
+
+    private Location append(String correlationId, long expiresAt, long jsonLength, ByteBuffer gzip) {
+        if (!open) {
+            throw new IllegalStateException("Report store is not open");
+        }
+        byte[] id = correlationId.getBytes(StandardCharsets.UTF_8);
+        if (id.length > MAX_ID_BYTES) {
+            throw new IllegalArgumentException("Correlation ID too long: " + correlationId);
+        }
+        int payload = FIXED_PAYLOAD_BYTES + id.length + gzip.remaining();
+        int record = HEADER_BYTES + payload;
+        if (current.buffer.capacity() - current.position < record + Integer.BYTES) {
+            rotate(record + Integer.BYTES);
+        }
+
+        MappedByteBuffer buffer = current.buffer;
+        int at = current.position;
+        buffer.putLong(at + 8, expiresAt);
+        buffer.putLong(at + 16, jsonLength);
+        buffer.putShort(at + 24, (short) id.length);
+        int gzipOffset = at + 26 + id.length;
+        ByteBuffer target = buffer.duplicate();
+        target.position(at + 26);
+        target.put(id).put(gzip.duplicate());
+        buffer.putInt(at + 4, checksum(buffer, at, payload));
+        buffer.putInt(at, payload);
+        if (force) {
+            buffer.force();
+        }
+        current.position = at + record;
+        return new Location(current, gzipOffset, gzip.remaining(), record, jsonLength, expiresAt);
+    }
+
+    private void replace(String correlationId, Location location) {
+        Location previous = location == null ? index.remove(correlationId) : index.put(correlationId, location);
+        if (previous != null) {
+            liveBytes -= previous.recordBytes;
+        }
+        if (location != null) {
+            liveBytes += location.recordBytes;
+        }
+    }
+
+    private void rotate(int minimumBytes) {
+        if (current.buffer.capacity() - current.position >= Integer.BYTES) {
+            current.buffer.putInt(current.position, END_OF_SEGMENT);
+        }
+        if (force) {
+            current.buffer.force();
+        }
+        try {
+            current = newSegment(current.number + 1, Math.max(segmentBytes, minimumBytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void readSegment(Segment segment, long now) {
+        MappedByteBuffer buffer = segment.buffer;
+        int at = 0;
+        while (buffer.limit() - at >= HEADER_BYTES + FIXED_PAYLOAD_BYTES) {
+            int payload = buffer.getInt(at);
+            if (payload == END_OF_SEGMENT || payload == 0) {
+                break;
+            }
+            if (payload < FIXED_PAYLOAD_BYTES || payload > buffer.limit() - at - HEADER_BYTES
+                    || buffer.getInt(at + 4) != checksum(buffer, at, payload)) {
+                log.warn("[ReportStore] Corrupt record at {}:{}; ignoring the rest of the segment", segment.path,
+                        at);
+                break;
+            }
+            long expiresAt = buffer.getLong(at + 8);
+            long jsonLength = buffer.getLong(at + 16);
+            int idLength = buffer.getShort(at + 24) & MAX_ID_BYTES;
+            byte[] id = new byte[idLength];
+            buffer.duplicate().position(at + 26).get(id);
+            String correlationId = new String(id, StandardCharsets.UTF_8);
+            int record = HEADER_BYTES + payload;
+            int gzipOffset = at + 26 + idLength;
+            replace(correlationId, expiresAt <= now ? null
+                    : new Location(segment, gzipOffset, payload - FIXED_PAYLOAD_BYTES - idLength, record,
+                            jsonLength, expiresAt));
+            at += record;
+        }
+        segment.position = at;
+    }
+
+    private ByteBuffer gzipOf(Location location) {
+        ByteBuffer gzip = location.segment.buffer.duplicate();
+        gzip.limit(location.gzipOffset + location.gzipBytes).position(location.gzipOffset);
+        return gzip;
+    }
+
+    private int checksum(ByteBuffer buffer, int at, int payload) {
+        ByteBuffer covered = buffer.duplicate();
+        covered.limit(at + HEADER_BYTES + payload).position(at + HEADER_BYTES);
+        crc.reset();
+        crc.update(covered);
+        return (int) crc.getValue();
+    }
+
+    private Segment newSegment(long number, int bytes) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            Segment segment = new Segment(number, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes));
+            segments.put(number, segment);
+            return segment;
+        }
+    }
+
+    private void delete(Segment segment) {
+        try {
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            log.warn("[ReportStore] Could not delete compacted segment {}: {}", segment.path, e.getMessage());
+        }
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static long segmentNumber(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static final class Segment {
+
+        private final long number;
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private int position;
+
+        Segment(long number, Path path, MappedByteBuffer buffer) {
+            this.number = number;
+            this.path = path;
+            this.buffer = buffer;
+        }
+    }
+
+    private static final class Location {
+
+        private final Segment segment;
+        private final int gzipOffset;
+        private final int gzipBytes;
+        private final int recordBytes;
+        private final long jsonLength;
+        private final long expiresAt;
+
+        Location(Segment segment, int gzipOffset, int gzipBytes, int recordBytes, long jsonLength, long expiresAt) {
+            this.segment = segment;
+            this.gzipOffset = gzipOffset;
+            this.gzipBytes = gzipBytes;
+            this.recordBytes = recordBytes;
+            this.jsonLength = jsonLength;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
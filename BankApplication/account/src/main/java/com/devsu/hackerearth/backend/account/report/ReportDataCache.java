@@ -0,0 +1,508 @@
+package com.devsu.hackerearth.backend.account.report;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.devsu.hackerearth.backend.account.dto.AccountDataDto;
+import com.devsu.hackerearth.backend.account.dto.TransactionSummaryDTO;
+import com.devsu.hackerearth.backend.account.mapper.TransactionSummaryMapper;
+import com.devsu.hackerearth.backend.account.model.Transaction;
+import com.devsu.hackerearth.backend.account.model.dto.ReportDataCacheStatsDto;
+
+/**
+ * Cache of assembled report data, the {@link AccountDataDto} list of a client
+ * for a period, keyed by {@code (clientId, start, end)}.
+ * <p>
+ * Entries are kept current rather than invalidated: once a posting into one of
+ * the cached accounts commits, its row is appended to every cached period
+ * containing its date and the account's current balance is updated, so a
+ * repeated month-to-date report is answered from memory however many
+ * transactions arrived since it was first assembled. Changes to the accounts
+ * themselves (a new, updated or deleted account) drop the client's entries.
+ * </p>
+ * <p>
+ * An entry is registered before its data is read. A posting that commits while
+ * the entry is being filled may or may not be seen by the read, so it marks the
+ * entry stale, and a fill that ends while a posting to one of its accounts is
+ * still committing is not trusted either; in both cases the filled data is not
+ * cached and the next request fills it again. Entries larger than
+ * {@code account.report.data-cache-max-transactions} are not cached, and the
+ * least recently used entries are evicted beyond
+ * {@code account.report.data-cache-max-entries} or once all entries together
+ * hold more than {@code account.report.data-cache-max-total-transactions}
+ * rows.
+ * </p>
+ * <p>
+ * The rows of a cached account are held in an append-only array: a posting
+ * only ever writes past the rows already handed out, so a hit returns
+ * read-only views of the rows cached so far instead of copying them.
+ * </p>
+ *
+ * Configuration:
+ * <ul>
+ * <li>{@code account.report.data-cache-max-entries} – Maximum number of cached
+ * client periods (default 256).</li>
+ * <li>{@code account.report.data-cache-max-transactions} – Maximum number of
+ * transactions in one cached period (default 50000).</li>
+ * <li>{@code account.report.data-cache-max-total-transactions} – Maximum number
+ * of transactions in all cached periods together (default 500000).</li>
+ * </ul>
+ */
+@Component
+public class ReportDataCache {
+
+    private final ReportProperties reportProperties;
+    private final TransactionSummaryMapper transactionSummaryMapper;
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Long, Set<Entry>> byAccount = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong cachedTransactions = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder patches = new LongAdder();
+
+    public ReportDataCache(ReportProperties reportProperties, TransactionSummaryMapper transactionSummaryMapper) {
+        this.reportProperties = reportProperties;
+        this.transactionSummaryMapper = transactionSummaryMapper;
+    }
+
+    /**
+     * Returns the cached report data of a client for a period. The account
+     * objects are fresh copies, and their transaction lists read-only views that
+     * later postings do not change. As in a freshly assembled report, an account
+     * without transactions in the period has a {@code null} transaction list.
+     *
+     * @param clientId the client of the report
+     * @param start    the first day of the period
+     * @param end      the last day of the period
+     * @return the account data, in account order, or {@code null} if not cached
+     */
+    public List<AccountDataDto> get(Long clientId, LocalDate start, LocalDate end) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(new Key(clientId, start, end));
+        }
+        List<AccountDataDto> data = entry != null ? entry.snapshot() : null;
+        if (data == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return data;
+    }
+
+    /**
+     * Starts filling the entry of a client's period. Must be called before the
+     * client's accounts are read, so that a change to them committing meanwhile
+     * is noticed. The returned fill collects the data as it is read and caches it
+     * on {@link Fill#complete()}, unless the client's accounts changed or a
+     * posting to one of them committed in the meantime.
+     *
+     * @param clientId the client of the report
+     * @param start    the first day of the period
+     * @param end      the last day of the period
+     * @return the fill
+     */
+    public Fill startFill(Long clientId, LocalDate start, LocalDate end) {
+        Entry entry = new Entry(new Key(clientId, start, end));
+        synchronized (entries) {
+            Entry previous = entries.put(entry.key, entry);
+            if (previous != null) {
+                discard(previous);
+            }
+            evictOverflow();
+        }
+        return new Fill(entry);
+    }
+
+    /**
+     * Applies postings to the cached periods of their accounts once the current
+     * database transaction commits, or at once outside a transaction. Until the
+     * transaction completes, the accounts count as having a posting in flight,
+     * which keeps a concurrent fill of their periods from being cached.
+     *
+     * @param transactions the saved transactions, in posting order
+     */
+    public void patchAfterCommit(Collection<Transaction> transactions) {
+        List<Transaction> postings = List.copyOf(transactions);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            patch(postings);
+            return;
+        }
+        for (Transaction posting : postings) {
+            inFlight.merge(posting.getAccount().getId(), 1, Integer::sum);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        patch(postings);
+                    }
+                } finally {
+                    for (Transaction posting : postings) {
+                        inFlight.computeIfPresent(posting.getAccount().getId(),
+                                (id, count) -> count == 1 ? null : count - 1);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Drops every cached period of a client once the current database transaction
+     * commits, for changes to its accounts that are not postings. Periods being
+     * filled at that moment are not cached.
+     *
+     * @param clientId the client whose accounts changed
+     */
+    public void invalidateClientAfterCommit(Long clientId) {
+        Runnable invalidate = () -> {
+            synchronized (entries) {
+                Iterator<Entry> iterator = entries.values().iterator();
+                while (iterator.hasNext()) {
+                    Entry entry = iterator.next();
+                    if (Objects.equals(entry.key.clientId, clientId)) {
+                        iterator.remove();
+                        discard(entry);
+                    }
+                }
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate.run();
+            }
+        });
+    }
+
+    /**
+     * Returns the number of cached periods and transactions, and the hit, miss
+     * and patch counters.
+     *
+     * @return the cache statistics
+     */
+    public ReportDataCacheStatsDto stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new ReportDataCacheStatsDto(size, cachedTransactions.get(), hits.sum(), misses.sum(),
+                patches.sum());
+    }
+
+    private void patch(List<Transaction> postings) {
+        StringBuilder buffer = new StringBuilder(24);
+        int appended = 0;
+        for (Transaction posting : postings) {
+            Set<Entry> cached = byAccount.get(posting.getAccount().getId());
+            if (cached == null) {
+                continue;
+            }
+            TransactionSummaryDTO row = transactionSummaryMapper.toDto(posting, buffer);
+            for (Entry entry : cached) {
+                int rows = entry.patch(posting.getAccount().getId(), posting.getDate(), row,
+                        posting.getBalance().toBigDecimal());
+                if (rows >= 0) {
+                    patches.increment();
+                    appended += rows;
+                }
+            }
+        }
+        if (appended > 0) {
+            cachedTransactions.addAndGet(appended);
+            synchronized (entries) {
+                evictOverflow();
+            }
+        }
+    }
+
+    private void remove(Entry entry) {
+        synchronized (entries) {
+            if (entries.remove(entry.key, entry)) {
+                discard(entry);
+            }
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while ((entries.size() > reportProperties.getDataCacheMaxEntries()
+                || cachedTransactions.get() > reportProperties.getDataCacheMaxTotalTransactions())
+                && iterator.hasNext()) {
+            Entry eldest = iterator.next();
+            iterator.remove();
+            discard(eldest);
+        }
+    }
+
+    private void discard(Entry entry) {
+        unindex(entry);
+        cachedTransactions.addAndGet(-entry.release());
+    }
+
+    private void index(Entry entry) {
+        synchronized (entries) {
+            if (entries.get(entry.key) != entry) {
+                return;
+            }
+            for (Long accountId : entry.accountIds) {
+                byAccount.computeIfAbsent(accountId, id -> ConcurrentHashMap.newKeySet()).add(entry);
+            }
+        }
+    }
+
+    private void unindex(Entry entry) {
+        for (Long accountId : entry.accountIds) {
+            byAccount.computeIfPresent(accountId, (id, indexed) -> {
+                indexed.remove(entry);
+                return indexed.isEmpty() ? null : indexed;
+            });
+        }
+    }
+
+    /**
+     * Collects the report data of an entry being filled.
+     */
+    public final class Fill {
+
+        private final Entry entry;
+        private final Map<Long, AccountDataDto> accounts = new LinkedHashMap<>();
+        private int transactions;
+        private boolean abandoned;
+
+        private Fill(Entry entry) {
+            this.entry = entry;
+        }
+
+        /**
+         * Sets the client's accounts, with no transactions, in report order. Must
+         * be called before their transactions are read, so that postings to them
+         * are tracked from then on.
+         *
+         * @param accountData the account fields by account ID; their transactions
+         *                    are ignored
+         */
+        public void setAccounts(Map<Long, AccountDataDto> accountData) {
+            accountData.forEach((accountId, data) -> accounts.put(accountId, new AccountDataDto(data.getNumber(),
+                    data.getType(), data.getInitialAmount(), data.getCurrentBalance(), new ArrayList<>())));
+            entry.accountIds = List.copyOf(accounts.keySet());
+            index(entry);
+        }
+
+        /**
+         * Adds a transaction row to an account already added.
+         *
+         * @param accountId   the account ID
+         * @param transaction the report row
+         */
+        public void addTransaction(Long accountId, TransactionSummaryDTO transaction) {
+            if (abandoned) {
+                return;
+            }
+            if (++transactions > reportProperties.getDataCacheMaxTransactions()) {
+                abandon();
+                return;
+            }
+            accounts.get(accountId).getTransactions().add(transaction);
+        }
+
+        /**
+         * Caches the collected data, unless the fill was abandoned or a posting to
+         * one of its accounts committed, or is still committing, while it was read.
+         */
+        public void complete() {
+            boolean settled = !abandoned;
+            for (Long accountId : entry.accountIds) {
+                settled &= !inFlight.containsKey(accountId);
+            }
+            long rows = settled ? entry.fill(accounts.values()) : -1;
+            if (rows < 0) {
+                abandon();
+                return;
+            }
+            cachedTransactions.addAndGet(rows);
+            synchronized (entries) {
+                evictOverflow();
+            }
+        }
+
+        /**
+         * Gives up the fill and removes its entry.
+         */
+        public void abandon() {
+            abandoned = true;
+            accounts.clear();
+            remove(entry);
+        }
+    }
+
+    private static final class Entry {
+
+        private final Key key;
+        private volatile List<Long> accountIds = List.of();
+        private List<CachedAccount> data;
+        private long rows;
+        private boolean stale;
+
+        Entry(Key key) {
+            this.key = key;
+        }
+
+        /**
+         * Caches the filled data, unless the entry went stale.
+         *
+         * @return the number of rows cached, or {@code -1} if stale
+         */
+        synchronized long fill(Collection<AccountDataDto> filled) {
+            if (stale) {
+                return -1;
+            }
+            List<CachedAccount> cached = new ArrayList<>(filled.size());
+            for (AccountDataDto account : filled) {
+                CachedAccount copy = new CachedAccount(account);
+                cached.add(copy);
+                rows += copy.size;
+            }
+            data = cached;
+            return rows;
+        }
+
+        /**
+         * Drops the cached data of an entry that left the cache, and keeps a fill
+         * still in progress from being cached.
+         *
+         * @return the number of rows dropped
+         */
+        synchronized long release() {
+            stale = true;
+            data = null;
+            long released = rows;
+            rows = 0;
+            return released;
+        }
+
+        synchronized List<AccountDataDto> snapshot() {
+            if (data == null) {
+                return null;
+            }
+            List<AccountDataDto> snapshot = new ArrayList<>(data.size());
+            for (CachedAccount account : data) {
+                snapshot.add(account.snapshot());
+            }
+            return snapshot;
+        }
+
+        /**
+         * Appends a posting to its account, or marks the entry stale while it is
+         * being filled.
+         *
+         * @return the number of rows appended, or {@code -1} if not patched
+         */
+        synchronized int patch(Long accountId, LocalDate date, TransactionSummaryDTO row, BigDecimal balance) {
+            if (data == null) {
+                stale = true;
+                return -1;
+            }
+            CachedAccount account = data.get(accountIds.indexOf(accountId));
+            account.currentBalance = balance;
+            if (date.isBefore(key.start) || date.isAfter(key.end)) {
+                return 0;
+            }
+            account.append(row);
+            rows++;
+            return 1;
+        }
+    }
+
+    /**
+     * The cached data of one account. Rows are only appended, and an append
+     * either writes past the rows handed out so far or moves them to a larger
+     * array, so a snapshot can share the array it was taken from. Guarded by the
+     * lock of its entry.
+     */
+    private static final class CachedAccount {
+
+        private final String number;
+        private final String type;
+        private final BigDecimal initialAmount;
+        private BigDecimal currentBalance;
+        private TransactionSummaryDTO[] rows;
+        private int size;
+
+        CachedAccount(AccountDataDto account) {
+            this.number = account.getNumber();
+            this.type = account.getType();
+            this.initialAmount = account.getInitialAmount();
+            this.currentBalance = account.getCurrentBalance();
+            this.rows = account.getTransactions().toArray(new TransactionSummaryDTO[0]);
+            this.size = rows.length;
+        }
+
+        void append(TransactionSummaryDTO row) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, Math.max(8, size * 2));
+            }
+            rows[size++] = row;
+        }
+
+        AccountDataDto snapshot() {
+            List<TransactionSummaryDTO> transactions = size == 0 ? null
+                    : Collections.unmodifiableList(Arrays.asList(rows).subList(0, size));
+            return new AccountDataDto(number, type, initialAmount, currentBalance, transactions);
+        }
+    }
+
+    private static final class Key {
+
+        private final Long clientId;
+        private final LocalDate start;
+        private final LocalDate end;
+
+        Key(Long clientId, LocalDate start, LocalDate end) {
+            this.clientId = clientId;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return Objects.equals(clientId, key.clientId) && Objects.equals(start, key.start)
+                    && Objects.equals(end, key.end);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(clientId, start, end);
+        }
+    }
+}
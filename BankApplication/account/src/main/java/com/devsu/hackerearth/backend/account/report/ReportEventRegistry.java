@@ -0,0 +1,400 @@
+package com.devsu.hackerearth.backend.account.report;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.devsu.hackerearth.backend.account.model.dto.ReportStatusDto;
+import com.devsu.hackerearth.backend.account.type.ReportStatus;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registry of Server-Sent Events subscriptions to report status updates.
+ * <p>
+ * A subscription follows either every report of a client or a set of
+ * correlation IDs, and is indexed under each key it follows, so publishing a
+ * status reaches its subscribers without scanning the others. A subscription
+ * to correlation IDs is completed once all of them are {@code READY}. Idle
+ * subscriptions hold no thread: an {@link SseEmitter} is only an open async
+ * request.
+ * </p>
+ * <p>
+ * Events are queued per subscription and written by a fixed pool of sender
+ * threads. A subscription is drained by one thread at a time, which keeps its
+ * events in order, and has at most one drain task waiting for the pool. A
+ * subscriber that falls behind by more than the queue capacity, or whose write
+ * blocks for longer than the send timeout, is dropped, so a client that stops
+ * reading holds at most one sender thread and never delays the others beyond
+ * that.
+ * </p>
+ * <p>
+ * Subscriptions are removed when their emitter times out, fails or completes.
+ * A periodic heartbeat comment keeps idle connections open through proxies
+ * and detects clients that went away; it is queued only for subscriptions
+ * with nothing else queued.
+ * </p>
+ *
+ * Configuration:
+ * <ul>
+ * <li>{@code account.report.events-timeout-millis} – How long a subscription
+ * stays open (default 30 minutes).</li>
+ * <li>{@code account.report.events-heartbeat-millis} – How often idle
+ * subscriptions receive a heartbeat (default 30000).</li>
+ * <li>{@code account.report.events-send-threads} – Sender threads (default
+ * 4).</li>
+ * <li>{@code account.report.events-queue-capacity} – Events queued for one
+ * subscription before it is dropped (default 100).</li>
+ * <li>{@code account.report.events-send-timeout-millis} – How long a write may
+ * block before its subscription is dropped (default 10000).</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class ReportEventRegistry {
+
+    static final String EVENT_NAME = "report-status";
+    private static final int RECENT_STATUSES = 10_000;
+
+    private final ReportStore reportStore;
+    private final ReportProperties reportProperties;
+    private final ThreadPoolExecutor senders;
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<Subscription>> byClient = new ConcurrentHashMap<>();
+    private final Map<String, Set<Subscription>> byCorrelationId = new ConcurrentHashMap<>();
+    private final Map<String, ReportStatusDto> recentStatuses = new LinkedHashMap<String, ReportStatusDto>() {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ReportStatusDto> eldest) {
+            return size() > RECENT_STATUSES;
+        }
+    };
+
+    public ReportEventRegistry(ReportStore reportStore, ReportProperties reportProperties) {
+        this.reportStore = reportStore;
+        this.reportProperties = reportProperties;
+        int threads = Math.max(1, reportProperties.getEventsSendThreads());
+        AtomicInteger senderCount = new AtomicInteger();
+        // Each subscription has at most one drain task queued, so the queue holds
+        // no more tasks than there are subscriptions.
+        this.senders = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "report-events-" + senderCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Opens a subscription to the status updates of a client's reports, of a set
+     * of reports, or both. The current status of each followed correlation ID,
+     * when known, is sent at once.
+     *
+     * @param clientId       the client whose reports are followed, or
+     *                       {@code null}
+     * @param correlationIds the reports followed, possibly empty
+     * @param inline         whether {@code READY} events carry the report
+     *                       document itself
+     * @return the emitter streaming the events
+     */
+    public SseEmitter subscribe(Long clientId, Collection<String> correlationIds, boolean inline) {
+        SseEmitter emitter = new SseEmitter(reportProperties.getEventsTimeoutMillis());
+        Subscription subscription = new Subscription(emitter, clientId, correlationIds, inline);
+        emitter.onCompletion(() -> unregister(subscription));
+        emitter.onTimeout(() -> {
+            unregister(subscription);
+            emitter.complete();
+        });
+        emitter.onError(error -> unregister(subscription));
+
+        subscriptions.add(subscription);
+        if (clientId != null) {
+            byClient.computeIfAbsent(clientId, id -> ConcurrentHashMap.newKeySet()).add(subscription);
+        }
+        for (String correlationId : subscription.correlationIds) {
+            byCorrelationId.computeIfAbsent(correlationId, id -> ConcurrentHashMap.newKeySet()).add(subscription);
+        }
+
+        enqueue(subscription, () -> {
+            for (String correlationId : subscription.correlationIds) {
+                CompressedReport report = reportStore.get(correlationId);
+                ReportStatusDto status = report != null ? readyStatus(correlationId) : recentStatus(correlationId);
+                if (status != null) {
+                    deliver(subscription, status, subscription.inline ? inlineEvent(status, report) : null);
+                }
+            }
+        }, false);
+        return emitter;
+    }
+
+    /**
+     * Publishes a status update to the subscribers of its client and of its
+     * correlation ID.
+     *
+     * @param status the status update
+     * @param report the stored report for a {@code READY} update, used by
+     *               subscribers that asked for it inline; otherwise {@code null}
+     */
+    public void publish(ReportStatusDto status, CompressedReport report) {
+        synchronized (recentStatuses) {
+            recentStatuses.put(status.getCorrelationId(), status);
+        }
+        Set<Subscription> targets = new LinkedHashSet<>();
+        if (status.getClientId() != null) {
+            targets.addAll(byClient.getOrDefault(status.getClientId(), Set.of()));
+        }
+        targets.addAll(byCorrelationId.getOrDefault(status.getCorrelationId(), Set.of()));
+        if (targets.isEmpty()) {
+            return;
+        }
+        Supplier<ReportStatusDto> inline = decodeOnce(status, report);
+        for (Subscription subscription : targets) {
+            enqueue(subscription, () -> deliver(subscription, status, subscription.inline ? inline.get() : null),
+                    false);
+        }
+    }
+
+    /**
+     * Sends a heartbeat comment to every subscription with nothing else queued,
+     * and drops the subscriptions whose current write has blocked for longer than
+     * the send timeout.
+     */
+    @Scheduled(fixedDelayString = "${account.report.events-heartbeat-millis:30000}")
+    public void heartbeat() {
+        long blockedSince = System.currentTimeMillis() - reportProperties.getEventsSendTimeoutMillis();
+        for (Subscription subscription : subscriptions) {
+            long sendingSince = subscription.sendingSince;
+            if (sendingSince != 0 && sendingSince < blockedSince) {
+                drop(subscription, "write blocked");
+                continue;
+            }
+            enqueue(subscription, () -> send(subscription, SseEmitter.event().comment("heartbeat")), true);
+        }
+    }
+
+    /**
+     * Returns the number of open subscriptions.
+     *
+     * @return the subscription count
+     */
+    public int subscriptions() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Completes every open subscription and stops the sender threads.
+     */
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdown();
+        subscriptions.forEach(subscription -> subscription.emitter.complete());
+    }
+
+    /**
+     * Builds the URL a client polls, or long-polls, for a report.
+     *
+     * @param clientId      the client of the report
+     * @param start         the first day of the report period, ISO formatted
+     * @param end           the last day of the report period, ISO formatted
+     * @param correlationId the identifier of the report request
+     * @return the report URL
+     */
+    public static String reportUrl(Long clientId, String start, String end, String correlationId) {
+        return String.format(
+                "/api/transactions/clients/%d/report?dateTransactionStart=%s&dateTransactionEnd=%s&correlationId=%s",
+                clientId, start, end, correlationId);
+    }
+
+    /**
+     * Returns the {@code READY} event carrying the report document, decoded on
+     * first use and shared by every subscriber that asked for it.
+     */
+    private Supplier<ReportStatusDto> decodeOnce(ReportStatusDto status, CompressedReport report) {
+        ReportStatusDto[] decoded = new ReportStatusDto[1];
+        return () -> {
+            synchronized (decoded) {
+                if (decoded[0] == null) {
+                    decoded[0] = inlineEvent(status, report);
+                }
+                return decoded[0];
+            }
+        };
+    }
+
+    /**
+     * Returns the {@code READY} event carrying the report document, or
+     * {@code null} if there is no document to carry.
+     */
+    private ReportStatusDto inlineEvent(ReportStatusDto status, CompressedReport report) {
+        if (report == null || status.getStatus() != ReportStatus.READY) {
+            return null;
+        }
+        return new ReportStatusDto(status.getCorrelationId(), status.getClientId(), status.getStatus(),
+                status.getReportUrl(), new String(report.toJson(), StandardCharsets.UTF_8));
+    }
+
+    private void deliver(Subscription subscription, ReportStatusDto status, ReportStatusDto inline) {
+        ReportStatusDto event = inline != null ? inline : status;
+        boolean sent = send(subscription, SseEmitter.event()
+                .name(EVENT_NAME)
+                .id(status.getCorrelationId() + ":" + status.getStatus())
+                .data(event, MediaType.APPLICATION_JSON));
+        if (sent && status.getStatus() == ReportStatus.READY && subscription.awaitReady(status.getCorrelationId())) {
+            subscription.emitter.complete();
+        }
+    }
+
+    private boolean send(Subscription subscription, SseEmitter.SseEventBuilder event) {
+        subscription.sendingSince = System.currentTimeMillis();
+        try {
+            subscription.emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("[ReportEvents] Dropping subscription: {}", e.getMessage());
+            unregister(subscription);
+            return false;
+        } finally {
+            subscription.sendingSince = 0;
+        }
+    }
+
+    /**
+     * Queues a write for a subscription and starts draining it if no sender is.
+     * A subscription whose queue is full is dropped.
+     *
+     * @param subscription the subscription written to
+     * @param write        the write
+     * @param onlyIfIdle   whether the write is skipped when others are queued
+     */
+    private void enqueue(Subscription subscription, Runnable write, boolean onlyIfIdle) {
+        boolean full;
+        boolean start = false;
+        synchronized (subscription) {
+            if (subscription.closed || (onlyIfIdle && (subscription.draining || !subscription.pending.isEmpty()))) {
+                return;
+            }
+            full = subscription.pending.size() >= reportProperties.getEventsQueueCapacity();
+            if (!full) {
+                subscription.pending.add(write);
+                start = !subscription.draining;
+                subscription.draining = true;
+            }
+        }
+        if (full) {
+            drop(subscription, "too many queued events");
+            return;
+        }
+        if (start) {
+            try {
+                senders.execute(() -> drain(subscription));
+            } catch (RejectedExecutionException e) {
+                unregister(subscription);
+            }
+        }
+    }
+
+    private void drain(Subscription subscription) {
+        while (true) {
+            Runnable write;
+            synchronized (subscription) {
+                write = subscription.pending.poll();
+                if (write == null) {
+                    subscription.draining = false;
+                    return;
+                }
+            }
+            write.run();
+        }
+    }
+
+    private void drop(Subscription subscription, String reason) {
+        log.debug("[ReportEvents] Dropping slow subscription: {}", reason);
+        unregister(subscription);
+        subscription.emitter.complete();
+    }
+
+    private ReportStatusDto readyStatus(String correlationId) {
+        ReportStatusDto recent = recentStatus(correlationId);
+        return new ReportStatusDto(correlationId, recent != null ? recent.getClientId() : null, ReportStatus.READY,
+                recent != null ? recent.getReportUrl() : null, null);
+    }
+
+    private ReportStatusDto recentStatus(String correlationId) {
+        synchronized (recentStatuses) {
+            return recentStatuses.get(correlationId);
+        }
+    }
+
+    private void unregister(Subscription subscription) {
+        subscriptions.remove(subscription);
+        if (subscription.clientId != null) {
+            byClient.computeIfPresent(subscription.clientId, (id, followers) -> {
+                followers.remove(subscription);
+                return followers.isEmpty() ? null : followers;
+            });
+        }
+        for (String correlationId : subscription.correlationIds) {
+            byCorrelationId.computeIfPresent(correlationId, (id, followers) -> {
+                followers.remove(subscription);
+                return followers.isEmpty() ? null : followers;
+            });
+        }
+        synchronized (subscription) {
+            subscription.closed = true;
+            subscription.pending.clear();
+        }
+    }
+
+    private static final class Subscription {
+
+        private final SseEmitter emitter;
+        private final Long clientId;
+        private final Set<String> correlationIds;
+        private final Set<String> awaitingReady;
+        private final boolean inline;
+        private final Queue<Runnable> pending = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+        private volatile long sendingSince;
+
+        Subscription(SseEmitter emitter, Long clientId, Collection<String> correlationIds, boolean inline) {
+            this.emitter = emitter;
+            this.clientId = clientId;
+            this.correlationIds = Set.copyOf(correlationIds);
+            this.awaitingReady = ConcurrentHashMap.newKeySet();
+            this.awaitingReady.addAll(this.correlationIds);
+            this.inline = inline;
+        }
+
+        /**
+         * Records that a followed report is ready.
+         *
+         * @return {@code true} if the subscription follows only correlation IDs
+         *         and all of them are now ready
+         */
+        boolean awaitReady(String correlationId) {
+            return awaitingReady.remove(correlationId) && awaitingReady.isEmpty() && clientId == null;
+        }
+    }
+}
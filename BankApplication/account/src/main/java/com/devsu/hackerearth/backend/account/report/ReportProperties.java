@@ -0,0 +1,128 @@
+package com.devsu.hackerearth.backend.account.report;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * Settings for asynchronous report generation and delivery, bound from the
+ * {@code account.report.*} properties.
+ *
+ * Fields:
+ * <ul>
+ * <li>{@code chunkTransactions} – Maximum number of transactions carried by one
+ * streamed report message (default 1000).</li>
+ * <li>{@code storeTtlMinutes} – How long a completed report stays retrievable
+ * (default 60).</li>
+ * <li>{@code storeMaxEntries} – Maximum number of completed reports held
+ * (default 1000).</li>
+ * <li>{@code storeMaxBytes} – Maximum total compressed size of the held reports
+ * (default 256 MiB).</li>
+ * <li>{@code storeDurable} – Whether completed reports are also written to the
+ * {@link DiskReportStore} and survive a restart (default false).</li>
+ * <li>{@code storeDir} – Directory of the durable store's segments (default
+ * {@code data/reports}).</li>
+ * <li>{@code storeSegmentBytes} – Size of each mapped report segment (default
+ * 64 MiB).</li>
+ * <li>{@code storeForce} – Whether each stored report is forced to disk
+ * (default false).</li>
+ * <li>{@code longPollMaxMillis} – Longest time a long-poll request waits for
+ * its report (default 30 s).</li>
+ * <li>{@code eventsTimeoutMillis} – How long a report event subscription
+ * stays open (default 30 minutes).</li>
+ * <li>{@code eventsSendThreads} – Threads writing report events to
+ * subscribers (default 4).</li>
+ * <li>{@code eventsQueueCapacity} – Events queued for one subscriber before it
+ * is dropped as too slow (default 100).</li>
+ * <li>{@code eventsSendTimeoutMillis} – How long a write to a subscriber may
+ * block before the subscriber is dropped (default 10 s).</li>
+ * <li>{@code coalesceInFlightMillis} – How long requests for the same client
+ * and period join an unfinished report (default 10 minutes).</li>
+ * <li>{@code coalesceCompletedMillis} – How long they join a completed report
+ * that is still stored (default 5 minutes).</li>
+ * <li>{@code partialTimeoutMillis} – How long a report streamed in chunks may
+ * wait for its next chunk before it is discarded (default 2 minutes).</li>
+ * <li>{@code dataCacheMaxEntries} – Maximum number of client periods whose
+ * assembled report data is cached (default 256).</li>
+ * <li>{@code dataCacheMaxTransactions} – Largest period, in transactions, whose
+ * report data is cached (default 50000).</li>
+ * <li>{@code dataCacheMaxTotalTransactions} – Most transactions held by all
+ * cached periods together (default 500000).</li>
+ * <li>{@code statementPageSize} – Rows per statement page when the request
+ * does not say (default 50).</li>
+ * <li>{@code statementMaxPageSize} – Largest statement page a request may ask
+ * for (default 500).</li>
+ * <li>{@code statementBatchThreads} – Statements the month-end batch builds at
+ * once, each holding a database connection (default 4).</li>
+ * <li>{@code statementBatchQueueCapacity} – Statements queued for a free
+ * thread before the batch stops reading clients (default 8).</li>
+ * <li>{@code statementBatchChunkClients} – Clients per checkpointed chunk of
+ * the month-end batch (default 100).</li>
+ * <li>{@code statementDir} – Directory of the month-end statements, which do
+ * not expire (default {@code data/statements}).</li>
+ * <li>{@code exportFlushRows} – Rows of a streamed export written between
+ * flushes to the client (default 1000).</li>
+ * <li>{@code statementBatchResumeOnStartup} – Whether a batch interrupted by a
+ * shutdown or crash resumes when the application starts (default true).</li>
+ * </ul>
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "account.report")
+public class ReportProperties {
+
+    private int chunkTransactions = 1000;
+
+    private long storeTtlMinutes = 60;
+
+    private int storeMaxEntries = 1000;
+
+    private long storeMaxBytes = 256L * 1024 * 1024;
+
+    private boolean storeDurable;
+
+    private String storeDir = "data/reports";
+
+    private int storeSegmentBytes = 64 * 1024 * 1024;
+
+    private boolean storeForce;
+
+    private long longPollMaxMillis = 30_000;
+
+    private long eventsTimeoutMillis = 30L * 60 * 1000;
+
+    private int eventsSendThreads = 4;
+
+    private int eventsQueueCapacity = 100;
+
+    private long eventsSendTimeoutMillis = 10_000;
+
+    private long coalesceInFlightMillis = 10L * 60 * 1000;
+
+    private long coalesceCompletedMillis = 5L * 60 * 1000;
+
+    private long partialTimeoutMillis = 2L * 60 * 1000;
+
+    private int dataCacheMaxEntries = 256;
+
+    private int dataCacheMaxTransactions = 50_000;
+
+    private long dataCacheMaxTotalTransactions = 500_000;
+
+    private int statementPageSize = 50;
+
+    private int statementMaxPageSize = 500;
+
+    private int statementBatchThreads = 4;
+
+    private int statementBatchQueueCapacity = 8;
+
+    private int statementBatchChunkClients = 100;
+
+    private String statementDir = "data/statements";
+
+    private boolean statementBatchResumeOnStartup = true;
+
+    private int exportFlushRows = 1000;
+}
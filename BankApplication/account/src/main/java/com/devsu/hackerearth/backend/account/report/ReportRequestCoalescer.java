@@ -0,0 +1,222 @@
+package com.devsu.hackerearth.backend.account.report;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.devsu.hackerearth.backend.account.model.dto.ReportCoalescingStatsDto;
+
+/**
+ * Coalesces report requests for the same client and period, so that repeated
+ * requests join one report job instead of each running the Kafka round trip
+ * and database scan.
+ * <p>
+ * A job is keyed by {@code (clientId, start, end)}. While it is in flight, or
+ * for a while after its report was stored and as long as the report is still
+ * retrievable, a new request for the same key receives the job's correlation
+ * ID. A job that never completes stops being joinable after the in-flight
+ * limit, and a job whose request failed is dropped at once.
+ * </p>
+ *
+ * Configuration:
+ * <ul>
+ * <li>{@code account.report.coalesce-in-flight-millis} – How long an
+ * unfinished job is joined (default 10 minutes).</li>
+ * <li>{@code account.report.coalesce-completed-millis} – How long a completed
+ * job is joined (default 5 minutes).</li>
+ * </ul>
+ */
+@Component
+public class ReportRequestCoalescer {
+
+    private final ReportStore reportStore;
+    private final ReportProperties reportProperties;
+    private final Map<Key, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<String, Job> jobsByCorrelationId = new ConcurrentHashMap<>();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public ReportRequestCoalescer(ReportStore reportStore, ReportProperties reportProperties) {
+        this.reportStore = reportStore;
+        this.reportProperties = reportProperties;
+    }
+
+    /**
+     * Joins the job for a client and period, starting a new one if there is none
+     * that can still be joined.
+     *
+     * @param clientId the client of the report
+     * @param start    the first day of the report period
+     * @param end      the last day of the report period
+     * @return the job's correlation ID and whether the request was coalesced
+     */
+    public Ticket join(Long clientId, LocalDate start, LocalDate end) {
+        long now = System.currentTimeMillis();
+        boolean[] created = { false };
+        Job job = jobs.compute(new Key(clientId, start, end), (key, existing) -> {
+            if (existing != null && isJoinable(existing, now)) {
+                return existing;
+            }
+            if (existing != null) {
+                jobsByCorrelationId.remove(existing.correlationId);
+            }
+            Job started = new Job(key, UUID.randomUUID().toString(), now);
+            jobsByCorrelationId.put(started.correlationId, started);
+            created[0] = true;
+            return started;
+        });
+
+        if (created[0]) {
+            executed.increment();
+        } else {
+            coalesced.increment();
+        }
+        return new Ticket(job.correlationId, !created[0], job.completedAt != 0);
+    }
+
+    /**
+     * Marks the job of a stored report as completed.
+     *
+     * @param correlationId the identifier of the report request
+     */
+    public void complete(String correlationId) {
+        Job job = jobsByCorrelationId.get(correlationId);
+        if (job != null) {
+            job.completedAt = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Drops the job of a request that failed, so the next request starts over.
+     *
+     * @param correlationId the identifier of the report request
+     */
+    public void abandon(String correlationId) {
+        Job job = jobsByCorrelationId.remove(correlationId);
+        if (job != null) {
+            jobs.remove(job.key, job);
+        }
+    }
+
+    /**
+     * Drops jobs that can no longer be joined.
+     */
+    @Scheduled(fixedDelayString = "${account.report.store-sweep-interval-millis:60000}")
+    public void evictStale() {
+        long now = System.currentTimeMillis();
+        jobs.values().removeIf(job -> {
+            if (isJoinable(job, now)) {
+                return false;
+            }
+            jobsByCorrelationId.remove(job.correlationId, job);
+            return true;
+        });
+    }
+
+    /**
+     * Returns how many requests started a job and how many joined one.
+     *
+     * @return the coalescing counters
+     */
+    public ReportCoalescingStatsDto stats() {
+        return new ReportCoalescingStatsDto(executed.sum(), coalesced.sum(), jobs.size());
+    }
+
+    private boolean isJoinable(Job job, long now) {
+        long completedAt = job.completedAt;
+        if (completedAt == 0) {
+            return now - job.startedAt < reportProperties.getCoalesceInFlightMillis();
+        }
+        return now - completedAt < reportProperties.getCoalesceCompletedMillis()
+                && reportStore.contains(job.correlationId);
+    }
+
+    /**
+     * The outcome of {@link #join}.
+     */
+    public static final class Ticket {
+
+        private final String correlationId;
+        private final boolean coalesced;
+        private final boolean ready;
+
+        Ticket(String correlationId, boolean coalesced, boolean ready) {
+            this.correlationId = correlationId;
+            this.coalesced = coalesced;
+            this.ready = ready;
+        }
+
+        public String getCorrelationId() {
+            return correlationId;
+        }
+
+        /**
+         * Returns whether the request joined an existing job.
+         *
+         * @return {@code true} if no new report request must be dispatched
+         */
+        public boolean isCoalesced() {
+            return coalesced;
+        }
+
+        /**
+         * Returns whether the joined job's report is already stored.
+         *
+         * @return {@code true} if the report can be fetched now
+         */
+        public boolean isReady() {
+            return ready;
+        }
+    }
+
+    private static final class Key {
+
+        private final Long clientId;
+        private final LocalDate start;
+        private final LocalDate end;
+
+        Key(Long clientId, LocalDate start, LocalDate end) {
+            this.clientId = clientId;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return Objects.equals(clientId, key.clientId) && Objects.equals(start, key.start)
+                    && Objects.equals(end, key.end);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(clientId, start, end);
+        }
+    }
+
+    private static final class Job {
+
+        private final Key key;
+        private final String correlationId;
+        private final long startedAt;
+        private volatile long completedAt;
+
+        Job(Key key, String correlationId, long startedAt) {
+            this.key = key;
+            this.correlationId = correlationId;
+            this.startedAt = startedAt;
+        }
+    }
+}
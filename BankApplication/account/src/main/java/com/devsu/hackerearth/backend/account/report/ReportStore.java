@@ -0,0 +1,248 @@
+package com.devsu.hackerearth.backend.account.report;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.devsu.hackerearth.backend.account.model.dto.ReportStoreStatsDto;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded in-memory store of completed reports, keyed by correlation ID, in
+ * front of an optional {@link DiskReportStore}.
+ * <p>
+ * Reports are held as {@link CompressedReport} byte arrays rather than object
+ * graphs, and are served without being encoded again. They sit in an
+ * access-ordered map, so when the entry count or the byte budget is exceeded
+ * the least recently fetched report is evicted first. The size of a report is
+ * its compressed length. Every report expires a fixed time after it was
+ * stored; because the time-to-live is the same for all entries, expiry order is
+ * insertion order, and a scheduled sweep drops expired reports from the head of
+ * an insertion queue without scanning the map.
+ * </p>
+ * <p>
+ * When the durable store is enabled, every report is also written to disk with
+ * its expiry time. A report evicted from memory, or lost with it in a restart,
+ * is read back from disk on its next fetch and held in memory again until it
+ * expires.
+ * </p>
+ *
+ * Configuration:
+ * <ul>
+ * <li>{@code account.report.store-ttl-minutes} – How long a report stays
+ * retrievable (default 60).</li>
+ * <li>{@code account.report.store-max-entries} – Maximum number of reports held
+ * (default 1000).</li>
+ * <li>{@code account.report.store-max-bytes} – Maximum total compressed size of
+ * the held reports (default 256 MiB).</li>
+ * <li>{@code account.report.store-sweep-interval-millis} – How often expired
+ * reports are dropped (default 60000).</li>
+ * <li>{@code account.report.store-compaction-interval-millis} – How often the
+ * durable store is compacted (default 600000).</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class ReportStore {
+
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final DiskReportStore diskStore;
+    private final Map<String, StoredReport> reports = new LinkedHashMap<>(16, 0.75f, true);
+    private final Deque<StoredReport> expiryQueue = new ArrayDeque<>();
+    private long totalBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long diskHits;
+
+    @Autowired
+    public ReportStore(ReportProperties reportProperties, ObjectProvider<DiskReportStore> diskStore) {
+        this(reportProperties, diskStore.getIfAvailable());
+    }
+
+    public ReportStore(ReportProperties reportProperties, DiskReportStore diskStore) {
+        this.ttlMillis = TimeUnit.MINUTES.toMillis(reportProperties.getStoreTtlMinutes());
+        this.maxEntries = Math.max(1, reportProperties.getStoreMaxEntries());
+        this.maxBytes = Math.max(1, reportProperties.getStoreMaxBytes());
+        this.diskStore = diskStore;
+    }
+
+    /**
+     * Stores a completed report, replacing any report with the same correlation
+     * ID, then evicts least recently fetched reports until the store is within its
+     * limits. A report larger than the whole byte budget is only written to
+     * disk.
+     *
+     * @param correlationId the identifier of the report request
+     * @param report        the completed, compressed report
+     */
+    public void put(String correlationId, CompressedReport report) {
+        long bytes = report.getGzip().length;
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        if (diskStore != null) {
+            try {
+                diskStore.put(correlationId, report, expiresAt);
+            } catch (RuntimeException e) {
+                log.error("[ReportStore] Could not write report {} to disk: {}", correlationId, e.getMessage());
+            }
+        }
+        if (bytes > maxBytes) {
+            log.warn("[ReportStore] Report {} of {} bytes exceeds the store budget of {} bytes", correlationId,
+                    bytes, maxBytes);
+            synchronized (this) {
+                evictions++;
+            }
+            return;
+        }
+        cache(new StoredReport(correlationId, report, bytes, expiresAt));
+    }
+
+    /**
+     * Holds a report in memory, then evicts least recently fetched reports until
+     * the store is within its limits.
+     */
+    private synchronized void cache(StoredReport stored) {
+        StoredReport previous = reports.put(stored.correlationId, stored);
+        if (previous != null) {
+            totalBytes -= previous.bytes;
+        }
+        totalBytes += stored.bytes;
+        expiryQueue.addLast(stored);
+
+        Iterator<StoredReport> eldest = reports.values().iterator();
+        while ((reports.size() > maxEntries || totalBytes > maxBytes) && eldest.hasNext()) {
+            StoredReport evicted = eldest.next();
+            eldest.remove();
+            totalBytes -= evicted.bytes;
+            evictions++;
+        }
+    }
+
+    /**
+     * Returns a stored report and marks it as the most recently fetched, reading
+     * it from disk if it is no longer held in memory.
+     *
+     * @param correlationId the identifier of the report request
+     * @return the report, or {@code null} if it is unknown, evicted or expired
+     */
+    public CompressedReport get(String correlationId) {
+        synchronized (this) {
+            StoredReport stored = reports.get(correlationId);
+            if (stored != null && stored.expiresAt > System.currentTimeMillis()) {
+                hits++;
+                return stored.report;
+            }
+        }
+
+        StoredReport stored = diskStore == null ? null : diskStore.get(correlationId);
+        synchronized (this) {
+            if (stored == null) {
+                misses++;
+                return null;
+            }
+            hits++;
+            diskHits++;
+        }
+        if (stored.bytes <= maxBytes) {
+            cache(stored);
+        }
+        return stored.report;
+    }
+
+    /**
+     * Tells whether a report can still be fetched, without counting a hit or a
+     * miss or changing its recency. A report held in memory counts until the
+     * sweep drops it.
+     *
+     * @param correlationId the identifier of the report request
+     * @return {@code true} if the report is held in memory or on disk
+     */
+    public boolean contains(String correlationId) {
+        synchronized (this) {
+            if (reports.containsKey(correlationId)) {
+                return true;
+            }
+        }
+        return diskStore != null && diskStore.contains(correlationId);
+    }
+
+    /**
+     * Removes a stored report.
+     *
+     * @param correlationId the identifier of the report request
+     */
+    public void remove(String correlationId) {
+        synchronized (this) {
+            StoredReport removed = reports.remove(correlationId);
+            if (removed != null) {
+                totalBytes -= removed.bytes;
+            }
+        }
+        if (diskStore != null) {
+            diskStore.remove(correlationId);
+        }
+    }
+
+    /**
+     * Drops every report whose time-to-live has elapsed.
+     */
+    @Scheduled(fixedDelayString = "${account.report.store-sweep-interval-millis:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        int expired = 0;
+        synchronized (this) {
+            while (!expiryQueue.isEmpty() && expiryQueue.peekFirst().expiresAt <= now) {
+                StoredReport head = expiryQueue.pollFirst();
+                if (reports.get(head.correlationId) == head) {
+                    reports.remove(head.correlationId);
+                    totalBytes -= head.bytes;
+                    expirations++;
+                    expired++;
+                }
+            }
+            if (expiryQueue.size() > 2 * maxEntries) {
+                expiryQueue.removeIf(stored -> reports.get(stored.correlationId) != stored);
+            }
+        }
+        if (expired > 0) {
+            log.info("[ReportStore] Expired {} reports; {}", expired, stats());
+        }
+    }
+
+    /**
+     * Drops expired reports from the durable store and reclaims the space of its
+     * mostly expired segments.
+     */
+    @Scheduled(fixedDelayString = "${account.report.store-compaction-interval-millis:600000}")
+    public void compactDisk() {
+        if (diskStore != null) {
+            diskStore.compact();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the store's size and counters.
+     *
+     * @return the current statistics
+     */
+    public ReportStoreStatsDto stats() {
+        int diskEntries = diskStore == null ? 0 : diskStore.size();
+        long diskBytes = diskStore == null ? 0 : diskStore.liveBytes();
+        synchronized (this) {
+            return new ReportStoreStatsDto(reports.size(), totalBytes, maxEntries, maxBytes, hits, misses,
+                    evictions, expirations, diskEntries, diskBytes, diskHits);
+        }
+    }
+}
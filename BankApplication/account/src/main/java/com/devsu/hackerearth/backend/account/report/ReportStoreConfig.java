@@ -0,0 +1,27 @@
+package com.devsu.hackerearth.backend.account.report;
+
+import java.nio.file.Paths;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Declares the {@link DiskReportStore} when
+ * {@code account.report.store-durable} is {@code true}.
+ * <p>
+ * The store is opened, and its index rebuilt from the segments on disk, while
+ * the context starts, so reports completed before a restart can be fetched as
+ * soon as the service accepts requests.
+ * </p>
+ */
+@Configuration
+public class ReportStoreConfig {
+
+    @Bean(initMethod = "open", destroyMethod = "close")
+    @ConditionalOnProperty(name = "account.report.store-durable", havingValue = "true")
+    public DiskReportStore diskReportStore(ReportProperties reportProperties) {
+        return new DiskReportStore(Paths.get(reportProperties.getStoreDir()),
+                reportProperties.getStoreSegmentBytes(), reportProperties.isStoreForce());
+    }
+}
@@ -0,0 +1,90 @@
+package com.devsu.hackerearth.backend.account.report;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registry of requests waiting for a report to complete, keyed by correlation
+ * ID.
+ * <p>
+ * A long-poll request registers a callback and releases its container thread;
+ * when the report is stored, {@link #publish} hands it to every callback
+ * registered for its correlation ID and forgets them. A request that times out
+ * or completes otherwise unregisters its own callback, so the registry only
+ * holds requests that are still parked.
+ * </p>
+ */
+@Slf4j
+@Component
+public class ReportWaiters {
+
+    private final Map<String, Set<Consumer<CompressedReport>>> waiters = new ConcurrentHashMap<>();
+
+    /**
+     * Registers a callback to run once the report is stored. The callback is
+     * added within the map update, so it never lands in a set that a concurrent
+     * {@link #unregister} or {@link #publish} has just removed.
+     *
+     * @param correlationId the identifier of the report request
+     * @param callback      receives the completed report
+     */
+    public void register(String correlationId, Consumer<CompressedReport> callback) {
+        waiters.compute(correlationId, (id, callbacks) -> {
+            Set<Consumer<CompressedReport>> registered = callbacks != null ? callbacks
+                    : ConcurrentHashMap.newKeySet();
+            registered.add(callback);
+            return registered;
+        });
+    }
+
+    /**
+     * Removes a callback that no longer waits for its report.
+     *
+     * @param correlationId the identifier of the report request
+     * @param callback      the registered callback
+     */
+    public void unregister(String correlationId, Consumer<CompressedReport> callback) {
+        waiters.computeIfPresent(correlationId, (id, callbacks) -> {
+            callbacks.remove(callback);
+            return callbacks.isEmpty() ? null : callbacks;
+        });
+    }
+
+    /**
+     * Hands a stored report to every request waiting for it.
+     *
+     * @param correlationId the identifier of the report request
+     * @param report        the completed report
+     * @return the number of requests completed
+     */
+    public int publish(String correlationId, CompressedReport report) {
+        Set<Consumer<CompressedReport>> callbacks = waiters.remove(correlationId);
+        if (callbacks == null) {
+            return 0;
+        }
+        for (Consumer<CompressedReport> callback : callbacks) {
+            try {
+                callback.accept(report);
+            } catch (RuntimeException e) {
+                log.warn("[ReportWaiters] Could not complete a request waiting for {}: {}", correlationId,
+                        e.getMessage());
+            }
+        }
+        return callbacks.size();
+    }
+
+    /**
+     * Returns the number of requests currently waiting for a report.
+     *
+     * @return the parked request count
+     */
+    public int waiting() {
+        return waiters.values().stream().mapToInt(Set::size).sum();
+    }
+}
@@ -0,0 +1,139 @@
+package com.devsu.hackerearth.backend.account.report;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import com.devsu.hackerearth.backend.account.dto.StatementRow;
+import com.devsu.hackerearth.backend.account.type.ExportFormat;
+
+/**
+ * Writes statement rows to a stream as CSV or NDJSON, one line per
+ * transaction, as they are read.
+ * <p>
+ * Each line is formatted into one reused builder, amounts included, and
+ * written through a fixed-size buffer that is flushed to the stream every
+ * {@code flushRows} rows, so the output reaches the client in chunks and
+ * memory use does not depend on the number of rows.
+ * </p>
+ */
+public final class StatementExportWriter {
+
+    static final String CSV_HEADER = "transactionId,accountNumber,date,type,amount,balance";
+
+    private final ExportFormat format;
+    private final Writer writer;
+    private final int flushRows;
+    private final StringBuilder line = new StringBuilder(128);
+    private long rows;
+
+    /**
+     * @param format    the output format
+     * @param out       the stream written to; not closed by this writer
+     * @param flushRows rows written between flushes of the stream
+     */
+    public StatementExportWriter(ExportFormat format, OutputStream out, int flushRows) {
+        this.format = format;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+        this.flushRows = Math.max(1, flushRows);
+        if (format == ExportFormat.CSV) {
+            line.append(CSV_HEADER).append('\n');
+            writeLine();
+        }
+    }
+
+    /**
+     * Writes one transaction.
+     *
+     * @param accountNumber the number of the account the row belongs to
+     * @param row           the transaction
+     * @throws UncheckedIOException if the stream cannot be written, typically
+     *                              because the client went away
+     */
+    public void write(String accountNumber, StatementRow row) {
+        line.setLength(0);
+        if (format == ExportFormat.CSV) {
+            line.append(row.getId()).append(',');
+            appendCsv(accountNumber);
+            line.append(',').append(row.getDate()).append(',');
+            appendCsv(row.getType());
+            line.append(',');
+            row.getAmount().appendTo(line).append(',');
+            row.getBalance().appendTo(line).append('\n');
+        } else {
+            line.append("{\"transactionId\":").append(row.getId()).append(",\"accountNumber\":");
+            appendJson(accountNumber);
+            line.append(",\"date\":\"").append(row.getDate()).append("\",\"type\":");
+            appendJson(row.getType());
+            line.append(",\"amount\":");
+            row.getAmount().appendTo(line).append(",\"balance\":");
+            row.getBalance().appendTo(line).append("}\n");
+        }
+        writeLine();
+        if (++rows % flushRows == 0) {
+            flush();
+        }
+    }
+
+    /**
+     * Flushes the rows written since the last chunk.
+     *
+     * @return the number of rows written
+     */
+    public long finish() {
+        flush();
+        return rows;
+    }
+
+    private void writeLine() {
+        try {
+            writer.append(line);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void flush() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void appendCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    private void appendJson(String value) {
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c < 0x20) {
+                line.append(String.format("\\u%04x", (int) c));
+            } else {
+                line.append(c);
+            }
+        }
+        line.append('"');
+    }
+}
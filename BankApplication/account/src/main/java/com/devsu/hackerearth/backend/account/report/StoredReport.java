@@ -0,0 +1,20 @@
+package com.devsu.hackerearth.backend.account.report;
+
+/**
+ * A completed report together with its size and expiry, as held by
+ * {@link ReportStore} and read back from {@link DiskReportStore}.
+ */
+final class StoredReport {
+
+    final String correlationId;
+    final CompressedReport report;
+    final long bytes;
+    final long expiresAt;
+
+    StoredReport(String correlationId, CompressedReport report, long bytes, long expiresAt) {
+        this.correlationId = correlationId;
+        this.report = report;
+        this.bytes = bytes;
+        this.expiresAt = expiresAt;
+    }
+}
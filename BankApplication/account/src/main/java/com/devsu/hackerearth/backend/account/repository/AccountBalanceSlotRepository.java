@@ -0,0 +1,79 @@
+package com.devsu.hackerearth.backend.account.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.devsu.hackerearth.backend.account.model.AccountBalanceSlot;
+
+/**
+ * Repository interface for {@link AccountBalanceSlot} entities, the sub-balances
+ * of hot accounts.
+ *
+ * Custom Queries:
+ * <ul>
+ * <li>{@code addToSlot} – Atomically moves one slot of an active account,
+ * keeping it non-negative.</li>
+ * <li>{@code sumBalanceByAccountId} – Sums the slots of an account.</li>
+ * <li>{@code findByAccountIdForUpdate} – Locks every slot of an account, in slot
+ * order.</li>
+ * <li>{@code deleteByAccountId} – Removes the slots of an account.</li>
+ * </ul>
+ */
+@Repository
+public interface AccountBalanceSlotRepository extends JpaRepository<AccountBalanceSlot, Long> {
+
+    /**
+     * Adds a signed amount to one slot of an active account, provided the slot
+     * does not become negative.
+     *
+     * @param accountId the account ID
+     * @param slotIndex the slot to change
+     * @param delta     the signed amount
+     * @return 1 if applied; 0 if the slot is missing, the account inactive, or the
+     *         slot would become negative
+     */
+    @Modifying
+    @Query("UPDATE AccountBalanceSlot s SET s.balance = s.balance + :delta "
+            + "WHERE s.accountId = :accountId AND s.slotIndex = :slotIndex AND s.balance + :delta >= 0 "
+            + "AND EXISTS (SELECT a.id FROM Account a WHERE a.id = :accountId AND a.isActive = true)")
+    int addToSlot(@Param("accountId") Long accountId, @Param("slotIndex") int slotIndex,
+            @Param("delta") BigDecimal delta);
+
+    /**
+     * Sums the slots of an account.
+     *
+     * @param accountId the account ID
+     * @return the total, or zero if the account has no slots
+     */
+    @Query("SELECT COALESCE(SUM(s.balance), 0) FROM AccountBalanceSlot s WHERE s.accountId = :accountId")
+    BigDecimal sumBalanceByAccountId(@Param("accountId") Long accountId);
+
+    /**
+     * Retrieves and locks every slot of an account, lowest slot first.
+     *
+     * @param accountId the account ID
+     * @return the locked slots
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM AccountBalanceSlot s WHERE s.accountId = :accountId ORDER BY s.slotIndex")
+    List<AccountBalanceSlot> findByAccountIdForUpdate(@Param("accountId") Long accountId);
+
+    /**
+     * Deletes the slots of an account.
+     *
+     * @param accountId the account ID
+     * @return the number of deleted slots
+     */
+    @Modifying
+    @Query("DELETE FROM AccountBalanceSlot s WHERE s.accountId = :accountId")
+    int deleteByAccountId(@Param("accountId") Long accountId);
+}
@@ -0,0 +1,179 @@
+package com.devsu.hackerearth.backend.account.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.devsu.hackerearth.backend.account.model.AccountDailyRollup;
+
+/**
+ * Repository interface for {@link AccountDailyRollup} entities, the per-day
+ * totals of each account.
+ *
+ * Custom Queries:
+ * <ul>
+ * <li>{@code addToRollup} – Adds a day's postings to an existing rollup
+ * row.</li>
+ * <li>{@code addDeltaToRollup} – Adds a day's postings to an existing rollup
+ * row and moves its closing balance by their net amount.</li>
+ * <li>{@code shiftClosingBalancesAfter} – Moves the closing balances of the
+ * rollups after a day.</li>
+ * <li>{@code setClosingBalance} – Overwrites the closing balance of a rollup
+ * row.</li>
+ * <li>{@code findByAccountIdsAndDateRange} – Reads the rollups of a set of
+ * accounts within a date range, read-only.</li>
+ * <li>{@code findFirstByAccountIdAndDateLessThanEqualOrderByDateDesc} – Finds
+ * the latest rollup of an account on or before a day.</li>
+ * <li>{@code findFirstByAccountIdAndDateLessThanOrderByDateDesc} – Finds and
+ * locks the latest rollup of an account before a day.</li>
+ * <li>{@code findFirstByAccountIdAndDateGreaterThanOrderByDateAsc} – Finds the
+ * earliest rollup of an account after a day.</li>
+ * <li>{@code deleteByAccountId} – Removes the rollups of an account.</li>
+ * </ul>
+ */
+@Repository
+public interface AccountDailyRollupRepository extends JpaRepository<AccountDailyRollup, Long> {
+
+    /**
+     * Adds postings to the rollup of an account and day, and sets its closing
+     * balance.
+     *
+     * @param accountId      the account ID
+     * @param date           the day of the postings
+     * @param deposits       the sum of the deposits posted
+     * @param withdrawals    the sum of the withdrawals posted
+     * @param count          the number of postings
+     * @param closingBalance the balance after the last of the postings
+     * @return 1 if applied; 0 if the account has no rollup for that day yet
+     */
+    @Modifying
+    @Query("UPDATE AccountDailyRollup r SET r.depositTotal = r.depositTotal + :deposits, "
+            + "r.withdrawalTotal = r.withdrawalTotal + :withdrawals, "
+            + "r.transactionCount = r.transactionCount + :count, r.closingBalance = :closingBalance "
+            + "WHERE r.accountId = :accountId AND r.date = :date")
+    int addToRollup(@Param("accountId") Long accountId, @Param("date") LocalDate date,
+            @Param("deposits") BigDecimal deposits, @Param("withdrawals") BigDecimal withdrawals,
+            @Param("count") long count, @Param("closingBalance") BigDecimal closingBalance);
+
+    /**
+     * Adds postings to the rollup of an account and day, and moves its closing
+     * balance by their net amount. Used for accounts whose postings do not carry
+     * the exact balance after them.
+     *
+     * @param accountId   the account ID
+     * @param date        the day of the postings
+     * @param deposits    the sum of the deposits posted
+     * @param withdrawals the sum of the withdrawals posted
+     * @param count       the number of postings
+     * @return 1 if applied; 0 if the account has no rollup for that day yet
+     */
+    @Modifying
+    @Query("UPDATE AccountDailyRollup r SET r.depositTotal = r.depositTotal + :deposits, "
+            + "r.withdrawalTotal = r.withdrawalTotal + :withdrawals, "
+            + "r.transactionCount = r.transactionCount + :count, "
+            + "r.closingBalance = r.closingBalance + :deposits - :withdrawals "
+            + "WHERE r.accountId = :accountId AND r.date = :date")
+    int addDeltaToRollup(@Param("accountId") Long accountId, @Param("date") LocalDate date,
+            @Param("deposits") BigDecimal deposits, @Param("withdrawals") BigDecimal withdrawals,
+            @Param("count") long count);
+
+    /**
+     * Moves the closing balance of every rollup of an account after a day, for
+     * a posting that committed after the next day's rollup was opened.
+     *
+     * @param accountId the account ID
+     * @param date      the day of the posting (exclusive)
+     * @param delta     the signed amount to add
+     * @return the number of rollups moved
+     */
+    @Modifying
+    @Query("UPDATE AccountDailyRollup r SET r.closingBalance = r.closingBalance + :delta "
+            + "WHERE r.accountId = :accountId AND r.date > :date")
+    int shiftClosingBalancesAfter(@Param("accountId") Long accountId, @Param("date") LocalDate date,
+            @Param("delta") BigDecimal delta);
+
+    /**
+     * Overwrites the closing balance of the rollup of an account and day.
+     *
+     * @param accountId      the account ID
+     * @param date           the day
+     * @param closingBalance the balance at the close of the day
+     * @return 1 if applied; 0 if the account has no rollup for that day yet
+     */
+    @Modifying
+    @Query("UPDATE AccountDailyRollup r SET r.closingBalance = :closingBalance "
+            + "WHERE r.accountId = :accountId AND r.date = :date")
+    int setClosingBalance(@Param("accountId") Long accountId, @Param("date") LocalDate date,
+            @Param("closingBalance") BigDecimal closingBalance);
+
+    /**
+     * Retrieves the rollups of a set of accounts within a date range, ordered by
+     * account and date. The rows are loaded read-only.
+     *
+     * @param accountIds the account IDs
+     * @param startDate  the first day (inclusive)
+     * @param endDate    the last day (inclusive)
+     * @return the rollups, grouped by account
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"))
+    @Query("SELECT r FROM AccountDailyRollup r WHERE r.accountId IN :accountIds "
+            + "AND r.date BETWEEN :startDate AND :endDate ORDER BY r.accountId, r.date")
+    List<AccountDailyRollup> findByAccountIdsAndDateRange(@Param("accountIds") Collection<Long> accountIds,
+            @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * Finds the latest rollup of an account on or before a day, with one seek on
+     * the {@code (account_id, date)} unique index.
+     *
+     * @param accountId the account ID
+     * @param date      the last day considered (inclusive)
+     * @return the rollup, if the account had postings on or before that day
+     */
+    Optional<AccountDailyRollup> findFirstByAccountIdAndDateLessThanEqualOrderByDateDesc(Long accountId,
+            LocalDate date);
+
+    /**
+     * Finds the latest rollup of an account before a day and locks it, so a
+     * posting still adding to it commits before its closing balance is read.
+     *
+     * @param accountId the account ID
+     * @param date      the first day not considered
+     * @return the rollup, if the account had postings before that day
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<AccountDailyRollup> findFirstByAccountIdAndDateLessThanOrderByDateDesc(Long accountId,
+            LocalDate date);
+
+    /**
+     * Finds the earliest rollup of an account after a day.
+     *
+     * @param accountId the account ID
+     * @param date      the last day not considered
+     * @return the rollup, if the account had postings after that day
+     */
+    Optional<AccountDailyRollup> findFirstByAccountIdAndDateGreaterThanOrderByDateAsc(Long accountId,
+            LocalDate date);
+
+    /**
+     * Deletes the rollups of an account.
+     *
+     * @param accountId the account ID
+     * @return the number of deleted rollups
+     */
+    @Modifying
+    @Query("DELETE FROM AccountDailyRollup r WHERE r.accountId = :accountId")
+    int deleteByAccountId(@Param("accountId") Long accountId);
+}
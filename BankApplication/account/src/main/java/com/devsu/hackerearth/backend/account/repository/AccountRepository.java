@@ -1,14 +1,24 @@
 package com.devsu.hackerearth.backend.account.repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.devsu.hackerearth.backend.account.model.Account;
+import com.devsu.hackerearth.backend.account.type.Money;
 
 /**
  * Repository interface for managing {@link Account} entities with JPA.
@@ -24,12 +34,25 @@ import com.devsu.hackerearth.backend.account.model.Account;
  * identifier.</li>
  * <li>{@code findActiveByIdClient} – Retrieves all active accounts linked to a
  * specific client ID.</li>
+ * <li>{@code findActiveReadOnlyByClientId} – Retrieves a client's active
+ * accounts ordered by ID as read-only entities, for reports.</li>
  * <li>{@code findActiveByNumber} – Finds an active account using its account
  * number.</li>
  * <li>{@code findAllActiveAccountList} – Returns all accounts flagged as
  * active.</li>
+ * <li>{@code findAllIds} – Returns the IDs of every account, active or
+ * not.</li>
+ * <li>{@code findActiveClientIdsAfter} – Returns, in ascending order, the
+ * next client IDs holding active accounts after a given one.</li>
+ * <li>{@code countActiveClients} – Counts the clients holding active
+ * accounts.</li>
  * <li>{@code existsByNumber} – Checks for existence of an account with the
  * specified number.</li>
+ * <li>{@code findActiveByIdForUpdate} – Fetches an active account and locks its
+ * row until the end of the transaction.</li>
+ * <li>{@code applyBalanceDelta} – Adds a signed amount to the balance of an
+ * active account in a single conditional UPDATE and returns the new
+ * balance.</li>
  * </ul>
  * 
  * All queries assume soft deletion strategy via {@code isActive = true}.
@@ -49,6 +72,17 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     @Query("SELECT a FROM Account a WHERE a.id = :id AND a.isActive = true")
     Optional<Account> findActiveById(@Param("id") Long id);
 
+    /**
+     * Finds an active account by its ID and acquires a write lock on its row for
+     * the rest of the current transaction.
+     *
+     * @param id the account ID
+     * @return an {@link Optional} containing the locked active account, if found
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id = :id AND a.isActive = true")
+    Optional<Account> findActiveByIdForUpdate(@Param("id") Long id);
+
     /**
      * Finds all active accounts associated with a specific client ID.
      *
@@ -58,6 +92,17 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     @Query("SELECT a FROM Account a WHERE a.clientId = :clientId AND a.isActive = true")
     Optional<List<Account>> findActiveByIdClient(@Param("clientId") Long clientId);
 
+    /**
+     * Retrieves all active accounts of a client ordered by ID, loaded read-only so
+     * that Hibernate keeps no snapshot of them for dirty checking.
+     *
+     * @param clientId the client ID
+     * @return the client's active accounts
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"))
+    @Query("SELECT a FROM Account a WHERE a.clientId = :clientId AND a.isActive = true ORDER BY a.id")
+    List<Account> findActiveReadOnlyByClientId(@Param("clientId") Long clientId);
+
     /**
      * Finds an active account by its account number.
      *
@@ -75,6 +120,36 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     @Query("SELECT a FROM Account a WHERE a.isActive = true")
     List<Account> findAllActiveAccountList();
 
+    /**
+     * Retrieves the IDs of all accounts, including inactive ones, in ascending
+     * order.
+     *
+     * @return the account IDs
+     */
+    @Query("SELECT a.id FROM Account a ORDER BY a.id")
+    List<Long> findAllIds();
+
+    /**
+     * Retrieves the distinct IDs of clients with at least one active account
+     * that are greater than a given client ID, in ascending order, so clients can
+     * be walked in chunks with the last ID of each chunk as the key of the next.
+     *
+     * @param afterClientId the last client ID already visited
+     * @param pageable      the maximum number of IDs returned
+     * @return the next client IDs
+     */
+    @Query("SELECT DISTINCT a.clientId FROM Account a WHERE a.isActive = true AND a.clientId > :afterClientId "
+            + "ORDER BY a.clientId")
+    List<Long> findActiveClientIdsAfter(@Param("afterClientId") Long afterClientId, Pageable pageable);
+
+    /**
+     * Counts the distinct clients with at least one active account.
+     *
+     * @return the number of clients
+     */
+    @Query("SELECT COUNT(DISTINCT a.clientId) FROM Account a WHERE a.isActive = true")
+    long countActiveClients();
+
     /**
      * Checks if an account exists by its number.
      *
@@ -83,4 +158,56 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
      */
     boolean existsByNumber(String number);
 
+    /**
+     * Atomically adds a signed amount to the balance of an active account,
+     * provided the resulting balance is not negative, and returns the balance
+     * the UPDATE wrote. The UPDATE is wrapped in an H2 {@code FINAL TABLE} data
+     * change delta table, so the new balance comes back in the same statement
+     * instead of a second SELECT.
+     *
+     * @param id        the account ID
+     * @param delta     the signed amount to apply
+     * @param updatedAt the modification timestamp to record
+     * @return the new balance, or empty if the account is missing, inactive,
+     *         split into balance slots, or the balance would become negative
+     */
+    @Query(value = "SELECT current_balance FROM FINAL TABLE (UPDATE account "
+            + "SET current_balance = current_balance + :delta, updated_at = :updatedAt "
+            + "WHERE id = :id AND is_active = TRUE AND balance_slots = 0 AND current_balance + :delta >= 0)",
+            nativeQuery = true)
+    Optional<BigDecimal> applyBalanceDelta(@Param("id") Long id, @Param("delta") BigDecimal delta,
+            @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Retrieves every account whose balance is split into sub-balance slots.
+     *
+     * @return the hot accounts
+     */
+    @Query("SELECT a FROM Account a WHERE a.balanceSlots > 0")
+    List<Account> findHotAccounts();
+
+    /**
+     * Overwrites the balance of an active account without loading the entity.
+     *
+     * @param id        the account ID
+     * @param balance   the new balance
+     * @param updatedAt the modification timestamp to record
+     * @return the number of updated rows: 1 if applied, 0 if the account is
+     *         missing or inactive
+     */
+    @Modifying
+    @Query("UPDATE Account a SET a.currentBalance = :balance, a.updatedAt = :updatedAt "
+            + "WHERE a.id = :id AND a.isActive = true")
+    int updateBalance(@Param("id") Long id, @Param("balance") Money balance,
+            @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Finds the number of an active account without loading the entity.
+     *
+     * @param id the account ID
+     * @return an {@link Optional} containing the account number, if found
+     */
+    @Query("SELECT a.number FROM Account a WHERE a.id = :id AND a.isActive = true")
+    Optional<String> findActiveNumberById(@Param("id") Long id);
+
 }
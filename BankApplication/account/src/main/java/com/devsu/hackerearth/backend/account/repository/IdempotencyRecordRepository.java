@@ -0,0 +1,66 @@
+package com.devsu.hackerearth.backend.account.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.devsu.hackerearth.backend.account.model.IdempotencyRecord;
+
+/**
+ * Repository interface for {@link IdempotencyRecord} entities, which map a
+ * client-supplied {@code Idempotency-Key} to the transaction it produced.
+ *
+ * Custom Queries:
+ * <ul>
+ * <li>{@code findTransactionIdByKey} – Resolves a key created since a given
+ * instant to its transaction ID.</li>
+ * <li>{@code deleteByKeyCreatedBefore} – Removes an expired record of a key
+ * about to be reused.</li>
+ * <li>{@code deleteCreatedBefore} – Purges records past their retention
+ * period.</li>
+ * </ul>
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    /**
+     * Finds the transaction ID recorded for an idempotency key that has not
+     * expired.
+     *
+     * @param key       the idempotency key
+     * @param threshold the oldest creation time still honoured
+     * @return an {@link Optional} containing the transaction ID, if recorded
+     */
+    @Query("SELECT r.transactionId FROM IdempotencyRecord r WHERE r.key = :key AND r.createdAt >= :threshold")
+    Optional<Long> findTransactionIdByKey(@Param("key") String key, @Param("threshold") LocalDateTime threshold);
+
+    /**
+     * Deletes the record of an idempotency key if it was created before the given
+     * instant, so the key can be recorded again.
+     *
+     * @param key       the idempotency key
+     * @param threshold the oldest creation time to keep
+     * @return the number of deleted records
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key AND r.createdAt < :threshold")
+    int deleteByKeyCreatedBefore(@Param("key") String key, @Param("threshold") LocalDateTime threshold);
+
+    /**
+     * Deletes every record created before the given instant.
+     *
+     * @param threshold the oldest creation time to keep
+     * @return the number of deleted records
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :threshold")
+    int deleteCreatedBefore(@Param("threshold") LocalDateTime threshold);
+}
@@ -0,0 +1,13 @@
+package com.devsu.hackerearth.backend.account.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.devsu.hackerearth.backend.account.model.JournalCheckpoint;
+
+/**
+ * Repository interface for {@link JournalCheckpoint} entities.
+ */
+@Repository
+public interface JournalCheckpointRepository extends JpaRepository<JournalCheckpoint, String> {
+}
@@ -0,0 +1,13 @@
+package com.devsu.hackerearth.backend.account.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.devsu.hackerearth.backend.account.model.JournalDeadLetter;
+
+/**
+ * Repository interface for {@link JournalDeadLetter} entities.
+ */
+@Repository
+public interface JournalDeadLetterRepository extends JpaRepository<JournalDeadLetter, Long> {
+}
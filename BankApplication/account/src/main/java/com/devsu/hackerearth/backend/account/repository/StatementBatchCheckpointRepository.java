@@ -0,0 +1,25 @@
+package com.devsu.hackerearth.backend.account.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.devsu.hackerearth.backend.account.model.StatementBatchCheckpoint;
+import com.devsu.hackerearth.backend.account.type.StatementBatchState;
+
+/**
+ * Repository interface for {@link StatementBatchCheckpoint} entities, keyed by
+ * month.
+ */
+@Repository
+public interface StatementBatchCheckpointRepository extends JpaRepository<StatementBatchCheckpoint, String> {
+
+    /**
+     * Finds the most recently updated checkpoint in a given state.
+     *
+     * @param state the batch state
+     * @return an {@link Optional} containing the checkpoint, if any
+     */
+    Optional<StatementBatchCheckpoint> findFirstByStateOrderByUpdatedAtDesc(StatementBatchState state);
+}
@@ -1,14 +1,22 @@
 package com.devsu.hackerearth.backend.account.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.devsu.hackerearth.backend.account.dto.StatementRow;
+import com.devsu.hackerearth.backend.account.dto.TransactionRow;
 import com.devsu.hackerearth.backend.account.model.Transaction;
 
 /**
@@ -27,6 +35,19 @@ import com.devsu.hackerearth.backend.account.model.Transaction;
  * specific account.</li>
  * <li>{@code findByClientIdAndTransactionDateRange} – Fetches transactions for
  * an account within a given date range.</li>
+ * <li>{@code findRowsByAccountIdsAndDateRange} – Fetches flat, read-only
+ * report rows for a set of accounts within a date range.</li>
+ * <li>{@code streamRowsByAccountIdsAndDateRange} – Same rows, read through a
+ * database cursor for reports of unbounded size.</li>
+ * <li>{@code streamStatementRowsByAccountIdsAndDateRange} – Statement rows,
+ * with their IDs, read through a database cursor for exports.</li>
+ * <li>{@code findFirstByAccountIdAndDateLessThanEqualOrderByDateDescIdDesc} –
+ * Finds the last transaction of an account on or before a day.</li>
+ * <li>{@code findStatementPage} / {@code findStatementPageAfter} – One page of
+ * an account's statement rows in {@code (date, id)} order, from the start of
+ * a date range or after a given row.</li>
+ * <li>{@code streamRowsByAccountId} – The whole history of one account as
+ * report rows, read through a database cursor.</li>
  * </ul>
  * 
  * This repository is central to audit trails, balance calculations, and monthly
@@ -60,4 +81,148 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
             @Param("accountId") Long accountId,
             @Param("dateTransactionStart") LocalDate startDate,
             @Param("dateTransactionEnd") LocalDate endDate);
-}
\ No newline at end of file
+
+
+    /**
+     * Retrieves the transactions of a set of accounts within a date range as flat
+     * {@link TransactionRow} projections, ordered by account, date and ID. No
+     * entities are loaded, so the rows bypass the persistence context.
+     *
+     * @param accountIds the account IDs
+     * @param startDate  the start of the transaction date range (inclusive)
+     * @param endDate    the end of the transaction date range (inclusive)
+     * @return the matching rows, grouped by account
+     */
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000") })
+    @Query("SELECT new com.devsu.hackerearth.backend.account.dto.TransactionRow("
+            + "t.account.id, t.type, t.date, t.amount, t.balance) FROM Transaction t "
+            + "WHERE t.account.id IN :accountIds "
+            + "AND t.date BETWEEN :dateTransactionStart AND :dateTransactionEnd "
+            + "ORDER BY t.account.id, t.date, t.id")
+    List<TransactionRow> findRowsByAccountIdsAndDateRange(
+            @Param("accountIds") Collection<Long> accountIds,
+            @Param("dateTransactionStart") LocalDate startDate,
+            @Param("dateTransactionEnd") LocalDate endDate);
+
+    /**
+     * Streams the same rows as {@link #findRowsByAccountIdsAndDateRange} through a
+     * forward-only cursor, fetching 1000 rows at a time, so arbitrarily long
+     * histories are read with bounded memory. The stream must be consumed and
+     * closed within the calling transaction.
+     *
+     * @param accountIds the account IDs
+     * @param startDate  the start of the transaction date range (inclusive)
+     * @param endDate    the end of the transaction date range (inclusive)
+     * @return the matching rows, grouped by account
+     */
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000") })
+    @Query("SELECT new com.devsu.hackerearth.backend.account.dto.TransactionRow("
+            + "t.account.id, t.type, t.date, t.amount, t.balance) FROM Transaction t "
+            + "WHERE t.account.id IN :accountIds "
+            + "AND t.date BETWEEN :dateTransactionStart AND :dateTransactionEnd "
+            + "ORDER BY t.account.id, t.date, t.id")
+    Stream<TransactionRow> streamRowsByAccountIdsAndDateRange(
+            @Param("accountIds") Collection<Long> accountIds,
+            @Param("dateTransactionStart") LocalDate startDate,
+            @Param("dateTransactionEnd") LocalDate endDate);
+
+    /**
+     * Streams the statement rows of a set of accounts within a date range through
+     * a database cursor, ordered by account, date and ID along the
+     * {@code (account_id, date, id)} index. Must be consumed, and closed, inside
+     * a transaction.
+     *
+     * @param accountIds the account IDs
+     * @param startDate  the start of the transaction date range (inclusive)
+     * @param endDate    the end of the transaction date range (inclusive)
+     * @return the matching rows, grouped by account
+     */
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000") })
+    @Query("SELECT new com.devsu.hackerearth.backend.account.dto.StatementRow("
+            + "t.id, t.account.id, t.type, t.date, t.amount, t.balance) FROM Transaction t "
+            + "WHERE t.account.id IN :accountIds "
+            + "AND t.date BETWEEN :dateTransactionStart AND :dateTransactionEnd "
+            + "ORDER BY t.account.id, t.date, t.id")
+    Stream<StatementRow> streamStatementRowsByAccountIdsAndDateRange(
+            @Param("accountIds") Collection<Long> accountIds,
+            @Param("dateTransactionStart") LocalDate startDate,
+            @Param("dateTransactionEnd") LocalDate endDate);
+
+    /**
+     * Retrieves the first statement rows of an account within a date range, in
+     * {@code (date, id)} order. The account is fixed and the range starts at a
+     * known date, so the rows are read in order from the
+     * {@code (account_id, date, id)} index and only as many as the page holds are
+     * visited, whatever the size of the range.
+     *
+     * @param accountId the account ID
+     * @param startDate the start of the range (inclusive)
+     * @param endDate   the end of the range (inclusive)
+     * @param page      the page size, as the first page of a {@link Pageable}
+     * @return at most the page size rows
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"))
+    @Query("SELECT new com.devsu.hackerearth.backend.account.dto.StatementRow("
+            + "t.id, t.account.id, t.type, t.date, t.amount, t.balance) FROM Transaction t "
+            + "WHERE t.account.id = :accountId AND t.date BETWEEN :startDate AND :endDate "
+            + "ORDER BY t.date, t.id")
+    List<StatementRow> findStatementPage(@Param("accountId") Long accountId,
+            @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, Pageable page);
+
+    /**
+     * Retrieves the statement rows of an account that follow a given row within
+     * a date range, in {@code (date, id)} order. The range scan on the
+     * {@code (account_id, date, id)} index starts at the given row's date, so
+     * earlier rows are never visited.
+     *
+     * @param accountId the account ID
+     * @param startDate the start of the range (inclusive)
+     * @param endDate   the end of the range (inclusive)
+     * @param afterDate the date of the last row already returned
+     * @param afterId   the ID of the last row already returned
+     * @param page      the page size, as the first page of a {@link Pageable}
+     * @return at most the page size rows
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"))
+    @Query("SELECT new com.devsu.hackerearth.backend.account.dto.StatementRow("
+            + "t.id, t.account.id, t.type, t.date, t.amount, t.balance) FROM Transaction t "
+            + "WHERE t.account.id = :accountId AND t.date BETWEEN :startDate AND :endDate "
+            + "AND t.date >= :afterDate AND (t.date > :afterDate OR t.id > :afterId) "
+            + "ORDER BY t.date, t.id")
+    List<StatementRow> findStatementPageAfter(@Param("accountId") Long accountId,
+            @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+            @Param("afterDate") LocalDate afterDate, @Param("afterId") Long afterId, Pageable page);
+
+    /**
+     * Finds the last transaction of an account on or before a day, using the
+     * {@code (account_id, date)} index.
+     *
+     * @param accountId the account ID
+     * @param date      the last day considered (inclusive)
+     * @return the transaction, if the account had any on or before that day
+     */
+    Optional<Transaction> findFirstByAccountIdAndDateLessThanEqualOrderByDateDescIdDesc(Long accountId,
+            LocalDate date);
+
+    /**
+     * Streams every transaction of an account as {@link TransactionRow}
+     * projections, ordered by date and ID, through a forward-only cursor. The
+     * stream must be consumed and closed within the calling transaction.
+     *
+     * @param accountId the account ID
+     * @return the account's rows in posting order
+     */
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000") })
+    @Query("SELECT new com.devsu.hackerearth.backend.account.dto.TransactionRow("
+            + "t.account.id, t.type, t.date, t.amount, t.balance) FROM Transaction t "
+            + "WHERE t.account.id = :accountId ORDER BY t.date, t.id")
+    Stream<TransactionRow> streamRowsByAccountId(@Param("accountId") Long accountId);
+}
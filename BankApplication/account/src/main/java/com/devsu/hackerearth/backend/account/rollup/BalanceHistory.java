@@ -0,0 +1,72 @@
+package com.devsu.hackerearth.backend.account.rollup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+
+import com.devsu.hackerearth.backend.account.model.Account;
+import com.devsu.hackerearth.backend.account.model.AccountDailyRollup;
+import com.devsu.hackerearth.backend.account.model.Transaction;
+import com.devsu.hackerearth.backend.account.repository.AccountDailyRollupRepository;
+import com.devsu.hackerearth.backend.account.repository.TransactionRepository;
+import com.devsu.hackerearth.backend.account.type.Money;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Answers the balance of an account at the close of a given day.
+ * <p>
+ * The {@link AccountDailyRollup} rows are the balance checkpoints: every day
+ * with postings has one, holding the balance after the day's last posting, and
+ * no balance changes between two of them. The balance at the close of a day is
+ * therefore the closing balance of the latest rollup on or before it, found
+ * with a single seek on the {@code (account_id, date)} unique index, whatever
+ * the age of the account. Days before the first rollup, such as history posted
+ * before rollups were kept and not yet rebuilt, fall back to a seek on the
+ * {@code (account_id, date)} index of the transactions, and an account with no
+ * transaction yet on that day still holds its initial amount.
+ * </p>
+ * <p>
+ * The balances recorded on the transactions of an account whose balance is
+ * split into slots are not exact, so for such an account the fallback is the
+ * opening balance of the earliest later rollup instead.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class BalanceHistory {
+
+    private final AccountDailyRollupRepository rollupRepository;
+    private final TransactionRepository transactionRepository;
+
+    /**
+     * Returns an account's balance at the close of a day.
+     *
+     * @param account the account
+     * @param asOf    the day
+     * @return the balance after the last transaction posted on or before
+     *         {@code asOf}
+     */
+    public BigDecimal balanceAsOf(Account account, LocalDate asOf) {
+        Long accountId = account.getId();
+        Optional<AccountDailyRollup> checkpoint = rollupRepository
+                .findFirstByAccountIdAndDateLessThanEqualOrderByDateDesc(accountId, asOf);
+        if (checkpoint.isPresent()) {
+            return checkpoint.get().getClosingBalance();
+        }
+        if (account.getBalanceSlots() > 0) {
+            Optional<AccountDailyRollup> next = rollupRepository
+                    .findFirstByAccountIdAndDateGreaterThanOrderByDateAsc(accountId, asOf);
+            if (next.isPresent()) {
+                AccountDailyRollup rollup = next.get();
+                return rollup.getClosingBalance().subtract(rollup.getDepositTotal()).add(rollup.getWithdrawalTotal());
+            }
+        }
+        return transactionRepository.findFirstByAccountIdAndDateLessThanEqualOrderByDateDescIdDesc(accountId, asOf)
+                .map(Transaction::getBalance)
+                .map(Money::toBigDecimal)
+                .orElse(account.getInitialAmount());
+    }
+}
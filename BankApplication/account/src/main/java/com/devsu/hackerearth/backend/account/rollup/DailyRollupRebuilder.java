@@ -0,0 +1,141 @@
+package com.devsu.hackerearth.backend.account.rollup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.devsu.hackerearth.backend.account.dto.TransactionRow;
+import com.devsu.hackerearth.backend.account.model.Account;
+import com.devsu.hackerearth.backend.account.model.AccountBalanceSlot;
+import com.devsu.hackerearth.backend.account.model.AccountDailyRollup;
+import com.devsu.hackerearth.backend.account.model.dto.RollupRebuildResultDto;
+import com.devsu.hackerearth.backend.account.posting.AccountPostingEngine;
+import com.devsu.hackerearth.backend.account.repository.AccountBalanceSlotRepository;
+import com.devsu.hackerearth.backend.account.repository.AccountDailyRollupRepository;
+import com.devsu.hackerearth.backend.account.repository.AccountRepository;
+import com.devsu.hackerearth.backend.account.repository.TransactionRepository;
+import com.devsu.hackerearth.backend.account.type.Money;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Recomputes {@link AccountDailyRollup} rows from the transaction history, to
+ * seed them for transactions posted before rollups were maintained or to
+ * repair them.
+ * <p>
+ * Each account is rebuilt in its own database transaction while holding the
+ * account's posting lock and its row lock, so postings to that account wait
+ * for the rebuild and no posting falls between the delete and the re-insert.
+ * The history is read through a cursor in posting order, so memory use is
+ * bounded by the number of days, not of transactions.
+ * </p>
+ * <p>
+ * For an account whose balance is split into slots the balances recorded on
+ * the transactions are not exact, so the closing balances are derived instead,
+ * backwards from the sum of the slots, which are locked for the rebuild.
+ * </p>
+ *
+ * Configuration:
+ * <ul>
+ * <li>{@code account.rollup.rebuild-cron} – Cron expression of the scheduled
+ * rebuild of every account (default {@code -}, disabled).</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DailyRollupRebuilder {
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountDailyRollupRepository rollupRepository;
+    private final AccountBalanceSlotRepository accountBalanceSlotRepository;
+    private final AccountPostingEngine accountPostingEngine;
+
+    /**
+     * Runs the scheduled rebuild of every account.
+     */
+    @Scheduled(cron = "${account.rollup.rebuild-cron:-}")
+    public void scheduledRebuild() {
+        rebuildAll();
+    }
+
+    /**
+     * Rebuilds the rollups of every account, active or not.
+     *
+     * @return the number of accounts and of daily rows rebuilt
+     */
+    public RollupRebuildResultDto rebuildAll() {
+        List<Long> accountIds = accountRepository.findAllIds();
+        long days = 0;
+        for (Long accountId : accountIds) {
+            days += rebuild(accountId);
+        }
+        log.info("[Rollup] Rebuilt {} daily rows for {} accounts", days, accountIds.size());
+        return new RollupRebuildResultDto(accountIds.size(), days);
+    }
+
+    /**
+     * Rebuilds the rollups of one account.
+     *
+     * @param accountId the account ID
+     * @return the number of daily rows written
+     */
+    public int rebuild(Long accountId) {
+        return accountPostingEngine.post(accountId, () -> {
+            accountRepository.findActiveByIdForUpdate(accountId);
+            int slots = accountRepository.findById(accountId).map(Account::getBalanceSlots).orElse(0);
+            rollupRepository.deleteByAccountId(accountId);
+
+            List<AccountDailyRollup> rollups = new ArrayList<>();
+            LocalDate date = null;
+            DailyTotals day = null;
+            try (Stream<TransactionRow> rows = transactionRepository.streamRowsByAccountId(accountId)) {
+                Iterator<TransactionRow> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    TransactionRow row = iterator.next();
+                    if (!row.getDate().equals(date)) {
+                        if (day != null) {
+                            rollups.add(day.toRollup(accountId, date));
+                        }
+                        date = row.getDate();
+                        day = new DailyTotals();
+                    }
+                    day.add(row.getType(), row.getAmount(), row.getBalance());
+                }
+            }
+            if (day != null) {
+                rollups.add(day.toRollup(accountId, date));
+            }
+            if (slots > 0) {
+                closeBackwards(rollups, slotTotalForUpdate(accountId));
+            }
+            rollupRepository.saveAll(rollups);
+            return rollups.size();
+        });
+    }
+
+    private Money slotTotalForUpdate(Long accountId) {
+        Money total = Money.ZERO;
+        for (AccountBalanceSlot slot : accountBalanceSlotRepository.findByAccountIdForUpdate(accountId)) {
+            total = total.add(Money.of(slot.getBalance()));
+        }
+        return total;
+    }
+
+    private static void closeBackwards(List<AccountDailyRollup> rollups, Money balance) {
+        Money closing = balance;
+        for (int i = rollups.size() - 1; i >= 0; i--) {
+            AccountDailyRollup rollup = rollups.get(i);
+            rollup.setClosingBalance(closing.toBigDecimal());
+            closing = closing.subtract(Money.of(rollup.getDepositTotal()))
+                    .add(Money.of(rollup.getWithdrawalTotal()));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.devsu.hackerearth.backend.account.rollup;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.devsu.hackerearth.backend.account.model.AccountDailyRollup;
+import com.devsu.hackerearth.backend.account.model.Transaction;
+import com.devsu.hackerearth.backend.account.repository.AccountDailyRollupRepository;
+import com.devsu.hackerearth.backend.account.repository.AccountRepository;
+import com.devsu.hackerearth.backend.account.type.Money;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Folds posted transactions into their {@link AccountDailyRollup} rows. Called
+ * by every path that inserts transactions, within the same database
+ * transaction, so a rollup always matches the committed transactions.
+ * <p>
+ * The postings of a call are first grouped by account and day, so a batch
+ * costs one UPDATE per account and day rather than one per transaction. The
+ * first posting of an account on a day finds no row to update; it then locks
+ * the account row, which the next posting to that account waits on, retries
+ * the UPDATE and inserts the row if it is still missing. Postings that
+ * already serialize on the account (the locked, atomic-delta, group-commit and
+ * journal paths) are unaffected; hot-account deposits, which do not, only take
+ * the lock once per account and day.
+ * </p>
+ * <p>
+ * Postings to an account whose balance is split into slots do not record the
+ * exact balance after them, so {@link #recordDelta(Transaction)} ignores it:
+ * the closing balance of the day is moved by the posting's net amount, and the
+ * first rollup of a day opens at the closing balance of the previous one. The
+ * chain starts from the {@link #checkpoint(Long, LocalDate, Money) checkpoint}
+ * written when the account is split.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class DailyRollupRecorder {
+
+    private final AccountDailyRollupRepository rollupRepository;
+    private final AccountRepository accountRepository;
+
+    /**
+     * Records one posted transaction.
+     *
+     * @param transaction the saved transaction
+     */
+    public void record(Transaction transaction) {
+        record(List.of(transaction));
+    }
+
+    /**
+     * Records posted transactions, given in posting order.
+     *
+     * @param transactions the saved transactions
+     */
+    public void record(Collection<Transaction> transactions) {
+        Map<Long, Map<LocalDate, DailyTotals>> totals = new LinkedHashMap<>();
+        for (Transaction transaction : transactions) {
+            totals.computeIfAbsent(transaction.getAccount().getId(), id -> new LinkedHashMap<>())
+                    .computeIfAbsent(transaction.getDate(), date -> new DailyTotals())
+                    .add(transaction.getType(), transaction.getAmount(), transaction.getBalance());
+        }
+        totals.forEach((accountId, days) -> days.forEach((date, day) -> apply(accountId, date, day)));
+    }
+
+    /**
+     * Records one transaction posted to an account whose balance is split into
+     * slots, moving the closing balance by its amount rather than setting it to
+     * the transaction's balance. Rollups of later days, opened before this
+     * posting committed, are moved as well.
+     *
+     * @param transaction the saved transaction
+     */
+    public void recordDelta(Transaction transaction) {
+        Long accountId = transaction.getAccount().getId();
+        LocalDate date = transaction.getDate();
+        DailyTotals day = new DailyTotals();
+        day.add(transaction.getType(), transaction.getAmount(), transaction.getBalance());
+        if (!addDeltaTo(accountId, date, day)) {
+            accountRepository.findActiveByIdForUpdate(accountId);
+            if (!addDeltaTo(accountId, date, day)) {
+                // Accounts split before checkpoints were written may have no
+                // earlier rollup; the posting's own balance is the best guess
+                // until the rollups are rebuilt.
+                day.openAt(rollupRepository.findFirstByAccountIdAndDateLessThanOrderByDateDesc(accountId, date)
+                        .map(previous -> Money.of(previous.getClosingBalance()))
+                        .orElseGet(() -> day.getClosingBalance().subtract(day.getNet())));
+                rollupRepository.save(day.toRollup(accountId, date));
+            }
+        }
+        rollupRepository.shiftClosingBalancesAfter(accountId, date, day.getNet().toBigDecimal());
+    }
+
+    /**
+     * Records the exact balance of an account at a point of the day, opening
+     * the day's rollup with no postings if it has none yet. Must be called while
+     * no posting to the account can commit.
+     *
+     * @param accountId the account ID
+     * @param date      the day
+     * @param balance   the account balance
+     */
+    public void checkpoint(Long accountId, LocalDate date, Money balance) {
+        if (rollupRepository.setClosingBalance(accountId, date, balance.toBigDecimal()) == 0) {
+            DailyTotals day = new DailyTotals();
+            day.openAt(balance);
+            rollupRepository.save(day.toRollup(accountId, date));
+        }
+    }
+
+    private void apply(Long accountId, LocalDate date, DailyTotals day) {
+        if (addTo(accountId, date, day)) {
+            return;
+        }
+        accountRepository.findActiveByIdForUpdate(accountId);
+        if (!addTo(accountId, date, day)) {
+            rollupRepository.save(day.toRollup(accountId, date));
+        }
+    }
+
+    private boolean addTo(Long accountId, LocalDate date, DailyTotals day) {
+        return rollupRepository.addToRollup(accountId, date, day.getDeposits().toBigDecimal(),
+                day.getWithdrawals().toBigDecimal(), day.getCount(),
+                day.getClosingBalance().toBigDecimal()) == 1;
+    }
+
+    private boolean addDeltaTo(Long accountId, LocalDate date, DailyTotals day) {
+        return rollupRepository.addDeltaToRollup(accountId, date, day.getDeposits().toBigDecimal(),
+                day.getWithdrawals().toBigDecimal(), day.getCount()) == 1;
+    }
+}
@@ -0,0 +1,81 @@
+package com.devsu.hackerearth.backend.account.rollup;
+
+import java.time.LocalDate;
+
+import com.devsu.hackerearth.backend.account.model.AccountDailyRollup;
+import com.devsu.hackerearth.backend.account.type.Money;
+import com.devsu.hackerearth.backend.account.type.TransactionType;
+
+/**
+ * Accumulates the postings of one account on one day, in posting order.
+ */
+final class DailyTotals {
+
+    private Money deposits = Money.ZERO;
+    private Money withdrawals = Money.ZERO;
+    private long count;
+    private Money closingBalance;
+
+    /**
+     * Adds a posting; its balance becomes the closing balance.
+     *
+     * @param type    the transaction type name
+     * @param amount  the amount posted
+     * @param balance the account balance after the posting
+     */
+    void add(String type, Money amount, Money balance) {
+        if (TransactionType.DEPOSIT.name().equals(type)) {
+            deposits = deposits.add(amount);
+        } else {
+            withdrawals = withdrawals.add(amount);
+        }
+        count++;
+        closingBalance = balance;
+    }
+
+    Money getDeposits() {
+        return deposits;
+    }
+
+    Money getWithdrawals() {
+        return withdrawals;
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    Money getClosingBalance() {
+        return closingBalance;
+    }
+
+    /**
+     * Returns the deposits less the withdrawals.
+     *
+     * @return the net amount posted
+     */
+    Money getNet() {
+        return deposits.subtract(withdrawals);
+    }
+
+    /**
+     * Derives the closing balance from the balance before the day's postings,
+     * ignoring the balances recorded on them.
+     *
+     * @param opening the balance at the close of the previous day
+     */
+    void openAt(Money opening) {
+        closingBalance = opening.add(getNet());
+    }
+
+    AccountDailyRollup toRollup(Long accountId, LocalDate date) {
+        AccountDailyRollup rollup = new AccountDailyRollup();
+        rollup.setAccountId(accountId);
+        rollup.setDate(date);
+        rollup.setDepositTotal(deposits.toBigDecimal());
+        rollup.setWithdrawalTotal(withdrawals.toBigDecimal());
+        rollup.setTransactionCount(count);
+        rollup.setClosingBalance(closingBalance.toBigDecimal());
+        return rollup;
+    }
+}
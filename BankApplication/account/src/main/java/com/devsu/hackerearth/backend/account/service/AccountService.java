@@ -1,7 +1,9 @@
 package com.devsu.hackerearth.backend.account.service;
 
+import java.time.LocalDate;
 import java.util.List;
 
+import com.devsu.hackerearth.backend.account.model.dto.AccountBalanceDto;
 import com.devsu.hackerearth.backend.account.model.dto.AccountDto;
 import com.devsu.hackerearth.backend.account.model.dto.PartialAccountDto;
 
@@ -12,6 +14,8 @@ public interface AccountService {
 	public AccountDto create(AccountDto accountDto);
 	public AccountDto update(AccountDto accountDto);
 	public AccountDto partialUpdate(Long id, PartialAccountDto partialAccountDto);
+	public AccountDto configureBalanceSlots(Long id, int slots);
 	public void deleteById(Long id);
 	public AccountDto getByNumber(String number);
+	public AccountBalanceDto getBalanceAsOf(Long id, LocalDate asOf);
 }
@@ -1,6 +1,8 @@
 package com.devsu.hackerearth.backend.account.service;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.springframework.dao.DataIntegrityViolationException;
@@ -12,11 +14,19 @@ import com.devsu.hackerearth.backend.account.exception.AccountNotFoundException;
 import com.devsu.hackerearth.backend.account.exception.DataConflictException;
 import com.devsu.hackerearth.backend.account.exception.PersistenceOperationException;
 import com.devsu.hackerearth.backend.account.factory.AccountFactoryService;
+import com.devsu.hackerearth.backend.account.journal.PostingJournal;
 import com.devsu.hackerearth.backend.account.mapper.AccountMapper;
 import com.devsu.hackerearth.backend.account.model.Account;
+import com.devsu.hackerearth.backend.account.model.dto.AccountBalanceDto;
 import com.devsu.hackerearth.backend.account.model.dto.AccountDto;
 import com.devsu.hackerearth.backend.account.model.dto.PartialAccountDto;
+import com.devsu.hackerearth.backend.account.posting.AccountPostingEngine;
+import com.devsu.hackerearth.backend.account.posting.BalanceTable;
+import com.devsu.hackerearth.backend.account.posting.HotAccountPoster;
+import com.devsu.hackerearth.backend.account.report.ReportDataCache;
 import com.devsu.hackerearth.backend.account.repository.AccountRepository;
+import com.devsu.hackerearth.backend.account.rollup.BalanceHistory;
+import com.devsu.hackerearth.backend.account.rollup.DailyRollupRecorder;
 
 import javax.persistence.PersistenceException;
 import lombok.RequiredArgsConstructor;
@@ -31,6 +41,13 @@ public class AccountServiceImpl implements AccountService {
     private final AccountRepository accountRepository;
     private final AccountMapper accountMapper;
     private final AccountFactoryService accountFactoryService;
+    private final AccountPostingEngine accountPostingEngine;
+    private final BalanceTable balanceTable;
+    private final HotAccountPoster hotAccountPoster;
+    private final BalanceHistory balanceHistory;
+    private final DailyRollupRecorder dailyRollupRecorder;
+    private final ReportDataCache reportDataCache;
+    private final Optional<PostingJournal> postingJournal;
 
     /**
      * Retrieves all accounts currently marked as active in the system.
@@ -42,7 +59,7 @@ public class AccountServiceImpl implements AccountService {
     public List<AccountDto> getAll() {
         try {
             return accountRepository.findAllActiveAccountList().stream()
-                    .map(accountMapper::toDto).collect(Collectors.toList());
+                    .map(this::toDto).collect(Collectors.toList());
         } catch (PersistenceException e) {
             throw new PersistenceOperationException(RETRIEVE, ACCOUNT, e);
         }
@@ -61,7 +78,7 @@ public class AccountServiceImpl implements AccountService {
         try {
             Account account = accountRepository.findActiveById(id)
                     .orElseThrow(() -> new AccountNotFoundException(id));
-            return accountMapper.toDto(account);
+            return toDto(account);
         } catch (PersistenceException e) {
             throw new PersistenceOperationException(RETRIEVE, ACCOUNT, e);
         }
@@ -82,8 +99,10 @@ public class AccountServiceImpl implements AccountService {
     @Override
     public AccountDto create(AccountDto accountDto) {
         try {
-            Account account = accountFactoryService.prepareAccount(accountDto);
-            return accountMapper.toDto(accountRepository.save(account));
+            Account account = accountRepository.save(accountFactoryService.prepareAccount(accountDto));
+            balanceTable.putAfterCommit(account.getId(), account.getCurrentBalance());
+            reportDataCache.invalidateClientAfterCommit(account.getClientId());
+            return accountMapper.toDto(account);
         } catch (DataIntegrityViolationException e) {
             throw new DataConflictException(ACCOUNT, "Number");
         } catch (PersistenceException e) {
@@ -91,41 +110,153 @@ public class AccountServiceImpl implements AccountService {
         }
     }
 
+    /**
+     * Overwrites the balance of an active account. Runs under the account's
+     * posting lock so it is ordered with concurrent postings, and writes the new
+     * balance through to the {@link BalanceTable}, or spreads it across the
+     * account's balance slots if it has any. The new balance is checkpointed as
+     * the day's closing balance, so the balance as of today reflects it. An
+     * account suspended by the {@link PostingJournal} accepts journaled postings
+     * again.
+     *
+     * @param accountDto the account ID and new balance
+     * @return the updated account as a DTO
+     * @throws AccountNotFoundException      if the account does not exist
+     * @throws AccountInactiveException      if the account is inactive
+     * @throws PersistenceOperationException if the update fails
+     */
     @Override
     public AccountDto update(AccountDto accountDto) {
-        Account account = accountRepository.findById(accountDto.getId())
-                .orElseThrow(() -> new AccountNotFoundException(accountDto.getId()));
+        return accountPostingEngine.post(accountDto.getId(), () -> {
+            Account account = accountRepository.findById(accountDto.getId())
+                    .orElseThrow(() -> new AccountNotFoundException(accountDto.getId()));
 
-        if (!Boolean.TRUE.equals(account.isActive())) {
-            throw new AccountInactiveException(accountDto.getId());
-        }
+            if (!Boolean.TRUE.equals(account.isActive())) {
+                throw new AccountInactiveException(accountDto.getId());
+            }
 
-        try {
-            accountMapper.toUpdateEntity(account, accountDto.getCurrentBalance());
-            return accountMapper.toDto(accountRepository.save(account));
-        } catch (PersistenceException e) {
-            throw new PersistenceOperationException("update", ACCOUNT, e);
-        }
+            try {
+                accountMapper.toUpdateEntity(account, accountDto.getCurrentBalance());
+                Account saved = accountRepository.save(account);
+                if (saved.getBalanceSlots() > 0) {
+                    hotAccountPoster.overwrite(saved, saved.getCurrentBalance());
+                } else {
+                    dailyRollupRecorder.checkpoint(saved.getId(), LocalDate.now(), saved.getCurrentBalance());
+                    balanceTable.putAfterCommit(saved.getId(), saved.getCurrentBalance());
+                    postingJournal.ifPresent(journal -> journal.release(saved.getId()));
+                }
+                reportDataCache.invalidateClientAfterCommit(saved.getClientId());
+                return toDto(saved);
+            } catch (PersistenceException e) {
+                throw new PersistenceOperationException("update", ACCOUNT, e);
+            }
+        });
     }
 
+    /**
+     * Activates or deactivates an account under its posting lock. Deactivated
+     * accounts leave the {@link BalanceTable}; reactivated ones rejoin it and
+     * accept journaled postings again if the {@link PostingJournal} suspended
+     * them.
+     *
+     * @param id                the account ID
+     * @param partialAccountDto the new active flag
+     * @return the updated account as a DTO
+     * @throws AccountNotFoundException      if the account does not exist
+     * @throws PersistenceOperationException if the update fails
+     */
     @Override
     public AccountDto partialUpdate(Long id, PartialAccountDto partialAccountDto) {
-        Account account = accountRepository.findById(id)
-                .orElseThrow(() -> new AccountNotFoundException(id));
+        return accountPostingEngine.post(id, () -> {
+            Account account = accountRepository.findById(id)
+                    .orElseThrow(() -> new AccountNotFoundException(id));
+
+            try {
+                account.setActive(partialAccountDto.isActive());
+                Account saved = accountRepository.save(account);
+                if (saved.isActive() && saved.getBalanceSlots() == 0) {
+                    balanceTable.putAfterCommit(saved.getId(), saved.getCurrentBalance());
+                    postingJournal.ifPresent(journal -> journal.release(saved.getId()));
+                } else {
+                    balanceTable.removeAfterCommit(saved.getId());
+                }
+                reportDataCache.invalidateClientAfterCommit(saved.getClientId());
+                return toDto(saved);
+            } catch (PersistenceException e) {
+                throw new PersistenceOperationException("update", ACCOUNT, e);
+            }
+        });
+    }
+
+    /**
+     * Splits an active account's balance into {@code slots} sub-balances, changes
+     * the number of slots, or merges them back into a single balance when
+     * {@code slots} is 0. Runs under the account's posting lock.
+     *
+     * @param id    the account ID
+     * @param slots the number of balance slots, 0 to disable
+     * @return the updated account as a DTO
+     * @throws AccountNotFoundException      if no active account is found
+     * @throws IllegalArgumentException      if {@code slots} is out of range
+     * @throws PersistenceOperationException if the update fails
+     */
+    @Override
+    public AccountDto configureBalanceSlots(Long id, int slots) {
+        return accountPostingEngine.post(id, () -> {
+            Account account = accountRepository.findActiveById(id)
+                    .orElseThrow(() -> new AccountNotFoundException(id));
+
+            try {
+                hotAccountPoster.configure(account, slots);
+                return toDto(account);
+            } catch (PersistenceException e) {
+                throw new PersistenceOperationException("update", ACCOUNT, e);
+            }
+        });
+    }
 
+    /**
+     * Returns an account's balance at the close of a day, active or not. The
+     * balance is read from the nearest daily checkpoint through
+     * {@link BalanceHistory}, so the cost does not grow with the account's age.
+     *
+     * @param id   the account ID
+     * @param asOf the day
+     * @return the balance after the last transaction posted on or before
+     *         {@code asOf}
+     * @throws AccountNotFoundException      if the account does not exist
+     * @throws PersistenceOperationException on repository access failure
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public AccountBalanceDto getBalanceAsOf(Long id, LocalDate asOf) {
         try {
-            account.setActive(partialAccountDto.isActive());
-            return accountMapper.toDto(accountRepository.save(account));
+            Account account = accountRepository.findById(id)
+                    .orElseThrow(() -> new AccountNotFoundException(id));
+            return new AccountBalanceDto(id, account.getNumber(), asOf,
+                    balanceHistory.balanceAsOf(account, asOf));
         } catch (PersistenceException e) {
-            throw new PersistenceOperationException("update", ACCOUNT, e);
+            throw new PersistenceOperationException(RETRIEVE, ACCOUNT, e);
         }
     }
 
+    /**
+     * Deletes an account under its posting lock. Journaled postings to the
+     * account are applied first, so none is left pointing at a deleted row.
+     *
+     * @param id the account ID
+     * @throws AccountNotFoundException if the account does not exist
+     */
     @Override
     public void deleteById(Long id) {
-        Account account = accountRepository.findById(id)
-                .orElseThrow(() -> new AccountNotFoundException(id));
-        accountRepository.delete(account);
+        accountPostingEngine.post(id, () -> {
+            Account account = accountRepository.findById(id)
+                    .orElseThrow(() -> new AccountNotFoundException(id));
+            accountRepository.delete(account);
+            balanceTable.removeAfterCommit(id);
+            reportDataCache.invalidateClientAfterCommit(account.getClientId());
+            return null;
+        });
     }
 
     /**
@@ -140,10 +271,25 @@ public class AccountServiceImpl implements AccountService {
         try {
             Account account = accountRepository.findActiveByNumber(number)
                     .orElseThrow(() -> new AccountNotFoundException(number));
-            return accountMapper.toDto(account);
+            return toDto(account);
         } catch (PersistenceException e) {
             throw new PersistenceOperationException(RETRIEVE, "Account by Number", e);
         }
     }
 
+    /**
+     * Maps an account to its DTO, reporting the exact sum of its balance slots
+     * when it has any.
+     *
+     * @param account the account entity
+     * @return the account DTO
+     */
+    private AccountDto toDto(Account account) {
+        AccountDto accountDto = accountMapper.toDto(account);
+        if (account.getBalanceSlots() > 0) {
+            accountDto.setCurrentBalance(hotAccountPoster.currentBalanceOf(account));
+        }
+        return accountDto;
+    }
+
 }
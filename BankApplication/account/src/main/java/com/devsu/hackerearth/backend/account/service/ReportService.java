@@ -1,16 +1,22 @@
 package com.devsu.hackerearth.backend.account.service;
 
+import java.io.OutputStream;
 import java.time.LocalDate;
-import java.util.ArrayList;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import com.devsu.hackerearth.backend.account.dto.AccountDataDto;
 import com.devsu.hackerearth.backend.account.dto.ClientData;
 import com.devsu.hackerearth.backend.account.dto.ReportPeriod;
 import com.devsu.hackerearth.backend.account.dto.ReportRequestEvent;
@@ -19,11 +25,27 @@ import com.devsu.hackerearth.backend.account.kafka.consumer.ReportRequestConsume
 import com.devsu.hackerearth.backend.account.kafka.consumer.ReportResponseListener;
 import com.devsu.hackerearth.backend.account.kafka.producer.ReportRequestProducer;
 import com.devsu.hackerearth.backend.account.kafka.producer.ReportResponseProducer;
-import com.devsu.hackerearth.backend.account.mapper.AccountDataMapper;
-import com.devsu.hackerearth.backend.account.model.Account;
-import com.devsu.hackerearth.backend.account.model.Transaction;
-import com.devsu.hackerearth.backend.account.repository.AccountRepository;
-import com.devsu.hackerearth.backend.account.repository.TransactionRepository;
+import com.devsu.hackerearth.backend.account.model.dto.ReportCoalescingStatsDto;
+import com.devsu.hackerearth.backend.account.model.dto.ReportDataCacheStatsDto;
+import com.devsu.hackerearth.backend.account.model.dto.ReportStatusDto;
+import com.devsu.hackerearth.backend.account.model.dto.ReportStoreStatsDto;
+import com.devsu.hackerearth.backend.account.model.dto.RollupRebuildResultDto;
+import com.devsu.hackerearth.backend.account.model.dto.StatementBatchStatusDto;
+import com.devsu.hackerearth.backend.account.model.dto.StatementPageDto;
+import com.devsu.hackerearth.backend.account.model.dto.SummaryReportDto;
+import com.devsu.hackerearth.backend.account.report.CompressedReport;
+import com.devsu.hackerearth.backend.account.report.ReportDataCache;
+import com.devsu.hackerearth.backend.account.report.ReportEventRegistry;
+import com.devsu.hackerearth.backend.account.report.ReportProperties;
+import com.devsu.hackerearth.backend.account.report.ReportRequestCoalescer;
+import com.devsu.hackerearth.backend.account.report.ReportStore;
+import com.devsu.hackerearth.backend.account.report.ReportWaiters;
+import com.devsu.hackerearth.backend.account.report.StatementExportWriter;
+import com.devsu.hackerearth.backend.account.rollup.DailyRollupRebuilder;
+import com.devsu.hackerearth.backend.account.statement.MonthEndStatementBatch;
+import com.devsu.hackerearth.backend.account.statement.StatementStore;
+import com.devsu.hackerearth.backend.account.type.ExportFormat;
+import com.devsu.hackerearth.backend.account.type.ReportStatus;
 import com.devsu.hackerearth.backend.account.util.DateUtil;
 
 import lombok.RequiredArgsConstructor;
@@ -47,22 +69,40 @@ import lombok.RequiredArgsConstructor;
  * objects.</li>
  * <li>Dispatch report requests to Kafka and respond to correlation ID
  * lookups.</li>
- * <li>Support client-side polling of reports using correlation
- * identifiers.</li>
+ * <li>Support client-side polling, and long polling, of reports using
+ * correlation identifiers.</li>
+ * <li>Answer summary reports from per-account daily rollups.</li>
+ * <li>Serve statements page by page through keyset cursors.</li>
+ * <li>Stream statement exports as CSV or NDJSON.</li>
+ * <li>Start and report on the month-end statement batch.</li>
  * </ul>
  *
  * Dependencies:
  * <ul>
- * <li>{@link AccountRepository} – Fetches active client accounts.</li>
- * <li>{@link TransactionRepository} – Retrieves transactions per account within
- * a date range.</li>
- * <li>{@link AccountDataMapper} – Aggregates account and transaction data.</li>
+ * <li>{@link TransactionService} – Reads a client's accounts and their
+ * transactions within a date range through the read-only report path.</li>
  * <li>{@link ReportResponseProducer} – Publishes enriched report events to
  * Kafka.</li>
- * <li>{@link ReportResponseListener} – Retrieves processed reports by
- * correlation ID.</li>
+ * <li>{@link ReportProperties} – Size of the chunks a report is streamed
+ * in.</li>
+ * <li>{@link ReportStore} – Reports hit, miss, eviction and size
+ * statistics.</li>
+ * <li>{@link ReportResponseListener} – Retrieves processed reports, stored
+ * as compressed JSON, by correlation ID.</li>
+ * <li>{@link ReportWaiters} – Parks long-poll requests until their report is
+ * stored.</li>
+ * <li>{@link ReportEventRegistry} – Streams report status updates to
+ * Server-Sent Events subscribers.</li>
+ * <li>{@link ReportRequestCoalescer} – Joins repeated requests for the same
+ * client and period into one report job.</li>
  * <li>{@link ReportRequestConsumer} – Forwards report request events to
  * processing channels.</li>
+ * <li>{@link DailyRollupRebuilder} – Recomputes the daily rollups summary
+ * reports are read from.</li>
+ * <li>{@link ReportDataCache} – Assembled report data, kept current by
+ * postings; statistics only.</li>
+ * <li>{@link MonthEndStatementBatch} – Builds every client's statement for a
+ * month in parallel.</li>
  * </ul>
  * 
  * Author: Germán Ponce
@@ -72,29 +112,39 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class ReportService {
 
-    private final AccountRepository accountRepository;
-    private final TransactionRepository transactionRepository;
+    private final TransactionService transactionService;
+    private final ReportProperties reportProperties;
+    private final ReportStore reportStore;
     private final ReportResponseProducer reportResponseProducer;
-    private final AccountDataMapper accountDataMapper;
     private final ReportResponseListener reportResponseListener;
+    private final ReportWaiters reportWaiters;
+    private final ReportEventRegistry reportEvents;
+    private final ReportRequestCoalescer requestCoalescer;
     private final ReportRequestProducer reportProducer;
+    private final DailyRollupRebuilder dailyRollupRebuilder;
+    private final ReportDataCache reportDataCache;
+    private final MonthEndStatementBatch monthEndStatementBatch;
+    private final StatementStore statementStore;
 
     /**
-     * Processes a report request event by aggregating data and sending the result
-     * asynchronously.
+     * Processes a report request event by streaming the report to Kafka in
+     * chunks. Account data is read through
+     * {@link TransactionService#streamAllByAccountClientIdAndDateBetween}, which
+     * cursors through the transactions; every chunk of at most
+     * {@code account.report.chunk-transactions} transactions is published as a
+     * {@link ReportResponseEvent} sharing the request's correlation ID, with an
+     * increasing {@code chunkIndex} and {@code lastChunk} set on the final one.
+     * Only one chunk is held in memory at a time, whatever the length of the
+     * period.
      *
      * @param request the event containing client ID, date range, and correlation ID
      */
     public void processReportRequest(ReportRequestEvent request) {
-        List<Account> accountList = accountRepository.findActiveByIdClient(request.getClientId()).orElse(null);
-        List<AccountDataDto> accountDataList = new ArrayList<>(1);
-
-        for (Account account : accountList) {
-            List<Transaction> transactionList = transactionRepository.findByClientIdAndTransactionDateRange(
-                    account.getId(), request.getStartDate(), request.getEndDate());
-
-            accountDataList.add(accountDataMapper.toData(account, transactionList));
-        }
+        reportEvents.publish(new ReportStatusDto(request.getCorrelationId(), request.getClientId(),
+                ReportStatus.PROCESSING, ReportEventRegistry.reportUrl(request.getClientId(),
+                        request.getStartDate().toString(), request.getEndDate().toString(),
+                        request.getCorrelationId()),
+                null), null);
 
         ReportPeriod period = new ReportPeriod();
         period.setFrom(DateUtil.formatDate(request.getStartDate(), DateUtil.YYYY_MM_DD));
@@ -103,13 +153,21 @@ public class ReportService {
         ClientData client = new ClientData();
         client.setId(request.getClientId());
 
-        ReportResponseEvent response = new ReportResponseEvent(
-                client,
-                period,
-                accountDataList,
-                request.getCorrelationId());
-
-        reportResponseProducer.sendReportResponse(response);
+        int[] chunkIndex = { 0 };
+        try {
+            transactionService.streamAllByAccountClientIdAndDateBetween(request.getClientId(),
+                    request.getStartDate(), request.getEndDate(), reportProperties.getChunkTransactions(),
+                    (accounts, last) -> reportResponseProducer.sendReportResponse(new ReportResponseEvent(
+                            client,
+                            period,
+                            accounts,
+                            request.getCorrelationId(),
+                            chunkIndex[0]++,
+                            last)));
+        } catch (RuntimeException e) {
+            requestCoalescer.abandon(request.getCorrelationId());
+            throw e;
+        }
     }
 
     /**
@@ -120,30 +178,271 @@ public class ReportService {
      * @param start         start date of the report period
      * @param end           end date of the report period
      * @param correlationId optional identifier used to retrieve an existing report
+     * @param acceptEncoding the {@code Accept-Encoding} header of the request, if
+     *                       any
      * @return appropriate HTTP response based on the operation
      */
     public ResponseEntity<Object> handleReportRequest(Long clientId, LocalDate start, LocalDate end,
-            String correlationId) {
+            String correlationId, String acceptEncoding) {
         if (correlationId != null) {
-            return getExistingReport(correlationId);
+            return getExistingReport(correlationId, acceptEncoding);
         }
         return dispatchNewReport(clientId, start, end);
     }
 
+    /**
+     * Waits for a report without holding a container thread. The request is
+     * completed as soon as the report is stored, or after {@code waitMillis}
+     * (capped by {@code account.report.long-poll-max-millis}) with the same
+     * not-ready response a plain poll returns.
+     *
+     * @param correlationId  identifier of the report request
+     * @param waitMillis     how long the client is willing to wait
+     * @param acceptEncoding the {@code Accept-Encoding} header of the request, if
+     *                       any
+     * @return a deferred HTTP 200 with the report, or 404 if it is not ready in
+     *         time
+     */
+    public DeferredResult<ResponseEntity<Object>> awaitReport(String correlationId, long waitMillis,
+            String acceptEncoding) {
+        long timeout = Math.min(waitMillis, reportProperties.getLongPollMaxMillis());
+        DeferredResult<ResponseEntity<Object>> result = new DeferredResult<>(Math.max(1L, timeout));
+        CompressedReport report = reportResponseListener.getCompressedReport(correlationId);
+        if (report != null || timeout <= 0) {
+            result.setResult(report != null ? reportResponse(report, acceptEncoding) : notReady(correlationId));
+            return result;
+        }
+
+        Consumer<CompressedReport> callback = stored -> result.setResult(reportResponse(stored, acceptEncoding));
+        result.onTimeout(() -> result.setResult(notReady(correlationId)));
+        result.onCompletion(() -> reportWaiters.unregister(correlationId, callback));
+        reportWaiters.register(correlationId, callback);
+
+        // The report may have been stored between the first lookup and the registration.
+        report = reportResponseListener.getCompressedReport(correlationId);
+        if (report != null) {
+            reportWaiters.unregister(correlationId, callback);
+            callback.accept(report);
+        }
+        return result;
+    }
+
+    /**
+     * Opens a Server-Sent Events stream of report status updates for a client's
+     * reports, a set of reports, or both.
+     *
+     * @param clientId       the client whose reports are followed, or
+     *                       {@code null}
+     * @param correlationIds the reports followed, possibly empty
+     * @param inline         whether {@code READY} events carry the report
+     *                       document itself
+     * @return the emitter streaming {@code PENDING}, {@code PROCESSING} and
+     *         {@code READY} events
+     */
+    public SseEmitter subscribeReportEvents(Long clientId, List<String> correlationIds, boolean inline) {
+        return reportEvents.subscribe(clientId, correlationIds, inline);
+    }
+
+    /**
+     * Builds a summary report of a client's accounts for a period from the daily
+     * rollups maintained on posting. Unlike the full report it is answered
+     * synchronously: a one-year summary reads at most one row per account and
+     * day, whatever the number of transactions.
+     *
+     * @param clientId the client whose accounts are summarized
+     * @param start    start date of the report period
+     * @param end      end date of the report period
+     * @return the per-account totals and daily rows of the period
+     */
+    public SummaryReportDto getSummaryReport(Long clientId, LocalDate start, LocalDate end) {
+        return new SummaryReportDto(clientId, start, end,
+                transactionService.getDailySummaryByClientIdAndDateBetween(clientId, start, end));
+    }
+
+    /**
+     * Returns one page of a client's statement for a period, resuming after the
+     * row a cursor points to. The page size defaults to
+     * {@code account.report.statement-page-size} and is capped at
+     * {@code account.report.statement-max-page-size}.
+     *
+     * @param clientId the client whose statement is read
+     * @param start    start date of the statement period
+     * @param end      end date of the statement period
+     * @param cursor   the {@code nextCursor} of the previous page, or {@code null}
+     *                 for the first page
+     * @param pageSize the requested number of rows, or {@code null} for the
+     *                 default
+     * @return the page and the cursor of the next one, if any
+     */
+    public StatementPageDto getStatementPage(Long clientId, LocalDate start, LocalDate end, String cursor,
+            Integer pageSize) {
+        int size = pageSize != null ? pageSize : reportProperties.getStatementPageSize();
+        size = Math.max(1, Math.min(size, reportProperties.getStatementMaxPageSize()));
+        return transactionService.getStatementPage(clientId, start, end, cursor, size);
+    }
+
+    /**
+     * Streams a client's transactions for a period as CSV or NDJSON. Rows are
+     * written as they are read from a database cursor and flushed every
+     * {@code account.report.export-flush-rows} rows; the response is
+     * gzip-compressed when the client accepts it, with every flush also flushing
+     * the compressor. Nothing but the current row is held in memory.
+     *
+     * @param clientId       the client whose transactions are exported
+     * @param start          start date of the export period
+     * @param end            end date of the export period
+     * @param format         the output format
+     * @param acceptEncoding the {@code Accept-Encoding} header of the request, if
+     *                       any
+     * @return HTTP 200 with a body that writes the export
+     */
+    public ResponseEntity<StreamingResponseBody> exportStatement(Long clientId, LocalDate start, LocalDate end,
+            ExportFormat format, String acceptEncoding) {
+        boolean gzip = acceptsGzip(acceptEncoding);
+        int flushRows = reportProperties.getExportFlushRows();
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 8192, true) : out;
+            StatementExportWriter writer = new StatementExportWriter(format, target, flushRows);
+            transactionService.exportByClientIdAndDateBetween(clientId, start, end, writer::write);
+            writer.finish();
+            if (gzip) {
+                ((GZIPOutputStream) target).finish();
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"statement-" + clientId + "-"
+                        + start + "-" + end + "." + format.getExtension() + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Recomputes the daily rollups from the transaction history, for one account
+     * or for all of them.
+     *
+     * @param accountId the account to rebuild, or {@code null} for every account
+     * @return the number of accounts and of daily rows rebuilt
+     */
+    public RollupRebuildResultDto rebuildDailyRollups(Long accountId) {
+        if (accountId == null) {
+            return dailyRollupRebuilder.rebuildAll();
+        }
+        return new RollupRebuildResultDto(1, dailyRollupRebuilder.rebuild(accountId));
+    }
+
+    /**
+     * Starts the month-end statement batch in the background, resuming the
+     * month's last unfinished run if there is one.
+     *
+     * @param month the statement month, or {@code null} for the previous month
+     * @return the status of the run as it starts
+     */
+    public StatementBatchStatusDto startStatementBatch(YearMonth month) {
+        return monthEndStatementBatch.start(month != null ? month : YearMonth.now().minusMonths(1));
+    }
+
+    /**
+     * Returns the progress, throughput and estimated time left of the month-end
+     * statement batch.
+     *
+     * @param month the statement month, or {@code null} for the current or last
+     *              run
+     * @return the status, or {@code null} if there is no such run
+     */
+    public StatementBatchStatusDto getStatementBatchStatus(YearMonth month) {
+        return monthEndStatementBatch.status(month);
+    }
+
+    /**
+     * Returns a client's month-end statement as built by the statement batch,
+     * written like a stored report: compressed when the client accepts gzip,
+     * otherwise decompressed.
+     *
+     * @param clientId       the client whose statement is read
+     * @param month          the statement month
+     * @param acceptEncoding the {@code Accept-Encoding} header of the request
+     * @return HTTP 200 with the statement; HTTP 404 if none was built
+     */
+    public ResponseEntity<Object> getMonthlyStatement(Long clientId, YearMonth month, String acceptEncoding) {
+        CompressedReport statement = statementStore.get(month, clientId);
+        if (statement == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return reportResponse(statement, acceptEncoding);
+    }
+
+    /**
+     * Returns how many report requests were executed and how many joined a
+     * report already requested for the same client and period.
+     *
+     * @return the coalescing statistics
+     */
+    public ReportCoalescingStatsDto getReportCoalescingStats() {
+        return requestCoalescer.stats();
+    }
+
+    /**
+     * Returns the size and hit, miss and patch counters of the cache of assembled
+     * report data.
+     *
+     * @return the report data cache statistics
+     */
+    public ReportDataCacheStatsDto getReportDataCacheStats() {
+        return reportDataCache.stats();
+    }
+
+    /**
+     * Returns the size and hit, miss, eviction and expiry counters of the store
+     * holding completed reports.
+     *
+     * @return the report store statistics
+     */
+    public ReportStoreStatsDto getReportStoreStats() {
+        return reportStore.stats();
+    }
+
     /**
      * Attempts to retrieve a report response using a correlation ID from the event
-     * listener.
+     * listener. The stored bytes are written as they are: compressed when the
+     * client accepts gzip, otherwise decompressed, but never re-serialized.
      *
-     * @param correlationId unique identifier for the report
+     * @param correlationId  unique identifier for the report
+     * @param acceptEncoding the {@code Accept-Encoding} header of the request
      * @return HTTP 200 if found; HTTP 404 with diagnostic message if not
      */
-    private ResponseEntity<Object> getExistingReport(String correlationId) {
-        ReportResponseEvent report = reportResponseListener.getReportByCorrelationId(correlationId);
+    private ResponseEntity<Object> getExistingReport(String correlationId, String acceptEncoding) {
+        CompressedReport report = reportResponseListener.getCompressedReport(correlationId);
 
         if (report != null) {
-            return ResponseEntity.ok(report);
+            return reportResponse(report, acceptEncoding);
+        }
+        return notReady(correlationId);
+    }
+
+    /**
+     * Writes a stored report as is: compressed when the client accepts gzip,
+     * otherwise decompressed.
+     *
+     * @param report         the stored report
+     * @param acceptEncoding the {@code Accept-Encoding} header of the request
+     * @return HTTP 200 with the report document
+     */
+    private ResponseEntity<Object> reportResponse(CompressedReport report, String acceptEncoding) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(acceptEncoding)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(report.getGzip());
         }
+        return response.body(report.toJson());
+    }
 
+    private ResponseEntity<Object> notReady(String correlationId) {
         Map<String, Object> notReady = Map.of(
                 "message", "Report not ready or correlation ID invalid",
                 "correlationId", correlationId,
@@ -152,28 +451,80 @@ public class ReportService {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(notReady);
     }
 
+    /**
+     * Tells whether an {@code Accept-Encoding} header admits gzip, either by name
+     * or through the {@code *} wildcard, with a non-zero quality.
+     *
+     * @param acceptEncoding the header value, or {@code null} if absent
+     * @return {@code true} if a gzip-encoded body may be sent
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (!"gzip".equalsIgnoreCase(name) && !"*".equals(name)) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=") && isZeroQuality(param.substring(2).trim())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean isZeroQuality(String quality) {
+        try {
+            return Double.parseDouble(quality) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
     /**
      * Dispatches a new report request to the messaging system and returns tracking
-     * information.
+     * information. A request for the same client and period as a report in
+     * flight, or recently completed, joins it through the
+     * {@link ReportRequestCoalescer} and receives its correlation ID instead.
      *
      * @param clientId the ID of the client
      * @param start    start date for the report range
      * @param end      end date for the report range
-     * @return HTTP 202 Accepted with metadata for client-side tracking
+     * @return HTTP 202 Accepted with metadata for client-side tracking, including
+     *         a long-poll URL that waits for the report
      */
     private ResponseEntity<Object> dispatchNewReport(Long clientId, LocalDate start, LocalDate end) {
-        String correlationId = UUID.randomUUID().toString();
+        ReportRequestCoalescer.Ticket ticket = requestCoalescer.join(clientId, start, end);
+        String correlationId = ticket.getCorrelationId();
+        String reportUrl = ReportEventRegistry.reportUrl(clientId, start.toString(), end.toString(), correlationId);
 
-        ReportRequestEvent event = new ReportRequestEvent(clientId, start, end, correlationId);
-        reportProducer.send(event);
+        if (!ticket.isCoalesced()) {
+            ReportRequestEvent event = new ReportRequestEvent(clientId, start, end, correlationId);
+            try {
+                reportProducer.send(event);
+            } catch (RuntimeException e) {
+                requestCoalescer.abandon(correlationId);
+                throw e;
+            }
+            reportEvents.publish(new ReportStatusDto(correlationId, clientId, ReportStatus.PENDING, reportUrl, null),
+                    null);
+        }
 
         Map<String, Object> response = Map.of(
-                "message", "Report requested. It will be available soon.",
+                "message", ticket.isCoalesced()
+                        ? "Report already requested. This request joins it."
+                        : "Report requested. It will be available soon.",
                 "correlationId", correlationId,
-                "status", "PENDING",
-                "reportUrl", String.format(
-                        "/api/transactions/clients/%d/report?dateTransactionStart=%s&dateTransactionEnd=%s&correlationId=%s",
-                        clientId, start, end, correlationId));
+                "status", ticket.isReady() ? "READY" : "PENDING",
+                "coalesced", ticket.isCoalesced(),
+                "reportUrl", reportUrl,
+                "longPollUrl", reportUrl + "&waitMillis=" + reportProperties.getLongPollMaxMillis());
 
         return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
     }
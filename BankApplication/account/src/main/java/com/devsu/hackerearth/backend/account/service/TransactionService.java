@@ -1,11 +1,19 @@
 package com.devsu.hackerearth.backend.account.service;
 
 import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.BiConsumer;
 
 import org.springframework.data.repository.query.Param;
 
 import com.devsu.hackerearth.backend.account.dto.AccountDataDto;
+import com.devsu.hackerearth.backend.account.dto.StatementRow;
+import com.devsu.hackerearth.backend.account.model.dto.AccountSummaryDto;
+import com.devsu.hackerearth.backend.account.model.dto.BatchImportResultDto;
+import com.devsu.hackerearth.backend.account.model.dto.StatementPageDto;
+import com.devsu.hackerearth.backend.account.model.dto.TransferDto;
+import com.devsu.hackerearth.backend.account.model.dto.TransferResultDto;
 import com.devsu.hackerearth.backend.account.model.dto.TransactionDto;
 
 public interface TransactionService {
@@ -16,9 +24,32 @@ public interface TransactionService {
 
     public TransactionDto create(TransactionDto transactionDto);
 
+    public TransactionDto create(TransactionDto transactionDto, String idempotencyKey);
+
+    public BatchImportResultDto importBatch(Iterator<TransactionDto> transactions);
+
+    public TransferResultDto transfer(TransferDto transferDto);
+
     public List<AccountDataDto> getAllByAccountClientIdAndDateBetween(Long clientId,
             @Param("dateTransactionStart") LocalDate dateTransactionStart,
             @Param("dateTransactionEnd") LocalDate dateTransactionEnd);
 
+    public void streamAllByAccountClientIdAndDateBetween(Long clientId, LocalDate dateTransactionStart,
+            LocalDate dateTransactionEnd, int chunkTransactions,
+            BiConsumer<List<AccountDataDto>, Boolean> chunkConsumer);
+
+    public void streamUncachedByAccountClientIdAndDateBetween(Long clientId, LocalDate dateTransactionStart,
+            LocalDate dateTransactionEnd, int chunkTransactions,
+            BiConsumer<List<AccountDataDto>, Boolean> chunkConsumer);
+
+    public StatementPageDto getStatementPage(Long clientId, LocalDate dateTransactionStart,
+            LocalDate dateTransactionEnd, String cursor, int pageSize);
+
+    public long exportByClientIdAndDateBetween(Long clientId, LocalDate dateTransactionStart,
+            LocalDate dateTransactionEnd, BiConsumer<String, StatementRow> rowConsumer);
+
+    public List<AccountSummaryDto> getDailySummaryByClientIdAndDateBetween(Long clientId,
+            LocalDate dateTransactionStart, LocalDate dateTransactionEnd);
+
     public TransactionDto getLastByAccountId(Long accountId);
 }
@@ -1,25 +1,79 @@
 package com.devsu.hackerearth.backend.account.service;
 
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.devsu.hackerearth.backend.account.dto.AccountDataDto;
+import com.devsu.hackerearth.backend.account.dto.StatementCursor;
+import com.devsu.hackerearth.backend.account.dto.StatementRow;
+import com.devsu.hackerearth.backend.account.dto.TransactionRow;
+import com.devsu.hackerearth.backend.account.dto.TransactionSummaryDTO;
 import com.devsu.hackerearth.backend.account.exception.AccountNotFoundException;
+import com.devsu.hackerearth.backend.account.exception.BusinessException;
+import com.devsu.hackerearth.backend.account.exception.IdempotencyKeyReusedException;
 import com.devsu.hackerearth.backend.account.exception.InsufficientBalanceException;
+import com.devsu.hackerearth.backend.account.exception.InvalidCursorException;
 import com.devsu.hackerearth.backend.account.exception.PersistenceOperationException;
 import com.devsu.hackerearth.backend.account.exception.TransactionNotFoundException;
+import com.devsu.hackerearth.backend.account.journal.JournalRecord;
+import com.devsu.hackerearth.backend.account.journal.PostingJournal;
 import com.devsu.hackerearth.backend.account.mapper.AccountDataMapper;
 import com.devsu.hackerearth.backend.account.mapper.TransactionMapper;
+import com.devsu.hackerearth.backend.account.mapper.TransactionSummaryMapper;
 import com.devsu.hackerearth.backend.account.model.Account;
+import com.devsu.hackerearth.backend.account.model.AccountDailyRollup;
 import com.devsu.hackerearth.backend.account.model.Transaction;
+import com.devsu.hackerearth.backend.account.model.dto.AccountSummaryDto;
+import com.devsu.hackerearth.backend.account.model.dto.BatchImportItemDto;
+import com.devsu.hackerearth.backend.account.model.dto.BatchImportResultDto;
+import com.devsu.hackerearth.backend.account.model.dto.DailyRollupDto;
+import com.devsu.hackerearth.backend.account.model.dto.StatementEntryDto;
+import com.devsu.hackerearth.backend.account.model.dto.StatementPageDto;
 import com.devsu.hackerearth.backend.account.model.dto.TransactionDto;
+import com.devsu.hackerearth.backend.account.model.dto.TransferDto;
+import com.devsu.hackerearth.backend.account.model.dto.TransferResultDto;
+import com.devsu.hackerearth.backend.account.posting.AccountPostingEngine;
+import com.devsu.hackerearth.backend.account.posting.BalanceTable;
+import com.devsu.hackerearth.backend.account.posting.GroupCommitPoster;
+import com.devsu.hackerearth.backend.account.posting.HotAccountPoster;
+import com.devsu.hackerearth.backend.account.posting.IdempotencyStore;
+import com.devsu.hackerearth.backend.account.posting.PendingPosting;
+import com.devsu.hackerearth.backend.account.posting.PostingProperties;
+import com.devsu.hackerearth.backend.account.repository.AccountDailyRollupRepository;
 import com.devsu.hackerearth.backend.account.repository.AccountRepository;
 import com.devsu.hackerearth.backend.account.repository.TransactionRepository;
+import com.devsu.hackerearth.backend.account.report.ReportDataCache;
+import com.devsu.hackerearth.backend.account.rollup.BalanceHistory;
+import com.devsu.hackerearth.backend.account.rollup.DailyRollupRecorder;
+import com.devsu.hackerearth.backend.account.type.Money;
+import com.devsu.hackerearth.backend.account.type.PostingMode;
 import com.devsu.hackerearth.backend.account.type.TransactionType;
 
 import javax.persistence.PersistenceException;
@@ -34,11 +88,29 @@ public class TransactionServiceImpl implements TransactionService {
     private static final String CREATE = "Create";
     private static final String UPDATE = "Update";
     private static final String RETRIEVE = "retrieve";
+    private static final String MALFORMED_INPUT = "MALFORMED_INPUT";
+    private static final String INVALID_TRANSACTION = "INVALID_TRANSACTION";
+    private static final String PERSISTENCE_OPERATION = "PERSISTENCE_OPERATION";
 
     private final TransactionRepository transactionRepository;
     private final AccountRepository accountRepository;
     private final TransactionMapper transactionMapper;
     private final AccountDataMapper accountDataMapper;
+    private final TransactionSummaryMapper transactionSummaryMapper;
+    private final AccountPostingEngine accountPostingEngine;
+    private final PostingProperties postingProperties;
+    private final GroupCommitPoster groupCommitPoster;
+    private final IdempotencyStore idempotencyStore;
+    private final BalanceTable balanceTable;
+    private final HotAccountPoster hotAccountPoster;
+    private final Optional<PostingJournal> postingJournal;
+    private final DailyRollupRecorder dailyRollupRecorder;
+    private final AccountDailyRollupRepository rollupRepository;
+    private final BalanceHistory balanceHistory;
+    private final ReportDataCache reportDataCache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Override
     public List<TransactionDto> getAll() {
@@ -64,7 +136,17 @@ public class TransactionServiceImpl implements TransactionService {
     /**
      * Registers a new financial transaction, updating the associated account's
      * balance.
-     * Ensures that deposits and withdrawals follow business rules.
+     * Ensures that deposits and withdrawals follow business rules. Postings to the
+     * same account are serialized by {@link AccountPostingEngine}, and the balance
+     * update and the transaction insert commit together. In
+     * {@link PostingMode#ATOMIC_DELTA} mode the balance is changed by a single
+     * conditional UPDATE instead of a locked read-modify-write. In
+     * {@link PostingMode#GROUP_COMMIT} mode concurrent postings to the same
+     * account are applied together by {@link GroupCommitPoster}. In
+     * {@link PostingMode#JOURNAL} mode the posting is acknowledged once it is
+     * appended to the {@link PostingJournal}; postings carrying an idempotency key
+     * take the locked database path instead, since the key must reference a stored
+     * transaction.
      *
      * @param dto the transaction request payload
      * @return the registered transaction as a DTO
@@ -76,30 +158,151 @@ public class TransactionServiceImpl implements TransactionService {
      */
     @Override
     public TransactionDto create(TransactionDto transactionDto) {
+        return create(transactionDto, null);
+    }
+
+    /**
+     * Registers a new financial transaction identified by a client-supplied
+     * idempotency key. If the key was already used, the transaction it produced is
+     * returned and the account is not touched. Otherwise the key is recorded in the
+     * same database transaction as the posting, so a posting and its key commit or
+     * roll back together; a concurrent request with the same key fails on the
+     * key's unique constraint and then returns the winner's transaction. Postings
+     * to accounts split into balance slots go through {@link HotAccountPoster}
+     * whatever the posting mode.
+     *
+     * @param transactionDto the transaction request payload
+     * @param idempotencyKey the client key, or {@code null} to post unconditionally
+     * @return the registered transaction as a DTO
+     * @throws IdempotencyKeyReusedException if the key identifies a posting with a
+     *                                       different account, type or amount
+     * @see #create(TransactionDto)
+     */
+    @Override
+    public TransactionDto create(TransactionDto transactionDto, String idempotencyKey) {
+        if (idempotencyKey != null) {
+            Optional<TransactionDto> previous = idempotencyStore.find(idempotencyKey, transactionDto);
+            if (previous.isPresent()) {
+                return previous.get();
+            }
+        }
+        Money amount = validateTransactionAmount(transactionDto.getAmount());
+
         try {
-            Account account = getActiveAccountOrThrow(transactionDto.getAccountId());
+            if (hotAccountPoster.isHot(transactionDto.getAccountId())) {
+                TransactionDto posted = hotAccountPoster.post(transactionDto, amount, idempotencyKey);
+                if (posted != null) {
+                    return posted;
+                }
+            }
+            switch (postingProperties.getMode()) {
+                case ATOMIC_DELTA:
+                    return accountPostingEngine.postAtomically(
+                            () -> recordIdempotencyKey(idempotencyKey, postTransactionDelta(transactionDto, amount)));
+                case GROUP_COMMIT:
+                    return groupCommitPoster.post(transactionDto, amount, idempotencyKey, this::postBatch);
+                case JOURNAL:
+                    if (idempotencyKey == null && postingJournal.isPresent()) {
+                        return accountPostingEngine.postJournaled(transactionDto.getAccountId(),
+                                () -> journalTransaction(postingJournal.get(), transactionDto, amount));
+                    }
+                    break;
+                default:
+                    break;
+            }
+            return accountPostingEngine.post(transactionDto.getAccountId(),
+                    () -> recordIdempotencyKey(idempotencyKey, postTransaction(transactionDto, amount)));
+        } catch (DataIntegrityViolationException e) {
+            if (idempotencyKey == null) {
+                throw new PersistenceOperationException(CREATE, TRANSACTION, e);
+            }
+            return idempotencyStore.find(idempotencyKey, transactionDto)
+                    .orElseThrow(() -> new PersistenceOperationException(CREATE, TRANSACTION, e));
+        } catch (DataAccessException | TransactionException | PersistenceException | UncheckedIOException e) {
+            throw new PersistenceOperationException(CREATE, TRANSACTION, e);
+        }
+    }
 
-            validateTransactionAmount(transactionDto.getAmount());
+    /**
+     * Moves funds between two accounts in one database transaction, writing a
+     * WITHDRAWAL on the source and a DEPOSIT on the target. Both accounts are
+     * locked in ascending ID order, first through their posting stripes and then
+     * at row level, so concurrent transfers in opposite directions cannot
+     * deadlock.
+     *
+     * @param transferDto the source account, target account and amount
+     * @return both legs of the transfer
+     * @throws IllegalArgumentException      if the amount is not positive, both
+     *                                       accounts are the same, or either uses
+     *                                       balance slots
+     * @throws AccountNotFoundException      if either account is not found or
+     *                                       inactive
+     * @throws InsufficientBalanceException  if the source balance would become
+     *                                       negative
+     * @throws PersistenceOperationException if persistence fails at any step
+     */
+    @Override
+    public TransferResultDto transfer(TransferDto transferDto) {
+        Money amount = validateTransactionAmount(transferDto.getAmount());
+        Long sourceId = transferDto.getSourceAccountId();
+        Long targetId = transferDto.getTargetAccountId();
+        if (sourceId == null || targetId == null || sourceId.equals(targetId)) {
+            throw new IllegalArgumentException("Transfer requires two different accounts");
+        }
 
-            BigDecimal newBalance = calculateNewBalance(
-                    account.getCurrentBalance(),
-                    transactionDto.getType(),
-                    transactionDto.getAmount(),
-                    account.getNumber());
+        try {
+            return accountPostingEngine.postAll(new TreeSet<>(List.of(sourceId, targetId)),
+                    () -> postTransfer(sourceId, targetId, amount));
+        } catch (DataAccessException | TransactionException | PersistenceException e) {
+            throw new PersistenceOperationException(CREATE, TRANSACTION, e);
+        }
+    }
 
-            updateAccountBalance(account, newBalance);
+    /**
+     * Imports a stream of transactions, validating each one with the same rules as
+     * {@link #create(TransactionDto)}. Items are committed in chunks of
+     * {@code account.posting.import-chunk-size}; rejected items are reported and
+     * skipped without affecting the rest of their chunk. Reading stops at the
+     * first malformed item, and chunks committed before it are kept.
+     *
+     * @param transactions the transactions to import, in posting order
+     * @return a summary with one result per item read
+     */
+    @Override
+    public BatchImportResultDto importBatch(Iterator<TransactionDto> transactions) {
+        BatchImportResultDto result = new BatchImportResultDto();
+        int chunkSize = Math.max(1, postingProperties.getImportChunkSize());
+        List<TransactionDto> chunk = new ArrayList<>(chunkSize);
 
-            Transaction transaction = transactionMapper.toEntity(transactionDto, account, newBalance);
+        while (true) {
+            TransactionDto next;
+            try {
+                if (!transactions.hasNext()) {
+                    break;
+                }
+                next = transactions.next();
+            } catch (RuntimeException e) {
+                importChunk(result, chunk);
+                result.add(BatchImportItemDto.rejected(result.getTotal(), MALFORMED_INPUT, e.getMessage()));
+                return result;
+            }
 
-            return saveTransaction(transaction);
-        } catch (PersistenceException e) {
-            throw new PersistenceOperationException(CREATE, TRANSACTION, e);
+            chunk.add(next);
+            if (chunk.size() == chunkSize) {
+                importChunk(result, chunk);
+            }
         }
+
+        importChunk(result, chunk);
+        return result;
     }
 
     /**
      * Retrieves all transactions for a client's accounts within the given date
-     * range.
+     * range. Runs in a read-only transaction: the accounts are loaded read-only
+     * and the transactions of all of them are selected with one query as flat
+     * {@link TransactionRow} projections, so no transaction entity is managed.
+     * Periods held by the {@link ReportDataCache} are answered from it.
      *
      * @param clientId the client's ID
      * @param start    the start date (inclusive)
@@ -107,20 +310,359 @@ public class TransactionServiceImpl implements TransactionService {
      * @return list of transactions within the specified period
      * @throws PersistenceOperationException if retrieval fails
      */
+    @Transactional(readOnly = true)
     @Override
     public List<AccountDataDto> getAllByAccountClientIdAndDateBetween(Long clientId, LocalDate dateTransactionStart,
             LocalDate dateTransactionEnd) {
+        List<AccountDataDto> cached = reportDataCache.get(clientId, dateTransactionStart, dateTransactionEnd);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            List<Account> accounts = accountRepository.findActiveReadOnlyByClientId(clientId);
+            if (accounts.isEmpty()) {
+                return new ArrayList<>();
+            }
+            List<Long> accountIds = accounts.stream().map(Account::getId).collect(Collectors.toList());
+            return accountDataMapper.toDataList(accounts, transactionRepository.findRowsByAccountIdsAndDateRange(
+                    accountIds, dateTransactionStart, dateTransactionEnd));
+        } catch (PersistenceException e) {
+            throw new PersistenceOperationException(RETRIEVE, TRANSACTION, e);
+        }
+    }
+
+    /**
+     * Streams a client's account data within a date range in chunks of at most
+     * {@code chunkTransactions} transactions. Transactions are read through a
+     * database cursor as {@link TransactionRow} projections inside a read-only
+     * transaction, and each chunk is handed to the consumer as soon as it is
+     * full, so memory use does not depend on the length of the range. Every
+     * active account is reported, including accounts without transactions; an
+     * account whose transactions span several chunks appears in each of them.
+     * The consumer is called at least once, and exactly once with
+     * {@code last = true}.
+     * <p>
+     * The assembled data is kept in the {@link ReportDataCache}, which postings
+     * keep current, so a repeated request for the same client and period is
+     * streamed from memory without reading the database.
+     * </p>
+     *
+     * @param clientId             the client's ID
+     * @param dateTransactionStart the start date (inclusive)
+     * @param dateTransactionEnd   the end date (inclusive)
+     * @param chunkTransactions    the maximum number of transactions per chunk
+     * @param chunkConsumer        receives each chunk and whether it is the last
+     * @throws PersistenceOperationException if retrieval fails
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public void streamAllByAccountClientIdAndDateBetween(Long clientId, LocalDate dateTransactionStart,
+            LocalDate dateTransactionEnd, int chunkTransactions,
+            BiConsumer<List<AccountDataDto>, Boolean> chunkConsumer) {
+        int chunkSize = Math.max(1, chunkTransactions);
+        List<AccountDataDto> cached = reportDataCache.get(clientId, dateTransactionStart, dateTransactionEnd);
+        if (cached != null) {
+            streamCached(cached, chunkSize, chunkConsumer);
+            return;
+        }
+
+        ReportDataCache.Fill fill = reportDataCache.startFill(clientId, dateTransactionStart, dateTransactionEnd);
+        try {
+            streamFromDatabase(clientId, dateTransactionStart, dateTransactionEnd, chunkSize, chunkConsumer, fill);
+        } catch (RuntimeException e) {
+            fill.abandon();
+            throw e;
+        }
+    }
+
+    /**
+     * Streams a client's account data within a date range like
+     * {@link #streamAllByAccountClientIdAndDateBetween}, but always from the
+     * database: the {@link ReportDataCache} is neither read nor filled. Meant for
+     * bulk jobs that read every client once, which would otherwise push the
+     * interactive entries out of the cache.
+     *
+     * @param clientId             the client's ID
+     * @param dateTransactionStart the start date (inclusive)
+     * @param dateTransactionEnd   the end date (inclusive)
+     * @param chunkTransactions    the maximum number of transactions per chunk
+     * @param chunkConsumer        receives each chunk and whether it is the last
+     * @throws PersistenceOperationException if retrieval fails
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public void streamUncachedByAccountClientIdAndDateBetween(Long clientId, LocalDate dateTransactionStart,
+            LocalDate dateTransactionEnd, int chunkTransactions,
+            BiConsumer<List<AccountDataDto>, Boolean> chunkConsumer) {
+        streamFromDatabase(clientId, dateTransactionStart, dateTransactionEnd, Math.max(1, chunkTransactions),
+                chunkConsumer, null);
+    }
+
+    /**
+     * Reads a client's account data through a database cursor and hands it to
+     * the consumer in chunks, collecting it into {@code fill} as well if one is
+     * given.
+     */
+    private void streamFromDatabase(Long clientId, LocalDate dateTransactionStart, LocalDate dateTransactionEnd,
+            int chunkSize, BiConsumer<List<AccountDataDto>, Boolean> chunkConsumer, ReportDataCache.Fill fill) {
         try {
-            List<Account> accountList = accountRepository.findActiveByIdClient(clientId).orElse(null);
-            List<AccountDataDto> accountDataList = new ArrayList<>(1);
+            List<Account> accounts = accountRepository.findActiveReadOnlyByClientId(clientId);
+            Map<Long, AccountDataDto> accountData = new LinkedHashMap<>();
+            for (Account account : accounts) {
+                accountData.put(account.getId(), accountDataMapper.toData(account, null));
+            }
+            if (fill != null) {
+                fill.setAccounts(accountData);
+            }
+            if (accounts.isEmpty()) {
+                if (fill != null) {
+                    fill.complete();
+                }
+                chunkConsumer.accept(new ArrayList<>(), true);
+                return;
+            }
+            List<Long> accountIds = new ArrayList<>(accountData.keySet());
+
+            StringBuilder buffer = new StringBuilder(24);
+            List<AccountDataDto> chunk = new ArrayList<>();
+            int chunkCount = 0;
+            int next = 0;
+            Long currentId = null;
+            AccountDataDto current = null;
 
-            for (Account account : accountList) {
-                List<Transaction> transactionList = transactionRepository.findByClientIdAndTransactionDateRange(
-                        account.getId(), dateTransactionStart, dateTransactionEnd);
+            try (Stream<TransactionRow> rows = transactionRepository.streamRowsByAccountIdsAndDateRange(
+                    accountIds, dateTransactionStart, dateTransactionEnd)) {
+                Iterator<TransactionRow> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    TransactionRow row = iterator.next();
+                    if (chunkCount == chunkSize) {
+                        chunkConsumer.accept(chunk, false);
+                        chunk = new ArrayList<>();
+                        chunkCount = 0;
+                        if (row.getAccountId().equals(currentId)) {
+                            current = accountDataMapper.continueSlice(current);
+                            chunk.add(current);
+                        }
+                    }
+                    while (!row.getAccountId().equals(currentId)) {
+                        currentId = accountIds.get(next++);
+                        current = accountDataMapper.continueSlice(accountData.get(currentId));
+                        chunk.add(current);
+                    }
+                    TransactionSummaryDTO summary = transactionSummaryMapper.toDto(row, buffer);
+                    current.getTransactions().add(summary);
+                    if (fill != null) {
+                        fill.addTransaction(currentId, summary);
+                    }
+                    chunkCount++;
+                }
+            }
 
-                accountDataList.add(accountDataMapper.toData(account, transactionList));
+            while (next < accountIds.size()) {
+                chunk.add(accountData.get(accountIds.get(next++)));
+            }
+            if (fill != null) {
+                fill.complete();
             }
-            return accountDataList;
+            chunkConsumer.accept(chunk, true);
+        } catch (PersistenceException e) {
+            throw new PersistenceOperationException(RETRIEVE, TRANSACTION, e);
+        }
+    }
+
+    /**
+     * Streams report data taken from the {@link ReportDataCache} in the same
+     * chunks as a report read from the database.
+     *
+     * @param accounts      a copy of the cached account data, in report order
+     * @param chunkSize     the maximum number of transactions per chunk
+     * @param chunkConsumer receives each chunk and whether it is the last
+     */
+    private void streamCached(List<AccountDataDto> accounts, int chunkSize,
+            BiConsumer<List<AccountDataDto>, Boolean> chunkConsumer) {
+        List<AccountDataDto> chunk = new ArrayList<>();
+        int chunkCount = 0;
+        for (AccountDataDto account : accounts) {
+            List<TransactionSummaryDTO> transactions = account.getTransactions();
+            if (transactions == null) {
+                chunk.add(account);
+                continue;
+            }
+            AccountDataDto slice = accountDataMapper.continueSlice(account);
+            chunk.add(slice);
+            for (TransactionSummaryDTO transaction : transactions) {
+                if (chunkCount == chunkSize) {
+                    chunkConsumer.accept(chunk, false);
+                    chunk = new ArrayList<>();
+                    chunkCount = 0;
+                    slice = accountDataMapper.continueSlice(account);
+                    chunk.add(slice);
+                }
+                slice.getTransactions().add(transaction);
+                chunkCount++;
+            }
+        }
+        chunkConsumer.accept(chunk, true);
+    }
+
+    /**
+     * Returns one page of a client's statement within a date range. Rows are
+     * ordered by {@code (accountId, date, id)} across the client's active
+     * accounts, and a page resumes strictly after the row its cursor points to,
+     * so pages neither skip nor repeat rows while new transactions arrive.
+     * <p>
+     * Each account is read with its own keyset query on the
+     * {@code (account_id, date, id)} index, starting from the cursor's account,
+     * and only until the page is full, so the cost of a page depends on its size
+     * and not on the number of transactions in the range. A full page carries
+     * the cursor of its last row; the page after it may turn out empty. A page
+     * that is not full is the last one and has no cursor.
+     * </p>
+     *
+     * @param clientId             the client's ID
+     * @param dateTransactionStart the start date (inclusive)
+     * @param dateTransactionEnd   the end date (inclusive)
+     * @param cursor               the {@code nextCursor} of the previous page, or
+     *                             {@code null} for the first page
+     * @param pageSize             the number of rows per page
+     * @return the page and the cursor of the next one
+     * @throws InvalidCursorException        if the cursor is malformed
+     * @throws PersistenceOperationException if retrieval fails
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public StatementPageDto getStatementPage(Long clientId, LocalDate dateTransactionStart,
+            LocalDate dateTransactionEnd, String cursor, int pageSize) {
+        StatementCursor after = cursor != null ? StatementCursor.decode(cursor) : null;
+        try {
+            List<Account> accounts = accountRepository.findActiveReadOnlyByClientId(clientId);
+            List<StatementEntryDto> entries = new ArrayList<>(pageSize);
+            StringBuilder buffer = new StringBuilder(24);
+            StatementRow last = null;
+            for (Account account : accounts) {
+                Long accountId = account.getId();
+                if (after != null && accountId < after.getAccountId()) {
+                    continue;
+                }
+                int remaining = pageSize - entries.size();
+                List<StatementRow> rows = after != null && accountId.equals(after.getAccountId())
+                        ? transactionRepository.findStatementPageAfter(accountId, dateTransactionStart,
+                                dateTransactionEnd, after.getDate(), after.getId(), PageRequest.of(0, remaining))
+                        : transactionRepository.findStatementPage(accountId, dateTransactionStart,
+                                dateTransactionEnd, PageRequest.of(0, remaining));
+                for (StatementRow row : rows) {
+                    entries.add(toStatementEntry(account, row, buffer));
+                    last = row;
+                }
+                if (entries.size() == pageSize) {
+                    break;
+                }
+            }
+            String nextCursor = entries.size() == pageSize
+                    ? new StatementCursor(last.getAccountId(), last.getDate(), last.getId()).encode()
+                    : null;
+            return new StatementPageDto(clientId, dateTransactionStart, dateTransactionEnd, pageSize, entries,
+                    nextCursor);
+        } catch (PersistenceException e) {
+            throw new PersistenceOperationException(RETRIEVE, TRANSACTION, e);
+        }
+    }
+
+    /**
+     * Hands every transaction of a client's active accounts within a date range
+     * to a consumer, in {@code (accountId, date, id)} order. Rows are read
+     * through a database cursor as {@link StatementRow} projections inside a
+     * read-only transaction, one at a time, and the {@link ReportDataCache} is
+     * neither read nor filled, so memory use does not depend on the number of
+     * rows.
+     *
+     * @param clientId             the client's ID
+     * @param dateTransactionStart the start date (inclusive)
+     * @param dateTransactionEnd   the end date (inclusive)
+     * @param rowConsumer          receives each row with its account number
+     * @return the number of rows exported
+     * @throws PersistenceOperationException if retrieval fails
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public long exportByClientIdAndDateBetween(Long clientId, LocalDate dateTransactionStart,
+            LocalDate dateTransactionEnd, BiConsumer<String, StatementRow> rowConsumer) {
+        try {
+            List<Account> accounts = accountRepository.findActiveReadOnlyByClientId(clientId);
+            if (accounts.isEmpty()) {
+                return 0;
+            }
+            Map<Long, String> numbers = new HashMap<>();
+            for (Account account : accounts) {
+                numbers.put(account.getId(), account.getNumber());
+            }
+            long rows = 0;
+            try (Stream<StatementRow> stream = transactionRepository.streamStatementRowsByAccountIdsAndDateRange(
+                    numbers.keySet(), dateTransactionStart, dateTransactionEnd)) {
+                Iterator<StatementRow> iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    StatementRow row = iterator.next();
+                    rowConsumer.accept(numbers.get(row.getAccountId()), row);
+                    rows++;
+                }
+            }
+            return rows;
+        } catch (PersistenceException e) {
+            throw new PersistenceOperationException(RETRIEVE, TRANSACTION, e);
+        }
+    }
+
+    private StatementEntryDto toStatementEntry(Account account, StatementRow row, StringBuilder buffer) {
+        buffer.setLength(0);
+        String amount = row.getAmount().appendTo(buffer).toString();
+        buffer.setLength(0);
+        String balance = row.getBalance().appendTo(buffer).toString();
+        return new StatementEntryDto(row.getId(), account.getNumber(), row.getType(), row.getDate().toString(),
+                amount, balance);
+    }
+
+    /**
+     * Summarizes a client's active accounts within a date range from their daily
+     * rollups instead of their transactions, so the cost depends on the number of
+     * days with activity, not on the number of transactions. Each account carries
+     * its per-day totals and the totals of the whole range. Its opening balance is
+     * its balance at the close of the day before the range, read from the nearest
+     * earlier checkpoint through {@link BalanceHistory}; its closing balance is
+     * that of its last active day in the range, or the opening balance if it had
+     * no transactions in the range.
+     *
+     * @param clientId             the client's ID
+     * @param dateTransactionStart the start date (inclusive)
+     * @param dateTransactionEnd   the end date (inclusive)
+     * @return one summary per active account, ordered by account ID
+     * @throws PersistenceOperationException if retrieval fails
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public List<AccountSummaryDto> getDailySummaryByClientIdAndDateBetween(Long clientId,
+            LocalDate dateTransactionStart, LocalDate dateTransactionEnd) {
+        try {
+            List<Account> accounts = accountRepository.findActiveReadOnlyByClientId(clientId);
+            if (accounts.isEmpty()) {
+                return new ArrayList<>();
+            }
+            Map<Long, AccountSummaryDto> summaries = new LinkedHashMap<>();
+            for (Account account : accounts) {
+                BigDecimal opening = balanceHistory.balanceAsOf(account, dateTransactionStart.minusDays(1));
+                summaries.put(account.getId(), new AccountSummaryDto(account.getId(), account.getNumber(),
+                        account.getType(), opening, BigDecimal.ZERO, BigDecimal.ZERO, 0, opening, new ArrayList<>()));
+            }
+            for (AccountDailyRollup rollup : rollupRepository.findByAccountIdsAndDateRange(summaries.keySet(),
+                    dateTransactionStart, dateTransactionEnd)) {
+                AccountSummaryDto summary = summaries.get(rollup.getAccountId());
+                summary.setDepositTotal(summary.getDepositTotal().add(rollup.getDepositTotal()));
+                summary.setWithdrawalTotal(summary.getWithdrawalTotal().add(rollup.getWithdrawalTotal()));
+                summary.setTransactionCount(summary.getTransactionCount() + rollup.getTransactionCount());
+                summary.setClosingBalance(rollup.getClosingBalance());
+                summary.getDays().add(new DailyRollupDto(rollup.getDate(), rollup.getDepositTotal(),
+                        rollup.getWithdrawalTotal(), rollup.getTransactionCount(), rollup.getClosingBalance()));
+            }
+            return new ArrayList<>(summaries.values());
         } catch (PersistenceException e) {
             throw new PersistenceOperationException(RETRIEVE, TRANSACTION, e);
         }
@@ -144,6 +686,382 @@ public class TransactionServiceImpl implements TransactionService {
         }
     }
 
+    /**
+     * Applies a transaction to its account's balance and stores it. Accounts
+     * tracked by the {@link BalanceTable} are validated against it instead of
+     * being read. Must be called while holding the account's posting lock.
+     *
+     * @param transactionDto the transaction request payload
+     * @param amount         the validated request amount
+     * @return the registered transaction as a DTO
+     */
+    private TransactionDto postTransaction(TransactionDto transactionDto, Money amount) {
+        Money trackedBalance = balanceTable.balanceOf(transactionDto.getAccountId());
+        if (trackedBalance != null) {
+            return postTrackedTransaction(transactionDto, amount, trackedBalance);
+        }
+
+        Account account = getActiveAccountOrThrow(transactionDto.getAccountId());
+
+        Money newBalance = calculateNewBalance(
+                account.getCurrentBalance(),
+                transactionDto.getType(),
+                amount,
+                account.getNumber());
+
+        updateAccountBalance(account, newBalance);
+
+        Transaction transaction = transactionMapper.toEntity(transactionDto.getType(), amount, account, newBalance);
+
+        return saveTransaction(transaction);
+    }
+
+    /**
+     * Applies a transaction to an account tracked by the {@link BalanceTable}. The
+     * new balance is computed from the table and written with a single UPDATE, so
+     * the account row is never selected; the account number is only looked up to
+     * report an insufficient balance. Must be called while holding the account's
+     * posting lock.
+     *
+     * @param transactionDto the transaction request payload
+     * @param amount         the validated request amount
+     * @param currentBalance the committed balance held by the table
+     * @return the registered transaction as a DTO
+     * @throws AccountNotFoundException     if the account is no longer active
+     * @throws InsufficientBalanceException if the result would be negative
+     */
+    private TransactionDto postTrackedTransaction(TransactionDto transactionDto, Money amount,
+            Money currentBalance) {
+        Long accountId = transactionDto.getAccountId();
+        Money newBalance = calculateTrackedBalance(transactionDto, amount, currentBalance);
+
+        int updated;
+        try {
+            updated = accountRepository.updateBalance(accountId, newBalance, LocalDateTime.now());
+        } catch (PersistenceException e) {
+            throw new PersistenceOperationException(UPDATE, ACCOUNT, e);
+        }
+        if (updated == 0) {
+            balanceTable.evict(accountId);
+            throw new AccountNotFoundException(accountId);
+        }
+        balanceTable.putAfterCommit(accountId, newBalance);
+
+        Transaction transaction = transactionMapper.toEntity(transactionDto.getType(), amount,
+                accountRepository.getOne(accountId), newBalance);
+        return saveTransaction(transaction);
+    }
+
+    /**
+     * Accepts a transaction into the {@link PostingJournal}. The balance table is
+     * the only source validated against: the new balance is computed from it, the
+     * posting is appended to the journal, and the table is updated before the
+     * account's lock is released. The database is updated later by the journal
+     * applier, so the returned transaction has no ID yet. Must be called while
+     * holding the account's posting lock.
+     *
+     * @param journal        the active journal
+     * @param transactionDto the transaction request payload
+     * @param amount         the validated request amount
+     * @return the accepted transaction, without an ID
+     * @throws AccountNotFoundException     if the account is not tracked by the
+     *                                      table
+     * @throws InsufficientBalanceException if the result would be negative
+     */
+    private TransactionDto journalTransaction(PostingJournal journal, TransactionDto transactionDto,
+            Money amount) {
+        Long accountId = transactionDto.getAccountId();
+        Money currentBalance = balanceTable.balanceOf(accountId);
+        if (currentBalance == null) {
+            throw new AccountNotFoundException(accountId);
+        }
+        Money newBalance = calculateTrackedBalance(transactionDto, amount, currentBalance);
+
+        JournalRecord record = journal.append(accountId, transactionDto.getType(), amount, newBalance,
+                LocalDate.now());
+        balanceTable.putAfterCommit(accountId, newBalance);
+
+        return new TransactionDto(null, record.getDate(), transactionDto.getAmount(), record.getType(),
+                newBalance.toBigDecimal(), accountId);
+    }
+
+    /**
+     * Computes the balance after a transaction from a balance held by the
+     * {@link BalanceTable}. The account number is only read to report an
+     * insufficient balance.
+     *
+     * @param transactionDto the transaction request payload
+     * @param amount         the validated request amount
+     * @param currentBalance the committed balance held by the table
+     * @return the resulting balance
+     * @throws InsufficientBalanceException if the result would be negative
+     */
+    private Money calculateTrackedBalance(TransactionDto transactionDto, Money amount, Money currentBalance) {
+        Long accountId = transactionDto.getAccountId();
+        Money newBalance = currentBalance.add(signedAmount(transactionDto.getType(), amount));
+        if (newBalance.isNegative()) {
+            throw new InsufficientBalanceException(
+                    accountRepository.findActiveNumberById(accountId).orElse(String.valueOf(accountId)));
+        }
+        return newBalance;
+    }
+
+    /**
+     * Applies a group of postings to one account in arrival order. The account is
+     * read once, each posting's running balance is computed from the previous
+     * one, and the balance and the accepted transactions are written once.
+     * Postings that would overdraw the account are rejected individually without
+     * affecting the rest of the group. A posting whose idempotency key was
+     * committed since it was queued receives the original transaction, and one
+     * that repeats the key of an earlier posting in the same group receives that
+     * posting's outcome; neither is applied. Either fails instead if its account,
+     * type or amount differ from those of the posting the key identifies. Must be called while holding the
+     * account's posting lock.
+     *
+     * @param accountId the account all postings target
+     * @param postings  the postings in arrival order
+     */
+    private void postBatch(Long accountId, List<PendingPosting> postings) {
+        Account account = getActiveAccountOrThrow(accountId);
+        Money balance = account.getCurrentBalance();
+
+        List<Transaction> transactions = new ArrayList<>(postings.size());
+        List<PendingPosting> accepted = new ArrayList<>(postings.size());
+        Map<String, PendingPosting> firstByKey = new HashMap<>();
+        Map<PendingPosting, PendingPosting> repeats = new HashMap<>();
+        for (PendingPosting posting : postings) {
+            String key = posting.getIdempotencyKey();
+            if (key != null) {
+                Optional<TransactionDto> previous;
+                try {
+                    previous = idempotencyStore.find(key, posting.getRequest());
+                } catch (IdempotencyKeyReusedException e) {
+                    posting.setFailure(e);
+                    continue;
+                }
+                if (previous.isPresent()) {
+                    posting.setResult(previous.get());
+                    continue;
+                }
+                PendingPosting first = firstByKey.putIfAbsent(key, posting);
+                if (first != null) {
+                    if (IdempotencyStore.isSamePosting(posting.getRequest(), first.getRequest())) {
+                        repeats.put(posting, first);
+                    } else {
+                        posting.setFailure(new IdempotencyKeyReusedException(key));
+                    }
+                    continue;
+                }
+            }
+
+            TransactionDto request = posting.getRequest();
+            try {
+                Money newBalance = calculateNewBalance(balance, request.getType(), posting.getAmount(),
+                        account.getNumber());
+                transactions.add(transactionMapper.toEntity(request.getType(), posting.getAmount(), account,
+                        newBalance));
+                accepted.add(posting);
+                balance = newBalance;
+            } catch (InsufficientBalanceException | IllegalArgumentException e) {
+                posting.setFailure(e);
+            }
+        }
+
+        if (!transactions.isEmpty()) {
+            updateAccountBalance(account, balance);
+            List<TransactionDto> saved = saveTransactions(transactions);
+            for (int i = 0; i < accepted.size(); i++) {
+                PendingPosting posting = accepted.get(i);
+                posting.setResult(recordIdempotencyKey(posting.getIdempotencyKey(), saved.get(i)));
+            }
+        }
+
+        repeats.forEach((repeat, first) -> {
+            repeat.setResult(first.getResult());
+            repeat.setFailure(first.getFailure());
+        });
+    }
+
+    /**
+     * Applies both legs of a transfer within the current transaction. Rows are
+     * locked lowest ID first.
+     *
+     * @param sourceId the account to debit
+     * @param targetId the account to credit
+     * @param amount   the amount to move
+     * @return both legs of the transfer
+     */
+    private TransferResultDto postTransfer(Long sourceId, Long targetId, Money amount) {
+        Account first = lockActiveAccountOrThrow(Math.min(sourceId, targetId));
+        Account second = lockActiveAccountOrThrow(Math.max(sourceId, targetId));
+        Account source = first.getId().equals(sourceId) ? first : second;
+        Account target = source == first ? second : first;
+
+        Money sourceBalance = calculateNewBalance(source.getCurrentBalance(), TransactionType.WITHDRAWAL, amount,
+                source.getNumber());
+        Money targetBalance = calculateNewBalance(target.getCurrentBalance(), TransactionType.DEPOSIT, amount,
+                target.getNumber());
+
+        updateAccountBalance(source, sourceBalance);
+        updateAccountBalance(target, targetBalance);
+
+        List<TransactionDto> legs = saveTransactions(List.of(
+                transactionMapper.toEntity(TransactionType.WITHDRAWAL, amount, source, sourceBalance),
+                transactionMapper.toEntity(TransactionType.DEPOSIT, amount, target, targetBalance)));
+
+        return new TransferResultDto(legs.get(0), legs.get(1));
+    }
+
+    /**
+     * Commits one import chunk under the locks of every account it touches and
+     * appends its item results, then empties the chunk.
+     *
+     * @param result the import summary being built
+     * @param chunk  the items to import
+     */
+    private void importChunk(BatchImportResultDto result, List<TransactionDto> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        int offset = result.getTotal();
+        Set<Long> accountIds = chunk.stream().filter(Objects::nonNull).map(TransactionDto::getAccountId)
+                .filter(Objects::nonNull).collect(Collectors.toCollection(TreeSet::new));
+
+        List<BatchImportItemDto> items;
+        try {
+            items = accountPostingEngine.postAll(accountIds, () -> postChunk(offset, chunk, accountIds));
+        } catch (DataAccessException | TransactionException | PersistenceException
+                | PersistenceOperationException e) {
+            items = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                items.add(BatchImportItemDto.rejected(offset + i, PERSISTENCE_OPERATION, e.getMessage()));
+            }
+        }
+
+        items.forEach(result::add);
+        chunk.clear();
+    }
+
+    /**
+     * Applies one import chunk in order within the current transaction. Balances
+     * are carried from item to item per account, the touched accounts are updated
+     * once, and the accepted transactions are inserted together. A null item, an
+     * invalid amount or a balance that would overflow rejects only that item. The persistence
+     * context is cleared afterwards so long imports do not accumulate entities.
+     *
+     * @param offset     the index of the chunk's first item in the import
+     * @param chunk      the items to apply
+     * @param accountIds the accounts referenced by the chunk
+     * @return one result per item, in chunk order
+     */
+    private List<BatchImportItemDto> postChunk(int offset, List<TransactionDto> chunk, Set<Long> accountIds) {
+        Map<Long, Account> accounts = accountRepository.findAllById(accountIds).stream()
+                .filter(Account::isActive).collect(Collectors.toMap(Account::getId, Function.identity()));
+        Map<Long, Money> balances = new HashMap<>();
+
+        BatchImportItemDto[] items = new BatchImportItemDto[chunk.size()];
+        List<Integer> acceptedIndexes = new ArrayList<>(chunk.size());
+        List<Transaction> transactions = new ArrayList<>(chunk.size());
+
+        for (int i = 0; i < chunk.size(); i++) {
+            TransactionDto dto = chunk.get(i);
+            try {
+                if (dto == null) {
+                    throw new IllegalArgumentException("Transaction must not be null");
+                }
+                Money amount = validateTransactionAmount(dto.getAmount());
+                Account account = accounts.get(dto.getAccountId());
+                if (account == null) {
+                    throw new AccountNotFoundException(dto.getAccountId());
+                }
+                requireUnsharded(account);
+                Money currentBalance = balances.get(account.getId());
+                Money newBalance = calculateNewBalance(
+                        currentBalance != null ? currentBalance : account.getCurrentBalance(),
+                        dto.getType(),
+                        amount,
+                        account.getNumber());
+                balances.put(account.getId(), newBalance);
+                transactions.add(transactionMapper.toEntity(dto.getType(), amount, account, newBalance));
+                acceptedIndexes.add(i);
+            } catch (BusinessException e) {
+                items[i] = BatchImportItemDto.rejected(offset + i, e.getCode(), e.getMessage());
+            } catch (IllegalArgumentException e) {
+                items[i] = BatchImportItemDto.rejected(offset + i, INVALID_TRANSACTION, e.getMessage());
+            } catch (ArithmeticException e) {
+                items[i] = BatchImportItemDto.rejected(offset + i, INVALID_TRANSACTION,
+                        "Resulting balance is out of range");
+            }
+        }
+
+        balances.forEach((accountId, balance) -> {
+            accounts.get(accountId).setCurrentBalance(balance);
+            balanceTable.putAfterCommit(accountId, balance);
+        });
+        List<TransactionDto> saved = saveTransactions(transactions);
+        entityManager.flush();
+        entityManager.clear();
+
+        for (int i = 0; i < acceptedIndexes.size(); i++) {
+            int index = acceptedIndexes.get(i);
+            items[index] = BatchImportItemDto.accepted(offset + index, saved.get(i));
+        }
+        return Arrays.asList(items);
+    }
+
+    /**
+     * Applies a transaction through a conditional balance UPDATE and stores it,
+     * without loading the {@link Account} entity. The UPDATE returns the new
+     * balance in the same round trip; no row back means the account is missing
+     * or inactive, or that the withdrawal would leave a negative balance, and a
+     * lookup on that failure path tells the two apart.
+     *
+     * @param transactionDto the transaction request payload
+     * @param amount         the validated request amount
+     * @return the registered transaction as a DTO
+     * @throws AccountNotFoundException     if the account is not found or inactive
+     * @throws InsufficientBalanceException if the result would be negative
+     */
+    private TransactionDto postTransactionDelta(TransactionDto transactionDto, Money amount) {
+        Long accountId = transactionDto.getAccountId();
+        Money delta = signedAmount(transactionDto.getType(), amount);
+
+        Optional<BigDecimal> updated;
+        try {
+            updated = accountRepository.applyBalanceDelta(accountId, delta.toBigDecimal(), LocalDateTime.now());
+        } catch (PersistenceException e) {
+            throw new PersistenceOperationException(UPDATE, ACCOUNT, e);
+        }
+
+        if (updated.isEmpty()) {
+            String accountNumber = accountRepository.findActiveNumberById(accountId)
+                    .orElseThrow(() -> new AccountNotFoundException(accountId));
+            throw new InsufficientBalanceException(accountNumber);
+        }
+
+        Money newBalance = Money.of(updated.get());
+        Transaction transaction = transactionMapper.toEntity(transactionDto.getType(), amount,
+                accountRepository.getOne(accountId), newBalance);
+
+        return saveTransaction(transaction);
+    }
+
+    /**
+     * Records the idempotency key of a posting within the current transaction, if
+     * one was supplied.
+     *
+     * @param idempotencyKey the client key, or {@code null}
+     * @param transaction    the transaction registered by the posting
+     * @return the given transaction
+     */
+    private TransactionDto recordIdempotencyKey(String idempotencyKey, TransactionDto transaction) {
+        if (idempotencyKey != null) {
+            idempotencyStore.record(idempotencyKey, transaction);
+        }
+        return transaction;
+    }
+
     /**
      * Retrieves an active account by ID or throws an exception if not found or
      * inactive.
@@ -155,23 +1073,66 @@ public class TransactionServiceImpl implements TransactionService {
      */
     private Account getActiveAccountOrThrow(Long accountId) {
         try {
-            return accountRepository.findActiveById(accountId)
-                    .orElseThrow(() -> new AccountNotFoundException(accountId));
+            return requireUnsharded(accountRepository.findActiveById(accountId)
+                    .orElseThrow(() -> new AccountNotFoundException(accountId)));
         } catch (PersistenceException e) {
             throw new PersistenceOperationException(RETRIEVE, TRANSACTION, e);
         }
     }
 
     /**
-     * Validates that the transaction amount is greater than zero.
+     * Retrieves an active account by ID and locks its row for the rest of the
+     * current transaction.
+     *
+     * @param accountId the account ID
+     * @return the locked active {@link Account} entity
+     * @throws AccountNotFoundException      if the account is not found or inactive
+     * @throws PersistenceOperationException if the lookup fails
+     */
+    private Account lockActiveAccountOrThrow(Long accountId) {
+        try {
+            return requireUnsharded(accountRepository.findActiveByIdForUpdate(accountId)
+                    .orElseThrow(() -> new AccountNotFoundException(accountId)));
+        } catch (PersistenceException e) {
+            throw new PersistenceOperationException(RETRIEVE, ACCOUNT, e);
+        }
+    }
+
+    /**
+     * Rejects accounts whose balance is split into slots, which only accept
+     * individual postings through {@link HotAccountPoster}.
+     *
+     * @param account the account to check
+     * @return the given account
+     * @throws IllegalArgumentException if the account uses balance slots
+     */
+    private Account requireUnsharded(Account account) {
+        if (account.getBalanceSlots() > 0) {
+            throw new IllegalArgumentException(
+                    "Account " + account.getNumber() + " uses balance slots and only accepts individual postings");
+        }
+        return account;
+    }
+
+    /**
+     * Validates that the transaction amount is greater than zero and representable
+     * as {@link Money}, and converts it once for the rest of the posting.
      *
      * @param amount the transaction amount
-     * @throws IllegalArgumentException if the amount is null or non-positive
+     * @return the amount as {@link Money}
+     * @throws IllegalArgumentException if the amount is null, non-positive, has
+     *                                  more than four decimals or is out of range
      */
-    private void validateTransactionAmount(BigDecimal amount) {
-        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+    private Money validateTransactionAmount(BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0) {
             throw new IllegalArgumentException("Transaction amount must be greater than zero");
         }
+        try {
+            return Money.of(amount);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(
+                    "Transaction amount must have at most " + Money.SCALE + " decimals and fit the balance range");
+        }
     }
 
     /**
@@ -184,49 +1145,62 @@ public class TransactionServiceImpl implements TransactionService {
      * @param accountNumber  the account identifier (for exception context)
      * @return the resulting balance after the transaction
      * @throws InsufficientBalanceException if the result would be negative
+     * @throws ArithmeticException          if the result overflows
      */
-    private BigDecimal calculateNewBalance(BigDecimal currentBalance, TransactionType type, BigDecimal amount,
+    private Money calculateNewBalance(Money currentBalance, TransactionType type, Money amount,
             String accountNumber) {
-        BigDecimal signedAmount;
+        Money newBalance = currentBalance.add(signedAmount(type, amount));
+
+        if (newBalance.isNegative()) {
+            throw new InsufficientBalanceException(accountNumber);
+        }
+
+        return newBalance;
+    }
+
+    /**
+     * Returns the amount with the sign implied by the transaction type.
+     *
+     * @param type   the transaction type (DEPOSIT or WITHDRAWAL)
+     * @param amount the transaction amount
+     * @return the amount for deposits, its negation for withdrawals
+     * @throws IllegalArgumentException for unsupported transaction types
+     */
+    private Money signedAmount(TransactionType type, Money amount) {
+        if (type == null) {
+            throw new IllegalArgumentException("Invalid transaction type: " + type);
+        }
         switch (type) {
             case DEPOSIT:
-                signedAmount = amount;
-                break;
+                return amount;
             case WITHDRAWAL:
-                signedAmount = amount.negate();
-                break;
+                return amount.negate();
             default:
                 throw new IllegalArgumentException("Invalid transaction type: " + type);
         }
-
-        BigDecimal newBalance = currentBalance.add(signedAmount);
-
-        if (newBalance.compareTo(BigDecimal.ZERO) < 0) {
-            throw new InsufficientBalanceException(accountNumber);
-        }
-
-        return newBalance;
     }
 
     /**
      * Updates the account's balance with the new calculated amount and persists the
-     * change.
+     * change. The {@link BalanceTable} receives the new balance on commit.
      *
      * @param account    the account to update
      * @param newBalance the new balance to be saved
      * @throws PersistenceOperationException if the update fails
      */
-    private void updateAccountBalance(Account account, BigDecimal newBalance) {
+    private void updateAccountBalance(Account account, Money newBalance) {
         try {
             account.setCurrentBalance(newBalance);
             accountRepository.save(account);
+            balanceTable.putAfterCommit(account.getId(), newBalance);
         } catch (PersistenceException e) {
             throw new PersistenceOperationException(UPDATE, ACCOUNT, e);
         }
     }
 
     /**
-     * Persists the transaction and returns it as a DTO.
+     * Persists the transaction, adds it to its account's daily rollup and to the
+     * cached report data once committed, and returns it as a DTO.
      *
      * @param transaction the transaction to be saved
      * @return the saved transaction as a DTO
@@ -234,7 +1208,30 @@ public class TransactionServiceImpl implements TransactionService {
      */
     private TransactionDto saveTransaction(Transaction transaction) {
         try {
-            return transactionMapper.toDto(transactionRepository.save(transaction));
+            Transaction saved = transactionRepository.save(transaction);
+            dailyRollupRecorder.record(saved);
+            reportDataCache.patchAfterCommit(List.of(saved));
+            return transactionMapper.toDto(saved);
+        } catch (DataAccessException | PersistenceException e) {
+            throw new PersistenceOperationException(CREATE, TRANSACTION, e);
+        }
+    }
+
+    /**
+     * Persists a list of transactions, adds them to their accounts' daily rollups
+     * and to the cached report data once committed, and returns them as DTOs in
+     * the same order.
+     *
+     * @param transactions the transactions to be saved
+     * @return the saved transactions as DTOs
+     * @throws PersistenceOperationException if the save operation fails
+     */
+    private List<TransactionDto> saveTransactions(List<Transaction> transactions) {
+        try {
+            List<Transaction> saved = transactionRepository.saveAll(transactions);
+            dailyRollupRecorder.record(saved);
+            reportDataCache.patchAfterCommit(saved);
+            return saved.stream().map(transactionMapper::toDto).collect(Collectors.toList());
         } catch (DataAccessException | PersistenceException e) {
             throw new PersistenceOperationException(CREATE, TRANSACTION, e);
         }
@@ -0,0 +1,485 @@
+package com.devsu.hackerearth.backend.account.statement;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.devsu.hackerearth.backend.account.dto.AccountDataDto;
+import com.devsu.hackerearth.backend.account.dto.ClientData;
+import com.devsu.hackerearth.backend.account.dto.ReportPeriod;
+import com.devsu.hackerearth.backend.account.dto.ReportResponseEvent;
+import com.devsu.hackerearth.backend.account.exception.StatementBatchRunningException;
+import com.devsu.hackerearth.backend.account.model.StatementBatchCheckpoint;
+import com.devsu.hackerearth.backend.account.model.dto.StatementBatchStatusDto;
+import com.devsu.hackerearth.backend.account.report.CompressedReportWriter;
+import com.devsu.hackerearth.backend.account.report.ReportProperties;
+import com.devsu.hackerearth.backend.account.repository.AccountRepository;
+import com.devsu.hackerearth.backend.account.repository.StatementBatchCheckpointRepository;
+import com.devsu.hackerearth.backend.account.service.TransactionService;
+import com.devsu.hackerearth.backend.account.type.StatementBatchState;
+import com.devsu.hackerearth.backend.account.util.DateUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Builds the statement of every client with an active account for one month
+ * and stores each in the {@link StatementStore}, from which it is fetched under
+ * the client's own path. Statements are kept apart from the on-demand reports,
+ * so they neither expire nor can be fetched by a guessed correlation ID.
+ * <p>
+ * A coordinator thread walks the client IDs in ascending order, in chunks of
+ * {@code account.report.statement-batch-chunk-clients}, and hands each client
+ * to a fixed pool of worker threads that stream its transactions through
+ * {@link TransactionService#streamUncachedByAccountClientIdAndDateBetween},
+ * which leaves the report data cache to interactive requests, into a
+ * {@link CompressedReportWriter}. The pool's queue is bounded and the
+ * coordinator takes a permit before queueing a client, so it stops reading
+ * clients while the workers are busy and at most
+ * {@code statement-batch-threads} statements hold a database connection at
+ * once.
+ * </p>
+ * <p>
+ * Chunks complete in any order but are checkpointed in order: once every
+ * client of the oldest outstanding chunk is stored, its last client ID is
+ * written to the month's {@link StatementBatchCheckpoint}. A run restarted
+ * after a crash, or started again after a failure, continues after that
+ * client; clients of the interrupted chunk are built again and replace their
+ * stored statements. A chunk with a failed client stops the run there.
+ * </p>
+ *
+ * Configuration:
+ * <ul>
+ * <li>{@code account.report.statement-batch-threads} – Worker threads (default
+ * 4).</li>
+ * <li>{@code account.report.statement-batch-queue-capacity} – Clients queued
+ * for a free worker (default 8).</li>
+ * <li>{@code account.report.statement-batch-chunk-clients} – Clients per
+ * checkpointed chunk (default 100).</li>
+ * <li>{@code account.report.statement-batch-resume-on-startup} – Whether a run
+ * left {@code RUNNING} is resumed at startup (default true).</li>
+ * <li>{@code account.report.statement-batch-cron} – Cron expression of the run
+ * for the previous month (default {@code -}, disabled).</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class MonthEndStatementBatch {
+
+    private final AccountRepository accountRepository;
+    private final StatementBatchCheckpointRepository checkpointRepository;
+    private final TransactionService transactionService;
+    private final StatementStore statementStore;
+    private final ReportProperties reportProperties;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor workers;
+    private final ExecutorService coordinator;
+    private final Semaphore permits;
+    private volatile Run current;
+
+    public MonthEndStatementBatch(AccountRepository accountRepository,
+            StatementBatchCheckpointRepository checkpointRepository, TransactionService transactionService,
+            StatementStore statementStore, ReportProperties reportProperties, ObjectMapper objectMapper) {
+        this.accountRepository = accountRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionService = transactionService;
+        this.statementStore = statementStore;
+        this.reportProperties = reportProperties;
+        this.objectMapper = objectMapper;
+        int threads = Math.max(1, reportProperties.getStatementBatchThreads());
+        int queueCapacity = Math.max(1, reportProperties.getStatementBatchQueueCapacity());
+        AtomicInteger workerCount = new AtomicInteger();
+        // The permits bound the backlog; the queue is sized so that a worker that
+        // has released its permit but not yet taken the next task never causes a
+        // rejection.
+        this.permits = new Semaphore(threads + queueCapacity);
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads + queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "statement-batch-" + workerCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.coordinator = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "statement-batch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs the scheduled batch for the previous month. A run already in progress
+     * is left alone.
+     */
+    @Scheduled(cron = "${account.report.statement-batch-cron:-}")
+    public void scheduledRun() {
+        try {
+            run(YearMonth.now().minusMonths(1));
+        } catch (StatementBatchRunningException e) {
+            log.warn("[StatementBatch] Scheduled run skipped: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Resumes, in the background, the most recent run that was still
+     * {@code RUNNING} when the application stopped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterrupted() {
+        if (!reportProperties.isStatementBatchResumeOnStartup()) {
+            return;
+        }
+        checkpointRepository.findFirstByStateOrderByUpdatedAtDesc(StatementBatchState.RUNNING)
+                .ifPresent(checkpoint -> {
+                    log.info("[StatementBatch] Resuming {} after client {}", checkpoint.getMonth(),
+                            checkpoint.getLastClientId());
+                    start(YearMonth.parse(checkpoint.getMonth()));
+                });
+    }
+
+    /**
+     * Starts the batch of a month in the background. A month whose last run did
+     * not complete resumes after its last checkpointed client; a completed month
+     * is built again from the first client.
+     *
+     * @param month the statement month
+     * @return the status of the run as it starts
+     * @throws StatementBatchRunningException if a run is already in progress
+     */
+    public StatementBatchStatusDto start(YearMonth month) {
+        Run run = claim(month);
+        try {
+            coordinator.execute(() -> execute(run));
+        } catch (RejectedExecutionException e) {
+            run.stop("Batch executor is shut down");
+            throw e;
+        }
+        return run.toStatus();
+    }
+
+    /**
+     * Runs the batch of a month on the calling thread, resuming it like
+     * {@link #start(YearMonth)}.
+     *
+     * @param month the statement month
+     * @return the status of the finished run
+     * @throws StatementBatchRunningException if a run is already in progress
+     */
+    public StatementBatchStatusDto run(YearMonth month) {
+        Run run = claim(month);
+        execute(run);
+        return run.toStatus();
+    }
+
+    /**
+     * Returns the progress of the current or last run of this process when it
+     * is for the given month, or else what the month's checkpoint records.
+     *
+     * @param month the statement month, or {@code null} for the current or last
+     *              run
+     * @return the status, or {@code null} if the month was never run
+     */
+    public StatementBatchStatusDto status(YearMonth month) {
+        Run run = current;
+        if (run != null && (month == null || run.month.equals(month))) {
+            return run.toStatus();
+        }
+        if (month == null) {
+            return null;
+        }
+        return checkpointRepository.findById(month.toString())
+                .map(checkpoint -> new StatementBatchStatusDto(checkpoint.getMonth(), checkpoint.getState(),
+                        accountRepository.countActiveClients(), checkpoint.getCompletedClients(),
+                        checkpoint.getCompletedChunks(), checkpoint.getLastClientId(), 0, 0, 0, 0, 0, null,
+                        checkpoint.getStartedAt(), null))
+                .orElse(null);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /**
+     * Makes a new run of a month the current one, loading or creating its
+     * checkpoint and marking it {@code RUNNING}.
+     */
+    private synchronized Run claim(YearMonth month) {
+        Run previous = current;
+        if (previous != null && previous.state == StatementBatchState.RUNNING) {
+            throw new StatementBatchRunningException(previous.month.toString());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        StatementBatchCheckpoint checkpoint = checkpointRepository.findById(month.toString())
+                .orElseGet(StatementBatchCheckpoint::new);
+        if (checkpoint.getMonth() == null || checkpoint.getState() == StatementBatchState.COMPLETED) {
+            checkpoint.setMonth(month.toString());
+            checkpoint.setLastClientId(null);
+            checkpoint.setCompletedChunks(0);
+            checkpoint.setCompletedClients(0);
+            checkpoint.setStartedAt(now);
+        }
+        checkpoint.setState(StatementBatchState.RUNNING);
+        checkpoint.setUpdatedAt(now);
+        Run run = new Run(month, checkpointRepository.save(checkpoint), accountRepository.countActiveClients());
+        current = run;
+        return run;
+    }
+
+    private void execute(Run run) {
+        int chunkClients = Math.max(1, reportProperties.getStatementBatchChunkClients());
+        Deque<Chunk> pending = new ArrayDeque<>();
+        Long after = run.checkpoint.getLastClientId();
+        log.info("[StatementBatch] {} started after client {}, {} clients", run.month, after, run.totalClients);
+        try {
+            while (run.state == StatementBatchState.RUNNING) {
+                List<Long> clientIds = accountRepository.findActiveClientIdsAfter(
+                        after != null ? after : Long.MIN_VALUE, PageRequest.of(0, chunkClients));
+                if (clientIds.isEmpty()) {
+                    break;
+                }
+                Chunk chunk = new Chunk(clientIds);
+                for (Long clientId : clientIds) {
+                    submit(run, chunk, clientId);
+                }
+                pending.addLast(chunk);
+                after = chunk.lastClientId;
+                checkpointCompleted(run, pending, false);
+            }
+            checkpointCompleted(run, pending, true);
+            if (run.state == StatementBatchState.RUNNING) {
+                run.checkpoint.setState(StatementBatchState.COMPLETED);
+                run.checkpoint.setUpdatedAt(LocalDateTime.now());
+                checkpointRepository.save(run.checkpoint);
+                run.stop(null);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            run.interrupt("Interrupted");
+            return;
+        } catch (RuntimeException e) {
+            log.error("[StatementBatch] {} failed after client {}", run.month, run.checkpoint.getLastClientId(), e);
+            awaitQuietly(pending);
+            saveFailure(run, e.getMessage());
+            return;
+        }
+        if (run.state == StatementBatchState.FAILED) {
+            saveFailure(run, run.failure);
+        }
+        log.info("[StatementBatch] {}", run.toStatus());
+    }
+
+    /**
+     * Queues one client's statement, waiting for a permit while the pool and its
+     * queue are full.
+     */
+    private void submit(Run run, Chunk chunk, Long clientId) throws InterruptedException {
+        permits.acquire();
+        try {
+            workers.execute(() -> {
+                try {
+                    build(run, clientId);
+                } catch (RuntimeException e) {
+                    log.error("[StatementBatch] Statement of client {} for {} failed", clientId, run.month, e);
+                    chunk.fail(clientId, e);
+                } finally {
+                    chunk.remaining.countDown();
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Checkpoints the completed chunks at the head of the queue, in order. With
+     * {@code wait} set, waits for every chunk. The first failed chunk stops the
+     * run; the chunks after it are waited for but not checkpointed.
+     */
+    private void checkpointCompleted(Run run, Deque<Chunk> pending, boolean wait) throws InterruptedException {
+        while (!pending.isEmpty() && (wait || pending.peekFirst().remaining.getCount() == 0)) {
+            Chunk chunk = pending.pollFirst();
+            chunk.remaining.await();
+            if (run.state != StatementBatchState.RUNNING) {
+                continue;
+            }
+            if (chunk.failure != null) {
+                run.fail(chunk.failure);
+                continue;
+            }
+            run.checkpoint.setLastClientId(chunk.lastClientId);
+            run.checkpoint.setCompletedChunks(run.checkpoint.getCompletedChunks() + 1);
+            run.checkpoint.setCompletedClients(run.checkpoint.getCompletedClients() + chunk.size);
+            run.checkpoint.setUpdatedAt(LocalDateTime.now());
+            run.checkpoint = checkpointRepository.save(run.checkpoint);
+        }
+    }
+
+    private void build(Run run, Long clientId) {
+        ClientData client = new ClientData();
+        client.setId(clientId);
+        ReportPeriod period = new ReportPeriod();
+        period.setFrom(DateUtil.formatDate(run.start, DateUtil.YYYY_MM_DD));
+        period.setTo(DateUtil.formatDate(run.end, DateUtil.YYYY_MM_DD));
+
+        CompressedReportWriter writer = new CompressedReportWriter(objectMapper,
+                new ReportResponseEvent(client, period, null, null, 0, false));
+        long[] transactions = { 0 };
+        transactionService.streamUncachedByAccountClientIdAndDateBetween(clientId, run.start, run.end,
+                reportProperties.getChunkTransactions(), (accounts, last) -> {
+                    writer.append(accounts);
+                    for (AccountDataDto account : accounts) {
+                        if (account.getTransactions() != null) {
+                            transactions[0] += account.getTransactions().size();
+                        }
+                    }
+                });
+        statementStore.put(run.month, clientId, writer.finish());
+        run.builtClients.incrementAndGet();
+        run.builtTransactions.addAndGet(transactions[0]);
+    }
+
+    private void saveFailure(Run run, String failure) {
+        run.fail(failure);
+        try {
+            run.checkpoint.setState(StatementBatchState.FAILED);
+            run.checkpoint.setUpdatedAt(LocalDateTime.now());
+            checkpointRepository.save(run.checkpoint);
+        } catch (RuntimeException e) {
+            log.error("[StatementBatch] Could not record the failure of {}", run.month, e);
+        }
+        run.stop(failure);
+        log.warn("[StatementBatch] {}", run.toStatus());
+    }
+
+    private static void awaitQuietly(Deque<Chunk> pending) {
+        try {
+            for (Chunk chunk : pending) {
+                chunk.remaining.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Clients of one chunk and the count of those whose statement is not built
+     * yet.
+     */
+    private static final class Chunk {
+
+        private final Long lastClientId;
+        private final int size;
+        private final CountDownLatch remaining;
+        private volatile String failure;
+
+        private Chunk(List<Long> clientIds) {
+            this.lastClientId = clientIds.get(clientIds.size() - 1);
+            this.size = clientIds.size();
+            this.remaining = new CountDownLatch(size);
+        }
+
+        private void fail(Long clientId, RuntimeException e) {
+            if (failure == null) {
+                failure = "Client " + clientId + ": " + e.getMessage();
+            }
+        }
+    }
+
+    /**
+     * One run of the batch and the counters its status is computed from.
+     */
+    private static final class Run {
+
+        private final YearMonth month;
+        private final LocalDate start;
+        private final LocalDate end;
+        private final long totalClients;
+        private final long previousClients;
+        private final long startedNanos = System.nanoTime();
+        private final AtomicLong builtClients = new AtomicLong();
+        private final AtomicLong builtTransactions = new AtomicLong();
+        private volatile StatementBatchCheckpoint checkpoint;
+        private volatile StatementBatchState state = StatementBatchState.RUNNING;
+        private volatile String failure;
+        private volatile long finishedNanos;
+
+        private Run(YearMonth month, StatementBatchCheckpoint checkpoint, long totalClients) {
+            this.month = month;
+            this.start = month.atDay(1);
+            this.end = month.atEndOfMonth();
+            this.checkpoint = checkpoint;
+            this.totalClients = totalClients;
+            this.previousClients = checkpoint.getCompletedClients();
+        }
+
+        private void fail(String failure) {
+            this.failure = failure;
+            this.state = StatementBatchState.FAILED;
+        }
+
+        /**
+         * Ends the run in memory only, leaving its checkpoint {@code RUNNING} so
+         * that it is resumed at the next startup.
+         */
+        private void interrupt(String failure) {
+            this.failure = failure;
+            this.finishedNanos = System.nanoTime();
+            this.state = StatementBatchState.FAILED;
+        }
+
+        private void stop(String failure) {
+            this.finishedNanos = System.nanoTime();
+            if (failure == null) {
+                this.state = StatementBatchState.COMPLETED;
+            } else {
+                fail(failure);
+            }
+        }
+
+        private StatementBatchStatusDto toStatus() {
+            long finished = finishedNanos;
+            long elapsedNanos = (finished != 0 ? finished : System.nanoTime()) - startedNanos;
+            double seconds = elapsedNanos / 1e9;
+            long clients = builtClients.get();
+            double clientsPerSecond = seconds > 0 ? clients / seconds : 0;
+            double transactionsPerSecond = seconds > 0 ? builtTransactions.get() / seconds : 0;
+            long remaining = Math.max(0, totalClients - previousClients - clients);
+            Long etaMillis = null;
+            if (state == StatementBatchState.RUNNING && clientsPerSecond > 0) {
+                etaMillis = (long) (remaining / clientsPerSecond * 1000);
+            } else if (state == StatementBatchState.COMPLETED) {
+                etaMillis = 0L;
+            }
+            StatementBatchCheckpoint snapshot = checkpoint;
+            return new StatementBatchStatusDto(month.toString(), state, totalClients,
+                    Math.min(totalClients, previousClients + clients), snapshot.getCompletedChunks(),
+                    snapshot.getLastClientId(), clients, builtTransactions.get(), clientsPerSecond,
+                    transactionsPerSecond, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), etaMillis,
+                    snapshot.getStartedAt(), failure);
+        }
+    }
+}
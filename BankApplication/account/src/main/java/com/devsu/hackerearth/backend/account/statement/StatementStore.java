@@ -0,0 +1,108 @@
+package com.devsu.hackerearth.backend.account.statement;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.YearMonth;
+
+import org.springframework.stereotype.Component;
+
+import com.devsu.hackerearth.backend.account.report.CompressedReport;
+import com.devsu.hackerearth.backend.account.report.ReportProperties;
+
+/**
+ * Keeps the statements built by the {@link MonthEndStatementBatch}, one gzip
+ * file per client and month under {@code <statement-dir>/<month>/}.
+ * <p>
+ * Unlike the report store, statements do not expire and are not evicted: they
+ * stay until the month is built again, which replaces them. They are looked up
+ * by client and month only, so a client's statement can only be fetched under
+ * that client's path. A statement is written to a temporary file and moved into
+ * place, so a reader never sees a partial one.
+ * </p>
+ *
+ * Configuration:
+ * <ul>
+ * <li>{@code account.report.statement-dir} – Directory of the statement files
+ * (default {@code data/statements}).</li>
+ * </ul>
+ */
+@Component
+public class StatementStore {
+
+    private static final String SUFFIX = ".json.gz";
+
+    private final Path directory;
+
+    public StatementStore(ReportProperties reportProperties) {
+        this.directory = Paths.get(reportProperties.getStatementDir());
+    }
+
+    /**
+     * Stores a client's statement for a month, replacing any earlier one.
+     *
+     * @param month     the statement month
+     * @param clientId  the client ID
+     * @param statement the compressed statement
+     * @throws UncheckedIOException if the file cannot be written
+     */
+    public void put(YearMonth month, Long clientId, CompressedReport statement) {
+        Path target = path(month, clientId);
+        try {
+            Files.createDirectories(target.getParent());
+            Path temporary = Files.createTempFile(target.getParent(), clientId + "-", ".tmp");
+            try {
+                Files.write(temporary, statement.getGzip());
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns a client's statement for a month.
+     *
+     * @param month    the statement month
+     * @param clientId the client ID
+     * @return the statement, or {@code null} if none was built
+     * @throws UncheckedIOException if the file cannot be read
+     */
+    public CompressedReport get(YearMonth month, Long clientId) {
+        byte[] gzip;
+        try {
+            gzip = Files.readAllBytes(path(month, clientId));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // The gzip trailer ends with the uncompressed length modulo 2^32.
+        long jsonLength = ByteBuffer.wrap(gzip, gzip.length - Integer.BYTES, Integer.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN).getInt() & 0xFFFFFFFFL;
+        return new CompressedReport(gzip, jsonLength);
+    }
+
+    /**
+     * Tells whether a client's statement for a month was built.
+     *
+     * @param month    the statement month
+     * @param clientId the client ID
+     * @return {@code true} if the statement is stored
+     */
+    public boolean contains(YearMonth month, Long clientId) {
+        return Files.exists(path(month, clientId));
+    }
+
+    private Path path(YearMonth month, Long clientId) {
+        return directory.resolve(month.toString()).resolve(clientId + SUFFIX);
+    }
+}
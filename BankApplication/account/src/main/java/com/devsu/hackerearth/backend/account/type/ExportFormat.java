@@ -0,0 +1,48 @@
+package com.devsu.hackerearth.backend.account.type;
+
+import com.devsu.hackerearth.backend.account.exception.UnsupportedExportFormatException;
+
+/**
+ * Formats of a streamed statement export.
+ * <ul>
+ * <li>{@code CSV} – One header line, then one comma-separated line per
+ * transaction.</li>
+ * <li>{@code NDJSON} – One JSON object per line and transaction.</li>
+ * </ul>
+ */
+public enum ExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String mediaType;
+    private final String extension;
+
+    ExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Resolves a format by name, ignoring case.
+     *
+     * @param name the format name
+     * @return the format
+     * @throws UnsupportedExportFormatException if no format has that name
+     */
+    public static ExportFormat of(String name) {
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new UnsupportedExportFormatException(name);
+    }
+}
@@ -0,0 +1,150 @@
+package com.devsu.hackerearth.backend.account.type;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Immutable monetary amount held as a {@code long} count of ten-thousandths,
+ * matching the {@code precision = 19, scale = 4} money columns.
+ * <p>
+ * Arithmetic is exact and overflow-checked: {@link #add}, {@link #subtract} and
+ * {@link #negate} throw {@link ArithmeticException} instead of wrapping. Unlike
+ * {@link BigDecimal}, an instance is a single small object with no backing
+ * {@code BigInteger} or cached string, and {@link #toPlainString()} formats
+ * into a per-thread buffer so that the returned {@code String} is its only
+ * allocation.
+ * </p>
+ */
+public final class Money implements Comparable<Money>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Number of decimal places represented by one unit. */
+    public static final int SCALE = 4;
+
+    public static final Money ZERO = new Money(0L);
+
+    private static final long UNITS_PER_WHOLE = 10_000L;
+
+    private static final ThreadLocal<StringBuilder> FORMAT_BUFFER = ThreadLocal
+            .withInitial(() -> new StringBuilder(24));
+
+    private final long units;
+
+    private Money(long units) {
+        this.units = units;
+    }
+
+    /**
+     * Creates an amount from a count of ten-thousandths.
+     *
+     * @param units the unscaled value
+     * @return the amount
+     */
+    public static Money ofUnits(long units) {
+        return units == 0L ? ZERO : new Money(units);
+    }
+
+    /**
+     * Converts a decimal amount exactly.
+     *
+     * @param amount the amount
+     * @return the equivalent {@code Money}
+     * @throws ArithmeticException if the amount has more than four significant
+     *                             decimals or does not fit in a {@code long}
+     */
+    public static Money of(BigDecimal amount) {
+        if (amount.scale() == 0) {
+            // Whole amounts, as most request bodies carry them, are read without
+            // building an intermediate BigDecimal.
+            return ofUnits(Math.multiplyExact(amount.longValueExact(), UNITS_PER_WHOLE));
+        }
+        return ofUnits(amount.movePointRight(SCALE).longValueExact());
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public Money add(Money other) {
+        return ofUnits(Math.addExact(units, other.units));
+    }
+
+    public Money subtract(Money other) {
+        return ofUnits(Math.subtractExact(units, other.units));
+    }
+
+    public Money negate() {
+        return ofUnits(Math.negateExact(units));
+    }
+
+    public int signum() {
+        return Long.signum(units);
+    }
+
+    public boolean isNegative() {
+        return units < 0L;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(units, SCALE);
+    }
+
+    /**
+     * Appends the amount with exactly four decimals, as
+     * {@code BigDecimal.toPlainString()} renders a scale-4 value, without
+     * allocating. Callers formatting many amounts should reuse one builder.
+     *
+     * @param target the builder to append to
+     * @return the builder
+     */
+    public StringBuilder appendTo(StringBuilder target) {
+        if (units < 0L) {
+            target.append('-');
+        }
+        target.append(Math.abs(units / UNITS_PER_WHOLE)).append('.');
+        int fraction = (int) Math.abs(units % UNITS_PER_WHOLE);
+        if (fraction < 1000) {
+            target.append('0');
+            if (fraction < 100) {
+                target.append('0');
+                if (fraction < 10) {
+                    target.append('0');
+                }
+            }
+        }
+        return target.append(fraction);
+    }
+
+    /**
+     * Formats the amount with exactly four decimals, e.g. {@code "-12.3400"},
+     * through a per-thread buffer.
+     *
+     * @return the formatted amount
+     */
+    public String toPlainString() {
+        StringBuilder buffer = FORMAT_BUFFER.get();
+        buffer.setLength(0);
+        return appendTo(buffer).toString();
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(units, other.units);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Money && ((Money) other).units == units;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(units);
+    }
+
+    @Override
+    public String toString() {
+        return toPlainString();
+    }
+}
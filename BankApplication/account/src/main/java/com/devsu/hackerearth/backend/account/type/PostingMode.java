@@ -0,0 +1,22 @@
+package com.devsu.hackerearth.backend.account.type;
+
+/**
+ * Strategies available to apply a transaction to an account balance.
+ * <ul>
+ * <li>{@code LOCKED} – Reads the account, computes the new balance in memory and
+ * saves it while holding the account's stripe lock.</li>
+ * <li>{@code ATOMIC_DELTA} – Applies the signed amount with one conditional SQL
+ * UPDATE; the database enforces the non-negative balance rule.</li>
+ * <li>{@code GROUP_COMMIT} – Collects concurrent postings to the same account
+ * and applies them in one database transaction.</li>
+ * <li>{@code JOURNAL} – Validates against the in-memory balance table, appends
+ * to the write-ahead journal and acknowledges; the database is updated in the
+ * background.</li>
+ * </ul>
+ */
+public enum PostingMode {
+    LOCKED,
+    ATOMIC_DELTA,
+    GROUP_COMMIT,
+    JOURNAL
+}
@@ -0,0 +1,16 @@
+package com.devsu.hackerearth.backend.account.type;
+
+/**
+ * Stages of an asynchronous report request, as pushed to report event
+ * subscribers.
+ * <ul>
+ * <li>{@code PENDING} – The request was accepted and published to Kafka.</li>
+ * <li>{@code PROCESSING} – The report is being read and streamed.</li>
+ * <li>{@code READY} – The report is stored and can be fetched.</li>
+ * </ul>
+ */
+public enum ReportStatus {
+    PENDING,
+    PROCESSING,
+    READY
+}
@@ -0,0 +1,17 @@
+package com.devsu.hackerearth.backend.account.type;
+
+/**
+ * Stages of a month-end statement batch run.
+ * <ul>
+ * <li>{@code RUNNING} – Statements are being built; a run left in this state
+ * by a crash is resumed from its checkpoint.</li>
+ * <li>{@code COMPLETED} – Every active client's statement was stored.</li>
+ * <li>{@code FAILED} – A chunk had a client whose statement could not be
+ * built; the run stopped before it and resumes there when started again.</li>
+ * </ul>
+ */
+public enum StatementBatchState {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
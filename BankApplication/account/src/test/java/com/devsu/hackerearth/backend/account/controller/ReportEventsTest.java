@@ -0,0 +1,81 @@
+package com.devsu.hackerearth.backend.account.controller;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.devsu.hackerearth.backend.account.model.dto.ReportStatusDto;
+import com.devsu.hackerearth.backend.account.report.CompressedReport;
+import com.devsu.hackerearth.backend.account.report.ReportEventRegistry;
+import com.devsu.hackerearth.backend.account.report.ReportStore;
+import com.devsu.hackerearth.backend.account.type.ReportStatus;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReportEventsTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ReportEventRegistry reportEvents;
+
+	@Autowired
+	private ReportStore reportStore;
+
+	/**
+	 * Subscribes to two reports, one already stored and one still pending, and
+	 * checks that the stream replays the stored one inline, pushes the status
+	 * changes of the other and ends once both are ready.
+	 */
+	@Test
+	void shouldStreamStatusUntilFollowedReportsAreReady() throws Exception {
+		String stored = "{\"correlationId\":\"stored\"}";
+		reportStore.put("stored", gzip(stored));
+
+		MvcResult result = mockMvc.perform(get("/api/transactions/reports/events")
+				.param("correlationId", "stored", "pending")
+				.param("inline", "true")
+				.accept(MediaType.TEXT_EVENT_STREAM))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		reportEvents.publish(new ReportStatusDto("pending", 7L, ReportStatus.PROCESSING, "/report", null), null);
+		reportEvents.publish(new ReportStatusDto("pending", 7L, ReportStatus.READY, "/report", null),
+				gzip("{\"correlationId\":\"pending\"}"));
+		result.getAsyncResult(5_000);
+
+		String events = result.getResponse().getContentAsString();
+		assertTrue(events.contains("event:report-status"));
+		assertTrue(events.contains("\"report\":" + stored));
+		assertTrue(events.contains("\"status\":\"PROCESSING\""));
+		assertTrue(events.contains("\"report\":{\"correlationId\":\"pending\"}"));
+	}
+
+	@Test
+	void shouldRejectSubscriptionThatFollowsNothing() throws Exception {
+		mockMvc.perform(get("/api/transactions/reports/events").accept(MediaType.TEXT_EVENT_STREAM))
+				.andExpect(status().isBadRequest());
+	}
+
+	private static CompressedReport gzip(String json) throws Exception {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+			out.write(json.getBytes(StandardCharsets.UTF_8));
+		}
+		return new CompressedReport(buffer.toByteArray(), json.length());
+	}
+}
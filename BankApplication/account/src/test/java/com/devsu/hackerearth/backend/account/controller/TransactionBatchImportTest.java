@@ -0,0 +1,80 @@
+package com.devsu.hackerearth.backend.account.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.devsu.hackerearth.backend.account.model.dto.AccountDto;
+import com.devsu.hackerearth.backend.account.service.AccountService;
+import com.devsu.hackerearth.backend.account.type.AccountType;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TransactionBatchImportTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private AccountService accountService;
+
+	/**
+	 * Imports an NDJSON batch where one withdrawal overdraws the account and
+	 * verifies that only that item is rejected and balances run in order.
+	 */
+	@Test
+	void shouldImportNdjsonBatchWithPerItemResults() throws Exception {
+		AccountDto account = accountService
+				.create(new AccountDto(null, null, AccountType.SAVINGS, BigDecimal.TEN, BigDecimal.TEN, true, 1L));
+		Long id = account.getId();
+
+		String body = "{\"accountId\":" + id + ",\"type\":\"DEPOSIT\",\"amount\":5}\n"
+				+ "{\"accountId\":" + id + ",\"type\":\"WITHDRAWAL\",\"amount\":100}\n"
+				+ "{\"accountId\":" + id + ",\"type\":\"WITHDRAWAL\",\"amount\":15}\n";
+
+		mockMvc.perform(post("/api/transactions/batch")
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.content(body))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.total").value(3))
+				.andExpect(jsonPath("$.accepted").value(2))
+				.andExpect(jsonPath("$.items[1].status").value("REJECTED"))
+				.andExpect(jsonPath("$.items[1].code").value("INSUFFICIENT_FUNDS"))
+				.andExpect(jsonPath("$.items[2].balance").value(0));
+	}
+
+	/**
+	 * Imports a JSON array holding a null element and a deposit that would
+	 * overflow the balance range, and verifies that both are reported as rejected
+	 * lines while the valid item is still applied.
+	 */
+	@Test
+	void shouldRejectNullAndOverflowingItems() throws Exception {
+		AccountDto account = accountService
+				.create(new AccountDto(null, null, AccountType.SAVINGS, BigDecimal.TEN, BigDecimal.TEN, true, 1L));
+		Long id = account.getId();
+
+		String body = "[null,"
+				+ "{\"accountId\":" + id + ",\"type\":\"DEPOSIT\",\"amount\":922337203685477},"
+				+ "{\"accountId\":" + id + ",\"type\":\"DEPOSIT\",\"amount\":5}]";
+
+		mockMvc.perform(post("/api/transactions/batch")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(body))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.total").value(3))
+				.andExpect(jsonPath("$.accepted").value(1))
+				.andExpect(jsonPath("$.items[0].code").value("INVALID_TRANSACTION"))
+				.andExpect(jsonPath("$.items[1].code").value("INVALID_TRANSACTION"))
+				.andExpect(jsonPath("$.items[2].balance").value(15));
+	}
+}
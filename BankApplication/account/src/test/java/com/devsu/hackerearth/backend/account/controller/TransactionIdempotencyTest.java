@@ -0,0 +1,103 @@
+package com.devsu.hackerearth.backend.account.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.devsu.hackerearth.backend.account.model.dto.AccountDto;
+import com.devsu.hackerearth.backend.account.service.AccountService;
+import com.devsu.hackerearth.backend.account.type.AccountType;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TransactionIdempotencyTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private AccountService accountService;
+
+	/**
+	 * Retries the same deposit three times with one Idempotency-Key and verifies
+	 * that every response carries the same transaction and the balance moved once.
+	 */
+	@Test
+	void shouldPostOnceForRepeatedIdempotencyKey() throws Exception {
+		AccountDto account = accountService
+				.create(new AccountDto(null, null, AccountType.SAVINGS, BigDecimal.TEN, BigDecimal.TEN, true, 1L));
+		String body = "{\"accountId\":" + account.getId() + ",\"type\":\"DEPOSIT\",\"amount\":5}";
+
+		String first = null;
+		for (int i = 0; i < 3; i++) {
+			String response = mockMvc.perform(post("/api/transactions")
+					.header("Idempotency-Key", "retry-" + account.getId())
+					.contentType(MediaType.APPLICATION_JSON)
+					.content(body))
+					.andExpect(status().isCreated())
+					.andReturn().getResponse().getContentAsString();
+			if (first == null) {
+				first = response;
+			}
+			assertEquals(first, response);
+		}
+
+		assertEquals(0, new BigDecimal("15")
+				.compareTo(accountService.getById(account.getId()).getCurrentBalance()));
+	}
+
+	/**
+	 * Reuses a key for a deposit of a different amount and verifies that it is
+	 * rejected with 422 and the balance moved only for the first deposit.
+	 */
+	@Test
+	void shouldRejectKeyReusedForDifferentPosting() throws Exception {
+		AccountDto account = accountService
+				.create(new AccountDto(null, null, AccountType.SAVINGS, BigDecimal.TEN, BigDecimal.TEN, true, 1L));
+		String key = "reused-" + account.getId();
+
+		mockMvc.perform(post("/api/transactions")
+				.header("Idempotency-Key", key)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"accountId\":" + account.getId() + ",\"type\":\"DEPOSIT\",\"amount\":5}"))
+				.andExpect(status().isCreated());
+		mockMvc.perform(post("/api/transactions")
+				.header("Idempotency-Key", key)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"accountId\":" + account.getId() + ",\"type\":\"DEPOSIT\",\"amount\":7}"))
+				.andExpect(status().isUnprocessableEntity());
+
+		assertEquals(0, new BigDecimal("15")
+				.compareTo(accountService.getById(account.getId()).getCurrentBalance()));
+	}
+
+	/**
+	 * Sends keys that are too long or hold non-ASCII characters and verifies
+	 * that they are rejected with 400 before anything is posted.
+	 */
+	@Test
+	void shouldRejectInvalidIdempotencyKey() throws Exception {
+		AccountDto account = accountService
+				.create(new AccountDto(null, null, AccountType.SAVINGS, BigDecimal.TEN, BigDecimal.TEN, true, 1L));
+		String body = "{\"accountId\":" + account.getId() + ",\"type\":\"DEPOSIT\",\"amount\":5}";
+
+		for (String key : new String[] { "k".repeat(101), "clé-" + account.getId() }) {
+			mockMvc.perform(post("/api/transactions")
+					.header("Idempotency-Key", key)
+					.contentType(MediaType.APPLICATION_JSON)
+					.content(body))
+					.andExpect(status().isBadRequest());
+		}
+
+		assertEquals(0, BigDecimal.TEN.compareTo(accountService.getById(account.getId()).getCurrentBalance()));
+	}
+}
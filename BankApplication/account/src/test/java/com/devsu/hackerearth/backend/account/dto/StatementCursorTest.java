@@ -0,0 +1,30 @@
+package com.devsu.hackerearth.backend.account.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import com.devsu.hackerearth.backend.account.exception.InvalidCursorException;
+
+class StatementCursorTest {
+
+	@Test
+	void shouldDecodeWhatItEncodes() {
+		StatementCursor cursor = new StatementCursor(42L, LocalDate.of(2024, 2, 29), 1_000_001L);
+
+		StatementCursor decoded = StatementCursor.decode(cursor.encode());
+
+		assertEquals(Long.valueOf(42L), decoded.getAccountId());
+		assertEquals(LocalDate.of(2024, 2, 29), decoded.getDate());
+		assertEquals(Long.valueOf(1_000_001L), decoded.getId());
+	}
+
+	@Test
+	void shouldRejectMalformedCursor() {
+		assertThrows(InvalidCursorException.class, () -> StatementCursor.decode("not a cursor"));
+		assertThrows(InvalidCursorException.class, () -> StatementCursor.decode("MTox"));
+	}
+}
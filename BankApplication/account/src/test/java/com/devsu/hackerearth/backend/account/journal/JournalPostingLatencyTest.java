@@ -0,0 +1,93 @@
+package com.devsu.hackerearth.backend.account.journal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.devsu.hackerearth.backend.account.model.dto.AccountDto;
+import com.devsu.hackerearth.backend.account.model.dto.TransactionDto;
+import com.devsu.hackerearth.backend.account.posting.PostingProperties;
+import com.devsu.hackerearth.backend.account.service.AccountService;
+import com.devsu.hackerearth.backend.account.service.TransactionService;
+import com.devsu.hackerearth.backend.account.type.AccountType;
+import com.devsu.hackerearth.backend.account.type.PostingMode;
+import com.devsu.hackerearth.backend.account.type.TransactionType;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compares posting latency through the write-ahead journal with the locked
+ * database path, switching the mode at runtime within one context, and checks
+ * that the applier brings the database to the journaled balance. Each run
+ * journals into a fresh directory, as the in-memory database it applies to
+ * does not outlive the run. Runs only with {@code mvn -P benchmarks test}.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(properties = {
+		"account.posting.mode=JOURNAL",
+		"account.posting.balance-table-enabled=true" })
+class JournalPostingLatencyTest {
+
+	private static final int POSTINGS = 2_000;
+
+	@DynamicPropertySource
+	static void journalDirectory(DynamicPropertyRegistry registry) throws IOException {
+		String directory = Files.createTempDirectory("journal-latency-test").toString();
+		registry.add("account.posting.journal-dir", () -> directory);
+	}
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private PostingProperties postingProperties;
+
+	@Autowired
+	private PostingJournal postingJournal;
+
+	@Test
+	void shouldReportJournalAndLockedLatency() {
+		AccountDto account = accountService
+				.create(new AccountDto(null, null, AccountType.CHECKING, BigDecimal.ZERO, BigDecimal.ZERO, true, 1L));
+
+		long[] journal = measure(account.getId());
+		postingJournal.awaitApplied();
+		assertEquals(0, new BigDecimal(POSTINGS)
+				.compareTo(accountService.getById(account.getId()).getCurrentBalance()));
+
+		postingProperties.setMode(PostingMode.LOCKED);
+		try {
+			long[] locked = measure(account.getId());
+			log.info("[journal-latency] JOURNAL: p50={} us, p99={} us | LOCKED: p50={} us, p99={} us",
+					journal[0] / 1_000, journal[1] / 1_000, locked[0] / 1_000, locked[1] / 1_000);
+		} finally {
+			postingProperties.setMode(PostingMode.JOURNAL);
+		}
+	}
+
+	private long[] measure(Long accountId) {
+		long[] nanos = new long[POSTINGS];
+		for (int i = 0; i < POSTINGS; i++) {
+			long start = System.nanoTime();
+			transactionService.create(new TransactionDto(null, null, BigDecimal.ONE, TransactionType.DEPOSIT, null,
+					accountId));
+			nanos[i] = System.nanoTime() - start;
+		}
+		Arrays.sort(nanos);
+		return new long[] { nanos[POSTINGS / 2], nanos[POSTINGS * 99 / 100] };
+	}
+}
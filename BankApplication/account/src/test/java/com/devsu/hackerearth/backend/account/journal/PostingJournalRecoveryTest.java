@@ -0,0 +1,352 @@
+package com.devsu.hackerearth.backend.account.journal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.devsu.hackerearth.backend.account.exception.PostingSuspendedException;
+import com.devsu.hackerearth.backend.account.type.Money;
+import com.devsu.hackerearth.backend.account.type.TransactionType;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Crash-recovery tests for {@link PostingJournal}, using an in-memory sink that
+ * commits batches atomically like the database-backed one. Also logs append
+ * latency percentiles in the {@code benchmarks} profile.
+ */
+@Slf4j
+class PostingJournalRecoveryTest {
+
+	private static final int SMALL_SEGMENT = PostingJournal.RECORD_BYTES * 64 + Integer.BYTES;
+
+	@TempDir
+	Path directory;
+
+	/**
+	 * Kills the applier while it is in the middle of a batch and checks that a
+	 * restarted journal replays every acknowledged posting exactly once, in order,
+	 * across rotated segments.
+	 */
+	@Test
+	void shouldReplayUnappliedTailAfterApplierCrash() throws Exception {
+		RecordingSink sink = new RecordingSink();
+		sink.failAfterCommits = 2;
+
+		PostingJournal journal = new PostingJournal(directory, SMALL_SEGMENT, false, 100, sink);
+		journal.open();
+		for (int i = 1; i <= 1_000; i++) {
+			journal.append(1L + i % 7, TransactionType.DEPOSIT, Money.ofUnits(10_000), Money.ofUnits(i * 10_000L),
+					LocalDate.now());
+		}
+		waitFor(() -> sink.failures > 0);
+		journal.halt();
+
+		assertTrue(sink.committed.size() < 1_000);
+		assertEquals(sink.committed.get(sink.committed.size() - 1).getSequence(), sink.applied);
+
+		sink.failAfterCommits = Integer.MAX_VALUE;
+		PostingJournal restarted = new PostingJournal(directory, SMALL_SEGMENT, false, 100, sink);
+		restarted.open();
+
+		assertEquals(1_000, sink.committed.size());
+		for (int i = 0; i < sink.committed.size(); i++) {
+			assertEquals(i + 1, sink.committed.get(i).getSequence());
+		}
+		assertEquals(1_000, restarted.getAppliedSequence());
+
+		JournalRecord next = restarted.append(1L, TransactionType.WITHDRAWAL, Money.ofUnits(1), Money.ZERO,
+				LocalDate.now());
+		assertEquals(1_001, next.getSequence());
+		restarted.close();
+		assertEquals(1_001, sink.applied);
+	}
+
+	/**
+	 * Corrupts the last record of the journal and checks that replay stops before
+	 * it instead of applying garbage.
+	 */
+	@Test
+	void shouldIgnoreCorruptTail() throws Exception {
+		RecordingSink sink = new RecordingSink();
+		sink.failAfterCommits = 0;
+
+		PostingJournal journal = new PostingJournal(directory, SMALL_SEGMENT, false, 10, sink);
+		journal.open();
+		for (int i = 1; i <= 5; i++) {
+			journal.append(3L, TransactionType.DEPOSIT, Money.ofUnits(i), Money.ofUnits(i), LocalDate.now());
+		}
+		journal.halt();
+
+		Path segment = directory.resolve(String.format("journal-%020d.log", 1));
+		byte[] bytes = Files.readAllBytes(segment);
+		bytes[PostingJournal.RECORD_BYTES * 4 + 20] ^= 0x7F;
+		Files.write(segment, bytes);
+
+		sink.failAfterCommits = Integer.MAX_VALUE;
+		PostingJournal restarted = new PostingJournal(directory, SMALL_SEGMENT, false, 10, sink);
+		restarted.open();
+		restarted.close();
+
+		assertEquals(4, sink.committed.size());
+		assertEquals(4, sink.applied);
+	}
+
+	/**
+	 * Appends postings the sink can never apply between valid ones and checks
+	 * that the first is dead-lettered together with the later posting of the same
+	 * account, that the account refuses postings until released, and that the
+	 * rest are applied, so waiting callers are released instead of hanging on
+	 * retries.
+	 */
+	@Test
+	void shouldDeadLetterRecordThatCannotBeApplied() throws Exception {
+		RecordingSink sink = new RecordingSink();
+		sink.failAfterCommits = Integer.MAX_VALUE;
+		sink.poisonedAccount = 9L;
+
+		PostingJournal journal = new PostingJournal(directory, SMALL_SEGMENT, false, 100, sink);
+		journal.open();
+		for (int i = 1; i <= 10; i++) {
+			journal.append(i == 5 || i == 8 ? 9L : 1L, TransactionType.DEPOSIT, Money.ofUnits(1), Money.ofUnits(i),
+					LocalDate.now());
+		}
+		waitFor(() -> journal.getAppliedSequence() == 10);
+		journal.awaitApplied();
+
+		assertThrows(PostingSuspendedException.class,
+				() -> journal.append(9L, TransactionType.DEPOSIT, Money.ofUnits(1), Money.ofUnits(1), LocalDate.now()));
+		journal.release(9L);
+		sink.poisonedAccount = 0L;
+		journal.append(9L, TransactionType.DEPOSIT, Money.ofUnits(1), Money.ofUnits(1), LocalDate.now());
+		journal.close();
+
+		assertEquals(9, sink.committed.size());
+		assertEquals(2, sink.deadLetters.size());
+		assertEquals(5, sink.deadLetters.get(0).getSequence());
+		assertEquals(8, sink.deadLetters.get(1).getSequence());
+		assertEquals(11, sink.applied);
+	}
+
+	/**
+	 * Makes the sink fail one posting temporarily, even on its own, and checks
+	 * that it is retried and applied rather than dead-lettered.
+	 */
+	@Test
+	void shouldRetryTemporaryFailureInsteadOfDeadLettering() throws Exception {
+		RecordingSink sink = new RecordingSink();
+		sink.failAfterCommits = Integer.MAX_VALUE;
+		sink.flakySequence = 3L;
+		sink.flakyFailuresLeft = 3;
+
+		PostingJournal journal = new PostingJournal(directory, SMALL_SEGMENT, false, 100, sink);
+		journal.open();
+		for (int i = 1; i <= 5; i++) {
+			journal.append(1L, TransactionType.DEPOSIT, Money.ofUnits(1), Money.ofUnits(i), LocalDate.now());
+		}
+		waitFor(() -> journal.getAppliedSequence() == 5);
+		journal.close();
+
+		assertEquals(5, sink.committed.size());
+		assertTrue(sink.deadLetters.isEmpty());
+		assertEquals(0, sink.flakyFailuresLeft);
+	}
+
+	/**
+	 * Closes a journal whose records were all applied across rotated segments and
+	 * checks that no segment is left behind to be replayed.
+	 */
+	@Test
+	void shouldDeleteAppliedSegmentsOnClose() throws Exception {
+		RecordingSink sink = new RecordingSink();
+		sink.failAfterCommits = Integer.MAX_VALUE;
+
+		PostingJournal journal = new PostingJournal(directory, SMALL_SEGMENT, false, 10, sink);
+		journal.open();
+		for (int i = 1; i <= 200; i++) {
+			journal.append(2L, TransactionType.DEPOSIT, Money.ofUnits(1), Money.ofUnits(i), LocalDate.now());
+		}
+		journal.close();
+
+		assertEquals(200, sink.applied);
+		try (Stream<Path> files = Files.list(directory)) {
+			assertEquals(0, files.count());
+		}
+	}
+
+	/**
+	 * Leaves un-applied records in the journal and restarts it against a sink
+	 * with no checkpoint, as after a restart on an in-memory database, and checks
+	 * that the journal refuses to replay them and keeps the segment.
+	 */
+	@Test
+	void shouldRefuseToReplayIntoSinkWithoutCheckpoint() throws Exception {
+		RecordingSink sink = new RecordingSink();
+		sink.failAfterCommits = 0;
+
+		PostingJournal journal = new PostingJournal(directory, SMALL_SEGMENT, false, 10, sink);
+		journal.open();
+		for (int i = 1; i <= 3; i++) {
+			journal.append(4L, TransactionType.DEPOSIT, Money.ofUnits(1), Money.ofUnits(i), LocalDate.now());
+		}
+		journal.halt();
+
+		RecordingSink emptySink = new RecordingSink();
+		emptySink.failAfterCommits = Integer.MAX_VALUE;
+		PostingJournal restarted = new PostingJournal(directory, SMALL_SEGMENT, false, 10, emptySink);
+
+		assertThrows(IllegalStateException.class, restarted::open);
+		assertTrue(emptySink.committed.isEmpty());
+		assertTrue(Files.exists(directory.resolve(String.format("journal-%020d.log", 1))));
+	}
+
+	/**
+	 * Leaves journaled postings that the sink has no checkpoint for, and checks
+	 * that with the override set the journal moves them aside instead of
+	 * replaying them and starts empty.
+	 */
+	@Test
+	void shouldMoveForeignTailAsideWhenAllowed() throws Exception {
+		RecordingSink sink = new RecordingSink();
+		sink.failAfterCommits = 0;
+
+		PostingJournal journal = new PostingJournal(directory, SMALL_SEGMENT, false, 10, sink);
+		journal.open();
+		for (int i = 1; i <= 3; i++) {
+			journal.append(4L, TransactionType.DEPOSIT, Money.ofUnits(1), Money.ofUnits(i), LocalDate.now());
+		}
+		journal.halt();
+
+		RecordingSink emptySink = new RecordingSink();
+		emptySink.failAfterCommits = Integer.MAX_VALUE;
+		PostingJournal restarted = new PostingJournal(directory, SMALL_SEGMENT, false, 10, emptySink, true);
+		restarted.open();
+
+		assertTrue(emptySink.committed.isEmpty());
+		assertFalse(Files.exists(directory.resolve(String.format("journal-%020d.log", 1))));
+		try (Stream<Path> files = Files.list(directory)) {
+			assertEquals(1, files.filter(path -> path.getFileName().toString().startsWith("discarded-")).count());
+		}
+		restarted.append(4L, TransactionType.DEPOSIT, Money.ofUnits(1), Money.ofUnits(1), LocalDate.now());
+		restarted.close();
+		assertEquals(1, emptySink.committed.size());
+	}
+
+	/**
+	 * Logs p50 and p99 latency of the journal append alone.
+	 */
+	@Test
+	@Tag("benchmark")
+	void shouldReportAppendLatency() throws Exception {
+		RecordingSink sink = new RecordingSink();
+		sink.failAfterCommits = Integer.MAX_VALUE;
+		PostingJournal journal = new PostingJournal(directory, 8 * 1024 * 1024, false, 500, sink);
+		journal.open();
+
+		int postings = 100_000;
+		long[] nanos = new long[postings];
+		for (int i = 0; i < postings; i++) {
+			long start = System.nanoTime();
+			journal.append(1L + i % 100, TransactionType.DEPOSIT, Money.ofUnits(10_000), Money.ofUnits(i),
+					LocalDate.now());
+			nanos[i] = System.nanoTime() - start;
+		}
+		journal.close();
+
+		Arrays.sort(nanos);
+		log.info("[journal-append] p50={} ns, p99={} ns", nanos[postings / 2],
+				nanos[postings * 99 / 100]);
+		assertEquals(postings, sink.applied);
+	}
+
+	private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.nanoTime() < deadline, "Timed out");
+			Thread.sleep(10);
+		}
+	}
+
+	/**
+	 * Sink that stages a batch and commits it only if it reaches the end, failing
+	 * part-way through once {@code failAfterCommits} batches have committed,
+	 * always failing batches that touch {@code poisonedAccount}, a permanent
+	 * failure, and failing batches that hold {@code flakySequence} while
+	 * {@code flakyFailuresLeft} lasts. Rejection fails too once the sink has been
+	 * killed.
+	 */
+	private static final class RecordingSink implements JournalSink {
+
+		private final List<JournalRecord> committed = new ArrayList<>();
+		private final List<JournalRecord> deadLetters = new ArrayList<>();
+		private volatile long applied = NO_CHECKPOINT;
+		private volatile int failures;
+		private volatile int failAfterCommits;
+		private volatile long poisonedAccount;
+		private volatile long flakySequence;
+		private volatile int flakyFailuresLeft;
+		private int commits;
+
+		@Override
+		public long appliedSequence() {
+			return applied;
+		}
+
+		@Override
+		public void createCheckpoint(long appliedSequence) {
+			applied = appliedSequence;
+		}
+
+		@Override
+		public synchronized void apply(List<JournalRecord> batch) {
+			List<JournalRecord> staged = new ArrayList<>();
+			for (JournalRecord record : batch) {
+				if (record.getAccountId() == poisonedAccount) {
+					throw new IllegalArgumentException("Account " + poisonedAccount + " does not exist");
+				}
+				if (record.getSequence() == flakySequence && flakyFailuresLeft > 0) {
+					flakyFailuresLeft--;
+					throw new IllegalStateException("Lock timeout");
+				}
+				staged.add(record);
+				if (commits >= failAfterCommits && staged.size() == batch.size() / 2 + 1) {
+					failures++;
+					throw new IllegalStateException("Applier killed mid-batch");
+				}
+			}
+			committed.addAll(staged);
+			applied = batch.get(batch.size() - 1).getSequence();
+			commits++;
+		}
+
+		@Override
+		public boolean isPermanent(RuntimeException failure) {
+			return failure instanceof IllegalArgumentException;
+		}
+
+		@Override
+		public synchronized void reject(JournalRecord record, String reason) {
+			if (commits >= failAfterCommits) {
+				failures++;
+				throw new IllegalStateException("Applier killed before rejecting");
+			}
+			deadLetters.add(record);
+			applied = record.getSequence();
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package com.devsu.hackerearth.backend.account.kafka.consumer;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+
+import com.devsu.hackerearth.backend.account.dto.ReportResponseEvent;
+import com.devsu.hackerearth.backend.account.report.DiskReportStore;
+import com.devsu.hackerearth.backend.account.report.ReportEventRegistry;
+import com.devsu.hackerearth.backend.account.report.ReportProperties;
+import com.devsu.hackerearth.backend.account.report.ReportRequestCoalescer;
+import com.devsu.hackerearth.backend.account.report.ReportStore;
+import com.devsu.hackerearth.backend.account.report.ReportWaiters;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Checks that a report streamed in chunks is discarded, and its coalesced job
+ * dropped, when a chunk arrives out of sequence or the next chunk does not
+ * arrive in time.
+ */
+class ReportResponseListenerTest {
+
+	private static final Long CLIENT = 7L;
+	private static final LocalDate START = LocalDate.of(2026, 1, 1);
+	private static final LocalDate END = LocalDate.of(2026, 1, 31);
+
+	private final ReportProperties properties = new ReportProperties();
+	private final ReportStore store = new ReportStore(properties, (DiskReportStore) null);
+	private final ReportRequestCoalescer coalescer = new ReportRequestCoalescer(store, properties);
+	private final ReportResponseListener listener = new ReportResponseListener(store, new ReportWaiters(),
+			new ReportEventRegistry(store, properties), coalescer, properties, new ObjectMapper());
+
+	@Test
+	void shouldDropJobWhenChunkArrivesOutOfSequence() {
+		String correlationId = coalescer.join(CLIENT, START, END).getCorrelationId();
+
+		listener.listen(chunk(correlationId, 0, false));
+		listener.listen(chunk(correlationId, 2, true));
+
+		assertFalse(store.contains(correlationId));
+		assertFalse(coalescer.join(CLIENT, START, END).isCoalesced());
+	}
+
+	@Test
+	void shouldDropJobWhenNextChunkDoesNotArriveInTime() {
+		String correlationId = coalescer.join(CLIENT, START, END).getCorrelationId();
+		listener.listen(chunk(correlationId, 0, false));
+
+		listener.evictStalePartials();
+		assertTrue(coalescer.join(CLIENT, START, END).isCoalesced());
+
+		properties.setPartialTimeoutMillis(-1);
+		listener.evictStalePartials();
+		listener.listen(chunk(correlationId, 1, true));
+
+		assertFalse(store.contains(correlationId));
+		assertFalse(coalescer.join(CLIENT, START, END).isCoalesced());
+	}
+
+	private static ConsumerRecord<String, ReportResponseEvent> chunk(String correlationId, int index, boolean last) {
+		return new ConsumerRecord<>("report-responses-enriched", 0, index, correlationId,
+				new ReportResponseEvent(null, null, List.of(), correlationId, index, last));
+	}
+}
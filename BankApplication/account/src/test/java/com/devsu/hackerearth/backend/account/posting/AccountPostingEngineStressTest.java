@@ -0,0 +1,138 @@
+package com.devsu.hackerearth.backend.account.posting;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.devsu.hackerearth.backend.account.model.dto.AccountDto;
+import com.devsu.hackerearth.backend.account.model.dto.TransactionDto;
+import com.devsu.hackerearth.backend.account.service.AccountService;
+import com.devsu.hackerearth.backend.account.service.TransactionService;
+import com.devsu.hackerearth.backend.account.type.AccountType;
+import com.devsu.hackerearth.backend.account.type.TransactionType;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Multi-threaded stress test for {@link AccountPostingEngine}.
+ * <p>
+ * Verifies that concurrent deposits and withdrawals against the same account do
+ * not lose updates. The throughput measurement at 1, 8 and 32 threads, each
+ * posting to its own account, is tagged {@code benchmark} and runs only with
+ * {@code mvn -P benchmarks test}.
+ * </p>
+ */
+@Slf4j
+@SpringBootTest
+class AccountPostingEngineStressTest {
+
+	private static final int POSTINGS_PER_THREAD = 200;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	/**
+	 * Hammers a single account from 32 threads with paired deposits and
+	 * withdrawals and checks that the final balance reflects every posting.
+	 */
+	@Test
+	void shouldNotLoseUpdatesOnSameAccount() throws Exception {
+		int threads = 32;
+		AccountDto account = createAccount(new BigDecimal("1000.0000"));
+
+		runConcurrently(threads, index -> {
+			for (int i = 0; i < POSTINGS_PER_THREAD; i++) {
+				post(account.getId(), TransactionType.DEPOSIT, "3.0000");
+				post(account.getId(), TransactionType.WITHDRAWAL, "1.0000");
+			}
+		});
+
+		BigDecimal expected = new BigDecimal("1000.0000")
+				.add(new BigDecimal("2.0000").multiply(BigDecimal.valueOf((long) threads * POSTINGS_PER_THREAD)));
+		assertEquals(0, expected.compareTo(accountService.getById(account.getId()).getCurrentBalance()));
+	}
+
+	/**
+	 * Measures postings per second with one account per thread, so that
+	 * different accounts post in parallel.
+	 */
+	@Test
+	@Tag("benchmark")
+	void shouldReportThroughputAcrossAccounts() throws Exception {
+		for (int threads : new int[] { 1, 8, 32 }) {
+			List<AccountDto> accounts = new ArrayList<>(threads);
+			for (int i = 0; i < threads; i++) {
+				accounts.add(createAccount(BigDecimal.ZERO));
+			}
+
+			long started = System.nanoTime();
+			runConcurrently(threads, index -> {
+				for (int i = 0; i < POSTINGS_PER_THREAD; i++) {
+					post(accounts.get(index).getId(), TransactionType.DEPOSIT, "1.0000");
+				}
+			});
+			long elapsed = System.nanoTime() - started;
+
+			long perSecond = (long) (threads * POSTINGS_PER_THREAD / (elapsed / 1_000_000_000.0));
+			log.info("[posting-engine] threads={} postings={} throughput={}/s",
+					threads, threads * POSTINGS_PER_THREAD, perSecond);
+
+			for (AccountDto account : accounts) {
+				assertEquals(0, BigDecimal.valueOf(POSTINGS_PER_THREAD)
+						.compareTo(accountService.getById(account.getId()).getCurrentBalance()));
+			}
+		}
+	}
+
+	private AccountDto createAccount(BigDecimal initialAmount) {
+		AccountDto dto = new AccountDto(null, null, AccountType.SAVINGS, initialAmount, initialAmount, true, 1L);
+		return accountService.create(dto);
+	}
+
+	private void post(Long accountId, TransactionType type, String amount) {
+		TransactionDto dto = new TransactionDto(null, null, new BigDecimal(amount), type, null, accountId);
+		transactionService.create(dto);
+	}
+
+	private void runConcurrently(int threads, Worker worker) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<?>> futures = new ArrayList<>(threads);
+			for (int i = 0; i < threads; i++) {
+				int index = i;
+				futures.add(executor.submit(() -> {
+					start.await();
+					worker.run(index);
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get(5, TimeUnit.MINUTES);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@FunctionalInterface
+	private interface Worker {
+		void run(int index) throws Exception;
+	}
+}
@@ -0,0 +1,71 @@
+package com.devsu.hackerearth.backend.account.posting;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.devsu.hackerearth.backend.account.exception.InsufficientBalanceException;
+import com.devsu.hackerearth.backend.account.model.dto.AccountDto;
+import com.devsu.hackerearth.backend.account.model.dto.TransactionDto;
+import com.devsu.hackerearth.backend.account.service.AccountService;
+import com.devsu.hackerearth.backend.account.service.TransactionService;
+import com.devsu.hackerearth.backend.account.type.AccountType;
+import com.devsu.hackerearth.backend.account.type.TransactionType;
+
+/**
+ * Verifies the {@code ATOMIC_DELTA} posting mode: concurrent postings are not
+ * lost and overdrafts are rejected from the UPDATE's affected-row count.
+ */
+@SpringBootTest(properties = "account.posting.mode=ATOMIC_DELTA")
+class AtomicDeltaPostingTest {
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Test
+	void shouldApplyConcurrentDeltasWithoutLostUpdates() throws Exception {
+		AccountDto account = accountService
+				.create(new AccountDto(null, null, AccountType.SAVINGS, BigDecimal.ZERO, BigDecimal.ZERO, true, 1L));
+		ExecutorService executor = Executors.newFixedThreadPool(16);
+		try {
+			List<Future<TransactionDto>> futures = new ArrayList<>();
+			for (int i = 0; i < 1600; i++) {
+				futures.add(executor.submit(() -> transactionService.create(
+						new TransactionDto(null, null, BigDecimal.ONE, TransactionType.DEPOSIT, null, account.getId()))));
+			}
+			for (Future<TransactionDto> future : futures) {
+				future.get(1, TimeUnit.MINUTES);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(0, new BigDecimal("1600").compareTo(accountService.getById(account.getId()).getCurrentBalance()));
+	}
+
+	@Test
+	void shouldRejectWithdrawalThatWouldOverdraw() {
+		AccountDto account = accountService.create(
+				new AccountDto(null, null, AccountType.CHECKING, BigDecimal.TEN, BigDecimal.TEN, true, 1L));
+
+		TransactionDto withdrawal = new TransactionDto(null, null, new BigDecimal("10.0001"),
+				TransactionType.WITHDRAWAL, null, account.getId());
+
+		assertThrows(InsufficientBalanceException.class, () -> transactionService.create(withdrawal));
+		assertEquals(0, BigDecimal.TEN.compareTo(accountService.getById(account.getId()).getCurrentBalance()));
+	}
+}
@@ -0,0 +1,86 @@
+package com.devsu.hackerearth.backend.account.posting;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.devsu.hackerearth.backend.account.model.dto.AccountDto;
+import com.devsu.hackerearth.backend.account.model.dto.TransactionDto;
+import com.devsu.hackerearth.backend.account.service.AccountService;
+import com.devsu.hackerearth.backend.account.service.TransactionService;
+import com.devsu.hackerearth.backend.account.type.AccountType;
+import com.devsu.hackerearth.backend.account.type.TransactionType;
+
+/**
+ * Sends the same idempotency key to two accounts inside concurrent group-commit
+ * batches. Whichever batch commits the key second breaks its unique
+ * constraint; the unrelated postings grouped with it must still be applied,
+ * and both keyed requests must return the one transaction that was posted.
+ */
+@SpringBootTest(properties = { "account.posting.mode=GROUP_COMMIT", "account.posting.group-commit-window-millis=200",
+		"account.posting.group-commit-max-batch=100" })
+class GroupCommitIdempotencyTest {
+
+	private static final int UNKEYED_PER_ACCOUNT = 5;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Test
+	void shouldIsolateDuplicateKeyFromRestOfBatch() throws Exception {
+		AccountDto first = createAccount();
+		AccountDto second = createAccount();
+		ExecutorService executor = Executors.newFixedThreadPool(2 * (UNKEYED_PER_ACCOUNT + 1));
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<TransactionDto>> unkeyed = new ArrayList<>();
+		List<Future<TransactionDto>> keyed = new ArrayList<>();
+		try {
+			for (AccountDto account : List.of(first, second)) {
+				for (int i = 0; i < UNKEYED_PER_ACCOUNT; i++) {
+					unkeyed.add(executor.submit(() -> {
+						start.await();
+						return transactionService.create(deposit(account));
+					}));
+				}
+				keyed.add(executor.submit(() -> {
+					start.await();
+					return transactionService.create(deposit(account), "group-commit-duplicate-key");
+				}));
+			}
+			start.countDown();
+			for (Future<TransactionDto> future : unkeyed) {
+				future.get(1, TimeUnit.MINUTES);
+			}
+			assertEquals(keyed.get(0).get(1, TimeUnit.MINUTES).getId(), keyed.get(1).get(1, TimeUnit.MINUTES).getId());
+		} finally {
+			executor.shutdownNow();
+		}
+
+		BigDecimal total = accountService.getById(first.getId()).getCurrentBalance()
+				.add(accountService.getById(second.getId()).getCurrentBalance());
+		assertEquals(0, BigDecimal.valueOf(2 * UNKEYED_PER_ACCOUNT + 1).compareTo(total));
+	}
+
+	private AccountDto createAccount() {
+		return accountService
+				.create(new AccountDto(null, null, AccountType.SAVINGS, BigDecimal.ZERO, BigDecimal.ZERO, true, 3L));
+	}
+
+	private static TransactionDto deposit(AccountDto account) {
+		return new TransactionDto(null, null, BigDecimal.ONE, TransactionType.DEPOSIT, null, account.getId());
+	}
+}
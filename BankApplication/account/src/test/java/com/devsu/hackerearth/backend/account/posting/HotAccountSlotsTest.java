@@ -0,0 +1,174 @@
+package com.devsu.hackerearth.backend.account.posting;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.devsu.hackerearth.backend.account.exception.InsufficientBalanceException;
+import com.devsu.hackerearth.backend.account.model.dto.AccountDto;
+import com.devsu.hackerearth.backend.account.model.dto.TransactionDto;
+import com.devsu.hackerearth.backend.account.model.dto.TransferDto;
+import com.devsu.hackerearth.backend.account.rollup.DailyRollupRebuilder;
+import com.devsu.hackerearth.backend.account.service.AccountService;
+import com.devsu.hackerearth.backend.account.service.TransactionService;
+import com.devsu.hackerearth.backend.account.type.AccountType;
+import com.devsu.hackerearth.backend.account.type.TransactionType;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Checks that an account split into balance slots keeps an exact, never
+ * negative balance under concurrent deposits and withdrawals, that its daily
+ * rollup closes at that balance. The deposit throughput on one account with and
+ * without slots is a {@code benchmark} test, run with
+ * {@code mvn -P benchmarks test}.
+ */
+@Slf4j
+@SpringBootTest
+class HotAccountSlotsTest {
+
+	private static final int THREADS = 16;
+	private static final int POSTINGS_PER_THREAD = 200;
+	private static final int SLOTS = 8;
+	private static final BigDecimal OPENING_BALANCE = new BigDecimal("100.0000");
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private DailyRollupRebuilder rebuilder;
+
+	@Test
+	void shouldKeepExactBalanceAcrossSlots() throws Exception {
+		Long accountId = createAccount();
+		accountService.configureBalanceSlots(accountId, SLOTS);
+
+		List<Future<BigDecimal>> futures = new ArrayList<>(THREADS);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			for (int t = 0; t < THREADS; t++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					ThreadLocalRandom random = ThreadLocalRandom.current();
+					BigDecimal net = BigDecimal.ZERO;
+					for (int i = 0; i < POSTINGS_PER_THREAD; i++) {
+						BigDecimal amount = BigDecimal.valueOf(1 + random.nextInt(20));
+						TransactionType type = random.nextBoolean() ? TransactionType.DEPOSIT
+								: TransactionType.WITHDRAWAL;
+						try {
+							transactionService.create(new TransactionDto(null, null, amount, type, null, accountId));
+							net = type == TransactionType.DEPOSIT ? net.add(amount) : net.subtract(amount);
+						} catch (InsufficientBalanceException e) {
+							// rejected withdrawals leave the balance untouched
+						}
+					}
+					return net;
+				}));
+			}
+			start.countDown();
+			BigDecimal expected = OPENING_BALANCE;
+			for (Future<BigDecimal> future : futures) {
+				expected = expected.add(future.get(2, TimeUnit.MINUTES));
+			}
+
+			BigDecimal balance = accountService.getById(accountId).getCurrentBalance();
+			assertTrue(balance.signum() >= 0);
+			assertEquals(0, expected.compareTo(balance));
+			assertEquals(0, expected.compareTo(balanceAsOfToday(accountId)));
+		} finally {
+			executor.shutdownNow();
+		}
+
+		rebuilder.rebuild(accountId);
+		assertEquals(0, accountService.getById(accountId).getCurrentBalance().compareTo(balanceAsOfToday(accountId)));
+
+		BigDecimal beforeMerge = accountService.getById(accountId).getCurrentBalance();
+		assertEquals(0, beforeMerge.compareTo(accountService.configureBalanceSlots(accountId, 0).getCurrentBalance()));
+	}
+
+	@Test
+	void shouldRejectOverdraftAcrossSlots() {
+		Long accountId = createAccount();
+		accountService.configureBalanceSlots(accountId, SLOTS);
+
+		TransactionDto withdrawal = transactionService.create(new TransactionDto(null, null, OPENING_BALANCE,
+				TransactionType.WITHDRAWAL, null, accountId));
+		assertEquals(0, BigDecimal.ZERO.compareTo(withdrawal.getBalance()));
+		assertThrows(InsufficientBalanceException.class, () -> transactionService.create(
+				new TransactionDto(null, null, BigDecimal.ONE, TransactionType.WITHDRAWAL, null, accountId)));
+		assertThrows(IllegalArgumentException.class, () -> transactionService.transfer(
+				new TransferDto(accountId, createAccount(), BigDecimal.ONE)));
+	}
+
+	@Test
+	@Tag("benchmark")
+	void shouldScaleDepositsWithSlots() throws Exception {
+		Long single = createAccount();
+		Long sharded = createAccount();
+		accountService.configureBalanceSlots(sharded, SLOTS);
+
+		double singleRate = depositThroughput(single);
+		double shardedRate = depositThroughput(sharded);
+
+		BigDecimal deposited = BigDecimal.valueOf((long) THREADS * POSTINGS_PER_THREAD);
+		assertEquals(0, OPENING_BALANCE.add(deposited).compareTo(accountService.getById(sharded).getCurrentBalance()));
+		log.info("[hot-account] threads={} deposits={} single={}/s slots({})={}/s", THREADS,
+				THREADS * POSTINGS_PER_THREAD, (long) singleRate, SLOTS, (long) shardedRate);
+	}
+
+	private double depositThroughput(Long accountId) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		long started;
+		try {
+			List<Future<?>> futures = new ArrayList<>(THREADS);
+			for (int t = 0; t < THREADS; t++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					for (int i = 0; i < POSTINGS_PER_THREAD; i++) {
+						transactionService.create(new TransactionDto(null, null, BigDecimal.ONE,
+								TransactionType.DEPOSIT, null, accountId));
+					}
+					return null;
+				}));
+			}
+			started = System.nanoTime();
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get(2, TimeUnit.MINUTES);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		return THREADS * POSTINGS_PER_THREAD / ((System.nanoTime() - started) / 1_000_000_000.0);
+	}
+
+	private BigDecimal balanceAsOfToday(Long accountId) {
+		return accountService.getBalanceAsOf(accountId, LocalDate.now()).getBalance();
+	}
+
+	private Long createAccount() {
+		return accountService.create(new AccountDto(null, null, AccountType.CHECKING, OPENING_BALANCE,
+				OPENING_BALANCE, true, 1L)).getId();
+	}
+}
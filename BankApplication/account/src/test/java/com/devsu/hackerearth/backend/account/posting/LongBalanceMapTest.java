@@ -0,0 +1,76 @@
+package com.devsu.hackerearth.backend.account.posting;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link LongBalanceMap}: agreement with a {@link HashMap} under
+ * random puts and removals, and the size of the backing arrays.
+ */
+class LongBalanceMapTest {
+
+	private static final int ACCOUNTS = 100_000;
+
+	/**
+	 * Applies random puts and removals over a small key space, forcing collisions,
+	 * rehashes and backward shifts, and compares every key with a reference map.
+	 */
+	@Test
+	void shouldMatchReferenceMapUnderRandomOperations() {
+		LongBalanceMap map = new LongBalanceMap(4);
+		Map<Long, Long> reference = new HashMap<>();
+		Random random = new Random(42);
+
+		for (int i = 0; i < 200_000; i++) {
+			long id = 1 + random.nextInt(5_000);
+			if (random.nextInt(3) == 0) {
+				map.remove(id);
+				reference.remove(id);
+			} else {
+				long value = random.nextLong();
+				map.put(id, value);
+				reference.put(id, value);
+			}
+		}
+
+		assertEquals(reference.size(), map.size());
+		for (long id = 1; id <= 5_000; id++) {
+			assertEquals(reference.containsKey(id), map.containsKey(id));
+			assertEquals((long) reference.getOrDefault(id, -1L), map.get(id, -1L));
+		}
+	}
+
+	@Test
+	void shouldAddOnlyToPresentKeys() {
+		assertFalse(new LongBalanceMap(1).add(7L, 1L));
+
+		LongBalanceMap map = new LongBalanceMap(1);
+		map.put(7L, 10L);
+		assertTrue(map.add(7L, -4L));
+		assertEquals(6L, map.get(7L, 0L));
+	}
+
+	/**
+	 * Fills a table sized for its accounts and checks that it never rehashed, so
+	 * its arrays hold two longs per slot and nothing else.
+	 */
+	@Test
+	void shouldKeepArraysSizedForExpectedAccounts() {
+		LongBalanceMap table = new LongBalanceMap(ACCOUNTS);
+		long footprint = table.footprintBytes();
+		for (long id = 1; id <= ACCOUNTS; id++) {
+			table.put(id, id * 10_000);
+		}
+
+		assertEquals(ACCOUNTS, table.size());
+		assertEquals(footprint, table.footprintBytes());
+		assertEquals(2 * (16 + 262_144L * Long.BYTES), footprint);
+	}
+}
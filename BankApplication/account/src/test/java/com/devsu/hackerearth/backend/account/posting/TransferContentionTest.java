@@ -0,0 +1,105 @@
+package com.devsu.hackerearth.backend.account.posting;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.devsu.hackerearth.backend.account.exception.InsufficientBalanceException;
+import com.devsu.hackerearth.backend.account.model.dto.AccountDto;
+import com.devsu.hackerearth.backend.account.model.dto.TransferDto;
+import com.devsu.hackerearth.backend.account.service.AccountService;
+import com.devsu.hackerearth.backend.account.service.TransactionService;
+import com.devsu.hackerearth.backend.account.type.AccountType;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Contention test for transfers: many threads move random amounts in both
+ * directions among a small set of hot accounts. Checks that no transfer
+ * deadlocks, that money is conserved and that no balance goes negative, and
+ * logs the achieved throughput.
+ */
+@Slf4j
+@SpringBootTest
+class TransferContentionTest {
+
+	private static final int HOT_ACCOUNTS = 4;
+	private static final int THREADS = 32;
+	private static final int TRANSFERS_PER_THREAD = 100;
+	private static final BigDecimal OPENING_BALANCE = new BigDecimal("500.0000");
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Test
+	void shouldConserveFundsUnderContention() throws Exception {
+		List<Long> accountIds = new ArrayList<>(HOT_ACCOUNTS);
+		for (int i = 0; i < HOT_ACCOUNTS; i++) {
+			accountIds.add(accountService.create(new AccountDto(null, null, AccountType.CHECKING, OPENING_BALANCE,
+					OPENING_BALANCE, true, 1L)).getId());
+		}
+
+		AtomicInteger rejected = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		long started;
+		try {
+			List<Future<?>> futures = new ArrayList<>(THREADS);
+			for (int t = 0; t < THREADS; t++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					ThreadLocalRandom random = ThreadLocalRandom.current();
+					for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+						int from = random.nextInt(HOT_ACCOUNTS);
+						int to = (from + 1 + random.nextInt(HOT_ACCOUNTS - 1)) % HOT_ACCOUNTS;
+						BigDecimal amount = BigDecimal.valueOf(1 + random.nextInt(50));
+						try {
+							transactionService.transfer(
+									new TransferDto(accountIds.get(from), accountIds.get(to), amount));
+						} catch (InsufficientBalanceException e) {
+							rejected.incrementAndGet();
+						}
+					}
+					return null;
+				}));
+			}
+			started = System.nanoTime();
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get(2, TimeUnit.MINUTES);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+
+		BigDecimal total = BigDecimal.ZERO;
+		for (Long accountId : accountIds) {
+			BigDecimal balance = accountService.getById(accountId).getCurrentBalance();
+			assertTrue(balance.signum() >= 0);
+			total = total.add(balance);
+		}
+		assertEquals(0, OPENING_BALANCE.multiply(BigDecimal.valueOf(HOT_ACCOUNTS)).compareTo(total));
+
+		log.info("[transfer-contention] threads={} accounts={} transfers={} rejected={} throughput={}/s",
+				THREADS, HOT_ACCOUNTS, THREADS * TRANSFERS_PER_THREAD, rejected.get(),
+				(long) (THREADS * TRANSFERS_PER_THREAD / seconds));
+	}
+}
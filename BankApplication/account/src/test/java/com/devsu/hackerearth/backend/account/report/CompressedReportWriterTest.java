@@ -0,0 +1,118 @@
+package com.devsu.hackerearth.backend.account.report;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.devsu.hackerearth.backend.account.dto.AccountDataDto;
+import com.devsu.hackerearth.backend.account.dto.ClientData;
+import com.devsu.hackerearth.backend.account.dto.ReportPeriod;
+import com.devsu.hackerearth.backend.account.dto.ReportResponseEvent;
+import com.devsu.hackerearth.backend.account.dto.TransactionSummaryDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Checks that {@link CompressedReportWriter} produces the same JSON document as
+ * serializing the whole {@link ReportResponseEvent}, whether the report arrives
+ * in one message or in chunks splitting an account, and that the stored form
+ * is under a quarter of the JSON size.
+ */
+class CompressedReportWriterTest {
+
+	private static final int ACCOUNTS = 5;
+	private static final int TRANSACTIONS = 2_000;
+	private static final int CHUNK = 700;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void shouldMatchSerializedReportWhenWrittenInOneMessage() throws Exception {
+		ReportResponseEvent report = report();
+
+		CompressedReport compressed = CompressedReportWriter.write(objectMapper, report);
+
+		byte[] expected = objectMapper.writeValueAsBytes(report);
+		assertArrayEquals(expected, compressed.toJson());
+		assertEquals(expected.length, compressed.getJsonLength());
+	}
+
+	@Test
+	void shouldMatchSerializedReportWhenChunksSplitAccounts() throws Exception {
+		ReportResponseEvent report = report();
+		List<List<AccountDataDto>> chunks = chunk(report.getAccounts());
+
+		CompressedReportWriter writer = null;
+		for (int i = 0; i < chunks.size(); i++) {
+			ReportResponseEvent message = new ReportResponseEvent(report.getClient(), report.getReportPeriod(),
+					chunks.get(i), report.getCorrelationId(), i, i == chunks.size() - 1);
+			if (writer == null) {
+				writer = new CompressedReportWriter(objectMapper, message);
+			}
+			writer.append(message.getAccounts());
+		}
+		CompressedReport compressed = writer.finish();
+
+		assertEquals(chunks.size(), writer.getChunks());
+		assertArrayEquals(objectMapper.writeValueAsBytes(report), compressed.toJson());
+	}
+
+	@Test
+	void shouldStoreReportInAFractionOfItsJsonSize() {
+		CompressedReport compressed = CompressedReportWriter.write(objectMapper, report());
+
+		assertTrue(compressed.getGzip().length * 4L < compressed.getJsonLength());
+	}
+
+	private ReportResponseEvent report() {
+		ClientData client = new ClientData(1L, "Jose Lema", "1234567890", "M", 35, "098254785",
+				"Otavalo sn y principal");
+		ReportPeriod period = new ReportPeriod();
+		period.setFrom("2024-01-01");
+		period.setTo("2024-12-31");
+		List<AccountDataDto> accounts = new ArrayList<>();
+		for (int a = 0; a < ACCOUNTS; a++) {
+			List<TransactionSummaryDTO> transactions = new ArrayList<>();
+			long balance = 1_000;
+			for (int t = 0; t < TRANSACTIONS; t++) {
+				long amount = t % 3 == 0 ? -25 : 40;
+				balance += amount;
+				transactions.add(new TransactionSummaryDTO(amount < 0 ? "WITHDRAWAL" : "DEPOSIT",
+						String.format("2024-%02d-%02d", 1 + t % 12, 1 + t % 28), amount + ".00", balance + ".00"));
+			}
+			accounts.add(new AccountDataDto("47875" + a, "SAVINGS", new BigDecimal("1000.00"),
+					BigDecimal.valueOf(balance).setScale(2), transactions));
+		}
+		return new ReportResponseEvent(client, period, accounts, "correlation-1", null, null);
+	}
+
+	private static List<List<AccountDataDto>> chunk(List<AccountDataDto> accounts) {
+		List<List<AccountDataDto>> chunks = new ArrayList<>();
+		List<AccountDataDto> current = new ArrayList<>();
+		int size = 0;
+		for (AccountDataDto account : accounts) {
+			List<TransactionSummaryDTO> transactions = account.getTransactions();
+			for (int from = 0; from < transactions.size();) {
+				int to = Math.min(transactions.size(), from + CHUNK - size);
+				current.add(new AccountDataDto(account.getNumber(), account.getType(), account.getInitialAmount(),
+						account.getCurrentBalance(), transactions.subList(from, to)));
+				size += to - from;
+				from = to;
+				if (size == CHUNK) {
+					chunks.add(current);
+					current = new ArrayList<>();
+					size = 0;
+				}
+			}
+		}
+		if (!current.isEmpty()) {
+			chunks.add(current);
+		}
+		return chunks;
+	}
+}
@@ -0,0 +1,188 @@
+package com.devsu.hackerearth.backend.account.report;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Restart, corruption and compaction tests for {@link DiskReportStore}, and a
+ * check that {@link ReportStore} serves reports from disk after a restart.
+ */
+class DiskReportStoreTest {
+
+	private static final int SMALL_SEGMENT = 4096;
+
+	@TempDir
+	Path directory;
+
+	private final Random random = new Random(42);
+
+	/**
+	 * Stores, supersedes and removes reports, restarts the store and checks that
+	 * exactly the latest live reports are recovered, across rotated segments.
+	 */
+	@Test
+	void shouldRecoverLatestReportsAfterRestart() throws Exception {
+		DiskReportStore store = open();
+		long expiresAt = System.currentTimeMillis() + 60_000;
+		for (int i = 0; i < 20; i++) {
+			store.put("report-" + i, report(500), expiresAt);
+		}
+		CompressedReport latest = report(700);
+		store.put("report-3", latest, expiresAt);
+		store.remove("report-4");
+		store.close();
+		assertTrue(segments().size() > 2);
+
+		DiskReportStore restarted = open();
+
+		assertEquals(19, restarted.size());
+		assertNull(restarted.get("report-4"));
+		StoredReport recovered = restarted.get("report-3");
+		assertArrayEquals(latest.getGzip(), recovered.report.getGzip());
+		assertEquals(latest.getJsonLength(), recovered.report.getJsonLength());
+		assertEquals(expiresAt, recovered.expiresAt);
+		restarted.close();
+	}
+
+	/**
+	 * Corrupts the last report of the store and checks that recovery keeps the
+	 * reports before it and ignores the corrupt one.
+	 */
+	@Test
+	void shouldIgnoreCorruptRecord() throws Exception {
+		DiskReportStore store = open();
+		long expiresAt = System.currentTimeMillis() + 60_000;
+		store.put("first", report(100), expiresAt);
+		store.put("second", report(100), expiresAt);
+		store.close();
+
+		Path segment = segments().get(0);
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+			int secondRecord = DiskReportStore.HEADER_BYTES + DiskReportStore.FIXED_PAYLOAD_BYTES + "first".length()
+					+ 100;
+			channel.write(ByteBuffer.wrap(new byte[] { 1, 2, 3 }), secondRecord + 40);
+		}
+
+		DiskReportStore restarted = open();
+		assertNotNull(restarted.get("first"));
+		assertNull(restarted.get("second"));
+		restarted.close();
+	}
+
+	/**
+	 * Fills several segments with reports that expire, then checks that
+	 * compaction deletes those segments while the live report survives it and a
+	 * restart.
+	 */
+	@Test
+	void shouldDeleteExpiredSegmentsOnCompaction() throws Exception {
+		DiskReportStore store = open();
+		long expired = System.currentTimeMillis() - 1;
+		for (int i = 0; i < 30; i++) {
+			store.put("old-" + i, report(500), expired);
+		}
+		CompressedReport live = report(500);
+		store.put("live", live, System.currentTimeMillis() + 60_000);
+		int before = segments().size();
+
+		assertEquals(30, store.compact());
+
+		assertTrue(segments().size() < before);
+		assertEquals(1, store.size());
+		store.close();
+
+		DiskReportStore restarted = open();
+		assertEquals(1, restarted.size());
+		assertArrayEquals(live.getGzip(), restarted.get("live").report.getGzip());
+		restarted.close();
+	}
+
+	/**
+	 * Compacts a segment whose two live reports fill the current segment while
+	 * they are moved, and checks that the segment the first one was moved into is
+	 * not compacted as well once the second one rotates it.
+	 */
+	@Test
+	void shouldKeepReportsMovedIntoRotatedSegment() throws Exception {
+		DiskReportStore store = open();
+		long live = System.currentTimeMillis() + 60_000;
+		long expired = System.currentTimeMillis() - 1;
+		CompressedReport first = report(300);
+		CompressedReport second = report(300);
+		store.put("a", first, live);
+		store.put("b", second, live);
+		for (int i = 0; i < 6; i++) {
+			store.put(String.format("x-%02d", i), report(970), expired);
+		}
+		// Leaves room in the current segment for one moved report, not two.
+		store.put("x-06", report(666), expired);
+
+		assertEquals(7, store.compact());
+
+		assertArrayEquals(first.getGzip(), store.get("a").report.getGzip());
+		assertArrayEquals(second.getGzip(), store.get("b").report.getGzip());
+		store.close();
+
+		DiskReportStore restarted = open();
+		assertEquals(2, restarted.size());
+		assertArrayEquals(first.getGzip(), restarted.get("a").report.getGzip());
+		restarted.close();
+	}
+
+	/**
+	 * Stores a report through {@link ReportStore}, restarts both stores and checks
+	 * that the report is read back from disk once and then served from memory.
+	 */
+	@Test
+	void shouldServeReportFromDiskAfterRestart() throws Exception {
+		ReportProperties properties = new ReportProperties();
+		DiskReportStore disk = open();
+		CompressedReport report = report(1_000);
+		new ReportStore(properties, disk).put("report", report);
+		disk.close();
+
+		DiskReportStore restartedDisk = open();
+		ReportStore restarted = new ReportStore(properties, restartedDisk);
+
+		assertArrayEquals(report.getGzip(), restarted.get("report").getGzip());
+		assertNotNull(restarted.get("report"));
+		assertEquals(1, restarted.stats().getDiskHits());
+		assertEquals(1, restarted.stats().getEntries());
+		restartedDisk.close();
+	}
+
+	private DiskReportStore open() throws IOException {
+		DiskReportStore store = new DiskReportStore(directory, SMALL_SEGMENT, false);
+		store.open();
+		return store;
+	}
+
+	private CompressedReport report(int bytes) {
+		byte[] gzip = new byte[bytes];
+		random.nextBytes(gzip);
+		return new CompressedReport(gzip, bytes * 10L);
+	}
+
+	private List<Path> segments() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.sorted().collect(Collectors.toList());
+		}
+	}
+}
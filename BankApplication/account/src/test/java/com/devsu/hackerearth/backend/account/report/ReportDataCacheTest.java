@@ -0,0 +1,144 @@
+package com.devsu.hackerearth.backend.account.report;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.devsu.hackerearth.backend.account.dto.AccountDataDto;
+import com.devsu.hackerearth.backend.account.dto.TransactionSummaryDTO;
+import com.devsu.hackerearth.backend.account.mapper.TransactionSummaryMapper;
+import com.devsu.hackerearth.backend.account.model.Account;
+import com.devsu.hackerearth.backend.account.model.Transaction;
+import com.devsu.hackerearth.backend.account.type.Money;
+
+/**
+ * Checks that cached report data is patched by postings instead of being
+ * dropped, that a fill overlapping a posting or a change to the client's
+ * accounts is not cached, and that the least recently used periods are evicted
+ * beyond the total transaction budget.
+ */
+class ReportDataCacheTest {
+
+	private static final Long CLIENT = 1L;
+	private static final LocalDate START = LocalDate.of(2024, 5, 1);
+	private static final LocalDate END = LocalDate.of(2024, 5, 31);
+
+	private final ReportProperties properties = new ReportProperties();
+	private final ReportDataCache cache = new ReportDataCache(properties, new TransactionSummaryMapper());
+
+	@Test
+	void shouldPatchCachedPeriodWithPosting() {
+		fill(new TransactionSummaryDTO("DEPOSIT", "2024-05-02", "10.00", "10.00"));
+
+		cache.patchAfterCommit(List.of(transaction(7L, LocalDate.of(2024, 5, 20), "5", "15")));
+		cache.patchAfterCommit(List.of(transaction(7L, LocalDate.of(2024, 6, 1), "1", "16")));
+
+		List<AccountDataDto> data = cache.get(CLIENT, START, END);
+		assertEquals(1, data.size());
+		assertEquals(2, data.get(0).getTransactions().size());
+		assertEquals("2024-05-20", data.get(0).getTransactions().get(1).getDate());
+		assertEquals(0, new BigDecimal("16").compareTo(data.get(0).getCurrentBalance()));
+		assertEquals(2, cache.stats().getPatches());
+	}
+
+	@Test
+	void shouldReturnSnapshotsUnchangedByLaterPostings() {
+		fill(new TransactionSummaryDTO("DEPOSIT", "2024-05-02", "10.00", "10.00"));
+		List<AccountDataDto> before = cache.get(CLIENT, START, END);
+
+		cache.patchAfterCommit(List.of(transaction(7L, LocalDate.of(2024, 5, 20), "5", "15")));
+
+		assertEquals(1, before.get(0).getTransactions().size());
+		assertEquals(0, BigDecimal.TEN.compareTo(before.get(0).getCurrentBalance()));
+		assertThrows(UnsupportedOperationException.class, () -> before.get(0).getTransactions().clear());
+		assertEquals(2, cache.get(CLIENT, START, END).get(0).getTransactions().size());
+	}
+
+	@Test
+	void shouldEvictLeastRecentlyUsedPeriodsBeyondTotalTransactions() {
+		properties.setDataCacheMaxTotalTransactions(3);
+		LocalDate june = LocalDate.of(2024, 6, 1);
+		LocalDate juneEnd = LocalDate.of(2024, 6, 30);
+		fill(new TransactionSummaryDTO("DEPOSIT", "2024-05-02", "10.00", "10.00"),
+				new TransactionSummaryDTO("DEPOSIT", "2024-05-03", "10.00", "20.00"));
+		ReportDataCache.Fill fill = cache.startFill(CLIENT, june, juneEnd);
+		fill.setAccounts(accounts());
+		fill.addTransaction(7L, new TransactionSummaryDTO("DEPOSIT", "2024-06-02", "10.00", "30.00"));
+		fill.complete();
+
+		assertNotNull(cache.get(CLIENT, START, END));
+		assertEquals(3, cache.stats().getTransactions());
+
+		cache.patchAfterCommit(List.of(transaction(7L, LocalDate.of(2024, 6, 20), "5", "35")));
+
+		assertNull(cache.get(CLIENT, june, juneEnd));
+		assertEquals(2, cache.get(CLIENT, START, END).get(0).getTransactions().size());
+		assertEquals(2, cache.stats().getTransactions());
+	}
+
+	@Test
+	void shouldNotCacheFillOverlappedByPosting() {
+		ReportDataCache.Fill fill = cache.startFill(CLIENT, START, END);
+		fill.setAccounts(accounts());
+		cache.patchAfterCommit(List.of(transaction(7L, LocalDate.of(2024, 5, 20), "5", "15")));
+		fill.complete();
+
+		assertNull(cache.get(CLIENT, START, END));
+	}
+
+	@Test
+	void shouldDropClientPeriodsWhenAccountsChange() {
+		fill();
+
+		cache.invalidateClientAfterCommit(CLIENT);
+
+		assertNull(cache.get(CLIENT, START, END));
+		assertEquals(0, cache.stats().getEntries());
+	}
+
+	@Test
+	void shouldNotCachePeriodAboveTransactionLimit() {
+		properties.setDataCacheMaxTransactions(1);
+
+		fill(new TransactionSummaryDTO("DEPOSIT", "2024-05-02", "10.00", "10.00"),
+				new TransactionSummaryDTO("DEPOSIT", "2024-05-03", "10.00", "20.00"));
+
+		assertNull(cache.get(CLIENT, START, END));
+	}
+
+	private void fill(TransactionSummaryDTO... transactions) {
+		ReportDataCache.Fill fill = cache.startFill(CLIENT, START, END);
+		fill.setAccounts(accounts());
+		for (TransactionSummaryDTO transaction : transactions) {
+			fill.addTransaction(7L, transaction);
+		}
+		fill.complete();
+	}
+
+	private static Map<Long, AccountDataDto> accounts() {
+		Map<Long, AccountDataDto> accounts = new LinkedHashMap<>();
+		accounts.put(7L, new AccountDataDto("478758", "SAVINGS", BigDecimal.ZERO, BigDecimal.TEN, null));
+		return accounts;
+	}
+
+	private static Transaction transaction(Long accountId, LocalDate date, String amount, String balance) {
+		Account account = new Account();
+		account.setId(accountId);
+		Transaction transaction = new Transaction();
+		transaction.setAccount(account);
+		transaction.setDate(date);
+		transaction.setType("DEPOSIT");
+		transaction.setAmount(Money.of(new BigDecimal(amount)));
+		transaction.setBalance(Money.of(new BigDecimal(balance)));
+		return transaction;
+	}
+}
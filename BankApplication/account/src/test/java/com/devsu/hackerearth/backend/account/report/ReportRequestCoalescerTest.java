@@ -0,0 +1,109 @@
+package com.devsu.hackerearth.backend.account.report;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+import com.devsu.hackerearth.backend.account.model.dto.ReportCoalescingStatsDto;
+
+/**
+ * Checks which report requests {@link ReportRequestCoalescer} joins into an
+ * existing job: same client and period while in flight or recently completed
+ * and still stored, but not after the job failed or its report is gone.
+ */
+class ReportRequestCoalescerTest {
+
+	private static final LocalDate START = LocalDate.of(2024, 1, 1);
+	private static final LocalDate END = LocalDate.of(2024, 1, 31);
+
+	private final ReportProperties properties = new ReportProperties();
+	private final ReportStore store = new ReportStore(properties, (DiskReportStore) null);
+	private final ReportRequestCoalescer coalescer = new ReportRequestCoalescer(store, properties);
+
+	@Test
+	void shouldJoinInFlightRequestForSameClientAndPeriod() {
+		ReportRequestCoalescer.Ticket first = coalescer.join(1L, START, END);
+		ReportRequestCoalescer.Ticket second = coalescer.join(1L, START, END);
+		ReportRequestCoalescer.Ticket otherPeriod = coalescer.join(1L, START, END.plusDays(1));
+		ReportRequestCoalescer.Ticket otherClient = coalescer.join(2L, START, END);
+
+		assertFalse(first.isCoalesced());
+		assertTrue(second.isCoalesced());
+		assertEquals(first.getCorrelationId(), second.getCorrelationId());
+		assertFalse(otherPeriod.isCoalesced());
+		assertFalse(otherClient.isCoalesced());
+
+		ReportCoalescingStatsDto stats = coalescer.stats();
+		assertEquals(3, stats.getExecuted());
+		assertEquals(1, stats.getCoalesced());
+	}
+
+	@Test
+	void shouldJoinCompletedRequestOnlyWhileItsReportIsStored() {
+		String id = coalescer.join(1L, START, END).getCorrelationId();
+		store.put(id, new CompressedReport(new byte[] { 1 }, 1));
+		coalescer.complete(id);
+
+		ReportRequestCoalescer.Ticket joined = coalescer.join(1L, START, END);
+		assertTrue(joined.isCoalesced());
+		assertTrue(joined.isReady());
+
+		store.remove(id);
+		ReportRequestCoalescer.Ticket restarted = coalescer.join(1L, START, END);
+		assertFalse(restarted.isCoalesced());
+		assertNotEquals(id, restarted.getCorrelationId());
+	}
+
+	@Test
+	void shouldStartOverAfterFailedRequest() {
+		String id = coalescer.join(1L, START, END).getCorrelationId();
+		coalescer.abandon(id);
+
+		ReportRequestCoalescer.Ticket retried = coalescer.join(1L, START, END);
+		assertFalse(retried.isCoalesced());
+		assertNotEquals(id, retried.getCorrelationId());
+	}
+
+	/**
+	 * Sends many concurrent requests for one client and period and checks that
+	 * exactly one of them executes.
+	 */
+	@Test
+	void shouldExecuteOnceUnderConcurrentDuplicates() throws Exception {
+		int threads = 32;
+		CountDownLatch start = new CountDownLatch(1);
+		Set<String> ids = ConcurrentHashMap.newKeySet();
+		List<Thread> workers = new ArrayList<>();
+		for (int i = 0; i < threads; i++) {
+			Thread worker = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				ids.add(coalescer.join(1L, START, END).getCorrelationId());
+			});
+			worker.start();
+			workers.add(worker);
+		}
+		start.countDown();
+		for (Thread worker : workers) {
+			worker.join();
+		}
+
+		assertEquals(1, ids.size());
+		assertEquals(1, coalescer.stats().getExecuted());
+		assertEquals(threads - 1, coalescer.stats().getCoalesced());
+	}
+}
@@ -0,0 +1,92 @@
+package com.devsu.hackerearth.backend.account.report;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.devsu.hackerearth.backend.account.dto.ClientData;
+import com.devsu.hackerearth.backend.account.dto.ReportResponseEvent;
+import com.devsu.hackerearth.backend.account.model.dto.ReportStoreStatsDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Checks the limits of {@link ReportStore}: least recently fetched reports are
+ * evicted first when the entry count or byte budget is exceeded, expired
+ * reports are dropped by the sweep, and the counters track every outcome.
+ */
+class ReportStoreTest {
+
+	@Test
+	void shouldEvictLeastRecentlyFetchedReport() {
+		ReportStore store = store(60, 2, Long.MAX_VALUE);
+		store.put("a", report("a"));
+		store.put("b", report("b"));
+		assertNotNull(store.get("a"));
+
+		store.put("c", report("c"));
+
+		assertNotNull(store.get("a"));
+		assertNull(store.get("b"));
+		assertNotNull(store.get("c"));
+		ReportStoreStatsDto stats = store.stats();
+		assertEquals(2, stats.getEntries());
+		assertEquals(1, stats.getEvictions());
+		assertEquals(3, stats.getHits());
+		assertEquals(1, stats.getMisses());
+	}
+
+	@Test
+	void shouldStayWithinByteBudget() {
+		Map<String, CompressedReport> reports = new LinkedHashMap<>();
+		for (String id : List.of("a", "b", "c", "d", "e")) {
+			reports.put(id, report(id));
+		}
+		long lastThreeBytes = reports.get("c").getGzip().length + reports.get("d").getGzip().length
+				+ reports.get("e").getGzip().length;
+
+		ReportStore store = store(60, 10, lastThreeBytes);
+		reports.forEach(store::put);
+
+		ReportStoreStatsDto stats = store.stats();
+		assertEquals(3, stats.getEntries());
+		assertEquals(lastThreeBytes, stats.getBytes());
+		assertEquals(2, stats.getEvictions());
+		assertNull(store.get("a"));
+		assertNotNull(store.get("e"));
+	}
+
+	@Test
+	void shouldDropExpiredReportsOnSweep() {
+		ReportStore store = store(0, 10, Long.MAX_VALUE);
+		store.put("a", report("a"));
+		assertNull(store.get("a"));
+
+		store.evictExpired();
+
+		ReportStoreStatsDto stats = store.stats();
+		assertEquals(0, stats.getEntries());
+		assertEquals(0, stats.getBytes());
+		assertEquals(1, stats.getExpirations());
+	}
+
+	private ReportStore store(long ttlMinutes, int maxEntries, long maxBytes) {
+		ReportProperties properties = new ReportProperties();
+		properties.setStoreTtlMinutes(ttlMinutes);
+		properties.setStoreMaxEntries(maxEntries);
+		properties.setStoreMaxBytes(maxBytes);
+		return new ReportStore(properties, (DiskReportStore) null);
+	}
+
+	private CompressedReport report(String correlationId) {
+		ClientData client = new ClientData();
+		client.setId(1L);
+		return CompressedReportWriter.write(new ObjectMapper(),
+				new ReportResponseEvent(client, null, List.of(), correlationId, null, null));
+	}
+}
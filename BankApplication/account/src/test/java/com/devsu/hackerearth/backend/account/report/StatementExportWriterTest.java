@@ -0,0 +1,71 @@
+package com.devsu.hackerearth.backend.account.report;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import com.devsu.hackerearth.backend.account.dto.StatementRow;
+import com.devsu.hackerearth.backend.account.type.ExportFormat;
+import com.devsu.hackerearth.backend.account.type.Money;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Checks the CSV and NDJSON lines of a statement export, including quoting,
+ * and that rows reach the stream every {@code flushRows} rows rather than only
+ * at the end.
+ */
+class StatementExportWriterTest {
+
+	private static final StatementRow ROW = new StatementRow(7L, 1L, "DEPOSIT", LocalDate.of(2024, 5, 2),
+			Money.of(new BigDecimal("10.5")), Money.of(new BigDecimal("-0.25")));
+
+	@Test
+	void shouldWriteCsvWithHeaderAndQuotedFields() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		StatementExportWriter writer = new StatementExportWriter(ExportFormat.CSV, out, 100);
+		writer.write("478,758", ROW);
+
+		assertEquals(1, writer.finish());
+		assertEquals(StatementExportWriter.CSV_HEADER + "\n7,\"478,758\",2024-05-02,DEPOSIT,10.5000,-0.2500\n",
+				out.toString(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void shouldWriteOneJsonObjectPerLine() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		StatementExportWriter writer = new StatementExportWriter(ExportFormat.NDJSON, out, 100);
+		writer.write("47\"8", ROW);
+		writer.write("225487", ROW);
+		writer.finish();
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+		assertEquals(2, lines.length);
+		JsonNode first = new ObjectMapper().readTree(lines[0]);
+		assertEquals(7L, first.get("transactionId").asLong());
+		assertEquals("47\"8", first.get("accountNumber").asText());
+		assertEquals("2024-05-02", first.get("date").asText());
+		assertEquals(0, new BigDecimal("10.5").compareTo(first.get("amount").decimalValue()));
+		assertEquals(0, new BigDecimal("-0.25").compareTo(first.get("balance").decimalValue()));
+	}
+
+	@Test
+	void shouldFlushEveryChunkOfRows() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		StatementExportWriter writer = new StatementExportWriter(ExportFormat.NDJSON, out, 2);
+		writer.write("225487", ROW);
+		assertEquals(0, out.size());
+
+		writer.write("225487", ROW);
+		int flushed = out.size();
+		assertEquals(2, out.toString(StandardCharsets.UTF_8).split("\n").length);
+
+		writer.write("225487", ROW);
+		assertEquals(flushed, out.size());
+	}
+}
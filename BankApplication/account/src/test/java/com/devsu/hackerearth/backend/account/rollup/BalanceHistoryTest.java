@@ -0,0 +1,80 @@
+package com.devsu.hackerearth.backend.account.rollup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.devsu.hackerearth.backend.account.model.AccountDailyRollup;
+import com.devsu.hackerearth.backend.account.model.dto.AccountDto;
+import com.devsu.hackerearth.backend.account.model.dto.TransactionDto;
+import com.devsu.hackerearth.backend.account.repository.AccountDailyRollupRepository;
+import com.devsu.hackerearth.backend.account.service.AccountService;
+import com.devsu.hackerearth.backend.account.service.TransactionService;
+import com.devsu.hackerearth.backend.account.type.AccountType;
+import com.devsu.hackerearth.backend.account.type.TransactionType;
+
+/**
+ * Checks that the balance as of a day is the closing balance of the nearest
+ * earlier checkpoint, and the initial amount before any posting, and that an
+ * overwritten balance is checkpointed.
+ */
+@SpringBootTest
+class BalanceHistoryTest {
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private AccountDailyRollupRepository rollupRepository;
+
+	@Test
+	void shouldAnswerBalanceFromNearestCheckpoint() {
+		LocalDate today = LocalDate.now();
+		AccountDto account = accountService.create(
+				new AccountDto(null, null, AccountType.SAVINGS, BigDecimal.TEN, BigDecimal.TEN, true, 2_021L));
+		transactionService.create(
+				new TransactionDto(null, null, new BigDecimal("5"), TransactionType.DEPOSIT, null, account.getId()));
+
+		assertBalance("15", account, today);
+		assertBalance("15", account, today.plusYears(1));
+		assertBalance("10", account, today.minusDays(1));
+
+		AccountDailyRollup earlier = new AccountDailyRollup();
+		earlier.setAccountId(account.getId());
+		earlier.setDate(today.minusDays(30));
+		earlier.setDepositTotal(BigDecimal.ZERO);
+		earlier.setWithdrawalTotal(new BigDecimal("3"));
+		earlier.setTransactionCount(1);
+		earlier.setClosingBalance(new BigDecimal("7"));
+		rollupRepository.save(earlier);
+
+		assertBalance("7", account, today.minusDays(10));
+		assertBalance("10", account, today.minusDays(31));
+	}
+
+	@Test
+	void shouldCheckpointOverwrittenBalance() {
+		LocalDate today = LocalDate.now();
+		AccountDto account = accountService.create(
+				new AccountDto(null, null, AccountType.SAVINGS, BigDecimal.TEN, BigDecimal.TEN, true, 2_021L));
+
+		accountService.update(new AccountDto(account.getId(), account.getNumber(), account.getType(),
+				BigDecimal.TEN, new BigDecimal("42"), true, account.getClientId()));
+
+		assertBalance("42", account, today);
+		assertBalance("10", account, today.minusDays(1));
+	}
+
+	private void assertBalance(String expected, AccountDto account, LocalDate asOf) {
+		assertEquals(0, new BigDecimal(expected)
+				.compareTo(accountService.getBalanceAsOf(account.getId(), asOf).getBalance()));
+	}
+}
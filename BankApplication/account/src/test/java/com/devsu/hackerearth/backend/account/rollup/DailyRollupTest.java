@@ -0,0 +1,76 @@
+package com.devsu.hackerearth.backend.account.rollup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.devsu.hackerearth.backend.account.model.dto.AccountDto;
+import com.devsu.hackerearth.backend.account.model.dto.AccountSummaryDto;
+import com.devsu.hackerearth.backend.account.model.dto.TransactionDto;
+import com.devsu.hackerearth.backend.account.service.AccountService;
+import com.devsu.hackerearth.backend.account.service.TransactionService;
+import com.devsu.hackerearth.backend.account.type.AccountType;
+import com.devsu.hackerearth.backend.account.type.TransactionType;
+
+/**
+ * Checks that postings keep the daily rollup of their account up to date and
+ * that rebuilding it from history yields the same totals.
+ */
+@SpringBootTest
+class DailyRollupTest {
+
+	private static final Long CLIENT_ID = 2_020L;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private DailyRollupRebuilder rebuilder;
+
+	@Test
+	void shouldMaintainRollupOnPostingAndRebuildItIdentically() {
+		AccountDto account = accountService.create(
+				new AccountDto(null, null, AccountType.SAVINGS, BigDecimal.ZERO, BigDecimal.ZERO, true, CLIENT_ID));
+		post(account, TransactionType.DEPOSIT, "100");
+		post(account, TransactionType.DEPOSIT, "50.5");
+		post(account, TransactionType.WITHDRAWAL, "30");
+
+		AccountSummaryDto maintained = summary();
+		assertTotals(maintained, "150.5", "30", 3, "120.5");
+		assertEquals(1, maintained.getDays().size());
+
+		assertEquals(1, rebuilder.rebuild(account.getId()));
+		AccountSummaryDto rebuilt = summary();
+		assertTotals(rebuilt, "150.5", "30", 3, "120.5");
+		assertEquals(maintained.getDays().size(), rebuilt.getDays().size());
+	}
+
+	private void post(AccountDto account, TransactionType type, String amount) {
+		transactionService.create(new TransactionDto(null, null, new BigDecimal(amount), type, null, account.getId()));
+	}
+
+	private AccountSummaryDto summary() {
+		LocalDate today = LocalDate.now();
+		List<AccountSummaryDto> accounts = transactionService.getDailySummaryByClientIdAndDateBetween(CLIENT_ID,
+				today.minusDays(1), today.plusDays(1));
+		assertEquals(1, accounts.size());
+		return accounts.get(0);
+	}
+
+	private static void assertTotals(AccountSummaryDto summary, String deposits, String withdrawals, long count,
+			String closing) {
+		assertEquals(0, new BigDecimal(deposits).compareTo(summary.getDepositTotal()));
+		assertEquals(0, new BigDecimal(withdrawals).compareTo(summary.getWithdrawalTotal()));
+		assertEquals(count, summary.getTransactionCount());
+		assertEquals(0, new BigDecimal(closing).compareTo(summary.getClosingBalance()));
+	}
+}
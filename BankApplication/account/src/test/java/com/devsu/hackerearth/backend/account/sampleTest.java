@@ -23,6 +23,7 @@ import com.devsu.hackerearth.backend.account.model.Account;
 import com.devsu.hackerearth.backend.account.model.dto.AccountDto;
 import com.devsu.hackerearth.backend.account.service.AccountService;
 import com.devsu.hackerearth.backend.account.type.AccountType;
+import com.devsu.hackerearth.backend.account.type.Money;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -68,7 +69,7 @@ public class sampleTest {
 		account.setNumber("123-456");
 		account.setType("AHORRO");
 		account.setInitialAmount(new BigDecimal("1000.00"));
-		account.setCurrentBalance(new BigDecimal("1000.00"));
+		account.setCurrentBalance(Money.of(new BigDecimal("1000.00")));
 		account.setClientId(7L);
 		account.setActive(true);
 		account.setCreatedBy("admin");
@@ -78,7 +79,7 @@ public class sampleTest {
 		assertEquals("123-456", account.getNumber());
 		assertEquals("AHORRO", account.getType());
 		assertEquals(new BigDecimal("1000.00"), account.getInitialAmount());
-		assertEquals(new BigDecimal("1000.00"), account.getCurrentBalance());
+		assertEquals(Money.of(new BigDecimal("1000.00")), account.getCurrentBalance());
 		assertEquals(7L, account.getClientId());
 		assertTrue(account.isActive());
 		assertEquals("admin", account.getCreatedBy());
@@ -0,0 +1,125 @@
+package com.devsu.hackerearth.backend.account.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devsu.hackerearth.backend.account.dto.AccountDataDto;
+import com.devsu.hackerearth.backend.account.mapper.AccountDataMapper;
+import com.devsu.hackerearth.backend.account.model.Account;
+import com.devsu.hackerearth.backend.account.model.Transaction;
+import com.devsu.hackerearth.backend.account.model.dto.AccountDto;
+import com.devsu.hackerearth.backend.account.model.dto.TransactionDto;
+import com.devsu.hackerearth.backend.account.repository.AccountRepository;
+import com.devsu.hackerearth.backend.account.repository.TransactionRepository;
+import com.devsu.hackerearth.backend.account.type.AccountType;
+import com.devsu.hackerearth.backend.account.type.TransactionType;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compares report assembly with one transaction query per account against the
+ * report read path, which loads the transactions of all accounts with one
+ * query, for clients with 1, 10 and 100 accounts.
+ * Checks that both produce the same report data and logs the average time
+ * per report. Runs only with {@code mvn -P benchmarks test}.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+class ReportAssemblyBenchmarkTest {
+
+	private static final int[] ACCOUNTS_PER_CLIENT = { 1, 10, 100 };
+	private static final int TRANSACTIONS_PER_ACCOUNT = 10;
+	private static final int WARMUP = 20;
+	private static final int ITERATIONS = 100;
+	private static final AtomicLong CLIENT_IDS = new AtomicLong(90_000);
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private AccountDataMapper accountDataMapper;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void shouldAssembleSameReportWithOneQuery() {
+		LocalDate today = LocalDate.now();
+		for (int accounts : ACCOUNTS_PER_CLIENT) {
+			Long clientId = createClient(accounts);
+
+			List<AccountDataDto> perAccount = transactionTemplate.execute(s -> perAccountQueries(clientId, today));
+			List<AccountDataDto> singleQuery = transactionTemplate.execute(s -> singleQuery(clientId, today));
+			assertEquals(perAccount, singleQuery);
+			assertEquals(accounts, singleQuery.size());
+
+			double perAccountMicros = time(() -> perAccountQueries(clientId, today));
+			double singleQueryMicros = time(() -> singleQuery(clientId, today));
+			log.info("[report-assembly] accounts={} transactions={} per-account={}us single-query={}us",
+					accounts, accounts * TRANSACTIONS_PER_ACCOUNT, (long) perAccountMicros, (long) singleQueryMicros);
+		}
+	}
+
+	private List<AccountDataDto> perAccountQueries(Long clientId, LocalDate day) {
+		List<Account> accounts = new ArrayList<>(accountRepository.findActiveByIdClient(clientId).orElse(List.of()));
+		accounts.sort(Comparator.comparing(Account::getId));
+		List<AccountDataDto> accountDataList = new ArrayList<>(accounts.size());
+		for (Account account : accounts) {
+			List<Transaction> transactions = new ArrayList<>(
+					transactionRepository.findByClientIdAndTransactionDateRange(account.getId(), day, day));
+			transactions.sort(Comparator.comparing(Transaction::getDate).thenComparing(Transaction::getId));
+			accountDataList.add(accountDataMapper.toData(account, transactions));
+		}
+		return accountDataList;
+	}
+
+	private List<AccountDataDto> singleQuery(Long clientId, LocalDate day) {
+		return transactionService.getAllByAccountClientIdAndDateBetween(clientId, day, day);
+	}
+
+	private double time(Runnable assembly) {
+		for (int i = 0; i < WARMUP; i++) {
+			transactionTemplate.executeWithoutResult(s -> assembly.run());
+		}
+		long started = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			transactionTemplate.executeWithoutResult(s -> assembly.run());
+		}
+		return (System.nanoTime() - started) / 1_000.0 / ITERATIONS;
+	}
+
+	private Long createClient(int accounts) {
+		Long clientId = CLIENT_IDS.incrementAndGet();
+		for (int a = 0; a < accounts; a++) {
+			Long accountId = accountService.create(new AccountDto(null, null, AccountType.SAVINGS,
+					BigDecimal.TEN, BigDecimal.TEN, true, clientId)).getId();
+			for (int t = 0; t < TRANSACTIONS_PER_ACCOUNT; t++) {
+				transactionService.create(new TransactionDto(null, null, BigDecimal.valueOf(t + 1L),
+						TransactionType.DEPOSIT, null, accountId));
+			}
+		}
+		return clientId;
+	}
+}
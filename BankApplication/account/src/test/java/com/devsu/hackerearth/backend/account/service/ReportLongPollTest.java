@@ -0,0 +1,82 @@
+package com.devsu.hackerearth.backend.account.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.devsu.hackerearth.backend.account.kafka.consumer.ReportResponseListener;
+import com.devsu.hackerearth.backend.account.report.CompressedReport;
+import com.devsu.hackerearth.backend.account.report.DiskReportStore;
+import com.devsu.hackerearth.backend.account.report.ReportEventRegistry;
+import com.devsu.hackerearth.backend.account.report.ReportProperties;
+import com.devsu.hackerearth.backend.account.report.ReportRequestCoalescer;
+import com.devsu.hackerearth.backend.account.report.ReportStore;
+import com.devsu.hackerearth.backend.account.report.ReportWaiters;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Checks that a long-poll request for a report is parked until the report is
+ * published, is answered at once when the report is already stored, and leaves
+ * nothing registered once it completes.
+ */
+class ReportLongPollTest {
+
+	private static final String ID = "correlation-1";
+
+	private final ReportProperties properties = new ReportProperties();
+	private final ReportStore store = new ReportStore(properties, (DiskReportStore) null);
+	private final ReportWaiters waiters = new ReportWaiters();
+	private final ReportEventRegistry events = new ReportEventRegistry(store, properties);
+	private final ReportRequestCoalescer coalescer = new ReportRequestCoalescer(store, properties);
+	private final ReportResponseListener listener = new ReportResponseListener(store, waiters, events, coalescer,
+			properties, new ObjectMapper());
+	private final ReportService reportService = new ReportService(null, properties, store, null, listener, waiters,
+			events, coalescer, null, null, null, null, null);
+
+	@Test
+	void shouldCompleteParkedRequestWhenReportIsPublished() {
+		DeferredResult<ResponseEntity<Object>> result = reportService.awaitReport(ID, 10_000, "gzip");
+
+		assertFalse(result.hasResult());
+		assertEquals(1, waiters.waiting());
+
+		CompressedReport report = new CompressedReport(new byte[] { 1, 2, 3 }, 10);
+		assertEquals(1, waiters.publish(ID, report));
+
+		assertTrue(result.hasResult());
+		@SuppressWarnings("unchecked")
+		ResponseEntity<Object> response = (ResponseEntity<Object>) result.getResult();
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+		assertArrayEquals(report.getGzip(), (byte[]) response.getBody());
+		assertEquals(0, waiters.waiting());
+	}
+
+	@Test
+	void shouldAnswerAtOnceWhenReportIsStored() {
+		store.put(ID, new CompressedReport(new byte[] { 1 }, 1));
+
+		DeferredResult<ResponseEntity<Object>> result = reportService.awaitReport(ID, 10_000, "gzip");
+
+		assertTrue(result.hasResult());
+		assertEquals(0, waiters.waiting());
+	}
+
+	@Test
+	void shouldAnswerNotReadyWithoutWaiting() {
+		DeferredResult<ResponseEntity<Object>> result = reportService.awaitReport(ID, 0, null);
+
+		assertTrue(result.hasResult());
+		@SuppressWarnings("unchecked")
+		ResponseEntity<Object> response = (ResponseEntity<Object>) result.getResult();
+		assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+		assertEquals(0, waiters.waiting());
+	}
+}
@@ -0,0 +1,117 @@
+package com.devsu.hackerearth.backend.account.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devsu.hackerearth.backend.account.dto.AccountDataDto;
+import com.devsu.hackerearth.backend.account.mapper.AccountDataMapper;
+import com.devsu.hackerearth.backend.account.model.dto.AccountDto;
+import com.devsu.hackerearth.backend.account.model.dto.TransactionDto;
+import com.devsu.hackerearth.backend.account.repository.AccountRepository;
+import com.devsu.hackerearth.backend.account.repository.TransactionRepository;
+import com.devsu.hackerearth.backend.account.type.AccountType;
+import com.devsu.hackerearth.backend.account.type.TransactionType;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compares heap allocation and time per report row between mapping managed
+ * {@code Transaction} entities and the read-only {@code TransactionRow}
+ * projection, over one account with a long history. Runs only with
+ * {@code mvn -P benchmarks test}; the row count defaults to 10,000, and
+ * {@code -Dreport.benchmark.rows=1000000} gives a full-size comparison.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+class ReportProjectionBenchmarkTest {
+
+	private static final int ROWS = Integer.getInteger("report.benchmark.rows", 10_000);
+	private static final long CLIENT_ID = 80_001L;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private AccountDataMapper accountDataMapper;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void shouldAllocateLessPerRowWithProjection() {
+		Long accountId = accountService.create(new AccountDto(null, null, AccountType.SAVINGS, BigDecimal.ONE,
+				BigDecimal.ONE, true, CLIENT_ID)).getId();
+		transactionService.importBatch(deposits(accountId));
+		LocalDate today = LocalDate.now();
+
+		long[] entityBytes = new long[1];
+		long entityStarted = System.nanoTime();
+		AccountDataDto fromEntities = measure(entityBytes, () -> transactionTemplate.execute(s -> accountDataMapper
+				.toData(accountRepository.findActiveById(accountId).orElseThrow(),
+						transactionRepository.findByClientIdAndTransactionDateRange(accountId, today, today))));
+		double entitySeconds = (System.nanoTime() - entityStarted) / 1_000_000_000.0;
+
+		long[] projectionBytes = new long[1];
+		long projectionStarted = System.nanoTime();
+		List<AccountDataDto> fromProjection = measure(projectionBytes,
+				() -> transactionService.getAllByAccountClientIdAndDateBetween(CLIENT_ID, today, today));
+		double projectionSeconds = (System.nanoTime() - projectionStarted) / 1_000_000_000.0;
+
+		assertEquals(ROWS, fromEntities.getTransactions().size());
+		assertEquals(ROWS, fromProjection.get(0).getTransactions().size());
+		assertTrue(projectionBytes[0] < entityBytes[0]);
+
+		log.info("[report-projection] rows={} entity={}B/row {}ms projection={}B/row {}ms", ROWS,
+				entityBytes[0] / ROWS, (long) (entitySeconds * 1_000), projectionBytes[0] / ROWS,
+				(long) (projectionSeconds * 1_000));
+	}
+
+	private <T> T measure(long[] allocatedBytes, Supplier<T> read) {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		long before = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+		T result = read.get();
+		allocatedBytes[0] = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+		return result;
+	}
+
+	private Iterator<TransactionDto> deposits(Long accountId) {
+		return new Iterator<>() {
+			private int produced;
+
+			@Override
+			public boolean hasNext() {
+				return produced < ROWS;
+			}
+
+			@Override
+			public TransactionDto next() {
+				produced++;
+				return new TransactionDto(null, null, BigDecimal.ONE, TransactionType.DEPOSIT, null, accountId);
+			}
+		};
+	}
+}
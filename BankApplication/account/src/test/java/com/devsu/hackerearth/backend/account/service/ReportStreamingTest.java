@@ -0,0 +1,111 @@
+package com.devsu.hackerearth.backend.account.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.devsu.hackerearth.backend.account.dto.AccountDataDto;
+import com.devsu.hackerearth.backend.account.dto.ReportRequestEvent;
+import com.devsu.hackerearth.backend.account.dto.ReportResponseEvent;
+import com.devsu.hackerearth.backend.account.kafka.producer.ReportResponseProducer;
+import com.devsu.hackerearth.backend.account.model.dto.AccountDto;
+import com.devsu.hackerearth.backend.account.type.AccountType;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Generates a report over a long transaction history and checks that it is
+ * published as bounded chunks: every transaction is delivered once, no chunk
+ * exceeds the configured size, and only the final chunk is flagged as last.
+ * <p>
+ * The database is file-backed so that the history does not live on the heap.
+ * Run with {@code mvn -P report-streaming test}, which executes this test alone
+ * with {@code -Xmx256m}; the row count defaults to 5,000,000 and can be changed
+ * with {@code -Dreport.stream.rows}.
+ * </p>
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:file:./target/report-streaming-db;LAZY_QUERY_EXECUTION=1",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.show-sql=false",
+		"account.report.chunk-transactions=1000" })
+@Slf4j
+class ReportStreamingTest {
+
+	private static final int ROWS = Integer.getInteger("report.stream.rows", 5_000_000);
+	private static final int CHUNK = 1000;
+	private static final long CLIENT_ID = 70_001L;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private ReportService reportService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@MockBean
+	private ReportResponseProducer reportResponseProducer;
+
+	@Test
+	void shouldStreamLargeReportInBoundedChunks() {
+		Long accountId = accountService.create(new AccountDto(null, null, AccountType.SAVINGS, BigDecimal.ONE,
+				BigDecimal.ONE, true, CLIENT_ID)).getId();
+		accountService.create(new AccountDto(null, null, AccountType.CHECKING, BigDecimal.ONE, BigDecimal.ONE, true,
+				CLIENT_ID));
+		jdbcTemplate.update("INSERT INTO transaction (id, created_by, created_at, date, type, amount, balance, "
+				+ "account_id) SELECT 2000000000 + X, 'report-test', CURRENT_TIMESTAMP, "
+				+ "DATEADD('DAY', -MOD(X, 3650), CURRENT_DATE), 'DEPOSIT', 1, X, ? FROM SYSTEM_RANGE(1, ?)",
+				accountId, ROWS);
+
+		long[] transactions = new long[1];
+		int[] chunks = new int[1];
+		int[] accounts = new int[1];
+		boolean[] lastSeen = new boolean[1];
+		long[] peakHeap = new long[1];
+		doAnswer(invocation -> {
+			ReportResponseEvent chunk = invocation.getArgument(0);
+			assertFalse(lastSeen[0]);
+			assertEquals(chunks[0], chunk.getChunkIndex().intValue());
+			int size = 0;
+			for (AccountDataDto account : chunk.getAccounts()) {
+				size += account.getTransactions() != null ? account.getTransactions().size() : 0;
+				if (account.getTransactions() == null) {
+					accounts[0]++;
+				}
+			}
+			assertTrue(size <= CHUNK);
+			transactions[0] += size;
+			chunks[0]++;
+			lastSeen[0] = chunk.getLastChunk();
+			Runtime runtime = Runtime.getRuntime();
+			peakHeap[0] = Math.max(peakHeap[0], runtime.totalMemory() - runtime.freeMemory());
+			return null;
+		}).when(reportResponseProducer).sendReportResponse(any());
+
+		long started = System.nanoTime();
+		reportService.processReportRequest(new ReportRequestEvent(CLIENT_ID, LocalDate.now().minusYears(10),
+				LocalDate.now(), "report-streaming-test"));
+		double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+
+		assertTrue(lastSeen[0]);
+		assertEquals(ROWS, transactions[0]);
+		assertEquals((ROWS + CHUNK - 1) / CHUNK, chunks[0]);
+		assertEquals(1, accounts[0]);
+
+		log.info("[report-streaming] rows={} chunks={} {}ms peak-heap={}MB max-heap={}MB", ROWS,
+				chunks[0], (long) (seconds * 1_000), peakHeap[0] >> 20, Runtime.getRuntime().maxMemory() >> 20);
+	}
+}
@@ -0,0 +1,84 @@
+package com.devsu.hackerearth.backend.account.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.devsu.hackerearth.backend.account.model.dto.AccountDto;
+import com.devsu.hackerearth.backend.account.model.dto.StatementEntryDto;
+import com.devsu.hackerearth.backend.account.model.dto.StatementPageDto;
+import com.devsu.hackerearth.backend.account.model.dto.TransactionDto;
+import com.devsu.hackerearth.backend.account.type.AccountType;
+import com.devsu.hackerearth.backend.account.type.TransactionType;
+
+/**
+ * Pages through a statement spanning two accounts and checks that every row is
+ * returned once, in account and posting order, and that the last page has no
+ * cursor.
+ */
+@SpringBootTest
+class StatementPaginationTest {
+
+	private static final Long CLIENT_ID = 2_023L;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private ReportService reportService;
+
+	@Test
+	void shouldReturnEveryRowOnceAcrossPages() {
+		AccountDto first = createAccount();
+		AccountDto second = createAccount();
+		List<Long> posted = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			posted.add(deposit(first));
+		}
+		for (int i = 0; i < 3; i++) {
+			posted.add(deposit(second));
+		}
+
+		LocalDate today = LocalDate.now();
+		List<Long> read = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			StatementPageDto page = reportService.getStatementPage(CLIENT_ID, today, today, cursor, 3);
+			for (StatementEntryDto entry : page.getEntries()) {
+				read.add(entry.getTransactionId());
+			}
+			cursor = page.getNextCursor();
+			pages++;
+			if (pages < 3) {
+				assertNotNull(cursor);
+			}
+		} while (cursor != null);
+
+		assertEquals(3, pages);
+		assertEquals(posted, read);
+		assertNull(cursor);
+	}
+
+	private AccountDto createAccount() {
+		return accountService.create(
+				new AccountDto(null, null, AccountType.SAVINGS, BigDecimal.ZERO, BigDecimal.ZERO, true, CLIENT_ID));
+	}
+
+	private Long deposit(AccountDto account) {
+		return transactionService.create(
+				new TransactionDto(null, null, BigDecimal.ONE, TransactionType.DEPOSIT, null, account.getId())).getId();
+	}
+}
@@ -0,0 +1,107 @@
+package com.devsu.hackerearth.backend.account.statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.devsu.hackerearth.backend.account.model.StatementBatchCheckpoint;
+import com.devsu.hackerearth.backend.account.model.dto.AccountDto;
+import com.devsu.hackerearth.backend.account.model.dto.StatementBatchStatusDto;
+import com.devsu.hackerearth.backend.account.model.dto.TransactionDto;
+import com.devsu.hackerearth.backend.account.repository.StatementBatchCheckpointRepository;
+import com.devsu.hackerearth.backend.account.service.AccountService;
+import com.devsu.hackerearth.backend.account.service.TransactionService;
+import com.devsu.hackerearth.backend.account.type.AccountType;
+import com.devsu.hackerearth.backend.account.type.StatementBatchState;
+import com.devsu.hackerearth.backend.account.type.TransactionType;
+
+/**
+ * Resumes a month-end batch from a checkpoint left by a failed run, checks
+ * that only the clients after it are built, then reruns the completed month
+ * from the start. Statements are written to a fresh directory, as the
+ * in-memory database they are built from does not outlive the run.
+ */
+@SpringBootTest(properties = { "account.report.statement-batch-chunk-clients=1",
+		"account.report.statement-batch-threads=2", "account.report.statement-batch-queue-capacity=1",
+		"account.report.statement-batch-resume-on-startup=false" })
+class MonthEndStatementBatchTest {
+
+	private static final Long FIRST_CLIENT = 2_024_001L;
+	private static final Long SECOND_CLIENT = 2_024_002L;
+	private static final Long THIRD_CLIENT = 2_024_003L;
+
+	@DynamicPropertySource
+	static void statementDirectory(DynamicPropertyRegistry registry) throws IOException {
+		String directory = Files.createTempDirectory("statement-batch-test").toString();
+		registry.add("account.report.statement-dir", () -> directory);
+	}
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private MonthEndStatementBatch batch;
+
+	@Autowired
+	private StatementBatchCheckpointRepository checkpointRepository;
+
+	@Autowired
+	private StatementStore statementStore;
+
+	@Test
+	void shouldResumeAfterLastCompletedChunk() {
+		YearMonth month = YearMonth.now();
+		for (Long clientId : new Long[] { FIRST_CLIENT, SECOND_CLIENT, THIRD_CLIENT }) {
+			AccountDto account = accountService.create(
+					new AccountDto(null, null, AccountType.SAVINGS, BigDecimal.ZERO, BigDecimal.ZERO, true, clientId));
+			transactionService.create(
+					new TransactionDto(null, null, BigDecimal.TEN, TransactionType.DEPOSIT, null, account.getId()));
+		}
+
+		StatementBatchCheckpoint checkpoint = new StatementBatchCheckpoint();
+		checkpoint.setMonth(month.toString());
+		checkpoint.setState(StatementBatchState.FAILED);
+		checkpoint.setLastClientId(FIRST_CLIENT);
+		checkpoint.setCompletedChunks(1);
+		checkpoint.setCompletedClients(1);
+		checkpoint.setStartedAt(LocalDateTime.now());
+		checkpoint.setUpdatedAt(LocalDateTime.now());
+		checkpointRepository.save(checkpoint);
+
+		StatementBatchStatusDto status = batch.run(month);
+
+		assertEquals(StatementBatchState.COMPLETED, status.getState());
+		assertEquals(0L, status.getEtaMillis());
+		assertFalse(statementStore.contains(month, FIRST_CLIENT));
+		assertTrue(statementStore.contains(month, SECOND_CLIENT));
+		assertTrue(statementStore.contains(month, THIRD_CLIENT));
+		String statement = new String(
+				statementStore.get(month, THIRD_CLIENT).toJson(),
+				StandardCharsets.UTF_8);
+		assertTrue(statement.contains("\"id\":" + THIRD_CLIENT));
+		StatementBatchCheckpoint saved = checkpointRepository.findById(month.toString()).get();
+		assertEquals(StatementBatchState.COMPLETED, saved.getState());
+		assertTrue(saved.getLastClientId() >= THIRD_CLIENT);
+
+		status = batch.run(month);
+
+		assertEquals(StatementBatchState.COMPLETED, status.getState());
+		assertTrue(statementStore.contains(month, FIRST_CLIENT));
+	}
+}
@@ -0,0 +1,83 @@
+package com.devsu.hackerearth.backend.account.type;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmark comparing {@link Money} with the {@link BigDecimal} path for
+ * the work done per posting (apply a signed amount, check the balance is not
+ * negative) and per report row (format amount and balance).
+ * <p>
+ * Not run by the test phase. Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.devsu.hackerearth.backend.account.type.MoneyBenchmark},
+ * adding {@code -prof gc} through the options to see allocation rates.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+	private BigDecimal decimalBalance;
+	private BigDecimal decimalAmount;
+	private Money moneyBalance;
+	private Money moneyAmount;
+
+	@Setup
+	public void setUp() {
+		decimalBalance = new BigDecimal("15234.5000");
+		decimalAmount = new BigDecimal("125.2500");
+		moneyBalance = Money.of(decimalBalance);
+		moneyAmount = Money.of(decimalAmount);
+	}
+
+	@Benchmark
+	public BigDecimal postWithBigDecimal() {
+		BigDecimal newBalance = decimalBalance.add(decimalAmount.negate());
+		if (newBalance.compareTo(BigDecimal.ZERO) < 0) {
+			throw new IllegalStateException();
+		}
+		return newBalance;
+	}
+
+	@Benchmark
+	public Money postWithMoney() {
+		Money newBalance = moneyBalance.add(moneyAmount.negate());
+		if (newBalance.isNegative()) {
+			throw new IllegalStateException();
+		}
+		return newBalance;
+	}
+
+	@Benchmark
+	public int formatWithBigDecimal() {
+		return decimalAmount.toPlainString().length() + decimalBalance.toPlainString().length();
+	}
+
+	@Benchmark
+	public int formatWithMoney() {
+		return moneyAmount.toPlainString().length() + moneyBalance.toPlainString().length();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(MoneyBenchmark.class.getSimpleName()).build()).run();
+	}
+}
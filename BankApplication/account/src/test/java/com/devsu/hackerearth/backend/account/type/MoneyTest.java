@@ -0,0 +1,51 @@
+package com.devsu.hackerearth.backend.account.type;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+class MoneyTest {
+
+	@Test
+	void shouldFormatLikeScaleFourBigDecimal() {
+		String[] amounts = { "0", "1", "-1", "0.5", "-0.0001", "12345.6789", "-987654321.1000" };
+		for (String amount : amounts) {
+			BigDecimal expected = new BigDecimal(amount).setScale(Money.SCALE);
+			assertEquals(expected.toPlainString(), Money.of(new BigDecimal(amount)).toPlainString());
+		}
+		assertEquals(BigDecimal.valueOf(Long.MIN_VALUE, Money.SCALE).toPlainString(),
+				Money.ofUnits(Long.MIN_VALUE).toPlainString());
+	}
+
+	@Test
+	void shouldRoundTripThroughBigDecimal() {
+		Money money = Money.of(new BigDecimal("250.1250"));
+		assertEquals(2_501_250L, money.getUnits());
+		assertEquals(0, new BigDecimal("250.125").compareTo(money.toBigDecimal()));
+		assertEquals(money, Money.of(new BigDecimal("250.125000")));
+		assertEquals(-70_000L, Money.of(BigDecimal.valueOf(-7)).getUnits());
+	}
+
+	@Test
+	void shouldRejectLossyOrOverflowingValues() {
+		assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("0.00001")));
+		assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1E+16")));
+		assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1000000000000000")));
+		assertThrows(ArithmeticException.class, () -> Money.ofUnits(Long.MAX_VALUE).add(Money.ofUnits(1)));
+		assertThrows(ArithmeticException.class, () -> Money.ofUnits(Long.MIN_VALUE).negate());
+	}
+
+	@Test
+	void shouldAddSubtractAndCompare() {
+		Money ten = Money.of(BigDecimal.TEN);
+		Money three = Money.of(new BigDecimal("3.5"));
+		assertEquals(Money.of(new BigDecimal("13.5")), ten.add(three));
+		assertTrue(three.subtract(ten).isNegative());
+		assertTrue(ten.compareTo(three) > 0);
+		assertEquals(0, ten.add(ten.negate()).signum());
+	}
+}
@@ -2,6 +2,8 @@ package com.devsu.hackerearth.backend.client.dto;
 
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -24,7 +26,17 @@ import lombok.NoArgsConstructor;
  * given period.</li>
  * <li>{@code correlationId} – Identifier used to match this response to its
  * originating request.</li>
+ * <li>{@code chunkIndex} – Zero-based position of this message when the report
+ * is streamed in chunks; {@code null} for a report sent as one message.</li>
+ * <li>{@code lastChunk} – Whether this is the final chunk of a streamed
+ * report.</li>
  * </ul>
+ * <p>
+ * A streamed report is split into messages sharing the correlation ID and
+ * keyed by it, so they arrive in order. Each chunk carries a slice of the
+ * accounts; an account whose transactions span several chunks is repeated at
+ * the start of the next chunk with the remaining transactions.
+ * </p>
  *
  * Used in: Kafka messaging to deliver completed reports to consumers.
  * Produced by: {@code ReportService}
@@ -42,4 +54,8 @@ public class ReportResponseEvent {
     private ReportPeriod reportPeriod;
     private List<AccountData> accounts;
     private String correlationId;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer chunkIndex;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean lastChunk;
 }